@@ -440,7 +440,7 @@ public class GrpcUmsClient {
      * @param requestId an optional request Id
      * @return the account associated with this user CRN
      */
-    @Cacheable(cacheNames = "umsAccountCache", key = "{ #accountId }")
+    @Cacheable(cacheNames = "umsAccountCache", key = "{ #accountId }", sync = true)
     public Account getAccountDetails(String accountId, Optional<String> requestId) {
         UmsClient client = makeClient(channelWrapper.getChannel());
         LOGGER.debug("Getting information for account ID {} using request ID {}", accountId, requestId);
@@ -470,7 +470,7 @@ public class GrpcUmsClient {
         return makeCheckRightCall(userCrn, right, resource, requestId);
     }
 
-    @Cacheable(cacheNames = "umsUserRightsCache", key = "{ #userCrn, #right }")
+    @Cacheable(cacheNames = "umsUserRightsCache", key = "{ #userCrn, #right }", sync = true)
     public boolean checkAccountRight(String userCrn, String right, Optional<String> requestId) {
         if (InternalCrnBuilder.isInternalCrn(userCrn)) {
             LOGGER.info("InternalCrn, allow account right {} for user {}!", right, userCrn);
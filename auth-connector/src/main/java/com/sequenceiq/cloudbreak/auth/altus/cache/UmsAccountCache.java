@@ -39,4 +39,9 @@ public class UmsAccountCache extends AbstractCacheDefinition {
         }
         return ttlMinutes == 0L ? 1 : TimeUnit.MINUTES.toSeconds(ttlMinutes);
     }
+
+    @Override
+    protected boolean isSyncLoadCountingEnabled() {
+        return true;
+    }
 }
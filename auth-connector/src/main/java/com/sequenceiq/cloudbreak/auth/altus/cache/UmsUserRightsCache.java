@@ -22,6 +22,12 @@ public class UmsUserRightsCache extends AbstractCacheDefinition {
     @Value("${altus.ums.rights.cache.seconds.ttl:0}")
     private long ttlSeconds;
 
+    @Value("${altus.ums.rights.cache.seconds.refresh:0}")
+    private long refreshSeconds;
+
+    @Value("${altus.ums.rights.cache.seconds.stale:0}")
+    private long staleSeconds;
+
     @Override
     protected String getName() {
         return "umsUserRightsCache";
@@ -39,4 +45,19 @@ public class UmsUserRightsCache extends AbstractCacheDefinition {
         }
         return ttlMinutes == 0L ? 1 : TimeUnit.MINUTES.toSeconds(ttlMinutes);
     }
+
+    @Override
+    protected long getRefreshAfterWriteSeconds() {
+        return refreshSeconds;
+    }
+
+    @Override
+    protected long getStaleWhileRevalidateSeconds() {
+        return staleSeconds;
+    }
+
+    @Override
+    protected boolean isSyncLoadCountingEnabled() {
+        return true;
+    }
 }
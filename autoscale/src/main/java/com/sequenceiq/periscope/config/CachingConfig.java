@@ -26,6 +26,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.sequenceiq.cloudbreak.cache.CacheDefinition;
+import com.sequenceiq.cloudbreak.cache.invalidation.CacheInvalidationBus;
 
 @Configuration
 @EnableCaching
@@ -34,6 +35,9 @@ public class CachingConfig implements CachingConfigurer {
     @Inject
     private List<CacheDefinition> cacheDefinitions;
 
+    @Inject
+    private CacheInvalidationBus cacheInvalidationBus;
+
     private final Map<Class<?>, CacheDefinition> classCacheDefinitionMap = new HashMap<>();
 
     @PostConstruct
@@ -48,7 +52,10 @@ public class CachingConfig implements CachingConfigurer {
     @Bean
     public CacheManager cacheManager() {
         SimpleCacheManager simpleCacheManager = new SimpleCacheManager();
-        Set<Cache> caches = cacheDefinitions.stream().map(CacheDefinition::cacheConfiguration).collect(Collectors.toSet());
+        Set<Cache> caches = cacheDefinitions.stream()
+                .map(CacheDefinition::cacheConfiguration)
+                .map(cacheInvalidationBus::register)
+                .collect(Collectors.toSet());
         simpleCacheManager.setCaches(caches);
         simpleCacheManager.initializeCaches();
         return simpleCacheManager;
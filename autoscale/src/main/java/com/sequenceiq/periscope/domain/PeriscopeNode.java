@@ -19,6 +19,9 @@ public class PeriscopeNode implements Comparable<PeriscopeNode> {
     @Column(nullable = false)
     private boolean leader;
 
+    @Column(name = "queue_depth", nullable = false)
+    private int queueDepth;
+
     @Version
     private Long version;
 
@@ -53,6 +56,14 @@ public class PeriscopeNode implements Comparable<PeriscopeNode> {
         this.leader = leader;
     }
 
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
     public Long getVersion() {
         return version;
     }
@@ -91,6 +102,7 @@ public class PeriscopeNode implements Comparable<PeriscopeNode> {
         sb.append("uuid='").append(uuid).append('\'');
         sb.append("leader='").append(leader).append('\'');
         sb.append(", lastUpdated=").append(lastUpdated);
+        sb.append(", queueDepth=").append(queueDepth);
         sb.append('}');
         return sb.toString();
     }
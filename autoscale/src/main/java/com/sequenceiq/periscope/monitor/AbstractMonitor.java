@@ -1,5 +1,6 @@
 package com.sequenceiq.periscope.monitor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -31,6 +32,8 @@ public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M>
         evalContext(context);
         List<M> monitoredData = getMonitored();
         LOGGER.debug("Job started: {}, monitored: {}", context.getJobDetail().getKey(), monitoredData.size());
+        long evaluated = System.currentTimeMillis();
+        List<M> evaluatedData = new ArrayList<>(monitoredData.size());
         for (M monitored : monitoredData) {
             try {
                 EvaluatorExecutor evaluatorExecutor = getEvaluatorExecutorBean(monitored);
@@ -40,12 +43,15 @@ public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M>
                 // TODO CB-14972: The size of the queue needs to be logged occasionally.
                 LOGGER.debug("Successfully submitted {} for cluster {}.", evaluatorExecutor.getName(), evaluatorContext.getData());
                 rejectedThreadService.remove(evaluatorContext.getData());
-                monitored.setLastEvaluated(System.currentTimeMillis());
-                save(monitored);
+                monitored.setLastEvaluated(evaluated);
+                evaluatedData.add(monitored);
             } catch (RejectedExecutionException ignore) {
                 LOGGER.info("Error in processing monitor: {}", monitored, ignore);
             }
         }
+        if (!evaluatedData.isEmpty()) {
+            saveAll(evaluatedData);
+        }
     }
 
     void evalContext(JobExecutionContext context) {
@@ -67,6 +73,14 @@ public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M>
 
     protected abstract void save(M monitored);
 
+    /**
+     * Persists the evaluation of the monitored items submitted in one tick. Monitors which can store the evaluations of several items
+     * in one statement should override it instead of saving the items one by one.
+     */
+    protected void saveAll(List<M> monitored) {
+        monitored.forEach(this::save);
+    }
+
     protected RejectedThreadService getRejectedThreadService() {
         return rejectedThreadService;
     }
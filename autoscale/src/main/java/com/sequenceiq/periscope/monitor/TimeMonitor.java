@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.StackType;
 import com.sequenceiq.periscope.domain.Cluster;
 import com.sequenceiq.periscope.monitor.evaluator.CronTimeEvaluator;
+import com.sequenceiq.periscope.service.TimeAlertScheduleService;
 
 @Component
 @ConditionalOnProperty(prefix = "periscope.enabledAutoscaleMonitors.time-monitor", name = "enabled", havingValue = "true")
@@ -31,8 +32,13 @@ public class TimeMonitor extends ClusterMonitor {
 
     @Override
     protected List<Cluster> getMonitored() {
-        return getClusterService().findTimeAlertClusterIdsForPeriscopeNodeId(StackType.WORKLOAD, true, getPeriscopeNodeConfig().getId())
-                .stream().map(clusterId -> new Cluster(clusterId))
+        List<Long> clusterIds = getClusterService().findTimeAlertClusterIdsForPeriscopeNodeId(StackType.WORKLOAD, true,
+                getPeriscopeNodeConfig().getId());
+        TimeAlertScheduleService timeAlertScheduleService = getApplicationContext().getBean(TimeAlertScheduleService.class);
+        if (timeAlertScheduleService.isEnabled()) {
+            timeAlertScheduleService.refresh(clusterIds);
+        }
+        return clusterIds.stream().map(clusterId -> new Cluster(clusterId))
                 .collect(Collectors.toList());
     }
 }
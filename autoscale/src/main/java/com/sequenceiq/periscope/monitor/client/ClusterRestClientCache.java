@@ -0,0 +1,84 @@
+package com.sequenceiq.periscope.monitor.client;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+import javax.ws.rs.client.Client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.client.RestClientUtil;
+import com.sequenceiq.periscope.model.TlsConfiguration;
+
+/**
+ * Keeps one rest client per cluster, so the TLS material of the cluster is loaded and the connections to the cluster are opened only once
+ * instead of on every evaluation. The client of a cluster is replaced when the TLS configuration of the cluster changes.
+ */
+@Component
+public class ClusterRestClientCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterRestClientCache.class);
+
+    private final Map<Long, CachedClient> clients = new ConcurrentHashMap<>();
+
+    public Client getClient(Long clusterId, TlsConfiguration tlsConfig) throws Exception {
+        CachedClient cachedClient = clients.get(clusterId);
+        if (cachedClient != null && cachedClient.isCreatedFor(tlsConfig)) {
+            return cachedClient.getClient();
+        }
+        return createClient(clusterId, tlsConfig);
+    }
+
+    public void invalidate(Long clusterId) {
+        CachedClient cachedClient = clients.remove(clusterId);
+        if (cachedClient != null) {
+            LOGGER.debug("Rest client of cluster {} is removed from the cache", clusterId);
+            cachedClient.getClient().close();
+        }
+    }
+
+    @PreDestroy
+    public void closeClients() {
+        clients.keySet().forEach(this::invalidate);
+    }
+
+    private synchronized Client createClient(Long clusterId, TlsConfiguration tlsConfig) throws Exception {
+        CachedClient cachedClient = clients.get(clusterId);
+        if (cachedClient != null && cachedClient.isCreatedFor(tlsConfig)) {
+            return cachedClient.getClient();
+        }
+        Client client = RestClientUtil.createClient(tlsConfig.getServerCert(), tlsConfig.getClientCert(), tlsConfig.getClientKey(), true);
+        clients.put(clusterId, new CachedClient(tlsConfig, client));
+        if (cachedClient != null) {
+            LOGGER.info("TLS configuration of cluster {} has changed, its rest client is recreated", clusterId);
+            cachedClient.getClient().close();
+        }
+        return client;
+    }
+
+    private static class CachedClient {
+
+        private final TlsConfiguration tlsConfig;
+
+        private final Client client;
+
+        CachedClient(TlsConfiguration tlsConfig, Client client) {
+            this.tlsConfig = tlsConfig;
+            this.client = client;
+        }
+
+        boolean isCreatedFor(TlsConfiguration otherTlsConfig) {
+            return Objects.equals(tlsConfig.getServerCert(), otherTlsConfig.getServerCert())
+                    && Objects.equals(tlsConfig.getClientCert(), otherTlsConfig.getClientCert())
+                    && Objects.equals(tlsConfig.getClientKey(), otherTlsConfig.getClientKey());
+        }
+
+        Client getClient() {
+            return client;
+        }
+    }
+}
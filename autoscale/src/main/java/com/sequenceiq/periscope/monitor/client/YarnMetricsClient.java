@@ -1,7 +1,12 @@
 package com.sequenceiq.periscope.monitor.client;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import javax.inject.Inject;
 import javax.ws.rs.client.Client;
@@ -16,14 +21,16 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
-import com.sequenceiq.cloudbreak.client.RestClientUtil;
+import com.sequenceiq.cloudbreak.common.service.Clock;
 import com.sequenceiq.periscope.aspects.RequestLogging;
 import com.sequenceiq.periscope.domain.Cluster;
+import com.sequenceiq.periscope.domain.MetricType;
 import com.sequenceiq.periscope.model.InstanceConfig;
 import com.sequenceiq.periscope.model.TlsConfiguration;
 import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Request;
 import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Request.HostGroupInstanceType;
 import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Response;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
 import com.sequenceiq.periscope.service.configuration.ClusterProxyConfigurationService;
 import com.sequenceiq.periscope.service.security.TlsSecurityService;
 
@@ -41,6 +48,10 @@ public class YarnMetricsClient {
 
     private static final String DEFAULT_UPSCALE_RESOURCE_TYPE = "memory-mb";
 
+    private static final String CLUSTER_TAG = "cluster";
+
+    private static final String OUTCOME_TAG = "outcome";
+
     @Inject
     private TlsSecurityService tlsSecurityService;
 
@@ -53,16 +64,52 @@ public class YarnMetricsClient {
     @Inject
     private YarnServiceConfigClient yarnServiceConfigClient;
 
+    @Inject
+    private ClusterRestClientCache clusterRestClientCache;
+
+    @Inject
+    private PeriscopeMetricService metricService;
+
+    @Inject
+    private Clock clock;
+
+    private final Map<String, CompletableFuture<YarnScalingServiceV1Response>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Queries the YARN scaling API of the cluster. Concurrent queries for the same cluster and host group are coalesced, the callers which
+     * arrive while a query is in flight get the response of that query instead of sending another one.
+     */
     @Retryable(value = Exception.class, maxAttempts = 2, backoff = @Backoff(delay = 5000))
     public YarnScalingServiceV1Response getYarnMetricsForCluster(Cluster cluster, StackV4Response stackV4Response,
             String hostGroup, Optional<Integer> mandatoryDownScaleCount) throws Exception {
+        String requestKey = String.format("%s/%s/%s", cluster.getId(), hostGroup, mandatoryDownScaleCount.isPresent());
+        CompletableFuture<YarnScalingServiceV1Response> request = new CompletableFuture<>();
+        CompletableFuture<YarnScalingServiceV1Response> inFlightRequest = inFlightRequests.putIfAbsent(requestKey, request);
+        if (inFlightRequest != null) {
+            LOGGER.debug("YarnScalingAPI query for cluster crn '{}' and host group '{}' is already in flight, waiting for its response",
+                    cluster.getStackCrn(), hostGroup);
+            return waitForResponse(inFlightRequest);
+        }
+        try {
+            YarnScalingServiceV1Response yarnResponse = queryYarnMetrics(cluster, stackV4Response, hostGroup, mandatoryDownScaleCount);
+            request.complete(yarnResponse);
+            return yarnResponse;
+        } catch (Exception e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(requestKey, request);
+        }
+    }
+
+    private YarnScalingServiceV1Response queryYarnMetrics(Cluster cluster, StackV4Response stackV4Response,
+            String hostGroup, Optional<Integer> mandatoryDownScaleCount) throws Exception {
         TlsConfiguration tlsConfig = tlsSecurityService.getTls(cluster.getId());
         String clusterProxyUrl = clusterProxyConfigurationService.getClusterProxyUrl()
                 .orElseThrow(() -> new RuntimeException(String.format("ClusterProxy Not Configured for Cluster %s, " +
                         " cannot query YARN Metrics.", cluster.getStackCrn())));
 
-        Client restClient = RestClientUtil.createClient(tlsConfig.getServerCert(),
-                tlsConfig.getClientCert(), tlsConfig.getClientKey(), true);
+        Client restClient = clusterRestClientCache.getClient(cluster.getId(), tlsConfig);
         String yarnApiUrl = String.format(YARN_API_URL, clusterProxyUrl, cluster.getStackCrn());
 
         InstanceConfig instanceConfig = yarnServiceConfigClient.getInstanceConfigFromCM(cluster, stackV4Response, hostGroup);
@@ -78,14 +125,33 @@ public class YarnMetricsClient {
         mandatoryDownScaleCount.ifPresent(
                 scaleDownCount -> yarnMetricsURI.queryParam(PARAM_DOWNSCALE_FACTOR_IN_NODE_COUNT, stackV4Response.getNodeCount()));
 
-        YarnScalingServiceV1Response yarnResponse = requestLogging.logResponseTime(
-                () -> restClient.target(yarnMetricsURI).request()
-                        .accept(MediaType.APPLICATION_JSON_VALUE)
-                        .header(HEADER_ACTOR_CRN, clusterCreatorCrn)
-                        .post(Entity.json(yarnScalingServiceV1Request), YarnScalingServiceV1Response.class),
-                String.format("YarnScalingAPI query for cluster crn '%s'", cluster.getStackCrn()));
+        long start = clock.getCurrentTimeMillis();
+        boolean succeeded = false;
+        try {
+            YarnScalingServiceV1Response yarnResponse = requestLogging.logResponseTime(
+                    () -> restClient.target(yarnMetricsURI).request()
+                            .accept(MediaType.APPLICATION_JSON_VALUE)
+                            .header(HEADER_ACTOR_CRN, clusterCreatorCrn)
+                            .post(Entity.json(yarnScalingServiceV1Request), YarnScalingServiceV1Response.class),
+                    String.format("YarnScalingAPI query for cluster crn '%s'", cluster.getStackCrn()));
+            succeeded = true;
+            LOGGER.info("YarnScalingAPI response for cluster crn '{}',  response '{}'", cluster.getStackCrn(), yarnResponse);
+            return yarnResponse;
+        } finally {
+            metricService.recordLatencyHistogram(MetricType.YARN_METRICS_REQUEST, Duration.ofMillis(clock.getCurrentTimeMillis() - start),
+                    CLUSTER_TAG, cluster.getStackCrn(), OUTCOME_TAG, succeeded ? "success" : "failure");
+        }
+    }
 
-        LOGGER.info("YarnScalingAPI response for cluster crn '{}',  response '{}'", cluster.getStackCrn(), yarnResponse);
-        return yarnResponse;
+    private YarnScalingServiceV1Response waitForResponse(CompletableFuture<YarnScalingServiceV1Response> inFlightRequest) throws Exception {
+        try {
+            return inFlightRequest.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
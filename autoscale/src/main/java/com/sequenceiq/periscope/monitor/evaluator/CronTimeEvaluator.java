@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -36,6 +37,7 @@ import com.sequenceiq.periscope.repository.TimeAlertRepository;
 import com.sequenceiq.periscope.service.ClusterService;
 import com.sequenceiq.periscope.service.DateService;
 import com.sequenceiq.periscope.service.HistoryService;
+import com.sequenceiq.periscope.service.TimeAlertScheduleService;
 import com.sequenceiq.periscope.utils.LoggingUtils;
 import com.sequenceiq.periscope.utils.StackResponseUtils;
 
@@ -80,6 +82,9 @@ public class CronTimeEvaluator extends EvaluatorExecutor {
     @Inject
     private CloudbreakMessagesService messagesService;
 
+    @Inject
+    private TimeAlertScheduleService timeAlertScheduleService;
+
     private long clusterId;
 
     @Override
@@ -113,16 +118,29 @@ public class CronTimeEvaluator extends EvaluatorExecutor {
     @Override
     public void execute() {
         long start = System.currentTimeMillis();
+        Predicate<TimeAlert> trigger = this::isTrigger;
+        if (timeAlertScheduleService.isEnabled()) {
+            Map<Long, ZonedDateTime> dueAlerts = timeAlertScheduleService.takeDueAlerts(clusterId);
+            if (dueAlerts.isEmpty()) {
+                LOGGER.debug("No time alert of cluster {} fired since the last evaluation", clusterId);
+                return;
+            }
+            trigger = alert -> dueAlerts.containsKey(alert.getId()) && isTrigger(alert, dueAlerts.get(alert.getId()));
+        }
         Cluster cluster = clusterService.findById(clusterId);
         LoggingUtils.buildMdcContext(cluster);
-        publishIfNeeded(alertRepository.findAllByClusterIdOrderById(clusterId));
+        publishIfNeeded(alertRepository.findAllByClusterIdOrderById(clusterId), trigger);
         LOGGER.debug("Finished cronTimeEvaluator for cluster {} in {} ms", cluster.getStackCrn(), System.currentTimeMillis() - start);
     }
 
     protected void publishIfNeeded(List<TimeAlert> alerts) {
+        publishIfNeeded(alerts, this::isTrigger);
+    }
+
+    private void publishIfNeeded(List<TimeAlert> alerts, Predicate<TimeAlert> trigger) {
         TimeAlert triggeredAlert = null;
         for (TimeAlert alert : alerts) {
-            boolean alertTriggerable = isTrigger(alert);
+            boolean alertTriggerable = trigger.test(alert);
             if (isPolicyAttached(alert) && alertTriggerable && null == triggeredAlert) {
                 publish(alert);
                 triggeredAlert = alert;
@@ -2,11 +2,17 @@ package com.sequenceiq.periscope.monitor.evaluator;
 
 import static java.lang.Math.ceil;
 
+import java.util.List;
+import java.util.OptionalInt;
+
 import javax.inject.Inject;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.periscope.domain.ScalingPolicy;
+import com.sequenceiq.periscope.monitor.evaluator.load.YarnLoadHistory;
 import com.sequenceiq.periscope.monitor.event.ScalingEvent;
 import com.sequenceiq.periscope.monitor.handler.CloudbreakCommunicator;
 import com.sequenceiq.periscope.utils.ClusterUtils;
@@ -15,12 +21,17 @@ import com.sequenceiq.periscope.utils.StackResponseUtils;
 @Component
 public class ScalingPolicyTargetCalculator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScalingPolicyTargetCalculator.class);
+
     @Inject
     private StackResponseUtils stackResponseUtils;
 
     @Inject
     private CloudbreakCommunicator cloudbreakCommunicator;
 
+    @Inject
+    private YarnLoadHistory yarnLoadHistory;
+
     public Integer getDesiredAbsoluteNodeCount(ScalingEvent event, int hostGroupNodeCount) {
         ScalingPolicy policy = event.getAlert().getScalingPolicy();
         int scalingAdjustment = policy.getScalingAdjustment();
@@ -42,4 +53,41 @@ public class ScalingPolicyTargetCalculator {
         int minSize = ScalingConstants.DEFAULT_HOSTGROUP_MIN_SIZE;
         return desiredAbsoluteHostGroupNodeCount < minSize ? minSize : desiredAbsoluteHostGroupNodeCount;
     }
+
+    /**
+     * Returns the number of nodes to add to the host group so it can serve the demand forecasted for the lead time, limited the same way
+     * as the YARN recommendation. The YARN recommended count is returned if it is higher or there is no forecast for the host group.
+     */
+    public int getForecastedScaleUpCount(Long clusterId, String hostGroup, int existingHostGroupSize, int yarnRecommendedScaleUpCount,
+            int maxAllowedUpScale, int maxScaleUpStepSize) {
+        OptionalInt forecastedDemand = yarnLoadHistory.forecastDemand(clusterId, hostGroup);
+        if (forecastedDemand.isEmpty()) {
+            return yarnRecommendedScaleUpCount;
+        }
+        int forecastedScaleUpCount = Math.min(forecastedDemand.getAsInt() - existingHostGroupSize, Math.min(maxAllowedUpScale, maxScaleUpStepSize));
+        if (forecastedScaleUpCount > yarnRecommendedScaleUpCount) {
+            LOGGER.info("Forecasted demand of host group '{}' is {} nodes, scaling up with {} nodes instead of the YARN recommended {}",
+                    hostGroup, forecastedDemand.getAsInt(), forecastedScaleUpCount, yarnRecommendedScaleUpCount);
+            return forecastedScaleUpCount;
+        }
+        return yarnRecommendedScaleUpCount;
+    }
+
+    /**
+     * Keeps only as many of the YARN recommended decommission hosts as the host group can lose without getting below the demand forecasted
+     * for the lead time, so nodes are not removed right before a recurring peak.
+     */
+    public List<String> limitDecommissionByForecast(Long clusterId, String hostGroup, int existingHostGroupSize, List<String> decommissionHosts) {
+        OptionalInt forecastedDemand = yarnLoadHistory.forecastDemand(clusterId, hostGroup);
+        if (forecastedDemand.isEmpty() || decommissionHosts.isEmpty()) {
+            return decommissionHosts;
+        }
+        int allowedDecommissionCount = Math.max(0, existingHostGroupSize - forecastedDemand.getAsInt());
+        if (allowedDecommissionCount < decommissionHosts.size()) {
+            LOGGER.info("Forecasted demand of host group '{}' is {} nodes, decommissioning {} nodes instead of the YARN recommended {}",
+                    hostGroup, forecastedDemand.getAsInt(), allowedDecommissionCount, decommissionHosts.size());
+            return decommissionHosts.subList(0, allowedDecommissionCount);
+        }
+        return decommissionHosts;
+    }
 }
\ No newline at end of file
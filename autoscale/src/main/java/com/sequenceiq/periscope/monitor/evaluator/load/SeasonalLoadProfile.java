@@ -0,0 +1,83 @@
+package com.sequenceiq.periscope.monitor.evaluator.load;
+
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily profile of the node demand of a host group. The day is divided into fixed slots, and every slot keeps the exponentially weighted
+ * moving average of the peak demand observed in that slot on the previous days, so the memory used by a profile does not grow with time.
+ */
+class SeasonalLoadProfile {
+
+    private static final long DAY_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final long slotMillis;
+
+    private final double smoothingFactor;
+
+    private final double[] averagePeaks;
+
+    private final int[] observedDays;
+
+    private final long[] currentDays;
+
+    private final int[] currentPeaks;
+
+    SeasonalLoadProfile(long slotMillis, double smoothingFactor) {
+        this.slotMillis = slotMillis;
+        this.smoothingFactor = smoothingFactor;
+        int slots = (int) (DAY_IN_MILLIS / slotMillis);
+        averagePeaks = new double[slots];
+        observedDays = new int[slots];
+        currentDays = new long[slots];
+        currentPeaks = new int[slots];
+    }
+
+    synchronized void record(long timestamp, int demand) {
+        int slot = getSlot(timestamp);
+        long day = timestamp / DAY_IN_MILLIS;
+        if (currentDays[slot] != day) {
+            closeDay(slot);
+            currentDays[slot] = day;
+            currentPeaks[slot] = demand;
+        } else {
+            currentPeaks[slot] = Math.max(currentPeaks[slot], demand);
+        }
+    }
+
+    /**
+     * Returns the highest expected demand in the slots between the two timestamps, based only on the days which are already over,
+     * or empty if the profile has not been observed on enough days in those slots.
+     */
+    synchronized OptionalInt forecastPeak(long from, long to, int minDays) {
+        double peak = -1;
+        for (long timestamp = from; timestamp <= to; timestamp += slotMillis) {
+            int slot = getSlot(timestamp);
+            int days = observedDays[slot];
+            double average = averagePeaks[slot];
+            if (currentDays[slot] < timestamp / DAY_IN_MILLIS && currentDays[slot] != 0) {
+                days++;
+                average = smooth(slot, currentPeaks[slot]);
+            }
+            if (days >= minDays) {
+                peak = Math.max(peak, average);
+            }
+        }
+        return peak < 0 ? OptionalInt.empty() : OptionalInt.of((int) Math.ceil(peak));
+    }
+
+    private void closeDay(int slot) {
+        if (currentDays[slot] != 0) {
+            averagePeaks[slot] = smooth(slot, currentPeaks[slot]);
+            observedDays[slot]++;
+        }
+    }
+
+    private double smooth(int slot, int peak) {
+        return observedDays[slot] == 0 ? peak : smoothingFactor * peak + (1 - smoothingFactor) * averagePeaks[slot];
+    }
+
+    private int getSlot(long timestamp) {
+        return (int) ((timestamp % DAY_IN_MILLIS) / slotMillis);
+    }
+}
@@ -22,6 +22,7 @@ import com.sequenceiq.periscope.monitor.context.ClusterIdEvaluatorContext;
 import com.sequenceiq.periscope.monitor.context.EvaluatorContext;
 import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
 import com.sequenceiq.periscope.monitor.evaluator.EventPublisher;
+import com.sequenceiq.periscope.monitor.evaluator.ScalingPolicyTargetCalculator;
 import com.sequenceiq.periscope.monitor.event.ScalingEvent;
 import com.sequenceiq.periscope.monitor.event.UpdateFailedEvent;
 import com.sequenceiq.periscope.monitor.handler.CloudbreakCommunicator;
@@ -59,6 +60,12 @@ public class YarnLoadEvaluator extends EvaluatorExecutor {
     @Inject
     private YarnResponseUtils yarnResponseUtils;
 
+    @Inject
+    private YarnLoadHistory yarnLoadHistory;
+
+    @Inject
+    private ScalingPolicyTargetCalculator scalingPolicyTargetCalculator;
+
     private long clusterId;
 
     private Cluster cluster;
@@ -138,6 +145,15 @@ public class YarnLoadEvaluator extends EvaluatorExecutor {
                 getYarnRecommendedDecommissionHostsForHostGroup(cluster.getStackCrn(), yarnResponse,
                         hostFqdnsToInstanceId, maxAllowedDownScale, mandatoryDownScaleCount, loadAlertConfiguration.getMaxScaleDownStepSize());
 
+        if (yarnLoadHistory.isEnabled()) {
+            yarnLoadHistory.record(clusterId, policyHostGroup,
+                    existingHostGroupSize + yarnRecommendedScaleUpCount - yarnRecommendedDecommissionHosts.size());
+            yarnRecommendedScaleUpCount = scalingPolicyTargetCalculator.getForecastedScaleUpCount(clusterId, policyHostGroup,
+                    existingHostGroupSize, yarnRecommendedScaleUpCount, maxAllowedUpScale, loadAlertConfiguration.getMaxScaleUpStepSize());
+            yarnRecommendedDecommissionHosts = scalingPolicyTargetCalculator.limitDecommissionByForecast(clusterId, policyHostGroup,
+                    existingHostGroupSize, yarnRecommendedDecommissionHosts);
+        }
+
         LOGGER.info("yarnRecommendedScaleUpCount={}, yarnRecommendedDecommssion={}", yarnRecommendedScaleUpCount, yarnRecommendedDecommissionHosts);
 
         if (yarnRecommendedScaleUpCount > 0 && isCoolDownTimeElapsed(cluster.getStackCrn(), "scaled-up",
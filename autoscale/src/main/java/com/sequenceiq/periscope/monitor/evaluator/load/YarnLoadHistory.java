@@ -0,0 +1,93 @@
+package com.sequenceiq.periscope.monitor.evaluator.load;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+
+/**
+ * Stores the node demand of the load based host groups derived from the YARN recommendations, and forecasts the demand of the near future
+ * from the same time of the previous days. The history is kept in memory by the node which monitors the cluster.
+ */
+@Component
+public class YarnLoadHistory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(YarnLoadHistory.class);
+
+    @Value("${periscope.predictive-scaling.enabled:false}")
+    private boolean enabled;
+
+    @Value("${periscope.predictive-scaling.slot-minutes:5}")
+    private int slotMinutes;
+
+    @Value("${periscope.predictive-scaling.lead-time-minutes:30}")
+    private int leadTimeMinutes;
+
+    @Value("${periscope.predictive-scaling.min-days:2}")
+    private int minDays;
+
+    @Value("${periscope.predictive-scaling.smoothing-factor:0.3}")
+    private double smoothingFactor;
+
+    @Value("${periscope.predictive-scaling.max-profiles:10000}")
+    private int maxProfiles;
+
+    @Inject
+    private Clock clock;
+
+    private final Map<String, SeasonalLoadProfile> profiles = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the demand of the host group, which is the number of nodes the host group would have after applying the YARN recommendation.
+     */
+    public void record(Long clusterId, String hostGroup, int demand) {
+        if (!enabled) {
+            return;
+        }
+        String key = getKey(clusterId, hostGroup);
+        SeasonalLoadProfile profile = profiles.get(key);
+        if (profile == null) {
+            if (profiles.size() >= maxProfiles) {
+                LOGGER.info("Load history of cluster {} host group {} is not recorded, the limit of {} profiles is reached", clusterId, hostGroup,
+                        maxProfiles);
+                return;
+            }
+            profile = profiles.computeIfAbsent(key, k -> new SeasonalLoadProfile(TimeUnit.MINUTES.toMillis(slotMinutes), smoothingFactor));
+        }
+        profile.record(clock.getCurrentTimeMillis(), demand);
+    }
+
+    /**
+     * Returns the highest demand expected for the host group within the lead time, if the host group has enough history for a forecast.
+     */
+    public OptionalInt forecastDemand(Long clusterId, String hostGroup) {
+        SeasonalLoadProfile profile = enabled ? profiles.get(getKey(clusterId, hostGroup)) : null;
+        if (profile == null) {
+            return OptionalInt.empty();
+        }
+        long now = clock.getCurrentTimeMillis();
+        return profile.forecastPeak(now, now + TimeUnit.MINUTES.toMillis(leadTimeMinutes), minDays);
+    }
+
+    public void remove(Long clusterId) {
+        String prefix = clusterId + "/";
+        profiles.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private String getKey(Long clusterId, String hostGroup) {
+        return clusterId + "/" + hostGroup;
+    }
+}
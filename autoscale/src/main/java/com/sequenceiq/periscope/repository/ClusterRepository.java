@@ -72,6 +72,13 @@ public interface ClusterRepository extends CrudRepository<Cluster, Long> {
 
     List<Cluster> findAllByPeriscopeNodeIdNotInOrPeriscopeNodeIdIsNull(List<String> nodes);
 
+    @Query("SELECT c.id FROM Cluster c WHERE c.periscopeNodeId IN :periscopeNodeIds")
+    List<Long> findClusterIdsByPeriscopeNodeIdIn(@Param("periscopeNodeIds") List<String> periscopeNodeIds);
+
+    @Modifying
+    @Query("UPDATE Cluster c SET c.periscopeNodeId = :periscopeNodeId WHERE c.id IN :clusterIds")
+    void allocateClustersToNode(@Param("clusterIds") List<Long> clusterIds, @Param("periscopeNodeId") String periscopeNodeId);
+
     @Modifying
     @Query("UPDATE Cluster c SET c.periscopeNodeId = NULL WHERE c.periscopeNodeId = :periscopeNodeId")
     void deallocateClustersOfNode(@Param("periscopeNodeId") String periscopeNodeId);
@@ -80,6 +87,10 @@ public interface ClusterRepository extends CrudRepository<Cluster, Long> {
     @Query("UPDATE Cluster c SET c.lastEvaluated = :lastEvaluated WHERE c.id = :clusterId")
     void setClusterLastEvaluated(@Param("clusterId") Long clusterId, @Param("lastEvaluated") Long lastEvaluated);
 
+    @Modifying
+    @Query("UPDATE Cluster c SET c.lastEvaluated = :lastEvaluated WHERE c.id IN :clusterIds")
+    void setClustersLastEvaluated(@Param("clusterIds") List<Long> clusterIds, @Param("lastEvaluated") Long lastEvaluated);
+
     @Modifying
     @Query("UPDATE Cluster c SET c.lastScalingActivity = :lastScalingActivity WHERE c.id = :clusterId")
     void setClusterLastScalingActivity(@Param("clusterId") Long clusterId, @Param("lastScalingActivity") Long lastScalingActivity);
@@ -6,6 +6,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import javax.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 @EntityType(entityClass = TimeAlert.class)
@@ -15,4 +16,6 @@ public interface TimeAlertRepository extends CrudRepository<TimeAlert, Long> {
     TimeAlert findByCluster(@Param("alertId") Long alertId, @Param("clusterId") Long clusterId);
 
     List<TimeAlert> findAllByClusterIdOrderById(@Param("clusterId") Long clusterId);
+
+    List<TimeAlert> findAllByClusterIdIn(@Param("clusterIds") Collection<Long> clusterIds);
 }
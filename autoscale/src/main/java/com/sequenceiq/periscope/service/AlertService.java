@@ -37,6 +37,9 @@ public class AlertService {
     @Inject
     private RegionAwareCrnGenerator regionAwareCrnGenerator;
 
+    @Inject
+    private TimeAlertScheduleService timeAlertScheduleService;
+
     public TimeAlert createTimeAlert(Long clusterId, TimeAlert alert) {
         Cluster cluster = clusterService.findById(clusterId);
         alert.setCluster(cluster);
@@ -44,6 +47,7 @@ public class AlertService {
         alert = (TimeAlert) save(alert);
         cluster.addTimeAlert(alert);
         clusterService.save(cluster);
+        timeAlertScheduleService.invalidate(clusterId);
         return alert;
     }
 
@@ -68,6 +72,7 @@ public class AlertService {
             alert.getScalingPolicy().setScalingAdjustment(timeAlertForUpdate.getScalingPolicy().getScalingAdjustment());
             alert.getScalingPolicy().setHostGroup(timeAlertForUpdate.getScalingPolicy().getHostGroup());
         }
+        timeAlertScheduleService.invalidate(clusterId);
         return timeAlertRepository.save(alert);
     }
 
@@ -82,6 +87,7 @@ public class AlertService {
         cluster.setTimeAlerts(removeTimeAlert(cluster, alertId));
         timeAlertRepository.delete(timeAlert);
         clusterService.save(cluster);
+        timeAlertScheduleService.invalidate(clusterId);
     }
 
     public Set<TimeAlert> removeTimeAlert(Cluster cluster, Long alertId) {
@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.ClusterManagerVariant;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.StackType;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.AutoscaleStackV4Response;
@@ -32,6 +33,8 @@ import com.sequenceiq.periscope.domain.ClusterPertain;
 import com.sequenceiq.periscope.domain.MetricType;
 import com.sequenceiq.periscope.domain.SecurityConfig;
 import com.sequenceiq.periscope.model.MonitoredStack;
+import com.sequenceiq.periscope.monitor.client.ClusterRestClientCache;
+import com.sequenceiq.periscope.monitor.evaluator.load.YarnLoadHistory;
 import com.sequenceiq.periscope.repository.ClusterPertainRepository;
 import com.sequenceiq.periscope.repository.ClusterRepository;
 import com.sequenceiq.periscope.repository.SecurityConfigRepository;
@@ -44,6 +47,8 @@ public class ClusterService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClusterService.class);
 
+    private static final int LAST_EVALUATED_BATCH_SIZE = 1000;
+
     @Inject
     private ClusterRepository clusterRepository;
 
@@ -65,6 +70,15 @@ public class ClusterService {
     @Inject
     private CloudbreakMessagesService messagesService;
 
+    @Inject
+    private TimeAlertScheduleService timeAlertScheduleService;
+
+    @Inject
+    private ClusterRestClientCache clusterRestClientCache;
+
+    @Inject
+    private YarnLoadHistory yarnLoadHistory;
+
     @PostConstruct
     protected void init() {
         calculateClusterStateMetrics();
@@ -163,6 +177,8 @@ public class ClusterService {
         Cluster cluster = findById(clusterId);
         LoggingUtils.buildMdcContext(cluster);
         clusterRepository.delete(cluster);
+        clusterRestClientCache.invalidate(clusterId);
+        yarnLoadHistory.remove(clusterId);
         calculateClusterStateMetrics();
     }
 
@@ -212,6 +228,12 @@ public class ClusterService {
         clusterRepository.setClusterLastEvaluated(clusterId, lastEvaluated);
     }
 
+    public void setLastEvaluated(List<Long> clusterIds, Long lastEvaluated) {
+        Lists.partition(clusterIds, LAST_EVALUATED_BATCH_SIZE)
+                .forEach(batch -> clusterRepository.setClustersLastEvaluated(batch, lastEvaluated));
+        LOGGER.debug("Last evaluated time of {} clusters is set to {}", clusterIds.size(), lastEvaluated);
+    }
+
     public void setLastScalingActivity(Long clusterId, Long lastScalingActivity) {
         clusterRepository.setClusterLastScalingActivity(clusterId, lastScalingActivity);
     }
@@ -268,6 +290,7 @@ public class ClusterService {
         cluster.getLoadAlerts().clear();
         cluster.getTimeAlerts().clear();
         save(cluster);
+        timeAlertScheduleService.invalidate(clusterId);
         return cluster;
     }
 
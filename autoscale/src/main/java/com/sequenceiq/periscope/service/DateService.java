@@ -7,6 +7,8 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.Optional;
+import java.util.TimeZone;
 
 import javax.inject.Inject;
 
@@ -53,6 +55,34 @@ public final class DateService {
         }
     }
 
+    /**
+     * Calculates the last time in the (from, to] interval when the cron expression of the alert fires in the time zone of the alert.
+     */
+    public Optional<ZonedDateTime> getLastFireTime(TimeAlert alert, ZonedDateTime from, ZonedDateTime to) {
+        try {
+            CronSequenceGenerator cronExpression = getCronExpression(alert.getCron(), alert.getTimeZone());
+            Date end = Date.from(to.toInstant());
+            Date lastFireTime = null;
+            Date fireTime = cronExpression.next(Date.from(from.toInstant()));
+            while (!fireTime.after(end)) {
+                lastFireTime = fireTime;
+                fireTime = cronExpression.next(fireTime);
+            }
+            return Optional.ofNullable(lastFireTime).map(time -> ZonedDateTime.ofInstant(time.toInstant(), to.getZone()));
+        } catch (ParseException e) {
+            LOGGER.error("Invalid cron expression '{}', cluster '{}'", e.getMessage(), alert.getCluster().getStackCrn());
+            return Optional.empty();
+        }
+    }
+
+    public CronSequenceGenerator getCronExpression(String cron, String timeZone) throws ParseException {
+        try {
+            return timeZone == null ? new CronSequenceGenerator(cron) : new CronSequenceGenerator(cron, TimeZone.getTimeZone(ZoneId.of(timeZone)));
+        } catch (Exception ex) {
+            throw new ParseException(ex.getMessage(), 0);
+        }
+    }
+
     public CronSequenceGenerator getCronExpression(String cron) throws ParseException {
         try {
             return new CronSequenceGenerator(cron);
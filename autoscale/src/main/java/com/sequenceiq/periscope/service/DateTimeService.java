@@ -3,7 +3,6 @@ package com.sequenceiq.periscope.service;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 
 import org.springframework.stereotype.Service;
 
@@ -17,8 +16,4 @@ public class DateTimeService {
     public ZonedDateTime getZonedDateTime(Instant instant, String timeZone) {
         return ZonedDateTime.ofInstant(instant, ZoneId.of(timeZone));
     }
-
-    public ZonedDateTime getNextSecound(ZonedDateTime now) {
-        return now.withNano(0).plus(1L, ChronoUnit.SECONDS);
-    }
 }
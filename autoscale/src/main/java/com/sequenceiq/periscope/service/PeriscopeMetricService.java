@@ -1,5 +1,6 @@
 package com.sequenceiq.periscope.service;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 import javax.annotation.PostConstruct;
@@ -9,6 +10,9 @@ import org.springframework.stereotype.Service;
 import com.sequenceiq.cloudbreak.common.metrics.AbstractMetricService;
 import com.sequenceiq.periscope.domain.MetricType;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 @Service("MetricService")
 public class PeriscopeMetricService extends AbstractMetricService {
 
@@ -17,7 +21,7 @@ public class PeriscopeMetricService extends AbstractMetricService {
     @PostConstruct
     protected void init() {
         Arrays.stream(MetricType.values())
-                .filter(m -> !gaugeMetric(m))
+                .filter(m -> !gaugeMetric(m) && !latencyMetric(m))
                 .forEach(this::initMicrometerMetricCounter);
 
         Arrays.stream(MetricType.values())
@@ -25,8 +29,23 @@ public class PeriscopeMetricService extends AbstractMetricService {
                 .forEach(m -> submit(m, 0));
     }
 
+    /**
+     * Records the duration to a timer which also publishes a percentile histogram, so the latency distribution can be queried per tag.
+     */
+    public void recordLatencyHistogram(MetricType metric, Duration duration, String... tags) {
+        Timer.builder(METRIC_PREFIX + '.' + metric.getMetricName())
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(duration);
+    }
+
     @Override
     protected String getMetricPrefix() {
         return METRIC_PREFIX;
     }
+
+    private boolean latencyMetric(MetricType metric) {
+        return metric.getMetricName().endsWith("latency");
+    }
 }
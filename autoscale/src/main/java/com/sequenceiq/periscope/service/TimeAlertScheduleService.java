@@ -0,0 +1,240 @@
+package com.sequenceiq.periscope.service;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronSequenceGenerator;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.periscope.domain.TimeAlert;
+import com.sequenceiq.periscope.monitor.MonitorUpdateRate;
+import com.sequenceiq.periscope.repository.TimeAlertRepository;
+
+/**
+ * Keeps the next fire time of the time alerts of the clusters monitored by this node in a priority queue, so on every tick of the time monitor
+ * only the alerts that actually fired are processed instead of evaluating the cron expression of every alert of every cluster.
+ * The schedule of a cluster is reloaded when the cluster is assigned to this node, when its alerts are changed through this node,
+ * and periodically to pick up the changes made through the other nodes.
+ */
+@Service
+public class TimeAlertScheduleService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeAlertScheduleService.class);
+
+    private static final Comparator<ScheduledFire> FIRE_ORDER = Comparator.comparingLong(ScheduledFire::getFireTime)
+            .thenComparingLong(ScheduledFire::getAlertId);
+
+    @Value("${periscope.time-alert.schedule.enabled:true}")
+    private boolean enabled;
+
+    @Value("${periscope.time-alert.schedule.resync-interval-ms:300000}")
+    private long resyncInterval;
+
+    @Inject
+    private TimeAlertRepository timeAlertRepository;
+
+    @Inject
+    private DateService dateService;
+
+    @Inject
+    private Clock clock;
+
+    private final NavigableSet<ScheduledFire> fireQueue = new TreeSet<>(FIRE_ORDER);
+
+    private final Map<Long, ScheduledFire> scheduledFireByAlertId = new HashMap<>();
+
+    private final Map<Long, Set<Long>> alertIdsByClusterId = new HashMap<>();
+
+    private final Map<Long, Map<Long, Long>> dueFiresByClusterId = new HashMap<>();
+
+    private final Set<Long> invalidatedClusterIds = new HashSet<>();
+
+    private long lastResync;
+
+    private long lastDrain;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the schedule of the cluster outdated, so it is reloaded on the next tick of the time monitor.
+     */
+    public synchronized void invalidate(Long clusterId) {
+        invalidatedClusterIds.add(clusterId);
+    }
+
+    /**
+     * Synchronizes the schedule with the time alerts of the given clusters, and moves the alerts that fired since the previous tick
+     * to the due alerts of their cluster. Called by the time monitor on every tick.
+     */
+    public synchronized void refresh(Collection<Long> clusterIds) {
+        long now = clock.getCurrentTimeMillis();
+        long windowStart = Math.max(lastDrain, now - MonitorUpdateRate.CRON_UPDATE_RATE_IN_MILLIS);
+        Set<Long> currentClusterIds = Set.copyOf(clusterIds);
+        Set<Long> removedClusterIds = alertIdsByClusterId.keySet().stream()
+                .filter(clusterId -> !currentClusterIds.contains(clusterId))
+                .collect(Collectors.toSet());
+        removedClusterIds.forEach(this::removeCluster);
+        Set<Long> clusterIdsToLoad = getClusterIdsToLoad(currentClusterIds, now);
+        if (!clusterIdsToLoad.isEmpty()) {
+            loadClusters(clusterIdsToLoad, windowStart);
+        }
+        invalidatedClusterIds.clear();
+        drain(now);
+        lastDrain = now;
+    }
+
+    /**
+     * Returns and forgets the alerts of the cluster which fired since they were taken last time, together with their fire time.
+     */
+    public synchronized Map<Long, ZonedDateTime> takeDueAlerts(Long clusterId) {
+        Map<Long, Long> dueFires = dueFiresByClusterId.remove(clusterId);
+        if (dueFires == null) {
+            return Map.of();
+        }
+        return dueFires.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> ZonedDateTime.ofInstant(Instant.ofEpochMilli(entry.getValue()), ZoneId.systemDefault())));
+    }
+
+    private Set<Long> getClusterIdsToLoad(Set<Long> currentClusterIds, long now) {
+        if (now - lastResync >= resyncInterval) {
+            lastResync = now;
+            return currentClusterIds;
+        }
+        return currentClusterIds.stream()
+                .filter(clusterId -> !alertIdsByClusterId.containsKey(clusterId) || invalidatedClusterIds.contains(clusterId))
+                .collect(Collectors.toSet());
+    }
+
+    private void loadClusters(Set<Long> clusterIds, long windowStart) {
+        List<TimeAlert> timeAlerts = timeAlertRepository.findAllByClusterIdIn(clusterIds);
+        LOGGER.debug("Loaded {} time alerts of {} clusters to the schedule", timeAlerts.size(), clusterIds.size());
+        Map<Long, TimeAlert> timeAlertsById = timeAlerts.stream().collect(Collectors.toMap(TimeAlert::getId, Function.identity()));
+        for (Long clusterId : clusterIds) {
+            Set<Long> alertIds = alertIdsByClusterId.computeIfAbsent(clusterId, id -> new HashSet<>());
+            Set<Long> deletedAlertIds = alertIds.stream().filter(alertId -> !timeAlertsById.containsKey(alertId)).collect(Collectors.toSet());
+            deletedAlertIds.forEach(this::unschedule);
+            alertIds.removeAll(deletedAlertIds);
+        }
+        for (TimeAlert timeAlert : timeAlerts) {
+            ScheduledFire scheduledFire = scheduledFireByAlertId.get(timeAlert.getId());
+            if (scheduledFire == null || !scheduledFire.hasSameSchedule(timeAlert)) {
+                unschedule(timeAlert.getId());
+                schedule(timeAlert, windowStart);
+            }
+        }
+    }
+
+    private void schedule(TimeAlert timeAlert, long windowStart) {
+        Long clusterId = timeAlert.getCluster().getId();
+        try {
+            CronSequenceGenerator cronExpression = dateService.getCronExpression(timeAlert.getCron(), timeAlert.getTimeZone());
+            ScheduledFire scheduledFire = new ScheduledFire(timeAlert, clusterId, cronExpression, cronExpression.next(new Date(windowStart)).getTime());
+            scheduledFireByAlertId.put(scheduledFire.getAlertId(), scheduledFire);
+            fireQueue.add(scheduledFire);
+            alertIdsByClusterId.computeIfAbsent(clusterId, id -> new HashSet<>()).add(scheduledFire.getAlertId());
+        } catch (ParseException e) {
+            LOGGER.warn("Time alert '{}' of cluster {} is not scheduled because of invalid cron expression: {}", timeAlert.getName(), clusterId,
+                    e.getMessage());
+        }
+    }
+
+    private void unschedule(Long alertId) {
+        ScheduledFire scheduledFire = scheduledFireByAlertId.remove(alertId);
+        if (scheduledFire != null) {
+            fireQueue.remove(scheduledFire);
+        }
+    }
+
+    private void removeCluster(Long clusterId) {
+        Set<Long> alertIds = alertIdsByClusterId.remove(clusterId);
+        if (alertIds != null) {
+            alertIds.forEach(this::unschedule);
+        }
+        dueFiresByClusterId.remove(clusterId);
+    }
+
+    private void drain(long now) {
+        long windowStart = now - MonitorUpdateRate.CRON_UPDATE_RATE_IN_MILLIS;
+        while (!fireQueue.isEmpty() && fireQueue.first().getFireTime() <= now) {
+            ScheduledFire scheduledFire = fireQueue.pollFirst();
+            if (scheduledFire.getFireTime() > windowStart) {
+                dueFiresByClusterId.computeIfAbsent(scheduledFire.getClusterId(), id -> new HashMap<>())
+                        .put(scheduledFire.getAlertId(), scheduledFire.getFireTime());
+            }
+            ScheduledFire nextFire = scheduledFire.next(Math.max(scheduledFire.getFireTime(), windowStart));
+            scheduledFireByAlertId.put(nextFire.getAlertId(), nextFire);
+            fireQueue.add(nextFire);
+        }
+    }
+
+    static class ScheduledFire {
+
+        private final Long alertId;
+
+        private final Long clusterId;
+
+        private final String cron;
+
+        private final String timeZone;
+
+        private final CronSequenceGenerator cronExpression;
+
+        private final long fireTime;
+
+        ScheduledFire(TimeAlert timeAlert, Long clusterId, CronSequenceGenerator cronExpression, long fireTime) {
+            this(timeAlert.getId(), clusterId, timeAlert.getCron(), timeAlert.getTimeZone(), cronExpression, fireTime);
+        }
+
+        private ScheduledFire(Long alertId, Long clusterId, String cron, String timeZone, CronSequenceGenerator cronExpression, long fireTime) {
+            this.alertId = alertId;
+            this.clusterId = clusterId;
+            this.cron = cron;
+            this.timeZone = timeZone;
+            this.cronExpression = cronExpression;
+            this.fireTime = fireTime;
+        }
+
+        ScheduledFire next(long after) {
+            return new ScheduledFire(alertId, clusterId, cron, timeZone, cronExpression, cronExpression.next(new Date(after)).getTime());
+        }
+
+        boolean hasSameSchedule(TimeAlert timeAlert) {
+            return Objects.equals(cron, timeAlert.getCron()) && Objects.equals(timeZone, timeAlert.getTimeZone());
+        }
+
+        Long getAlertId() {
+            return alertId;
+        }
+
+        Long getClusterId() {
+            return clusterId;
+        }
+
+        long getFireTime() {
+            return fireTime;
+        }
+    }
+}
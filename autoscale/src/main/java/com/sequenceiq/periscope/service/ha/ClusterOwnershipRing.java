@@ -0,0 +1,52 @@
+package com.sequenceiq.periscope.service.ha;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.periscope.domain.PeriscopeNode;
+
+/**
+ * Consistent hash ring of the active Periscope nodes which decides the owner node of a cluster. Every node is placed on the ring with
+ * several virtual nodes, so a joining or leaving node takes over or hands over only its own share of the clusters. Nodes with a deeper
+ * evaluator queue get fewer virtual nodes than the least loaded node, so they receive a smaller share of the clusters.
+ */
+class ClusterOwnershipRing {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private static final double MIN_WEIGHT = 0.25;
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    ClusterOwnershipRing(Collection<PeriscopeNode> nodes, int virtualNodesPerNode) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Cluster ownership ring needs at least one node");
+        }
+        int minQueueDepth = nodes.stream().mapToInt(PeriscopeNode::getQueueDepth).min().orElse(0);
+        for (PeriscopeNode node : nodes) {
+            int virtualNodes = getVirtualNodeCount(node.getQueueDepth(), minQueueDepth, virtualNodesPerNode);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node.getUuid() + '#' + i), node.getUuid());
+            }
+        }
+    }
+
+    String getOwner(Long clusterId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(String.valueOf(clusterId)));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private int getVirtualNodeCount(int queueDepth, int minQueueDepth, int virtualNodesPerNode) {
+        double weight = Math.max(MIN_WEIGHT, (minQueueDepth + 1.0) / (Math.max(queueDepth, 0) + 1.0));
+        return Math.max(1, (int) Math.round(virtualNodesPerNode * weight));
+    }
+
+    private long hash(String key) {
+        return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+}
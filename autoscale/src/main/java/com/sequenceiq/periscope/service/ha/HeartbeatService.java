@@ -15,6 +15,7 @@ import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionEx
 import com.sequenceiq.cloudbreak.service.Retry;
 import com.sequenceiq.cloudbreak.service.Retry.ActionFailedException;
 import com.sequenceiq.periscope.domain.PeriscopeNode;
+import com.sequenceiq.periscope.monitor.executor.ExecutorServiceWithRegistry;
 import com.sequenceiq.periscope.repository.ClusterRepository;
 import com.sequenceiq.periscope.repository.PeriscopeNodeRepository;
 
@@ -42,6 +43,9 @@ public class HeartbeatService {
     @Inject
     private TransactionService transactionService;
 
+    @Inject
+    private ExecutorServiceWithRegistry executorServiceWithRegistry;
+
     @PostConstruct
     public void init() {
         heartbeat(true);
@@ -60,6 +64,7 @@ public class HeartbeatService {
                     try {
                         PeriscopeNode self = periscopeNodeRepository.findById(nodeId).orElse(new PeriscopeNode(nodeId));
                         self.setLastUpdated(clock.getCurrentTimeMillis());
+                        self.setQueueDepth(executorServiceWithRegistry.activeCount());
                         if (unLeaderIt) {
                             self.setLeader(false);
                         }
@@ -4,11 +4,11 @@ import static com.sequenceiq.periscope.service.NotFoundException.notFound;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.function.Supplier;
@@ -34,6 +34,7 @@ import com.sequenceiq.periscope.domain.TimeAlert;
 import com.sequenceiq.periscope.monitor.evaluator.CronTimeEvaluator;
 import com.sequenceiq.periscope.repository.ClusterRepository;
 import com.sequenceiq.periscope.repository.PeriscopeNodeRepository;
+import com.sequenceiq.periscope.service.DateService;
 import com.sequenceiq.periscope.service.DateTimeService;
 import com.sequenceiq.periscope.service.PeriscopeMetricService;
 import com.sequenceiq.periscope.utils.TimeUtil;
@@ -50,6 +51,12 @@ public class LeaderElectionService {
     @Value("${periscope.ha.heartbeat.threshold:60000}")
     private Integer heartbeatThresholdRate;
 
+    @Value("${periscope.ha.ownership.virtual-nodes:100}")
+    private int virtualNodesPerNode;
+
+    @Value("${periscope.ha.ownership.rebalance-on-join:true}")
+    private boolean rebalanceOnJoin;
+
     @Inject
     private ApplicationContext applicationContext;
 
@@ -71,6 +78,9 @@ public class LeaderElectionService {
     @Inject
     private DateTimeService dateTimeService;
 
+    @Inject
+    private DateService dateService;
+
     @Inject
     private PeriscopeMetricService metricService;
 
@@ -78,6 +88,8 @@ public class LeaderElectionService {
 
     private Supplier<Timer> timerFactory = Timer::new;
 
+    private Set<String> knownNodeIds;
+
     @PostConstruct
     public void init() {
         timer = timerFactory.get();
@@ -106,6 +118,7 @@ public class LeaderElectionService {
                 }
                 metricService.submit(MetricType.LEADER, 1);
                 LOGGER.info("Selected {} as leader", periscopeNodeConfig.getId());
+                knownNodeIds = null;
                 timer.schedule(new TimerTask() {
                     @Override
                     public void run() {
@@ -133,24 +146,53 @@ public class LeaderElectionService {
             return;
         }
         List<String> nodeIds = activeNodes.stream().map(PeriscopeNode::getUuid).collect(Collectors.toList());
+        ClusterOwnershipRing ownershipRing = new ClusterOwnershipRing(activeNodes, virtualNodesPerNode);
+        moveClustersToJoinedNodes(nodeIds, ownershipRing);
         List<Cluster> orphanClusters = clusterRepository.findAllByPeriscopeNodeIdNotInOrPeriscopeNodeIdIsNull(nodeIds);
         if (!orphanClusters.isEmpty()) {
-            Iterator<PeriscopeNode> iterator = activeNodes.iterator();
             for (Cluster cluster : orphanClusters) {
-                if (!iterator.hasNext()) {
-                    iterator = activeNodes.iterator();
-                }
                 if (isExecutionOfMissedTimeBasedAlertsNeeded(cluster)) {
                     LOGGER.info("Executing missed alerts on cluster {}", cluster.getId());
                     executeMissedTimeBasedAlerts(cluster);
                 }
-                cluster.setPeriscopeNodeId(iterator.next().getUuid());
+                cluster.setPeriscopeNodeId(ownershipRing.getOwner(cluster.getId()));
                 LOGGER.info("Allocationg cluster {} to node {}", cluster.getId(), cluster.getPeriscopeNodeId());
             }
             clusterRepository.saveAll(orphanClusters);
         }
     }
 
+    /**
+     * Moves the clusters which belong to the newly joined nodes according to the ownership ring from the nodes which were already active
+     * in the previous round. The clusters of the other nodes stay where they are, so their caches are not lost.
+     */
+    private void moveClustersToJoinedNodes(List<String> nodeIds, ClusterOwnershipRing ownershipRing) {
+        Set<String> previousNodeIds = knownNodeIds;
+        knownNodeIds = Set.copyOf(nodeIds);
+        if (!rebalanceOnJoin || previousNodeIds == null) {
+            return;
+        }
+        Set<String> joinedNodeIds = nodeIds.stream().filter(nodeId -> !previousNodeIds.contains(nodeId)).collect(Collectors.toSet());
+        List<String> remainingNodeIds = nodeIds.stream().filter(nodeId -> !joinedNodeIds.contains(nodeId)).collect(Collectors.toList());
+        if (joinedNodeIds.isEmpty() || remainingNodeIds.isEmpty()) {
+            return;
+        }
+        Map<String, List<Long>> clusterIdsToMove = clusterRepository.findClusterIdsByPeriscopeNodeIdIn(remainingNodeIds).stream()
+                .collect(Collectors.groupingBy(ownershipRing::getOwner));
+        clusterIdsToMove.keySet().retainAll(joinedNodeIds);
+        try {
+            transactionService.required(() -> {
+                clusterIdsToMove.forEach((nodeId, clusterIds) -> {
+                    LOGGER.info("Moving {} clusters to joined node {}", clusterIds.size(), nodeId);
+                    clusterRepository.allocateClustersToNode(clusterIds, nodeId);
+                });
+                return null;
+            });
+        } catch (TransactionExecutionException e) {
+            LOGGER.error("Unable to move clusters to joined nodes {}", joinedNodeIds, e);
+        }
+    }
+
     private boolean isExecutionOfMissedTimeBasedAlertsNeeded(Cluster cluster) {
         long now = clock.getCurrentTimeMillis();
         return cluster.getPeriscopeNodeId() != null
@@ -160,25 +202,29 @@ public class LeaderElectionService {
                 && cluster.getTimeAlerts() != null && !cluster.getTimeAlerts().isEmpty();
     }
 
+    /**
+     * Publishes the most recent time alert of the cluster which should have fired since its last evaluation but at most in the cool down period.
+     * The last fire time of every alert in the period is calculated from its cron expression, so the cost does not depend on the length of the period.
+     */
     private void executeMissedTimeBasedAlerts(Cluster cluster) {
-        Map<TimeAlert, ZonedDateTime> alerts = new LinkedHashMap<>();
         ZonedDateTime now = dateTimeService.getDefaultZonedDateTime();
         long millisDiff = clock.getCurrentTimeMillis() - cluster.getLastEvaluated();
         long coolDown = TimeUtil.convertMinToMillisec(cluster.getCoolDown());
         long rewindMillis = Math.min(millisDiff, coolDown);
         LOGGER.debug("Start rewind for cluster {} at {} - millisDiff: {}, coolDown: {}, rewindMillis: {}",
                 cluster.getId(), now, millisDiff, coolDown, rewindMillis);
-        for (long r = rewindMillis; r > TimeUtil.SECOND_TO_MILLISEC; r -= TimeUtil.SECOND_TO_MILLISEC) {
-            for (TimeAlert alert : cluster.getTimeAlerts()) {
-                ZonedDateTime past = dateTimeService.getNextSecound(now.minus(r, ChronoUnit.MILLIS));
-                LOGGER.debug("Create alert for cluster {} at {}", cluster.getId(), past);
-                alerts.put(alert, past);
+        if (rewindMillis > TimeUtil.SECOND_TO_MILLISEC) {
+            ZonedDateTime rewindStart = now.minus(rewindMillis, ChronoUnit.MILLIS);
+            Map<TimeAlert, ZonedDateTime> alerts = cluster.getTimeAlerts().stream()
+                    .flatMap(alert -> dateService.getLastFireTime(alert, rewindStart, now).map(fireTime -> Map.entry(alert, fireTime)).stream())
+                    .sorted(Map.Entry.<TimeAlert, ZonedDateTime>comparingByValue().reversed())
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+            LOGGER.debug("Missed alerts of cluster {}: {}", cluster.getId(), alerts.values());
+            if (!alerts.isEmpty()) {
+                CronTimeEvaluator evaluator = applicationContext.getBean("CronTimeEvaluator", CronTimeEvaluator.class);
+                evaluator.publishIfNeeded(alerts);
             }
         }
-        if (!alerts.isEmpty()) {
-            CronTimeEvaluator evaluator = applicationContext.getBean("CronTimeEvaluator", CronTimeEvaluator.class);
-            evaluator.publishIfNeeded(alerts);
-        }
     }
 
     private void cleanupInactiveNodesByActiveNodes(List<PeriscopeNode> activeNodes) {
@@ -0,0 +1,8 @@
+-- // Periscope node queue depth
+-- Migration SQL that makes the change goes here.
+ALTER TABLE periscopenode ADD COLUMN IF NOT EXISTS queue_depth integer NOT NULL DEFAULT 0;
+
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+ALTER TABLE periscopenode DROP COLUMN IF EXISTS queue_depth;
@@ -1,7 +1,9 @@
 package com.sequenceiq.periscope.monitor;
 
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -74,6 +76,18 @@ public class AbstractMonitorTest {
         verify(rejectedThreadService).remove(CLUSTER_ID);
     }
 
+    @Test
+    public void testExecuteSavesLastEvaluatedOfClustersInOneBatch() {
+        List<Cluster> clusterList = Arrays.asList(getCluster(CLUSTER_ID), getCluster(2L));
+        when(periscopeNodeConfig.getId()).thenReturn("nodeId");
+        when(clusterService.findAllForNode(ClusterState.RUNNING, true, "nodeId")).thenReturn(clusterList);
+
+        getClusterMonitor().execute(getContext());
+
+        verify(clusterService).setLastEvaluated(eq(List.of(CLUSTER_ID, 2L)), anyLong());
+        verify(clusterService, never()).setLastEvaluated(anyLong(), anyLong());
+    }
+
     private JobExecutionContext getContext() {
         JobExecutionContext jobExecutionContext = mock(JobExecutionContext.class);
         JobDetail jobDetail = mock(JobDetail.class);
@@ -138,6 +152,25 @@ public class AbstractMonitorTest {
         };
     }
 
+    private ClusterMonitor getClusterMonitor() {
+        return new ClusterMonitor() {
+            @Override
+            public String getIdentifier() {
+                return null;
+            }
+
+            @Override
+            public String getTriggerExpression() {
+                return null;
+            }
+
+            @Override
+            public Class<?> getEvaluatorType(Cluster cluster) {
+                return TestExecutor.class;
+            }
+        };
+    }
+
     private class TestExecutor extends EvaluatorExecutor {
 
         @Nonnull
@@ -0,0 +1,53 @@
+package com.sequenceiq.periscope.monitor.client;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sequenceiq.periscope.model.TlsConfiguration;
+
+class ClusterRestClientCacheTest {
+
+    private static final Long CLUSTER_ID = 1L;
+
+    private final ClusterRestClientCache underTest = new ClusterRestClientCache();
+
+    @AfterEach
+    void tearDown() {
+        underTest.closeClients();
+    }
+
+    @Test
+    void testClientIsReusedWhileTlsConfigurationIsTheSame() throws Exception {
+        Client client = underTest.getClient(CLUSTER_ID, new TlsConfiguration("clientKey", "clientCert", null));
+
+        assertSame(client, underTest.getClient(CLUSTER_ID, new TlsConfiguration("clientKey", "clientCert", null)));
+    }
+
+    @Test
+    void testClientIsRecreatedWhenTlsConfigurationChanges() throws Exception {
+        Client client = underTest.getClient(CLUSTER_ID, new TlsConfiguration("clientKey", "clientCert", null));
+
+        assertNotSame(client, underTest.getClient(CLUSTER_ID, new TlsConfiguration("clientKey", "renewedClientCert", null)));
+    }
+
+    @Test
+    void testClientIsRecreatedAfterInvalidation() throws Exception {
+        Client client = underTest.getClient(CLUSTER_ID, new TlsConfiguration("clientKey", "clientCert", null));
+
+        underTest.invalidate(CLUSTER_ID);
+
+        assertNotSame(client, underTest.getClient(CLUSTER_ID, new TlsConfiguration("clientKey", "clientCert", null)));
+    }
+
+    @Test
+    void testClientsOfDifferentClustersAreSeparated() throws Exception {
+        TlsConfiguration tlsConfig = new TlsConfiguration("clientKey", "clientCert", null);
+
+        assertNotSame(underTest.getClient(CLUSTER_ID, tlsConfig), underTest.getClient(2L, tlsConfig));
+    }
+}
@@ -0,0 +1,165 @@
+package com.sequenceiq.periscope.monitor.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.periscope.aspects.RequestLogging;
+import com.sequenceiq.periscope.domain.Cluster;
+import com.sequenceiq.periscope.domain.ClusterPertain;
+import com.sequenceiq.periscope.domain.MetricType;
+import com.sequenceiq.periscope.model.InstanceConfig;
+import com.sequenceiq.periscope.model.TlsConfiguration;
+import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Response;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
+import com.sequenceiq.periscope.service.configuration.ClusterProxyConfigurationService;
+import com.sequenceiq.periscope.service.security.TlsSecurityService;
+
+@ExtendWith(MockitoExtension.class)
+class YarnMetricsClientTest {
+
+    private static final Long CLUSTER_ID = 1L;
+
+    private static final String STACK_CRN = "stackCrn";
+
+    private static final String HOST_GROUP = "compute";
+
+    @InjectMocks
+    private YarnMetricsClient underTest;
+
+    @Mock
+    private TlsSecurityService tlsSecurityService;
+
+    @Mock
+    private ClusterProxyConfigurationService clusterProxyConfigurationService;
+
+    @Mock
+    private RequestLogging requestLogging;
+
+    @Mock
+    private YarnServiceConfigClient yarnServiceConfigClient;
+
+    @Mock
+    private ClusterRestClientCache clusterRestClientCache;
+
+    @Mock
+    private PeriscopeMetricService metricService;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private Client restClient;
+
+    private final TlsConfiguration tlsConfig = new TlsConfiguration("clientKey", "clientCert", "serverCert");
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executorService = Executors.newFixedThreadPool(2);
+        when(tlsSecurityService.getTls(CLUSTER_ID)).thenReturn(tlsConfig);
+        when(clusterProxyConfigurationService.getClusterProxyUrl()).thenReturn(Optional.of("http://clusterproxy"));
+        when(clusterRestClientCache.getClient(CLUSTER_ID, tlsConfig)).thenReturn(restClient);
+        when(yarnServiceConfigClient.getInstanceConfigFromCM(any(Cluster.class), any(StackV4Response.class), eq(HOST_GROUP)))
+                .thenReturn(instanceConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testYarnMetricsAreQueriedWithTheCachedClient() throws Exception {
+        YarnScalingServiceV1Response yarnResponse = new YarnScalingServiceV1Response();
+        when(requestLogging.logResponseTime(any(), anyString())).thenReturn(yarnResponse);
+
+        YarnScalingServiceV1Response result = underTest.getYarnMetricsForCluster(cluster(), new StackV4Response(), HOST_GROUP, Optional.empty());
+
+        assertSame(yarnResponse, result);
+        verify(clusterRestClientCache).getClient(CLUSTER_ID, tlsConfig);
+        verify(metricService).recordLatencyHistogram(eq(MetricType.YARN_METRICS_REQUEST), any(), eq("cluster"), eq(STACK_CRN), eq("outcome"), eq("success"));
+    }
+
+    @Test
+    void testConcurrentQueriesOfTheSameHostGroupAreCoalesced() throws Exception {
+        YarnScalingServiceV1Response yarnResponse = new YarnScalingServiceV1Response();
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch releaseRequest = new CountDownLatch(1);
+        AtomicInteger requestCount = new AtomicInteger();
+        when(requestLogging.logResponseTime(any(), anyString())).thenAnswer(invocation -> {
+            requestCount.incrementAndGet();
+            requestStarted.countDown();
+            releaseRequest.await(10, TimeUnit.SECONDS);
+            return yarnResponse;
+        });
+
+        Future<YarnScalingServiceV1Response> first = executorService.submit(
+                () -> underTest.getYarnMetricsForCluster(cluster(), new StackV4Response(), HOST_GROUP, Optional.empty()));
+        requestStarted.await(10, TimeUnit.SECONDS);
+        Future<YarnScalingServiceV1Response> second = executorService.submit(
+                () -> underTest.getYarnMetricsForCluster(cluster(), new StackV4Response(), HOST_GROUP, Optional.empty()));
+        Thread.sleep(100L);
+        releaseRequest.countDown();
+
+        assertSame(yarnResponse, first.get(10, TimeUnit.SECONDS));
+        assertSame(yarnResponse, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    void testFailedQueryIsNotKeptInFlight() throws Exception {
+        YarnScalingServiceV1Response yarnResponse = new YarnScalingServiceV1Response();
+        when(requestLogging.logResponseTime(any(), anyString())).thenThrow(new RuntimeException("yarn unavailable")).thenReturn(yarnResponse);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> underTest.getYarnMetricsForCluster(cluster(), new StackV4Response(), HOST_GROUP, Optional.empty()));
+        YarnScalingServiceV1Response result = underTest.getYarnMetricsForCluster(cluster(), new StackV4Response(), HOST_GROUP, Optional.empty());
+
+        assertEquals("yarn unavailable", exception.getMessage());
+        assertSame(yarnResponse, result);
+        verify(metricService, times(1)).recordLatencyHistogram(eq(MetricType.YARN_METRICS_REQUEST), any(), eq("cluster"), eq(STACK_CRN),
+                eq("outcome"), eq("failure"));
+    }
+
+    private Cluster cluster() {
+        Cluster cluster = new Cluster(CLUSTER_ID);
+        cluster.setStackCrn(STACK_CRN);
+        cluster.setClusterPertain(new ClusterPertain("tenant", 1L, "userId", "userCrn"));
+        return cluster;
+    }
+
+    private InstanceConfig instanceConfig() {
+        InstanceConfig instanceConfig = new InstanceConfig(HOST_GROUP);
+        instanceConfig.setCoreCPU(8);
+        instanceConfig.setMemoryInMb(16384L);
+        return instanceConfig;
+    }
+}
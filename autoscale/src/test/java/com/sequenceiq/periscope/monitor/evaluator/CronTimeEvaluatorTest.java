@@ -12,6 +12,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -34,17 +35,21 @@ import org.mockito.verification.VerificationMode;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
 import com.sequenceiq.periscope.api.model.AdjustmentType;
 import com.sequenceiq.periscope.domain.Cluster;
+import com.sequenceiq.periscope.domain.ClusterPertain;
 import com.sequenceiq.periscope.domain.ScalingPolicy;
 import com.sequenceiq.periscope.domain.TimeAlert;
 import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Response;
+import com.sequenceiq.periscope.monitor.MonitorUpdateRate;
 import com.sequenceiq.periscope.monitor.client.YarnMetricsClient;
 import com.sequenceiq.periscope.monitor.context.ClusterIdEvaluatorContext;
 import com.sequenceiq.periscope.monitor.evaluator.load.YarnResponseUtils;
 import com.sequenceiq.periscope.monitor.event.ScalingEvent;
 import com.sequenceiq.periscope.monitor.executor.ExecutorServiceWithRegistry;
 import com.sequenceiq.periscope.monitor.handler.CloudbreakCommunicator;
+import com.sequenceiq.periscope.repository.TimeAlertRepository;
 import com.sequenceiq.periscope.service.ClusterService;
 import com.sequenceiq.periscope.service.DateService;
+import com.sequenceiq.periscope.service.TimeAlertScheduleService;
 import com.sequenceiq.periscope.utils.MockStackResponseGenerator;
 import com.sequenceiq.periscope.utils.StackResponseUtils;
 
@@ -80,6 +85,12 @@ public class CronTimeEvaluatorTest {
     @Mock
     private EventPublisher eventPublisher;
 
+    @Mock
+    private TimeAlertRepository alertRepository;
+
+    @Mock
+    private TimeAlertScheduleService timeAlertScheduleService;
+
     @InjectMocks
     private CronTimeEvaluator underTest;
 
@@ -109,6 +120,47 @@ public class CronTimeEvaluatorTest {
         verify(executorServiceWithRegistry).finished(underTest, CLUSTER_ID);
     }
 
+    @Test
+    public void testExecuteSkipsClusterWithoutDueAlerts() {
+        underTest.setContext(new ClusterIdEvaluatorContext(CLUSTER_ID));
+        when(timeAlertScheduleService.isEnabled()).thenReturn(true);
+        when(timeAlertScheduleService.takeDueAlerts(CLUSTER_ID)).thenReturn(Map.of());
+
+        underTest.execute();
+
+        verify(clusterService, never()).findById(anyLong());
+        verify(alertRepository, never()).findAllByClusterIdOrderById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testExecutePublishesDueAlertAtItsFireTime() {
+        underTest.setContext(new ClusterIdEvaluatorContext(CLUSTER_ID));
+        TimeAlert alert = getAAlert(5);
+        alert.setId(2L);
+        alert.getCluster().setClusterPertain(new ClusterPertain("tenant", 1L, "userId", "userCrn"));
+        TimeAlert notDueAlert = getAAlert(10);
+        notDueAlert.setId(3L);
+        ZonedDateTime fireTime = ZonedDateTime.now().minusSeconds(20L);
+        StackV4Response stackV4Response = MockStackResponseGenerator
+                .getMockStackV4Response(clusterCrn, testHostGroup, "testFqdn" + testHostGroup, 2, false);
+        when(timeAlertScheduleService.isEnabled()).thenReturn(true);
+        when(timeAlertScheduleService.takeDueAlerts(CLUSTER_ID)).thenReturn(Map.of(2L, fireTime));
+        when(clusterService.findById(CLUSTER_ID)).thenReturn(alert.getCluster());
+        when(alertRepository.findAllByClusterIdOrderById(CLUSTER_ID)).thenReturn(List.of(alert, notDueAlert));
+        when(dateService.isTrigger(alert, MonitorUpdateRate.CRON_UPDATE_RATE_IN_MILLIS, fireTime)).thenReturn(true);
+        when(cloudbreakCommunicator.getByCrn(anyString())).thenReturn(stackV4Response);
+        when(stackResponseUtils.getNodeCountForHostGroup(stackV4Response, testHostGroup)).thenCallRealMethod();
+        when(scalingPolicyTargetCalculator.getDesiredAbsoluteNodeCount(any(ScalingEvent.class), anyInt())).thenCallRealMethod();
+
+        underTest.execute();
+
+        ArgumentCaptor<ScalingEvent> captor = ArgumentCaptor.forClass(ScalingEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(5, captor.getValue().getDesiredAbsoluteHostGroupNodeCount().intValue());
+        verify(dateService, never()).isTrigger(any(TimeAlert.class), anyLong());
+    }
+
     public static Stream<Arguments> scheduleBasedUpScaling() {
         return Stream.of(
                 //TestCase, CurrentHostGroupCount,DesiredNodeCount, ExpectedNodeCount
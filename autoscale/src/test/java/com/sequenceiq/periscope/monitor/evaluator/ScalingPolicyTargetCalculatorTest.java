@@ -7,14 +7,18 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.OptionalInt;
 import java.util.stream.Stream;
 
 import org.junit.Before;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -22,6 +26,7 @@ import com.sequenceiq.periscope.api.model.AdjustmentType;
 import com.sequenceiq.periscope.domain.BaseAlert;
 import com.sequenceiq.periscope.domain.ScalingPolicy;
 import com.sequenceiq.periscope.domain.TimeAlert;
+import com.sequenceiq.periscope.monitor.evaluator.load.YarnLoadHistory;
 import com.sequenceiq.periscope.monitor.event.ScalingEvent;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +37,9 @@ public class ScalingPolicyTargetCalculatorTest {
     @InjectMocks
     private ScalingPolicyTargetCalculator underTest;
 
+    @Mock
+    private YarnLoadHistory yarnLoadHistory;
+
     private ScalingPolicy scalingPolicyMock = mock(ScalingPolicy.class);
 
     private ScalingEvent scalingEventMock = mock(ScalingEvent.class);
@@ -71,6 +79,39 @@ public class ScalingPolicyTargetCalculatorTest {
         validateTargetCalculation(timeAlertMock, adjustmentType, currentHostGroupCount, scalingAdjustment, expectedScalingCount);
     }
 
+    public static Stream<Arguments> forecastedScaleUps() {
+        return Stream.of(
+                //TestCase, ExistingHostGroupCount, YarnRecommendedScaleUpCount, ForecastedDemand, ExpectedScaleUpCount
+                Arguments.of("NO_FORECAST", 10, 2, OptionalInt.empty(), 2),
+                Arguments.of("FORECAST_ABOVE_YARN_RECOMMENDATION", 10, 2, OptionalInt.of(15), 5),
+                Arguments.of("FORECAST_BELOW_YARN_RECOMMENDATION", 10, 4, OptionalInt.of(12), 4),
+                Arguments.of("FORECAST_BEYOND_ALLOWED_UPSCALE", 10, 0, OptionalInt.of(40), 20),
+                Arguments.of("FORECAST_BELOW_EXISTING_COUNT", 10, 0, OptionalInt.of(6), 0)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}: With existingHostGroupCount={1}, yarnRecommendedScaleUpCount={2}, forecastedDemand={3}, expectedScaleUpCount={4}")
+    @MethodSource("forecastedScaleUps")
+    public void testForecastedScaleUpCount(String testType, int existingHostGroupCount, int yarnRecommendedScaleUpCount, OptionalInt forecastedDemand,
+            int expectedScaleUpCount) {
+        MockitoAnnotations.initMocks(this);
+        when(yarnLoadHistory.forecastDemand(1L, "compute")).thenReturn(forecastedDemand);
+
+        int scaleUpCount = underTest.getForecastedScaleUpCount(1L, "compute", existingHostGroupCount, yarnRecommendedScaleUpCount, 20, 100);
+
+        assertEquals(testType, expectedScaleUpCount, scaleUpCount);
+    }
+
+    @Test
+    public void testDecommissionIsLimitedByForecastedDemand() {
+        MockitoAnnotations.initMocks(this);
+        when(yarnLoadHistory.forecastDemand(1L, "compute")).thenReturn(OptionalInt.of(8));
+
+        List<String> decommissionHosts = underTest.limitDecommissionByForecast(1L, "compute", 10, List.of("host1", "host2", "host3"));
+
+        assertEquals(List.of("host1", "host2"), decommissionHosts);
+    }
+
     private void validateTargetCalculation(BaseAlert baseAlertMock, AdjustmentType adjustmentType,
             int currentHostGroupCount, int scalingAdjument, int expectedScaleUpCount) {
         MockitoAnnotations.initMocks(this);
@@ -0,0 +1,55 @@
+package com.sequenceiq.periscope.monitor.evaluator.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SeasonalLoadProfileTest {
+
+    private static final long SLOT = TimeUnit.MINUTES.toMillis(5);
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static final long FIRST_DAY = Instant.parse("2021-01-04T00:00:00Z").toEpochMilli();
+
+    private final SeasonalLoadProfile underTest = new SeasonalLoadProfile(SLOT, 0.5);
+
+    @Test
+    void testNoForecastWithoutEnoughDays() {
+        underTest.record(FIRST_DAY + 9 * HOUR, 20);
+
+        assertTrue(underTest.forecastPeak(FIRST_DAY + DAY + 8 * HOUR, FIRST_DAY + DAY + 10 * HOUR, 2).isEmpty());
+    }
+
+    @Test
+    void testForecastOfRecurringDailyPeak() {
+        recordDailyPeak(FIRST_DAY, 20);
+        recordDailyPeak(FIRST_DAY + DAY, 30);
+
+        long thirdDay = FIRST_DAY + 2 * DAY;
+        assertEquals(OptionalInt.of(25), underTest.forecastPeak(thirdDay + 8 * HOUR + 30 * 60_000L, thirdDay + 9 * HOUR, 2));
+        assertEquals(OptionalInt.of(5), underTest.forecastPeak(thirdDay + 6 * HOUR, thirdDay + 7 * HOUR, 2));
+    }
+
+    @Test
+    void testForecastUsesThePeakOfTheSlot() {
+        underTest.record(FIRST_DAY + 9 * HOUR, 10);
+        underTest.record(FIRST_DAY + 9 * HOUR + 60_000L, 18);
+        underTest.record(FIRST_DAY + 9 * HOUR + 120_000L, 12);
+
+        assertEquals(OptionalInt.of(18), underTest.forecastPeak(FIRST_DAY + DAY + 9 * HOUR, FIRST_DAY + DAY + 9 * HOUR, 1));
+    }
+
+    private void recordDailyPeak(long day, int peak) {
+        for (long timestamp = day + 6 * HOUR; timestamp < day + 12 * HOUR; timestamp += SLOT) {
+            underTest.record(timestamp, timestamp == day + 9 * HOUR ? peak : 5);
+        }
+    }
+}
@@ -46,6 +46,7 @@ import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Response.NewNodeM
 import com.sequenceiq.periscope.monitor.client.YarnMetricsClient;
 import com.sequenceiq.periscope.monitor.context.ClusterIdEvaluatorContext;
 import com.sequenceiq.periscope.monitor.evaluator.EventPublisher;
+import com.sequenceiq.periscope.monitor.evaluator.ScalingPolicyTargetCalculator;
 import com.sequenceiq.periscope.monitor.event.ScalingEvent;
 import com.sequenceiq.periscope.monitor.event.UpdateFailedEvent;
 import com.sequenceiq.periscope.monitor.executor.ExecutorServiceWithRegistry;
@@ -89,6 +90,12 @@ public class YarnLoadEvaluatorTest {
     @Mock
     private YarnResponseUtils yarnResponseUtils;
 
+    @Mock
+    private YarnLoadHistory yarnLoadHistory;
+
+    @Mock
+    private ScalingPolicyTargetCalculator scalingPolicyTargetCalculator;
+
     private String fqdnBase = "test_fqdn";
 
     @Before
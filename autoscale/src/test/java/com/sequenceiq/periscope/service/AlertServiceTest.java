@@ -56,6 +56,9 @@ public class AlertServiceTest {
     @Mock
     RegionAwareCrnGenerator regionAwareCrnGenerator;
 
+    @Mock
+    TimeAlertScheduleService timeAlertScheduleService;
+
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
@@ -129,6 +132,7 @@ public class AlertServiceTest {
         verify(clusterService).findById(clusterId);
         verify(clusterService).save(mockCluster);
         verify(mockCluster).addTimeAlert(mockTimeAlert);
+        verify(timeAlertScheduleService).invalidate(clusterId);
     }
 
     @Test
@@ -150,6 +154,7 @@ public class AlertServiceTest {
         verify(mockTimeAlert).setTimeZone(anyString());
         verify(mockTimeAlert, times(4)).getScalingPolicy();
         verify(timeAlertRepository).save(mockTimeAlert);
+        verify(timeAlertScheduleService).invalidate(clusterId);
     }
 
     @Test
@@ -165,6 +170,7 @@ public class AlertServiceTest {
         verify(mockCluster).setTimeAlerts(any(Set.class));
         verify(timeAlertRepository).delete(mockTimeAlert);
         verify(clusterService).save(mockCluster);
+        verify(timeAlertScheduleService).invalidate(clusterId);
     }
 
     private ScalingPolicy getScalingPolicy() {
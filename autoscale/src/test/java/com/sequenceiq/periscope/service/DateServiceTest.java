@@ -1,5 +1,6 @@
 package com.sequenceiq.periscope.service;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
@@ -7,6 +8,7 @@ import static org.mockito.Mockito.when;
 import java.text.ParseException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -125,6 +127,30 @@ public class DateServiceTest {
         assertTrue(underTest.isTrigger(timeAlert, monitorUpdateRate));
     }
 
+    @Test
+    public void testGetLastFireTimeReturnsTheLastFireTimeInTheTimeZoneOfTheAlert() {
+        String timeZone = "America/New_York";
+        ZoneId zoneId = ZoneId.of(timeZone);
+        TimeAlert timeAlert = createTimeAlert(timeZone);
+        ZonedDateTime from = ZonedDateTime.of(2017, 12, 18, 10, 0, 0, 0, zoneId);
+        ZonedDateTime to = ZonedDateTime.of(2017, 12, 20, 11, 0, 0, 0, zoneId);
+
+        Optional<ZonedDateTime> lastFireTime = underTest.getLastFireTime(timeAlert, from, to);
+
+        assertEquals(ZonedDateTime.of(2017, 12, 19, 12, 0, 0, 0, zoneId).toInstant(), lastFireTime.get().toInstant());
+    }
+
+    @Test
+    public void testGetLastFireTimeWhenTheAlertDoesNotFireInTheInterval() {
+        String timeZone = "Europe/Budapest";
+        ZoneId zoneId = ZoneId.of(timeZone);
+        TimeAlert timeAlert = createTimeAlert(timeZone);
+        ZonedDateTime from = ZonedDateTime.of(2017, 12, 18, 12, 0, 0, 0, zoneId);
+        ZonedDateTime to = ZonedDateTime.of(2017, 12, 19, 11, 59, 59, 0, zoneId);
+
+        assertFalse(underTest.getLastFireTime(timeAlert, from, to).isPresent());
+    }
+
     @Test
     public void testValidateTimeZoneWhenValid() throws Exception {
         underTest.validateTimeZone("GMT");
@@ -0,0 +1,149 @@
+package com.sequenceiq.periscope.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.periscope.domain.Cluster;
+import com.sequenceiq.periscope.domain.TimeAlert;
+import com.sequenceiq.periscope.repository.TimeAlertRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TimeAlertScheduleServiceTest {
+
+    private static final Long CLUSTER_ID = 1L;
+
+    private static final Long ALERT_ID = 10L;
+
+    private static final String EVERY_MINUTE = "0 * * * * ?";
+
+    private static final String EVERY_NOON = "0 0 12 * * ?";
+
+    private static final long NOW = Instant.parse("2021-01-01T10:00:10Z").toEpochMilli();
+
+    private static final long MINUTE = 60_000L;
+
+    @InjectMocks
+    private TimeAlertScheduleService underTest;
+
+    @Mock
+    private TimeAlertRepository timeAlertRepository;
+
+    @Spy
+    private DateService dateService;
+
+    @Mock
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "resyncInterval", 10 * MINUTE);
+    }
+
+    @Test
+    void testFiredAlertIsDue() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(timeAlertRepository.findAllByClusterIdIn(Set.of(CLUSTER_ID))).thenReturn(List.of(timeAlert(ALERT_ID, EVERY_MINUTE)));
+
+        underTest.refresh(List.of(CLUSTER_ID));
+
+        Map<Long, ZonedDateTime> dueAlerts = underTest.takeDueAlerts(CLUSTER_ID);
+        assertEquals(Set.of(ALERT_ID), dueAlerts.keySet());
+        assertEquals(Instant.parse("2021-01-01T10:00:00Z"), dueAlerts.get(ALERT_ID).toInstant());
+        assertTrue(underTest.takeDueAlerts(CLUSTER_ID).isEmpty());
+    }
+
+    @Test
+    void testNotFiredAlertIsNotDue() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(timeAlertRepository.findAllByClusterIdIn(Set.of(CLUSTER_ID))).thenReturn(List.of(timeAlert(ALERT_ID, EVERY_NOON)));
+
+        underTest.refresh(List.of(CLUSTER_ID));
+
+        assertTrue(underTest.takeDueAlerts(CLUSTER_ID).isEmpty());
+    }
+
+    @Test
+    void testAlertIsDueAgainOnTheNextFireTimeWithoutReloading() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW, NOW + MINUTE / 2, NOW + MINUTE);
+        when(timeAlertRepository.findAllByClusterIdIn(Set.of(CLUSTER_ID))).thenReturn(List.of(timeAlert(ALERT_ID, EVERY_MINUTE)));
+
+        underTest.refresh(List.of(CLUSTER_ID));
+        underTest.takeDueAlerts(CLUSTER_ID);
+        underTest.refresh(List.of(CLUSTER_ID));
+        assertTrue(underTest.takeDueAlerts(CLUSTER_ID).isEmpty());
+        underTest.refresh(List.of(CLUSTER_ID));
+
+        Map<Long, ZonedDateTime> dueAlerts = underTest.takeDueAlerts(CLUSTER_ID);
+        assertEquals(Instant.parse("2021-01-01T10:01:00Z"), dueAlerts.get(ALERT_ID).toInstant());
+        verify(timeAlertRepository, times(1)).findAllByClusterIdIn(anyCollection());
+    }
+
+    @Test
+    void testInvalidatedClusterIsReloaded() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW, NOW + MINUTE / 2);
+        when(timeAlertRepository.findAllByClusterIdIn(Set.of(CLUSTER_ID)))
+                .thenReturn(List.of(timeAlert(ALERT_ID, EVERY_NOON)), List.of(timeAlert(ALERT_ID, "30 0 10 * * ?")));
+
+        underTest.refresh(List.of(CLUSTER_ID));
+        assertTrue(underTest.takeDueAlerts(CLUSTER_ID).isEmpty());
+        underTest.invalidate(CLUSTER_ID);
+        underTest.refresh(List.of(CLUSTER_ID));
+
+        Map<Long, ZonedDateTime> dueAlerts = underTest.takeDueAlerts(CLUSTER_ID);
+        assertEquals(Instant.parse("2021-01-01T10:00:30Z"), dueAlerts.get(ALERT_ID).toInstant());
+    }
+
+    @Test
+    void testAlertsOfRemovedClusterAreDropped() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW, NOW + MINUTE);
+        when(timeAlertRepository.findAllByClusterIdIn(Set.of(CLUSTER_ID))).thenReturn(List.of(timeAlert(ALERT_ID, EVERY_MINUTE)));
+
+        underTest.refresh(List.of(CLUSTER_ID));
+        underTest.refresh(List.of());
+
+        assertTrue(underTest.takeDueAlerts(CLUSTER_ID).isEmpty());
+    }
+
+    @Test
+    void testDeletedAlertIsDroppedOnResync() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW, NOW + 10 * MINUTE);
+        when(timeAlertRepository.findAllByClusterIdIn(Set.of(CLUSTER_ID))).thenReturn(List.of(timeAlert(ALERT_ID, EVERY_MINUTE)), List.of());
+
+        underTest.refresh(List.of(CLUSTER_ID));
+        underTest.takeDueAlerts(CLUSTER_ID);
+        underTest.refresh(List.of(CLUSTER_ID));
+
+        assertTrue(underTest.takeDueAlerts(CLUSTER_ID).isEmpty());
+        verify(timeAlertRepository, times(2)).findAllByClusterIdIn(anyCollection());
+    }
+
+    private TimeAlert timeAlert(Long id, String cron) {
+        TimeAlert timeAlert = new TimeAlert();
+        timeAlert.setId(id);
+        timeAlert.setName("alert" + id);
+        timeAlert.setCron(cron);
+        timeAlert.setTimeZone("UTC");
+        timeAlert.setCluster(new Cluster(CLUSTER_ID));
+        return timeAlert;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sequenceiq.periscope.service.ha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.sequenceiq.periscope.domain.PeriscopeNode;
+
+class ClusterOwnershipRingTest {
+
+    private static final int VIRTUAL_NODES = 100;
+
+    private static final int CLUSTER_COUNT = 3000;
+
+    @Test
+    void testClustersAreSpreadAcrossTheNodes() {
+        Map<Long, String> owners = owners(new ClusterOwnershipRing(List.of(node("a", 0), node("b", 0), node("c", 0)), VIRTUAL_NODES));
+
+        Map<String, Long> clusterCounts = owners.values().stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertEquals(3, clusterCounts.size());
+        clusterCounts.values().forEach(count -> assertTrue(count > CLUSTER_COUNT / 6, "Unbalanced cluster counts: " + clusterCounts));
+    }
+
+    @Test
+    void testJoiningNodeTakesOverClustersOnlyFromTheOtherNodes() {
+        Map<Long, String> ownersBefore = owners(new ClusterOwnershipRing(List.of(node("a", 0), node("b", 0), node("c", 0)), VIRTUAL_NODES));
+        Map<Long, String> ownersAfter = owners(new ClusterOwnershipRing(
+                List.of(node("a", 0), node("b", 0), node("c", 0), node("d", 0)), VIRTUAL_NODES));
+
+        long movedClusters = ownersBefore.keySet().stream().filter(id -> !ownersBefore.get(id).equals(ownersAfter.get(id))).count();
+        ownersBefore.keySet().stream()
+                .filter(id -> !ownersBefore.get(id).equals(ownersAfter.get(id)))
+                .forEach(id -> assertEquals("d", ownersAfter.get(id)));
+        assertTrue(movedClusters > 0 && movedClusters < CLUSTER_COUNT / 2, "Moved clusters: " + movedClusters);
+    }
+
+    @Test
+    void testLeavingNodeHandsOverOnlyItsOwnClusters() {
+        Map<Long, String> ownersBefore = owners(new ClusterOwnershipRing(List.of(node("a", 0), node("b", 0), node("c", 0)), VIRTUAL_NODES));
+        Map<Long, String> ownersAfter = owners(new ClusterOwnershipRing(List.of(node("a", 0), node("b", 0)), VIRTUAL_NODES));
+
+        ownersBefore.keySet().stream()
+                .filter(id -> !"c".equals(ownersBefore.get(id)))
+                .forEach(id -> assertEquals(ownersBefore.get(id), ownersAfter.get(id)));
+    }
+
+    @Test
+    void testLoadedNodeGetsLessClusters() {
+        Map<Long, String> owners = owners(new ClusterOwnershipRing(List.of(node("a", 0), node("b", 0), node("c", 200)), VIRTUAL_NODES));
+
+        Map<String, Long> clusterCounts = owners.values().stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertTrue(clusterCounts.get("c") < clusterCounts.get("a") && clusterCounts.get("c") < clusterCounts.get("b"),
+                "Cluster counts: " + clusterCounts);
+    }
+
+    private Map<Long, String> owners(ClusterOwnershipRing ring) {
+        return LongStream.range(0, CLUSTER_COUNT).boxed().collect(Collectors.toMap(Function.identity(), ring::getOwner));
+    }
+
+    private PeriscopeNode node(String uuid, int queueDepth) {
+        PeriscopeNode node = new PeriscopeNode(uuid);
+        node.setQueueDepth(queueDepth);
+        return node;
+    }
+}
@@ -9,18 +9,24 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -37,6 +43,7 @@ import com.sequenceiq.periscope.domain.TimeAlert;
 import com.sequenceiq.periscope.monitor.evaluator.CronTimeEvaluator;
 import com.sequenceiq.periscope.repository.ClusterRepository;
 import com.sequenceiq.periscope.repository.PeriscopeNodeRepository;
+import com.sequenceiq.periscope.service.DateService;
 import com.sequenceiq.periscope.service.DateTimeService;
 import com.sequenceiq.periscope.service.PeriscopeMetricService;
 
@@ -73,6 +80,9 @@ public class LeaderElectionServiceTest {
     @Mock
     private DateTimeService dateTimeService;
 
+    @Mock
+    private DateService dateService;
+
     @Mock
     private CronTimeEvaluator cronTimeEvaluator;
 
@@ -160,6 +170,33 @@ public class LeaderElectionServiceTest {
         verify(clusterRepository, times(1)).saveAll(any(List.class));
     }
 
+    @Test
+    public void testReallocateMovesOnlyTheClustersOfTheJoinedNodeByTheOwnershipRing() throws TransactionExecutionException {
+        ReflectionTestUtils.setField(underTest, "virtualNodesPerNode", 100);
+        ReflectionTestUtils.setField(underTest, "rebalanceOnJoin", true);
+        when(periscopeNodeRepository.countByLeaderIsTrueAndLastUpdatedIsGreaterThan(anyLong())).thenReturn(0L);
+        when(transactionService.required(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        SpyTimer spyTimer = new SpyTimer();
+        when(timerFactory.get()).thenReturn(spyTimer);
+        PeriscopeNode leader = new PeriscopeNode("nodeid");
+        leader.setLeader(true);
+        PeriscopeNode joinedNode = new PeriscopeNode("joinednodeid");
+        when(periscopeNodeRepository.findById("nodeid")).thenReturn(Optional.of(leader));
+        when(periscopeNodeRepository.findAllByLastUpdatedIsGreaterThan(anyLong())).thenReturn(List.of(leader), List.of(leader, joinedNode));
+        List<Long> clusterIds = LongStream.range(0, 100).boxed().collect(Collectors.toList());
+        when(clusterRepository.findClusterIdsByPeriscopeNodeIdIn(List.of("nodeid"))).thenReturn(clusterIds);
+        ClusterOwnershipRing ownershipRing = new ClusterOwnershipRing(List.of(leader, joinedNode), 100);
+        List<Long> expectedMovedClusterIds = clusterIds.stream().filter(id -> "joinednodeid".equals(ownershipRing.getOwner(id))).collect(Collectors.toList());
+
+        underTest.leaderElection();
+        spyTimer.lastTask.run();
+        spyTimer.lastTask.run();
+
+        Assert.assertFalse(expectedMovedClusterIds.isEmpty());
+        verify(clusterRepository, times(1)).findClusterIdsByPeriscopeNodeIdIn(List.of("nodeid"));
+        verify(clusterRepository, times(1)).allocateClustersToNode(expectedMovedClusterIds, "joinednodeid");
+    }
+
     @Test
     public void testIsExecutionOfMissedTimeBasedAlertsNeededNoPeriscopeNodeId() throws Exception {
         Cluster cluster = getValidIsMissedNeeded();
@@ -239,23 +276,48 @@ public class LeaderElectionServiceTest {
     public void testExecuteMissedTimeBasedAlertsNeed() throws Exception {
         ZonedDateTime now = ZonedDateTime.now();
         when(dateTimeService.getDefaultZonedDateTime()).thenReturn(now);
-        when(dateTimeService.getNextSecound(any())).thenReturn(now);
         Cluster cluster = new Cluster();
         cluster.setCoolDown(5);
         cluster.setLastEvaluated(2900L);
         TimeAlert timeAlert = new TimeAlert();
         cluster.setTimeAlerts(Collections.singleton(timeAlert));
+        ZonedDateTime fireTime = now.minusSeconds(1L);
+        when(dateService.getLastFireTime(timeAlert, now.minus(2100L, ChronoUnit.MILLIS), now)).thenReturn(Optional.of(fireTime));
 
         WhiteboxImpl.invokeMethod(underTest, "executeMissedTimeBasedAlerts", cluster);
 
         verify(applicationContext, times(1)).getBean(anyString(), eq(CronTimeEvaluator.class));
 
         Map<TimeAlert, ZonedDateTime> expectedAlerts = new LinkedHashMap<>();
-        expectedAlerts.put(timeAlert, now);
-        expectedAlerts.put(timeAlert, now);
+        expectedAlerts.put(timeAlert, fireTime);
         verify(cronTimeEvaluator, times(1)).publishIfNeeded(eq(expectedAlerts));
     }
 
+    @Test
+    public void testExecuteMissedTimeBasedAlertsPublishesMostRecentFirst() throws Exception {
+        ZonedDateTime now = ZonedDateTime.now();
+        when(dateTimeService.getDefaultZonedDateTime()).thenReturn(now);
+        Cluster cluster = new Cluster();
+        cluster.setCoolDown(5);
+        cluster.setLastEvaluated(1L);
+        TimeAlert olderAlert = new TimeAlert();
+        olderAlert.setId(1L);
+        TimeAlert recentAlert = new TimeAlert();
+        recentAlert.setId(2L);
+        TimeAlert notFiredAlert = new TimeAlert();
+        notFiredAlert.setId(3L);
+        cluster.setTimeAlerts(Set.of(olderAlert, recentAlert, notFiredAlert));
+        when(dateService.getLastFireTime(eq(olderAlert), any(), eq(now))).thenReturn(Optional.of(now.minusSeconds(3L)));
+        when(dateService.getLastFireTime(eq(recentAlert), any(), eq(now))).thenReturn(Optional.of(now.minusSeconds(1L)));
+        when(dateService.getLastFireTime(eq(notFiredAlert), any(), eq(now))).thenReturn(Optional.empty());
+
+        WhiteboxImpl.invokeMethod(underTest, "executeMissedTimeBasedAlerts", cluster);
+
+        ArgumentCaptor<Map<TimeAlert, ZonedDateTime>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(cronTimeEvaluator).publishIfNeeded(captor.capture());
+        Assert.assertEquals(List.of(recentAlert, olderAlert), List.copyOf(captor.getValue().keySet()));
+    }
+
     private Cluster getValidIsMissedNeeded() {
         Cluster cluster = new Cluster();
         cluster.setPeriscopeNodeId("");
@@ -0,0 +1,47 @@
+package com.sequenceiq.cloudbreak.cloud.model.catalog;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lookup tables of the images of an image catalog by image id, so an image can be found without scanning the image lists. The index is
+ * built once from the images, the lists of the images must not change afterwards.
+ */
+public class ImageCatalogIndex {
+
+    private final Map<String, Image> freeIpaImagesById;
+
+    private final Map<String, Image> baseImagesById;
+
+    private final Map<String, Image> cdhImagesById;
+
+    ImageCatalogIndex(Images images) {
+        freeIpaImagesById = indexById(images.getFreeIpaImages());
+        baseImagesById = indexById(images.getBaseImages());
+        cdhImagesById = indexById(images.getCdhImages());
+    }
+
+    /**
+     * Finds the image with the given id. FreeIPA catalogs are looked up only among the FreeIPA images, other catalogs among the base
+     * images first, then among the runtime images.
+     */
+    public Optional<Image> findImage(String imageId) {
+        if (!freeIpaImagesById.isEmpty()) {
+            return Optional.ofNullable(freeIpaImagesById.get(imageId));
+        }
+        Image image = baseImagesById.get(imageId);
+        return Optional.ofNullable(image != null ? image : cdhImagesById.get(imageId));
+    }
+
+    private Map<String, Image> indexById(List<Image> images) {
+        Map<String, Image> imagesById = new HashMap<>();
+        for (Image image : images) {
+            if (image.getUuid() != null) {
+                imagesById.putIfAbsent(image.getUuid(), image);
+            }
+        }
+        return imagesById;
+    }
+}
@@ -30,6 +30,8 @@ public class Images {
 
     private final Set<String> suppertedVersions;
 
+    private volatile ImageCatalogIndex index;
+
     @JsonCreator
     public Images(
             @JsonProperty(BASE_IMAGES) List<Image> baseImages,
@@ -66,4 +68,17 @@ public class Images {
     public int getNumberOfImages() {
         return baseImages.size() + cdhImages.size() + freeIpaImages.size();
     }
+
+    /**
+     * Returns the lookup tables of the images, which are built on the first call.
+     */
+    @JsonIgnore
+    public ImageCatalogIndex getIndex() {
+        ImageCatalogIndex result = index;
+        if (result == null) {
+            result = new ImageCatalogIndex(this);
+            index = result;
+        }
+        return result;
+    }
 }
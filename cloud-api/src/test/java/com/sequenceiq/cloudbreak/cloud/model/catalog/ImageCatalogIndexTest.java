@@ -0,0 +1,44 @@
+package com.sequenceiq.cloudbreak.cloud.model.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+
+public class ImageCatalogIndexTest {
+
+    private Images images;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        String imageCatalog = FileReaderUtils.readFileFromClasspath("image-catalog.json");
+        images = new ObjectMapper().readValue(imageCatalog, CloudbreakImageCatalogV3.class).getImages();
+    }
+
+    @Test
+    public void testFindImageById() {
+        List<Image> catalogImages = Stream.concat(images.getBaseImages().stream(), images.getCdhImages().stream()).collect(Collectors.toList());
+        assertFalse(catalogImages.isEmpty());
+
+        for (Image image : catalogImages) {
+            assertEquals(image.getUuid(), images.getIndex().findImage(image.getUuid()).get().getUuid());
+        }
+        assertTrue(images.getIndex().findImage("unknown-image-id").isEmpty());
+    }
+
+    @Test
+    public void testIndexIsBuiltOnce() {
+        assertSame(images.getIndex(), images.getIndex());
+    }
+}
@@ -26,8 +26,9 @@ public class AwsCloudFormationClient extends AwsClient {
     private Tracer tracer;
 
     public AmazonCloudFormationClient createCloudFormationClient(AwsCredentialView awsCredential, String regionName) {
-        AmazonCloudFormation cloudFormationClient = createCloudFormation(awsCredential, regionName);
-        return new AmazonCloudFormationClient(proxy(cloudFormationClient, awsCredential, regionName), retry);
+        AmazonCloudFormation cloudFormationClient = cached(AmazonCloudFormation.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(createCloudFormation(awsCredential, regionName), awsCredential, regionName), AmazonCloudFormation::shutdown);
+        return new AmazonCloudFormationClient(cloudFormationClient, retry);
     }
 
     @VisibleForTesting
@@ -42,12 +43,13 @@ public class AwsCloudFormationClient extends AwsClient {
     }
 
     public AmazonAutoScalingClient createAutoScalingClient(AwsCredentialView awsCredential, String regionName) {
-        AmazonAutoScaling client = proxy(com.amazonaws.services.autoscaling.AmazonAutoScalingClient.builder()
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRegion(regionName)
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withClientConfiguration(getDefaultClientConfiguration())
-                .build(), awsCredential, regionName);
+        AmazonAutoScaling client = cached(AmazonAutoScaling.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(com.amazonaws.services.autoscaling.AmazonAutoScalingClient.builder()
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRegion(regionName)
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withClientConfiguration(getDefaultClientConfiguration())
+                        .build(), awsCredential, regionName), AmazonAutoScaling::shutdown);
         return new AmazonAutoScalingClient(client, retry);
     }
 }
@@ -4,6 +4,8 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 
@@ -44,6 +46,7 @@ import com.sequenceiq.cloudbreak.cloud.aws.common.client.AmazonKmsClient;
 import com.sequenceiq.cloudbreak.cloud.aws.common.client.AmazonRdsClient;
 import com.sequenceiq.cloudbreak.cloud.aws.common.client.AmazonS3Client;
 import com.sequenceiq.cloudbreak.cloud.aws.common.client.AmazonSecurityTokenServiceClient;
+import com.sequenceiq.cloudbreak.cloud.aws.common.client.AwsClientCache;
 import com.sequenceiq.cloudbreak.cloud.aws.common.mapper.SdkClientExceptionMapper;
 import com.sequenceiq.cloudbreak.cloud.aws.common.tracing.AwsTracingRequestHandler;
 import com.sequenceiq.cloudbreak.cloud.aws.common.view.AuthenticatedContextView;
@@ -64,6 +67,10 @@ public abstract class AwsClient {
 
     public static final int MAX_CONSECUTIVE_RETRIES_BEFORE_THROTTLING = 200;
 
+    protected static final String DEFAULT_CLIENT = "default";
+
+    private static final String MINIMAL_RETRIES_CLIENT = "minimal-retries";
+
     @Inject
     private AwsSessionCredentialClient credentialClient;
 
@@ -82,6 +89,9 @@ public abstract class AwsClient {
     @Inject
     private SdkClientExceptionMapper sdkClientExceptionMapper;
 
+    @Inject
+    private AwsClientCache awsClientCache;
+
     public AuthenticatedContext createAuthenticatedContext(CloudContext cloudContext, CloudCredential cloudCredential) {
         AuthenticatedContext authenticatedContext = new AuthenticatedContext(cloudContext, cloudCredential);
         try {
@@ -104,7 +114,8 @@ public abstract class AwsClient {
     }
 
     public AmazonEc2Client createAccessWithMinimalRetries(AwsCredentialView awsCredential, String regionName) {
-        AmazonEC2 ec2Client = createAccessWithClientConfiguration(awsCredential, regionName, getClientConfigurationWithMinimalRetries());
+        AmazonEC2 ec2Client = cached(AmazonEC2.class, MINIMAL_RETRIES_CLIENT, awsCredential, regionName,
+                () -> createAccessWithClientConfiguration(awsCredential, regionName, getClientConfigurationWithMinimalRetries()), AmazonEC2::shutdown);
         return new AmazonEc2Client(ec2Client, retry);
     }
 
@@ -117,7 +128,8 @@ public abstract class AwsClient {
     }
 
     private AmazonEC2 createAccess(AwsCredentialView awsCredential, String regionName) {
-        return createAccessWithClientConfiguration(awsCredential, regionName, getDefaultClientConfiguration());
+        return cached(AmazonEC2.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> createAccessWithClientConfiguration(awsCredential, regionName, getDefaultClientConfiguration()), AmazonEC2::shutdown);
     }
 
     @VisibleForTesting
@@ -131,12 +143,13 @@ public abstract class AwsClient {
     }
 
     public AmazonCloudWatchClient createCloudWatchClient(AwsCredentialView awsCredential, String regionName) {
-        AmazonCloudWatch client = proxy(com.amazonaws.services.cloudwatch.AmazonCloudWatchClient.builder()
-                .withClientConfiguration(getDefaultClientConfiguration())
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withRegion(regionName)
-                .build(), awsCredential, regionName);
+        AmazonCloudWatch client = cached(AmazonCloudWatch.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(com.amazonaws.services.cloudwatch.AmazonCloudWatchClient.builder()
+                        .withClientConfiguration(getDefaultClientConfiguration())
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withRegion(regionName)
+                        .build(), awsCredential, regionName), AmazonCloudWatch::shutdown);
         return new AmazonCloudWatchClient(client);
     }
 
@@ -146,12 +159,13 @@ public abstract class AwsClient {
     }
 
     public AmazonSecurityTokenServiceClient createSecurityTokenService(AwsCredentialView awsCredential, String region) {
-        AWSSecurityTokenService client = proxy(com.amazonaws.services.securitytoken.AWSSecurityTokenServiceClient.builder()
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withClientConfiguration(getDefaultClientConfiguration())
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withRegion(region)
-                .build(), awsCredential, region);
+        AWSSecurityTokenService client = cached(AWSSecurityTokenService.class, DEFAULT_CLIENT, awsCredential, region,
+                () -> proxy(com.amazonaws.services.securitytoken.AWSSecurityTokenServiceClient.builder()
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withClientConfiguration(getDefaultClientConfiguration())
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withRegion(region)
+                        .build(), awsCredential, region), AWSSecurityTokenService::shutdown);
         return new AmazonSecurityTokenServiceClient(client);
     }
 
@@ -168,71 +182,78 @@ public abstract class AwsClient {
 
     public AmazonIdentityManagementClient createAmazonIdentityManagement(AwsCredentialView awsCredential) {
         String region = awsDefaultZoneProvider.getDefaultZone(awsCredential);
-        AmazonIdentityManagement client = proxy(AmazonIdentityManagementClientBuilder.standard()
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withRegion(region)
-                .withClientConfiguration(getDefaultClientConfiguration())
-                .withCredentials(getCredentialProvider(awsCredential))
-                .build(), awsCredential, region);
+        AmazonIdentityManagement client = cached(AmazonIdentityManagement.class, DEFAULT_CLIENT, awsCredential, region,
+                () -> proxy(AmazonIdentityManagementClientBuilder.standard()
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withRegion(region)
+                        .withClientConfiguration(getDefaultClientConfiguration())
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .build(), awsCredential, region), AmazonIdentityManagement::shutdown);
         return new AmazonIdentityManagementClient(client);
     }
 
     public AmazonKmsClient createAWSKMS(AwsCredentialView awsCredential, String regionName) {
-        AWSKMS client = proxy(AWSKMSClientBuilder.standard()
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRegion(regionName)
-                .build(), awsCredential, regionName);
+        AWSKMS client = cached(AWSKMS.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(AWSKMSClientBuilder.standard()
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRegion(regionName)
+                        .build(), awsCredential, regionName), AWSKMS::shutdown);
         return new AmazonKmsClient(client);
     }
 
     public AmazonElasticLoadBalancingClient createElasticLoadBalancingClient(AwsCredentialView awsCredential, String regionName) {
-        AmazonElasticLoadBalancing client = proxy(com.amazonaws.services.elasticloadbalancingv2.AmazonElasticLoadBalancingClient.builder()
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRegion(regionName)
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withClientConfiguration(getDefaultClientConfiguration())
-                .build(), awsCredential, regionName);
+        AmazonElasticLoadBalancing client = cached(AmazonElasticLoadBalancing.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(com.amazonaws.services.elasticloadbalancingv2.AmazonElasticLoadBalancingClient.builder()
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRegion(regionName)
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withClientConfiguration(getDefaultClientConfiguration())
+                        .build(), awsCredential, regionName), AmazonElasticLoadBalancing::shutdown);
         return new AmazonElasticLoadBalancingClient(client);
     }
 
     public AmazonEfsClient createElasticFileSystemClient(AwsCredentialView awsCredential, String regionName) {
-        AmazonElasticFileSystem client = proxy(com.amazonaws.services.elasticfilesystem.AmazonElasticFileSystemClient.builder()
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRegion(regionName)
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .build(), awsCredential, regionName);
+        AmazonElasticFileSystem client = cached(AmazonElasticFileSystem.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(com.amazonaws.services.elasticfilesystem.AmazonElasticFileSystemClient.builder()
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRegion(regionName)
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .build(), awsCredential, regionName), AmazonElasticFileSystem::shutdown);
         return new AmazonEfsClient(client, retry);
     }
 
     public AmazonS3Client createS3Client(AwsCredentialView awsCredential) {
         String regionName = awsDefaultZoneProvider.getDefaultZone(awsCredential);
-        AmazonS3 client = proxy(AmazonS3ClientBuilder.standard()
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRegion(regionName)
-                .withForceGlobalBucketAccessEnabled(Boolean.TRUE)
-                .build(), awsCredential, regionName);
+        AmazonS3 client = cached(AmazonS3.class, DEFAULT_CLIENT, awsCredential, regionName,
+                () -> proxy(AmazonS3ClientBuilder.standard()
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRegion(regionName)
+                        .withForceGlobalBucketAccessEnabled(Boolean.TRUE)
+                        .build(), awsCredential, regionName), AmazonS3::shutdown);
         return new AmazonS3Client(client);
     }
 
     public AmazonDynamoDBClient createDynamoDbClient(AwsCredentialView awsCredential, String region) {
-        final AmazonDynamoDB client = proxy(AmazonDynamoDBClientBuilder.standard()
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withClientConfiguration(getDynamoDbClientConfiguration())
-                .withCredentials(getCredentialProvider(awsCredential))
-                .withRegion(region)
-                .build(), awsCredential, region);
+        final AmazonDynamoDB client = cached(AmazonDynamoDB.class, DEFAULT_CLIENT, awsCredential, region,
+                () -> proxy(AmazonDynamoDBClientBuilder.standard()
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withClientConfiguration(getDynamoDbClientConfiguration())
+                        .withCredentials(getCredentialProvider(awsCredential))
+                        .withRegion(region)
+                        .build(), awsCredential, region), AmazonDynamoDB::shutdown);
         return new AmazonDynamoDBClient(client);
     }
 
     public AmazonRdsClient createRdsClient(AwsCredentialView awsCredentialView, String region) {
-        final AmazonRDS client = proxy(AmazonRDSClientBuilder.standard()
-                .withRequestHandlers(new AwsTracingRequestHandler(tracer))
-                .withCredentials(getCredentialProvider(awsCredentialView))
-                .withClientConfiguration(getDefaultClientConfiguration())
-                .withRegion(region)
-                .build(), awsCredentialView, region);
+        final AmazonRDS client = cached(AmazonRDS.class, DEFAULT_CLIENT, awsCredentialView, region,
+                () -> proxy(AmazonRDSClientBuilder.standard()
+                        .withRequestHandlers(new AwsTracingRequestHandler(tracer))
+                        .withCredentials(getCredentialProvider(awsCredentialView))
+                        .withClientConfiguration(getDefaultClientConfiguration())
+                        .withRegion(region)
+                        .build(), awsCredentialView, region), AmazonRDS::shutdown);
         return new AmazonRdsClient(client);
     }
 
@@ -316,6 +337,15 @@ public abstract class AwsClient {
         return new AwsSessionCredentialProvider(awsCredential, Objects.requireNonNull(credentialClient));
     }
 
+    /**
+     * Returns the client of the credential and region from the client cache, the client is built by the factory only if it is not cached.
+     * The variant has to be different for the clients of the same interface which are built with different client configurations.
+     */
+    protected <T> T cached(Class<T> clientInterface, String variant, AwsCredentialView awsCredential, String region, Supplier<T> clientFactory,
+            Consumer<T> shutdown) {
+        return awsClientCache.getOrCreate(clientInterface, variant, awsCredential, region, clientFactory, shutdown);
+    }
+
     protected <T> T proxy(T client, AwsCredentialView awsCredentialView, String region) {
         AspectJProxyFactory proxyFactory = new AspectJProxyFactory(client);
         proxyFactory.addAspect(new AmazonClientExceptionHandler(awsCredentialView, region, sdkClientExceptionMapper));
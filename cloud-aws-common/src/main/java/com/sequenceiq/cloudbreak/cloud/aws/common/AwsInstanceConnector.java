@@ -6,9 +6,10 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -33,6 +34,7 @@ import com.amazonaws.services.ec2.model.Instance;
 import com.amazonaws.services.ec2.model.Reservation;
 import com.amazonaws.services.ec2.model.StartInstancesRequest;
 import com.amazonaws.services.ec2.model.StopInstancesRequest;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.sequenceiq.cloudbreak.cloud.InstanceConnector;
 import com.sequenceiq.cloudbreak.cloud.aws.common.client.AmazonEc2Client;
@@ -53,6 +55,9 @@ public class AwsInstanceConnector implements InstanceConnector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AwsInstanceConnector.class);
 
+    // the instances of the stacks which are synced together are described in batches of this size
+    private static final int DESCRIBE_INSTANCES_BATCH_SIZE = 1000;
+
     @Inject
     private PollerUtil pollerUtil;
 
@@ -288,10 +293,9 @@ public class AwsInstanceConnector implements InstanceConnector {
 
         String region = ac.getCloudContext().getLocation().getRegion().value();
         try {
-            DescribeInstancesResult result = new AuthenticatedContextView(ac).getAmazonEC2Client()
-                    .describeInstances(new DescribeInstancesRequest().withInstanceIds(instanceIds));
-            LOGGER.debug("Result from AWS: {}", result);
-            return fillCloudVmInstanceStatuses(ac, cloudInstancesWithInstanceId, region, result);
+            List<Reservation> reservations = describeInstances(new AuthenticatedContextView(ac).getAmazonEC2Client(), instanceIds);
+            LOGGER.debug("Result from AWS: {}", reservations);
+            return fillCloudVmInstanceStatuses(ac, cloudInstancesWithInstanceId, region, reservations);
         } catch (AmazonEC2Exception e) {
             handleEC2Exception(vms, e);
         } catch (SdkClientException e) {
@@ -301,16 +305,29 @@ public class AwsInstanceConnector implements InstanceConnector {
         return Collections.emptyList();
     }
 
+    private List<Reservation> describeInstances(AmazonEc2Client amazonEC2Client, List<String> instanceIds) {
+        List<Reservation> reservations = new ArrayList<>();
+        for (List<String> instanceIdBatch : Lists.partition(instanceIds, DESCRIBE_INSTANCES_BATCH_SIZE)) {
+            DescribeInstancesRequest request = new DescribeInstancesRequest().withInstanceIds(instanceIdBatch);
+            DescribeInstancesResult result;
+            do {
+                result = amazonEC2Client.describeInstances(request);
+                reservations.addAll(result.getReservations());
+                request.setNextToken(result.getNextToken());
+            } while (result.getNextToken() != null);
+        }
+        return reservations;
+    }
+
     private List<CloudVmInstanceStatus> fillCloudVmInstanceStatuses(AuthenticatedContext ac, List<CloudInstance> cloudIntancesWithInstanceId, String region,
-            DescribeInstancesResult result) {
+            List<Reservation> reservations) {
+        Map<String, CloudInstance> cloudInstancesByInstanceId = cloudIntancesWithInstanceId.stream()
+                .collect(Collectors.toMap(CloudInstance::getInstanceId, Function.identity(), (first, second) -> first));
         List<CloudVmInstanceStatus> cloudVmInstanceStatuses = new ArrayList<>();
-        for (Reservation reservation : result.getReservations()) {
+        for (Reservation reservation : reservations) {
             for (Instance instance : reservation.getInstances()) {
-                Optional<CloudInstance> cloudInstanceForInstanceId = cloudIntancesWithInstanceId.stream()
-                        .filter(cloudInstance -> cloudInstance.getInstanceId().equals(instance.getInstanceId()))
-                        .findFirst();
-                if (cloudInstanceForInstanceId.isPresent()) {
-                    CloudInstance cloudInstance = cloudInstanceForInstanceId.get();
+                CloudInstance cloudInstance = cloudInstancesByInstanceId.get(instance.getInstanceId());
+                if (cloudInstance != null) {
                     LOGGER.debug("AWS instance [{}] is in {} state, region: {}, stack: {}",
                             instance.getInstanceId(), instance.getState().getName(), region, ac.getCloudContext().getId());
                     cloudVmInstanceStatuses.add(new CloudVmInstanceStatus(cloudInstance,
@@ -0,0 +1,395 @@
+package com.sequenceiq.cloudbreak.cloud.aws.common.client;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.cloud.aws.common.view.AwsCredentialView;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+
+/**
+ * Keeps one AWS SDK client per client type, credential and region, so the connection pool, the TLS sessions and the credential provider of a
+ * client are reused by the consecutive operations instead of building a new client for every operation. Role based clients resolve their
+ * session credentials for every request from the session credential cache, which is refreshed long before the session expires, so a client
+ * does not have to be rebuilt when its session expires.
+ * <p>
+ * The callers get a handle of the client instead of the client itself, which looks up the current client for every call. So a client can be
+ * replaced when its lifetime is over, evicted when it is idle or when there are too many clients, and shut down as soon as its running calls
+ * have finished, while the callers keep using their handles. The waiters of a client are handed out the same way, a waiter is bound to the
+ * current client only while it is running, so the client is not shut down while a waiter is polling with it.
+ */
+@Component
+public class AwsClientCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AwsClientCache.class);
+
+    private static final String REASON_TAG = "reason";
+
+    private static final String SHUTDOWN_METHOD = "shutdown";
+
+    private static final String WAITERS_METHOD = "waiters";
+
+    @Value("${cb.aws.client.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cb.aws.client.cache.max.size:500}")
+    private int maxSize;
+
+    @Value("${cb.aws.client.cache.ttl.ms:3600000}")
+    private long timeToLive;
+
+    @Value("${cb.aws.client.cache.idle.ms:900000}")
+    private long idleTime;
+
+    @Inject
+    private ObjectProvider<MetricService> metricServiceProvider;
+
+    private final Map<ClientKey, CachedClient<?>> clients = new ConcurrentHashMap<>();
+
+    private final Queue<CachedClient<?>> retiredClients = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        MetricService metricService = getMetricService();
+        if (metricService != null) {
+            metricService.registerGaugeMetric(AwsClientMetricType.AWS_CLIENT_POOL_SIZE, clients, Map::size, Map.of());
+            metricService.registerGaugeMetric(AwsClientMetricType.AWS_CLIENT_IN_FLIGHT, clients,
+                    c -> c.values().stream().mapToInt(CachedClient::getInFlight).sum(), Map.of());
+            metricService.registerGaugeMetric(AwsClientMetricType.AWS_CLIENT_RETIRED, retiredClients, Queue::size, Map.of());
+        }
+    }
+
+    /**
+     * Returns a handle of the cached client of the credential and region. The client is built by the factory if there is no cached client,
+     * and it is shut down by the cache, so shutting down the handle has no effect. Clients of credentials without an id are not cached,
+     * the same way as their session credentials are not cached.
+     *
+     * @param clientInterface the SDK interface of the client, which is implemented by the handle
+     * @param variant         distinguishes the clients of the same interface which are built with different client configurations
+     */
+    public <T> T getOrCreate(Class<T> clientInterface, String variant, AwsCredentialView awsCredential, String region, Supplier<T> clientFactory,
+            Consumer<T> shutdown) {
+        if (!enabled || !awsCredential.isIdentified()) {
+            return clientFactory.get();
+        }
+        ClientKey key = new ClientKey(clientInterface.getName() + '/' + variant, fingerprint(awsCredential), region);
+        ClientHandle<T> handle = new ClientHandle<>(key, clientFactory, shutdown);
+        resolve(handle, true);
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.addInterface(clientInterface);
+        proxyFactory.addAdvice(handle);
+        return (T) proxyFactory.getProxy(clientInterface.getClassLoader());
+    }
+
+    @Scheduled(fixedDelayString = "${cb.aws.client.cache.eviction.rate.ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        clients.forEach((key, cachedClient) -> {
+            if (cachedClient.isExpired(now) && clients.remove(key, cachedClient)) {
+                retire(key, cachedClient, "expired");
+            } else if (cachedClient.isIdle(now, idleTime) && clients.remove(key, cachedClient)) {
+                retire(key, cachedClient, "idle");
+            }
+        });
+        retiredClients.removeIf(CachedClient::closeIfUnused);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach((key, cachedClient) -> cachedClient.retire());
+        clients.clear();
+        retiredClients.removeIf(CachedClient::closeIfUnused);
+    }
+
+    int size() {
+        return clients.size();
+    }
+
+    int retiredSize() {
+        return retiredClients.size();
+    }
+
+    private <T> CachedClient<T> resolve(ClientHandle<T> handle, boolean acquire) {
+        long now = System.currentTimeMillis();
+        CachedClient<?> cachedClient = clients.get(handle.key);
+        if (cachedClient == null || cachedClient.isExpired(now)) {
+            cachedClient = clients.compute(handle.key, (key, current) -> createIfExpired(handle, current, now));
+            evictLeastRecentlyUsed();
+        } else if (acquire) {
+            incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_REUSED);
+        }
+        return (CachedClient<T>) cachedClient;
+    }
+
+    private <T> CachedClient<?> createIfExpired(ClientHandle<T> handle, CachedClient<?> current, long now) {
+        if (current != null && !current.isExpired(now)) {
+            return current;
+        } else if (current != null) {
+            retire(handle.key, current, "expired");
+        }
+        LOGGER.debug("Creating AWS client {} in region {}", handle.key.clientName, handle.key.region);
+        CachedClient<T> created = new CachedClient<>(handle.clientFactory.get(), handle.shutdown, now, now + timeToLive);
+        incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_CREATED);
+        return created;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (clients.size() > maxSize) {
+            clients.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().getLastUsed()))
+                    .filter(entry -> clients.remove(entry.getKey(), entry.getValue()))
+                    .ifPresent(entry -> retire(entry.getKey(), entry.getValue(), "size"));
+        }
+    }
+
+    private void retire(ClientKey key, CachedClient<?> cachedClient, String reason) {
+        LOGGER.debug("Evicting AWS client {} in region {}, reason: {}", key.clientName, key.region, reason);
+        cachedClient.retire();
+        if (!cachedClient.closeIfUnused()) {
+            retiredClients.add(cachedClient);
+        }
+        incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_EVICTED, REASON_TAG, reason);
+    }
+
+    private void incrementMetricCounter(AwsClientMetricType metric, String... tags) {
+        MetricService metricService = getMetricService();
+        if (metricService != null) {
+            metricService.incrementMetricCounter(metric, tags);
+        }
+    }
+
+    private MetricService getMetricService() {
+        return metricServiceProvider == null ? null : metricServiceProvider.getIfUnique();
+    }
+
+    private String fingerprint(AwsCredentialView awsCredential) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : Arrays.asList(awsCredential.getCredentialCrn(), awsCredential.getName(), awsCredential.getRoleArn(),
+                    awsCredential.getExternalId(), awsCredential.getAccessKey(), awsCredential.getSecretKey(),
+                    String.valueOf(awsCredential.isGovernmentCloudEnabled()))) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Calls the current client of the key, so the callers can keep the handle while the client is replaced.
+     */
+    private class ClientHandle<T> implements MethodInterceptor {
+
+        private final ClientKey key;
+
+        private final Supplier<T> clientFactory;
+
+        private final Consumer<T> shutdown;
+
+        ClientHandle(ClientKey key, Supplier<T> clientFactory, Consumer<T> shutdown) {
+            this.key = key;
+            this.clientFactory = clientFactory;
+            this.shutdown = shutdown;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            if (SHUTDOWN_METHOD.equals(method.getName()) && invocation.getArguments().length == 0) {
+                return null;
+            } else if (WAITERS_METHOD.equals(method.getName()) && invocation.getArguments().length == 0) {
+                return createWaitersHandle(method);
+            }
+            return invokeOnCurrentClient(client -> AopUtils.invokeJoinpointUsingReflection(client, method, invocation.getArguments()));
+        }
+
+        /**
+         * The waiters of the SDK clients are classes, so they are proxied by subclassing. The waiters returned by them are interfaces, which
+         * look up the waiter of the current client when they are run.
+         */
+        private Object createWaitersHandle(Method waitersMethod) {
+            ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setTargetClass(waitersMethod.getReturnType());
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvice((MethodInterceptor) waitersInvocation -> {
+                Method waiterMethod = waitersInvocation.getMethod();
+                Object[] waiterArguments = waitersInvocation.getArguments();
+                if (SHUTDOWN_METHOD.equals(waiterMethod.getName()) && waiterArguments.length == 0) {
+                    return null;
+                } else if (waiterMethod.getReturnType().isInterface()) {
+                    return createWaiterHandle(waitersMethod, waiterMethod, waiterArguments);
+                }
+                return invokeOnCurrentClient(client -> AopUtils.invokeJoinpointUsingReflection(
+                        AopUtils.invokeJoinpointUsingReflection(client, waitersMethod, new Object[0]), waiterMethod, waiterArguments));
+            });
+            return proxyFactory.getProxy(waitersMethod.getReturnType().getClassLoader());
+        }
+
+        private Object createWaiterHandle(Method waitersMethod, Method waiterMethod, Object[] waiterArguments) {
+            ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.addInterface(waiterMethod.getReturnType());
+            proxyFactory.addAdvice((MethodInterceptor) invocation -> invokeOnCurrentClient(client -> {
+                Object waiters = AopUtils.invokeJoinpointUsingReflection(client, waitersMethod, new Object[0]);
+                Object waiter = AopUtils.invokeJoinpointUsingReflection(waiters, waiterMethod, waiterArguments);
+                return AopUtils.invokeJoinpointUsingReflection(waiter, invocation.getMethod(), invocation.getArguments());
+            }));
+            return proxyFactory.getProxy(waiterMethod.getReturnType().getClassLoader());
+        }
+
+        private Object invokeOnCurrentClient(ClientCall<T> call) throws Throwable {
+            CachedClient<T> cachedClient = resolve(this, false);
+            while (!cachedClient.begin()) {
+                cachedClient = resolve(this, false);
+            }
+            try {
+                return call.invoke(cachedClient.getClient());
+            } finally {
+                cachedClient.end();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ClientCall<T> {
+
+        Object invoke(T client) throws Throwable;
+    }
+
+    private static class ClientKey {
+
+        private final String clientName;
+
+        private final String credentialFingerprint;
+
+        private final String region;
+
+        ClientKey(String clientName, String credentialFingerprint, String region) {
+            this.clientName = clientName;
+            this.credentialFingerprint = credentialFingerprint;
+            this.region = region;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ClientKey clientKey = (ClientKey) o;
+            return clientName.equals(clientKey.clientName) && credentialFingerprint.equals(clientKey.credentialFingerprint)
+                    && Objects.equals(region, clientKey.region);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clientName, credentialFingerprint, region);
+        }
+    }
+
+    private static class CachedClient<T> {
+
+        private final T client;
+
+        private final Consumer<T> shutdown;
+
+        private final long expiresAt;
+
+        private volatile long lastUsed;
+
+        private int inFlight;
+
+        private boolean retired;
+
+        private boolean closed;
+
+        CachedClient(T client, Consumer<T> shutdown, long now, long expiresAt) {
+            this.client = client;
+            this.shutdown = shutdown;
+            this.expiresAt = expiresAt;
+            lastUsed = now;
+        }
+
+        synchronized boolean begin() {
+            if (retired) {
+                return false;
+            }
+            inFlight++;
+            lastUsed = System.currentTimeMillis();
+            return true;
+        }
+
+        synchronized void end() {
+            inFlight--;
+            lastUsed = System.currentTimeMillis();
+            closeIfUnused();
+        }
+
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * Shuts the client down if it is retired and no call is running on it, and returns whether the client is shut down.
+         */
+        synchronized boolean closeIfUnused() {
+            if (retired && inFlight <= 0 && !closed) {
+                closed = true;
+                try {
+                    shutdown.accept(client);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Failed to shut down AWS client", e);
+                }
+            }
+            return closed;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        boolean isIdle(long now, long idleTime) {
+            return now - lastUsed >= idleTime;
+        }
+
+        long getLastUsed() {
+            return lastUsed;
+        }
+
+        T getClient() {
+            return client;
+        }
+    }
+}
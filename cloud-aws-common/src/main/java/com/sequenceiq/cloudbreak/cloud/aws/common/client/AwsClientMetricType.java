@@ -0,0 +1,23 @@
+package com.sequenceiq.cloudbreak.cloud.aws.common.client;
+
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+
+public enum AwsClientMetricType implements Metric {
+    AWS_CLIENT_POOL_SIZE("aws.client.pool.size"),
+    AWS_CLIENT_IN_FLIGHT("aws.client.inflight"),
+    AWS_CLIENT_RETIRED("aws.client.retired"),
+    AWS_CLIENT_CREATED("aws.client.created"),
+    AWS_CLIENT_REUSED("aws.client.reused"),
+    AWS_CLIENT_EVICTED("aws.client.evicted");
+
+    private final String metricName;
+
+    AwsClientMetricType(String metricName) {
+        this.metricName = metricName;
+    }
+
+    @Override
+    public String getMetricName() {
+        return metricName;
+    }
+}
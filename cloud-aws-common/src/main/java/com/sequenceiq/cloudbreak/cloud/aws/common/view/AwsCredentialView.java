@@ -38,6 +38,11 @@ public class AwsCredentialView {
         return cloudCredential.getId();
     }
 
+    // This method is used in AwsClientCache.java, clients of credentials without id are not cached
+    public boolean isIdentified() {
+        return cloudCredential != null && cloudCredential.getId() != null;
+    }
+
     public String getRoleArn() {
         if (cloudCredential.hasParameter(AWS)) {
             Map<String, String> roleBased = getRoleBased();
@@ -0,0 +1,288 @@
+package com.sequenceiq.cloudbreak.cloud.aws.common.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.cloud.aws.common.view.AwsCredentialView;
+import com.sequenceiq.cloudbreak.cloud.model.CloudCredential;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+
+@ExtendWith(MockitoExtension.class)
+class AwsClientCacheTest {
+
+    private static final String REGION = "eu-west-1";
+
+    private static final String OTHER_REGION = "us-east-1";
+
+    private static final String VARIANT = "default";
+
+    private static final long WAIT_SECONDS = 5L;
+
+    @InjectMocks
+    private AwsClientCache underTest;
+
+    @Mock
+    private ObjectProvider<MetricService> metricServiceProvider;
+
+    @Mock
+    private MetricService metricService;
+
+    private final List<TestClient> createdClients = new ArrayList<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "maxSize", 10);
+        ReflectionTestUtils.setField(underTest, "timeToLive", 3_600_000L);
+        ReflectionTestUtils.setField(underTest, "idleTime", 900_000L);
+        lenient().when(metricServiceProvider.getIfUnique()).thenReturn(metricService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        underTest.shutdown();
+    }
+
+    @Test
+    void testClientIsReusedForTheSameCredentialAndRegion() {
+        TestClient first = getOrCreate(credential("crn1"), REGION);
+        TestClient second = getOrCreate(credential("crn1"), REGION);
+
+        assertEquals(first.call(), second.call());
+        assertEquals(1, createdClients.size());
+        verify(metricService, times(1)).incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_CREATED);
+        verify(metricService, times(1)).incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_REUSED);
+    }
+
+    @Test
+    void testCredentialsAndRegionsHaveSeparateClients() {
+        getOrCreate(credential("crn1"), REGION);
+        getOrCreate(credential("crn2"), REGION);
+        getOrCreate(credential("crn1"), OTHER_REGION);
+
+        assertEquals(3, createdClients.size());
+        assertEquals(3, underTest.size());
+    }
+
+    @Test
+    void testClientOfCredentialWithoutIdIsNotCached() {
+        TestClient first = getOrCreate(credential(null), REGION);
+        TestClient second = getOrCreate(credential(null), REGION);
+
+        assertEquals(List.of(first, second), createdClients);
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    void testExpiredClientIsReplacedAndShutDown() {
+        ReflectionTestUtils.setField(underTest, "timeToLive", -1L);
+        TestClient handle = getOrCreate(credential("crn1"), REGION);
+
+        handle.call();
+
+        assertEquals(2, createdClients.size());
+        assertTrue(createdClients.get(0).isShutDown());
+        verify(metricService).incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_EVICTED, "reason", "expired");
+    }
+
+    @Test
+    void testLeastRecentlyUsedClientIsEvictedAboveMaxSize() {
+        ReflectionTestUtils.setField(underTest, "maxSize", 1);
+
+        getOrCreate(credential("crn1"), REGION);
+        getOrCreate(credential("crn1"), OTHER_REGION);
+
+        assertEquals(1, underTest.size());
+        assertTrue(createdClients.get(0).isShutDown());
+        assertFalse(createdClients.get(1).isShutDown());
+        verify(metricService).incrementMetricCounter(AwsClientMetricType.AWS_CLIENT_EVICTED, "reason", "size");
+    }
+
+    @Test
+    void testIdleClientIsShutDownAfterItsRunningCallFinished() throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch callReleased = new CountDownLatch(1);
+        TestClient handle = underTest.getOrCreate(TestClient.class, VARIANT, credential("crn1"), REGION,
+                () -> createClient(callStarted, callReleased), TestClient::shutdown);
+        Future<String> call = executor.submit(handle::call);
+        assertTrue(callStarted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+        ReflectionTestUtils.setField(underTest, "idleTime", 0L);
+        underTest.evictExpired();
+
+        assertEquals(0, underTest.size());
+        assertEquals(1, underTest.retiredSize());
+        assertFalse(createdClients.get(0).isShutDown());
+
+        callReleased.countDown();
+        call.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        underTest.evictExpired();
+
+        assertTrue(createdClients.get(0).isShutDown());
+        assertEquals(0, underTest.retiredSize());
+    }
+
+    @Test
+    void testIdleClientIsShutDownAfterItsRunningWaiterFinished() throws Exception {
+        CountDownLatch waitStarted = new CountDownLatch(1);
+        CountDownLatch waitReleased = new CountDownLatch(1);
+        TestClient handle = underTest.getOrCreate(TestClient.class, VARIANT, credential("crn1"), REGION,
+                () -> createClient(waitStarted, waitReleased), TestClient::shutdown);
+        TestWaiter waiter = handle.waiters().ready();
+        Future<String> wait = executor.submit(waiter::run);
+        assertTrue(waitStarted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+        ReflectionTestUtils.setField(underTest, "idleTime", 0L);
+        underTest.evictExpired();
+
+        assertEquals(1, underTest.retiredSize());
+        assertFalse(createdClients.get(0).isShutDown());
+
+        waitReleased.countDown();
+        assertEquals("client-0", wait.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        underTest.evictExpired();
+
+        assertTrue(createdClients.get(0).isShutDown());
+        assertEquals(0, underTest.retiredSize());
+    }
+
+    @Test
+    void testWaiterRunsWithTheCurrentClient() {
+        ReflectionTestUtils.setField(underTest, "timeToLive", -1L);
+        TestClient handle = getOrCreate(credential("crn1"), REGION);
+        TestWaiter waiter = handle.waiters().ready();
+
+        assertEquals("client-1", waiter.run());
+        assertTrue(createdClients.get(0).isShutDown());
+    }
+
+    @Test
+    void testShutdownOfHandleDoesNotShutDownTheClient() {
+        TestClient handle = getOrCreate(credential("crn1"), REGION);
+
+        handle.shutdown();
+        handle.call();
+
+        assertEquals(1, createdClients.size());
+        assertFalse(createdClients.get(0).isShutDown());
+    }
+
+    private TestClient getOrCreate(AwsCredentialView credential, String region) {
+        return underTest.getOrCreate(TestClient.class, VARIANT, credential, region, () -> createClient(null, null), TestClient::shutdown);
+    }
+
+    private TestClient createClient(CountDownLatch callStarted, CountDownLatch callReleased) {
+        TestClient client = new TestClientImpl(createdClients.size(), callStarted, callReleased);
+        createdClients.add(client);
+        return client;
+    }
+
+    private AwsCredentialView credential(String crn) {
+        return new AwsCredentialView(new CloudCredential(crn, "name", Map.of("accessKey", "ak", "secretKey", "sk"), false));
+    }
+
+    interface TestClient {
+
+        String call();
+
+        TestWaiters waiters();
+
+        void shutdown();
+
+        boolean isShutDown();
+    }
+
+    private static class TestClientImpl implements TestClient {
+
+        private final int index;
+
+        private final CountDownLatch callStarted;
+
+        private final CountDownLatch callReleased;
+
+        private volatile boolean shutDown;
+
+        TestClientImpl(int index, CountDownLatch callStarted, CountDownLatch callReleased) {
+            this.index = index;
+            this.callStarted = callStarted;
+            this.callReleased = callReleased;
+        }
+
+        @Override
+        public String call() {
+            if (callStarted != null) {
+                callStarted.countDown();
+                try {
+                    callReleased.await(WAIT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "client-" + index;
+        }
+
+        @Override
+        public TestWaiters waiters() {
+            return new TestWaiters(this);
+        }
+
+        @Override
+        public void shutdown() {
+            shutDown = true;
+        }
+
+        @Override
+        public boolean isShutDown() {
+            return shutDown;
+        }
+    }
+
+    interface TestWaiter {
+
+        String run();
+    }
+
+    static class TestWaiters {
+
+        private final TestClient client;
+
+        TestWaiters(TestClient client) {
+            this.client = client;
+        }
+
+        public TestWaiter ready() {
+            return () -> {
+                if (client.isShutDown()) {
+                    throw new IllegalStateException("The client is shut down");
+                }
+                return client.call();
+            };
+        }
+    }
+}
@@ -14,6 +14,12 @@ public class CloudResourceRegionCache extends AbstractCacheDefinition {
     @Value("${cb.cloud.region.cache.ttl:15}")
     private long ttlMinutes;
 
+    @Value("${cb.cloud.region.cache.refresh:10}")
+    private long refreshMinutes;
+
+    @Value("${cb.cloud.region.cache.stale:5}")
+    private long staleMinutes;
+
     @Override
     protected String getName() {
         return "cloudResourceRegionCache";
@@ -28,4 +34,14 @@ public class CloudResourceRegionCache extends AbstractCacheDefinition {
     protected long getTimeToLiveSeconds() {
         return ttlMinutes == 0L ? 1 : TimeUnit.MINUTES.toSeconds(ttlMinutes);
     }
+
+    @Override
+    protected long getRefreshAfterWriteSeconds() {
+        return TimeUnit.MINUTES.toSeconds(refreshMinutes);
+    }
+
+    @Override
+    protected long getStaleWhileRevalidateSeconds() {
+        return TimeUnit.MINUTES.toSeconds(staleMinutes);
+    }
 }
@@ -27,4 +27,9 @@ public class ImageCatalogCache extends AbstractCacheDefinition {
     protected long getTimeToLiveSeconds() {
         return ttlMinutes == 0L ? 1 : TimeUnit.MINUTES.toSeconds(ttlMinutes);
     }
+
+    @Override
+    protected boolean isSyncLoadCountingEnabled() {
+        return true;
+    }
 }
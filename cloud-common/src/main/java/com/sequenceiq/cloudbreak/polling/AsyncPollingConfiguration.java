@@ -0,0 +1,24 @@
+package com.sequenceiq.cloudbreak.polling;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerScheduledExecutor;
+
+@Configuration
+public class AsyncPollingConfiguration {
+
+    public static final String ASYNC_POLLING_EXECUTOR = "asyncPollingScheduledExecutorService";
+
+    @Value("${cb.polling.async.pool.size:20}")
+    private int asyncPollingPoolSize;
+
+    @Bean(name = ASYNC_POLLING_EXECUTOR, destroyMethod = "shutdownNow")
+    ScheduledExecutorService asyncPollingScheduledExecutorService() {
+        return new MDCCleanerScheduledExecutor(asyncPollingPoolSize, new ThreadFactoryBuilder().setNameFormat("async-polling-%d").setDaemon(true).build());
+    }
+}
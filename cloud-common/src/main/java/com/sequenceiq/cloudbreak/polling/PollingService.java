@@ -1,9 +1,20 @@
 package com.sequenceiq.cloudbreak.polling;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
+
 @Component
 public class PollingService<T> {
 
@@ -11,6 +22,10 @@ public class PollingService<T> {
 
     private static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 5;
 
+    @Inject
+    @Named(AsyncPollingConfiguration.ASYNC_POLLING_EXECUTOR)
+    private ScheduledExecutorService asyncPollingExecutor;
+
     /**
      * Executes a {@link StatusCheckerTask} until it signals success, or the
      * maximum attempts are reached. A {@link StatusCheckerTask} has no
@@ -33,17 +48,166 @@ public class PollingService<T> {
 
     public ExtendedPollingResult pollWithTimeout(StatusCheckerTask<T> statusCheckerTask, T t, long interval, TimeoutChecker timeoutChecker,
             int maxConsecutiveFailures) {
-        boolean success = false;
-        boolean timeout = false;
-        int attempts = 0;
-        int consecutiveFailures = 0;
-        Exception actual = null;
-        boolean exit = false;
-        if (statusCheckerTask.initialExitCheck(t)) {
-            exit = statusCheckerTask.exitPolling(t);
+        PollingLoop<T> pollingLoop = new PollingLoop<>(statusCheckerTask, t, timeoutChecker, maxConsecutiveFailures);
+        pollingLoop.init();
+        while (!pollingLoop.isFinished()) {
+            ExtendedPollingResult result = pollingLoop.attempt();
+            if (result != null) {
+                return result;
+            }
+            sleep(interval);
+            pollingLoop.next();
+        }
+        return pollingLoop.finish();
+    }
+
+    public ExtendedPollingResult pollWithAbsoluteTimeout(StatusCheckerTask<T> statusCheckerTask, T t, int interval, long maximumWaitTimeInSeconds) {
+        return pollWithAbsoluteTimeout(statusCheckerTask, t, interval, maximumWaitTimeInSeconds, DEFAULT_MAX_CONSECUTIVE_FAILURES);
+    }
+
+    public ExtendedPollingResult pollWithAttempt(StatusCheckerTask<T> statusCheckerTask, T t, int interval, int maxAttempts) {
+        return pollWithTimeout(statusCheckerTask, t, interval, maxAttempts, DEFAULT_MAX_CONSECUTIVE_FAILURES);
+    }
+
+    public CompletableFuture<ExtendedPollingResult> pollWithTimeoutAsync(StatusCheckerTask<T> statusCheckerTask, T t, long interval,
+            int maxAttempts, int maxConsecutiveFailures) {
+        return pollWithTimeoutAsync(statusCheckerTask, t, interval, new AttemptBasedTimeoutChecker(maxAttempts), maxConsecutiveFailures);
+    }
+
+    public CompletableFuture<ExtendedPollingResult> pollWithAbsoluteTimeoutAsync(StatusCheckerTask<T> statusCheckerTask, T t, long interval,
+            long maximumWaitTimeInSeconds, int maxConsecutiveFailures) {
+        return pollWithTimeoutAsync(statusCheckerTask, t, interval, new AbsolutTimeBasedTimeoutChecker(maximumWaitTimeInSeconds), maxConsecutiveFailures);
+    }
+
+    /**
+     * Non-blocking variant of {@link #pollWithTimeout(StatusCheckerTask, Object, long, TimeoutChecker, int)}. Every status check is scheduled
+     * on a shared scheduled executor, so no thread is kept asleep between the attempts. The MDC context and the user CRN of the caller are
+     * propagated to the status checks, so they can call other services on behalf of the user. If the {@link StatusCheckerTask} throws an
+     * exception (e.g. from handleTimeout), the returned future completes exceptionally.
+     */
+    public CompletableFuture<ExtendedPollingResult> pollWithTimeoutAsync(StatusCheckerTask<T> statusCheckerTask, T t, long interval,
+            TimeoutChecker timeoutChecker, int maxConsecutiveFailures) {
+        CompletableFuture<ExtendedPollingResult> resultFuture = new CompletableFuture<>();
+        PollingLoop<T> pollingLoop = new PollingLoop<>(statusCheckerTask, t, timeoutChecker, maxConsecutiveFailures);
+        PollingContext pollingContext = new PollingContext(MDC.getCopyOfContextMap(), ThreadBasedUserCrnProvider.getUserCrn());
+        asyncPollingExecutor.execute(() -> runInContext(pollingContext, resultFuture, () -> {
+            pollingLoop.init();
+            attemptAsync(pollingLoop, interval, resultFuture, pollingContext);
+        }));
+        return resultFuture;
+    }
+
+    private void attemptAsync(PollingLoop<T> pollingLoop, long interval, CompletableFuture<ExtendedPollingResult> resultFuture,
+            PollingContext pollingContext) {
+        if (pollingLoop.isFinished()) {
+            resultFuture.complete(pollingLoop.finish());
+        } else {
+            ExtendedPollingResult result = pollingLoop.attempt();
+            if (result != null) {
+                resultFuture.complete(result);
+            } else {
+                asyncPollingExecutor.schedule(() -> runInContext(pollingContext, resultFuture, () -> {
+                    pollingLoop.next();
+                    attemptAsync(pollingLoop, interval, resultFuture, pollingContext);
+                }), interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void runInContext(PollingContext pollingContext, CompletableFuture<ExtendedPollingResult> resultFuture, Runnable step) {
+        if (pollingContext.getMdcContext() != null) {
+            MDC.setContextMap(pollingContext.getMdcContext());
+        }
+        try {
+            if (pollingContext.getUserCrn() != null) {
+                ThreadBasedUserCrnProvider.doAs(pollingContext.getUserCrn(), step);
+            } else {
+                step.run();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.debug("Asynchronous polling has failed.", e);
+            resultFuture.completeExceptionally(e);
+        }
+    }
+
+    private void sleep(long duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted exception occurred during polling.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Thread-local context of the caller of an asynchronous polling, restored on the polling threads for every step.
+     */
+    private static class PollingContext {
+
+        private final Map<String, String> mdcContext;
+
+        private final String userCrn;
+
+        PollingContext(Map<String, String> mdcContext, String userCrn) {
+            this.mdcContext = mdcContext;
+            this.userCrn = userCrn;
+        }
+
+        Map<String, String> getMdcContext() {
+            return mdcContext;
+        }
+
+        String getUserCrn() {
+            return userCrn;
+        }
+    }
+
+    /**
+     * State of a single polling, shared by the blocking and the asynchronous execution.
+     */
+    private static class PollingLoop<T> {
+
+        private final StatusCheckerTask<T> statusCheckerTask;
+
+        private final T t;
+
+        private final TimeoutChecker timeoutChecker;
+
+        private final int maxConsecutiveFailures;
+
+        private int attempts;
+
+        private int consecutiveFailures;
+
+        private Exception actual;
+
+        private boolean timeout;
+
+        private boolean exit;
+
+        PollingLoop(StatusCheckerTask<T> statusCheckerTask, T t, TimeoutChecker timeoutChecker, int maxConsecutiveFailures) {
+            this.statusCheckerTask = statusCheckerTask;
+            this.t = t;
+            this.timeoutChecker = timeoutChecker;
+            this.maxConsecutiveFailures = maxConsecutiveFailures;
         }
-        while (!timeout && !exit) {
+
+        void init() {
+            if (statusCheckerTask.initialExitCheck(t)) {
+                exit = statusCheckerTask.exitPolling(t);
+            }
+        }
+
+        boolean isFinished() {
+            return timeout || exit;
+        }
+
+        /**
+         * Executes a status check and returns the result if the polling is over, otherwise null.
+         */
+        ExtendedPollingResult attempt() {
             LOGGER.debug("Polling attempt {}.", attempts);
+            boolean success = false;
             try {
                 success = statusCheckerTask.checkStatus(t);
                 consecutiveFailures = 0;
@@ -69,42 +233,31 @@ public class PollingService<T> {
                         .success()
                         .build();
             }
-            sleep(interval);
+            return null;
+        }
+
+        void next() {
             attempts++;
             timeout = timeoutChecker.checkTimeout();
             exit = statusCheckerTask.exitPolling(t);
         }
-        if (timeout) {
-            LOGGER.debug("Poller timeout.");
-            statusCheckerTask.sendTimeoutEvent(t);
-            statusCheckerTask.handleTimeout(t);
+
+        ExtendedPollingResult finish() {
+            if (timeout) {
+                LOGGER.debug("Poller timeout.");
+                statusCheckerTask.sendTimeoutEvent(t);
+                statusCheckerTask.handleTimeout(t);
+                return new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                        .timeout()
+                        .withException(actual)
+                        .withPayload(statusCheckerTask.getFailedInstanceIds())
+                        .build();
+            }
+            LOGGER.debug("Poller exiting.");
             return new ExtendedPollingResult.ExtendedPollingResultBuilder()
-                    .timeout()
+                    .exit()
                     .withException(actual)
-                    .withPayload(statusCheckerTask.getFailedInstanceIds())
                     .build();
         }
-        LOGGER.debug("Poller exiting.");
-        return new ExtendedPollingResult.ExtendedPollingResultBuilder()
-                .exit()
-                .withException(actual)
-                .build();
-    }
-
-    public ExtendedPollingResult pollWithAbsoluteTimeout(StatusCheckerTask<T> statusCheckerTask, T t, int interval, long maximumWaitTimeInSeconds) {
-        return pollWithAbsoluteTimeout(statusCheckerTask, t, interval, maximumWaitTimeInSeconds, DEFAULT_MAX_CONSECUTIVE_FAILURES);
-    }
-
-    public ExtendedPollingResult pollWithAttempt(StatusCheckerTask<T> statusCheckerTask, T t, int interval, int maxAttempts) {
-        return pollWithTimeout(statusCheckerTask, t, interval, maxAttempts, DEFAULT_MAX_CONSECUTIVE_FAILURES);
-    }
-
-    private void sleep(long duration) {
-        try {
-            Thread.sleep(duration);
-        } catch (InterruptedException e) {
-            LOGGER.error("Interrupted exception occurred during polling.", e);
-            Thread.currentThread().interrupt();
-        }
     }
 }
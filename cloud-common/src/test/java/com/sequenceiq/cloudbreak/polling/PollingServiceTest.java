@@ -0,0 +1,179 @@
+package com.sequenceiq.cloudbreak.polling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
+import com.sequenceiq.cloudbreak.common.exception.CloudbreakServiceException;
+
+class PollingServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 10L;
+
+    private static final String USER_CRN = "crn:cdp:iam:us-west-1:accountId:user:userId";
+
+    private ScheduledExecutorService executorService;
+
+    private PollingService<Object> underTest;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newScheduledThreadPool(2);
+        underTest = new PollingService<>();
+        ReflectionTestUtils.setField(underTest, "asyncPollingExecutor", executorService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testBlockingPollingSuccess() {
+        TestStatusCheckerTask task = new TestStatusCheckerTask(3, false);
+
+        ExtendedPollingResult result = underTest.pollWithTimeout(task, new Object(), 1L, 10, 2);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, task.getChecks());
+    }
+
+    @Test
+    void testAsyncPollingSuccess() throws Exception {
+        TestStatusCheckerTask task = new TestStatusCheckerTask(3, false);
+
+        ExtendedPollingResult result = underTest.pollWithTimeoutAsync(task, new Object(), 1L, 10, 2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, task.getChecks());
+    }
+
+    @Test
+    void testAsyncPollingTimeout() throws Exception {
+        TestStatusCheckerTask task = new TestStatusCheckerTask(Integer.MAX_VALUE, false);
+
+        ExtendedPollingResult result = underTest.pollWithTimeoutAsync(task, new Object(), 1L, 3, 2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertTrue(result.isTimeout());
+        assertEquals(3, task.getChecks());
+    }
+
+    @Test
+    void testAsyncPollingExit() throws Exception {
+        TestStatusCheckerTask task = new TestStatusCheckerTask(Integer.MAX_VALUE, true);
+
+        ExtendedPollingResult result = underTest.pollWithTimeoutAsync(task, new Object(), 1L, 3, 2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertTrue(result.isExited());
+        assertEquals(0, task.getChecks());
+    }
+
+    @Test
+    void testAsyncPollingFailureCompletesExceptionally() {
+        TestStatusCheckerTask task = new TestStatusCheckerTask(-1, false);
+
+        CompletableFuture<ExtendedPollingResult> future = underTest.pollWithTimeoutAsync(task, new Object(), 1L, 10, 2);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof CloudbreakServiceException);
+        assertEquals(2, task.getChecks());
+    }
+
+    @Test
+    void testAsyncPollingPropagatesMdc() throws Exception {
+        MDC.put("requestId", "request-1");
+        try {
+            TestStatusCheckerTask task = new TestStatusCheckerTask(2, false);
+
+            underTest.pollWithTimeoutAsync(task, new Object(), 1L, 10, 2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            assertEquals("request-1", task.getLastRequestId());
+        } finally {
+            MDC.remove("requestId");
+        }
+    }
+
+    @Test
+    void testAsyncPollingPropagatesUserCrn() throws Exception {
+        TestStatusCheckerTask task = new TestStatusCheckerTask(2, false);
+
+        ThreadBasedUserCrnProvider.doAs(USER_CRN, () -> {
+            try {
+                underTest.pollWithTimeoutAsync(task, new Object(), 1L, 10, 2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(USER_CRN, task.getLastUserCrn());
+    }
+
+    private static class TestStatusCheckerTask extends SimpleStatusCheckerTask<Object> {
+
+        private final int successAfterChecks;
+
+        private final boolean exitPolling;
+
+        private final AtomicInteger checks = new AtomicInteger();
+
+        private volatile String lastRequestId;
+
+        private volatile String lastUserCrn;
+
+        TestStatusCheckerTask(int successAfterChecks, boolean exitPolling) {
+            this.successAfterChecks = successAfterChecks;
+            this.exitPolling = exitPolling;
+        }
+
+        @Override
+        public boolean checkStatus(Object o) {
+            lastRequestId = MDC.get("requestId");
+            lastUserCrn = ThreadBasedUserCrnProvider.getUserCrn();
+            int check = checks.incrementAndGet();
+            if (successAfterChecks < 0) {
+                throw new IllegalStateException("check failed");
+            }
+            return check >= successAfterChecks;
+        }
+
+        @Override
+        public void handleTimeout(Object o) {
+        }
+
+        @Override
+        public String successMessage(Object o) {
+            return "success";
+        }
+
+        @Override
+        public boolean exitPolling(Object o) {
+            return exitPolling;
+        }
+
+        int getChecks() {
+            return checks.get();
+        }
+
+        String getLastRequestId() {
+            return lastRequestId;
+        }
+
+        String getLastUserCrn() {
+            return lastUserCrn;
+        }
+    }
+}
@@ -20,6 +20,9 @@ public class InstanceStateQuery {
     @Inject
     private CloudPlatformConnectors cloudPlatformConnectors;
 
+    @Inject
+    private InstanceStatusSyncCoordinator instanceStatusSyncCoordinator;
+
     public List<CloudVmInstanceStatus> getCloudVmInstanceStatuses(
             CloudCredential cloudCredential, CloudContext cloudContext, List<CloudInstance> instances) {
         CloudConnector<Object> connector = cloudPlatformConnectors.get(cloudContext.getPlatformVariant());
@@ -29,9 +32,7 @@ public class InstanceStateQuery {
 
     public List<CloudVmInstanceStatus> getCloudVmInstanceStatusesWithoutRetry(
             CloudCredential cloudCredential, CloudContext cloudContext, List<CloudInstance> instances) {
-        CloudConnector<Object> connector = cloudPlatformConnectors.get(cloudContext.getPlatformVariant());
-        AuthenticatedContext auth = connector.authentication().authenticate(cloudContext, cloudCredential);
-        return connector.instances().checkWithoutRetry(auth, instances);
+        return instanceStatusSyncCoordinator.checkWithoutRetry(cloudCredential, cloudContext, instances);
     }
 
 }
@@ -0,0 +1,296 @@
+package com.sequenceiq.cloudbreak.cloud.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.cloud.CloudConnector;
+import com.sequenceiq.cloudbreak.cloud.context.AuthenticatedContext;
+import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
+import com.sequenceiq.cloudbreak.cloud.init.CloudPlatformConnectors;
+import com.sequenceiq.cloudbreak.cloud.model.CloudCredential;
+import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
+import com.sequenceiq.cloudbreak.cloud.model.CloudVmInstanceStatus;
+
+/**
+ * Gathers the instance status checks of the stacks which are synced at the same time with the same credential in the same region, and checks
+ * their instances with one request to the cloud provider instead of one request per stack. A stack is checked right away if no check is
+ * running with the same credential in the same region. Otherwise it joins the next batch, which is checked as soon as the running check has
+ * finished, with the instances of all the stacks which arrived meanwhile, so a stack never waits for other stacks to arrive, and the statuses
+ * are routed back to the stacks. If the check of a batch fails, every stack of the batch checks its own instances, so a failure of one stack, like an instance
+ * which no longer exists, does not affect the other stacks.
+ * <p>
+ * Only the platforms whose instance connector checks the instances by their id, independently of the stack of the authenticated context,
+ * can be batched.
+ */
+@Component
+public class InstanceStatusSyncCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstanceStatusSyncCoordinator.class);
+
+    @Value("${cb.instance.sync.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cb.instance.sync.batch.platforms:AWS}")
+    private Set<String> batchedPlatforms;
+
+    @Value("${cb.instance.sync.batch.size:1000}")
+    private int maxBatchSize;
+
+    @Value("${cb.instance.sync.batch.timeout.ms:120000}")
+    private long batchTimeout;
+
+    @Inject
+    private CloudPlatformConnectors cloudPlatformConnectors;
+
+    private final Map<BatchKey, Batch> openBatches = new ConcurrentHashMap<>();
+
+    public List<CloudVmInstanceStatus> checkWithoutRetry(CloudCredential cloudCredential, CloudContext cloudContext, List<CloudInstance> instances) {
+        List<CloudInstance> instancesWithId = instances.stream()
+                .filter(instance -> instance.getInstanceId() != null)
+                .collect(Collectors.toList());
+        if (!isBatchable(cloudCredential, cloudContext, instancesWithId)) {
+            return check(cloudCredential, cloudContext, instances);
+        }
+        BatchKey key = new BatchKey(cloudContext, cloudCredential);
+        StackCheck stackCheck = new StackCheck(cloudContext.getId(), instancesWithId);
+        Batch batch = join(key, cloudCredential, cloudContext, stackCheck);
+        if (batch.isLedBy(stackCheck)) {
+            runBatch(key, batch);
+        }
+        try {
+            return stackCheck.awaitStatuses(2 * batchTimeout);
+        } catch (ExecutionException e) {
+            if (!stackCheck.isBatchedWithOtherStacks() && e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            LOGGER.info("Batched instance status check failed for stack {}, checking its instances separately", cloudContext.getId(), e);
+        } catch (TimeoutException e) {
+            LOGGER.info("Batched instance status check did not finish in time for stack {}, checking its instances separately", cloudContext.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("Waiting for the batched instance status check of stack {} was interrupted, checking its instances separately",
+                    cloudContext.getId());
+        }
+        return check(cloudCredential, cloudContext, instances);
+    }
+
+    private boolean isBatchable(CloudCredential cloudCredential, CloudContext cloudContext, List<CloudInstance> instancesWithId) {
+        return enabled
+                && batchedPlatforms.contains(cloudContext.getPlatform().value())
+                && cloudCredential.getId() != null
+                && cloudContext.getLocation() != null
+                && !instancesWithId.isEmpty()
+                && instancesWithId.size() < maxBatchSize;
+    }
+
+    private Batch join(BatchKey key, CloudCredential cloudCredential, CloudContext cloudContext, StackCheck stackCheck) {
+        Batch[] joined = new Batch[1];
+        openBatches.compute(key, (batchKey, openBatch) -> {
+            if (openBatch != null && openBatch.add(stackCheck, maxBatchSize)) {
+                joined[0] = openBatch;
+                return openBatch;
+            }
+            joined[0] = new Batch(cloudCredential, cloudContext, stackCheck, openBatch == null ? null : openBatch.done);
+            return joined[0];
+        });
+        return joined[0];
+    }
+
+    /**
+     * Number of the stacks which wait for a running check to finish, before their batch is checked.
+     */
+    int waitingStackCount() {
+        return openBatches.values().stream().mapToInt(Batch::getWaitingStackCount).sum();
+    }
+
+    private void runBatch(BatchKey key, Batch batch) {
+        try {
+            batch.awaitPrevious(batchTimeout);
+            checkBatch(key, batch);
+        } finally {
+            batch.done.complete(null);
+            openBatches.remove(key, batch);
+        }
+    }
+
+    private void checkBatch(BatchKey key, Batch batch) {
+        List<StackCheck> stackChecks = batch.close();
+        List<CloudInstance> instances = stackChecks.stream()
+                .flatMap(stackCheck -> stackCheck.instances.stream())
+                .collect(Collectors.toList());
+        try {
+            LOGGER.debug("Checking {} instances of {} stacks with one request in region {}", instances.size(), stackChecks.size(), key.region);
+            Map<String, CloudVmInstanceStatus> statuses = check(batch.cloudCredential, batch.cloudContext, instances).stream()
+                    .collect(Collectors.toMap(status -> status.getCloudInstance().getInstanceId(), Function.identity(), (first, second) -> first));
+            stackChecks.forEach(stackCheck -> stackCheck.complete(statuses));
+        } catch (RuntimeException e) {
+            stackChecks.forEach(stackCheck -> stackCheck.fail(e));
+        }
+    }
+
+    private List<CloudVmInstanceStatus> check(CloudCredential cloudCredential, CloudContext cloudContext, List<CloudInstance> instances) {
+        CloudConnector<Object> connector = cloudPlatformConnectors.get(cloudContext.getPlatformVariant());
+        AuthenticatedContext auth = connector.authentication().authenticate(cloudContext, cloudCredential);
+        return connector.instances().checkWithoutRetry(auth, instances);
+    }
+
+    private static class BatchKey {
+
+        private final String platformVariant;
+
+        private final String credentialId;
+
+        private final String region;
+
+        BatchKey(CloudContext cloudContext, CloudCredential cloudCredential) {
+            platformVariant = String.valueOf(cloudContext.getPlatformVariant());
+            credentialId = cloudCredential.getId();
+            region = cloudContext.getLocation().getRegion().value();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey batchKey = (BatchKey) o;
+            return platformVariant.equals(batchKey.platformVariant) && credentialId.equals(batchKey.credentialId) && Objects.equals(region, batchKey.region);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(platformVariant, credentialId, region);
+        }
+    }
+
+    private static class Batch {
+
+        private final CloudCredential cloudCredential;
+
+        private final CloudContext cloudContext;
+
+        private final StackCheck leader;
+
+        private final CompletableFuture<Void> previousDone;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private final List<StackCheck> stackChecks = new ArrayList<>();
+
+        private int instanceCount;
+
+        private boolean closed;
+
+        Batch(CloudCredential cloudCredential, CloudContext cloudContext, StackCheck leader, CompletableFuture<Void> previousDone) {
+            this.cloudCredential = cloudCredential;
+            this.cloudContext = cloudContext;
+            this.leader = leader;
+            this.previousDone = previousDone;
+            stackChecks.add(leader);
+            instanceCount = leader.instances.size();
+        }
+
+        boolean isLedBy(StackCheck stackCheck) {
+            return leader == stackCheck;
+        }
+
+        synchronized boolean add(StackCheck stackCheck, int maxBatchSize) {
+            if (closed || instanceCount + stackCheck.instances.size() > maxBatchSize) {
+                return false;
+            }
+            stackChecks.add(stackCheck);
+            instanceCount += stackCheck.instances.size();
+            return true;
+        }
+
+        /**
+         * Waits for the check of the previous batch of the same credential and region, which was running when this batch was opened. The
+         * batch is checked anyway if the previous check does not finish in time.
+         */
+        void awaitPrevious(long timeout) {
+            if (previousDone != null) {
+                try {
+                    previousDone.get(timeout, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | TimeoutException e) {
+                    LOGGER.debug("The previous instance status check did not finish in time, checking the next batch anyway");
+                }
+            }
+        }
+
+        synchronized int getWaitingStackCount() {
+            return closed ? 0 : stackChecks.size();
+        }
+
+        synchronized List<StackCheck> close() {
+            closed = true;
+            stackChecks.forEach(stackCheck -> stackCheck.batchedWithOtherStacks = stackChecks.size() > 1);
+            return List.copyOf(stackChecks);
+        }
+    }
+
+    private static class StackCheck {
+
+        private final Long stackId;
+
+        private final List<CloudInstance> instances;
+
+        private final CompletableFuture<Map<String, CloudVmInstanceStatus>> statuses = new CompletableFuture<>();
+
+        private volatile boolean batchedWithOtherStacks;
+
+        StackCheck(Long stackId, List<CloudInstance> instances) {
+            this.stackId = stackId;
+            this.instances = instances;
+        }
+
+        boolean isBatchedWithOtherStacks() {
+            return batchedWithOtherStacks;
+        }
+
+        void complete(Map<String, CloudVmInstanceStatus> batchStatuses) {
+            statuses.complete(batchStatuses);
+        }
+
+        void fail(Throwable failure) {
+            statuses.completeExceptionally(failure);
+        }
+
+        /**
+         * Returns the statuses of the instances of the stack, which are the same instances as the stack asked for, so the statuses keep the
+         * parameters of the stack's own instances.
+         */
+        List<CloudVmInstanceStatus> awaitStatuses(long timeout) throws InterruptedException, ExecutionException, TimeoutException {
+            Map<String, CloudVmInstanceStatus> batchStatuses = statuses.get(timeout, TimeUnit.MILLISECONDS);
+            List<CloudVmInstanceStatus> result = new ArrayList<>();
+            for (CloudInstance instance : instances) {
+                CloudVmInstanceStatus status = batchStatuses.get(instance.getInstanceId());
+                if (status != null) {
+                    result.add(new CloudVmInstanceStatus(instance, status.getStatus(), status.getStatusReason()));
+                }
+            }
+            LOGGER.debug("Batched instance status check returned {} statuses for stack {}", result.size(), stackId);
+            return result;
+        }
+    }
+}
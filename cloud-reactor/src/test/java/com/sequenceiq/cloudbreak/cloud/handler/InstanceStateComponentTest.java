@@ -39,7 +39,7 @@ public class InstanceStateComponentTest extends AbstractComponentTest<GetInstanc
     }
 
     @Configuration
-    @Import({InstanceStateHandler.class, InstanceStateQuery.class})
+    @Import({InstanceStateHandler.class, InstanceStateQuery.class, InstanceStatusSyncCoordinator.class})
     public static class TestConfig {
     }
 }
@@ -0,0 +1,228 @@
+package com.sequenceiq.cloudbreak.cloud.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.cloud.Authenticator;
+import com.sequenceiq.cloudbreak.cloud.CloudConnector;
+import com.sequenceiq.cloudbreak.cloud.InstanceConnector;
+import com.sequenceiq.cloudbreak.cloud.context.AuthenticatedContext;
+import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
+import com.sequenceiq.cloudbreak.cloud.init.CloudPlatformConnectors;
+import com.sequenceiq.cloudbreak.cloud.model.CloudCredential;
+import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
+import com.sequenceiq.cloudbreak.cloud.model.CloudPlatformVariant;
+import com.sequenceiq.cloudbreak.cloud.model.CloudVmInstanceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.InstanceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.Location;
+import com.sequenceiq.cloudbreak.cloud.model.Region;
+
+@ExtendWith(MockitoExtension.class)
+class InstanceStatusSyncCoordinatorTest {
+
+    private static final long WAIT_SECONDS = 5L;
+
+    private static final String AWS = "AWS";
+
+    @InjectMocks
+    private InstanceStatusSyncCoordinator underTest;
+
+    @Mock
+    private CloudPlatformConnectors cloudPlatformConnectors;
+
+    @Mock
+    private CloudConnector<Object> cloudConnector;
+
+    @Mock
+    private Authenticator authenticator;
+
+    @Mock
+    private AuthenticatedContext authenticatedContext;
+
+    @Mock
+    private InstanceConnector instanceConnector;
+
+    private final CloudCredential cloudCredential = new CloudCredential("credential", "credential");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final CountDownLatch firstCheckStarted = new CountDownLatch(1);
+
+    private final CountDownLatch firstCheckReleased = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "batchedPlatforms", Set.of(AWS));
+        ReflectionTestUtils.setField(underTest, "maxBatchSize", 1000);
+        ReflectionTestUtils.setField(underTest, "batchTimeout", WAIT_SECONDS * 1000);
+        when(cloudPlatformConnectors.get(any(CloudPlatformVariant.class))).thenReturn(cloudConnector);
+        when(cloudConnector.authentication()).thenReturn(authenticator);
+        when(authenticator.authenticate(any(), any())).thenReturn(authenticatedContext);
+        when(cloudConnector.instances()).thenReturn(instanceConnector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testStackCheckedAloneIsNotDelayed() {
+        when(instanceConnector.checkWithoutRetry(any(), anyList())).then(invocation -> started(invocation.getArgument(1)));
+        List<CloudInstance> instances = instances("i-1");
+
+        List<CloudVmInstanceStatus> statuses = assertTimeoutPreemptively(Duration.ofSeconds(1L),
+                () -> underTest.checkWithoutRetry(cloudCredential, cloudContext(1L, AWS), instances));
+
+        assertStatuses(instances, statuses);
+        verify(instanceConnector, times(1)).checkWithoutRetry(any(), anyList());
+        assertEquals(0, underTest.waitingStackCount());
+    }
+
+    @Test
+    void testStacksArrivingDuringARunningCheckAreCheckedTogether() throws Exception {
+        when(instanceConnector.checkWithoutRetry(any(), anyList())).then(invocation -> blockFirstCheck(invocation.getArgument(1)));
+        List<CloudInstance> firstInstances = instances("i-1");
+        List<CloudInstance> secondInstances = instances("i-2", "i-3");
+        List<CloudInstance> thirdInstances = instances("i-4");
+
+        Future<List<CloudVmInstanceStatus>> first = submit(1L, firstInstances);
+        assertTrue(firstCheckStarted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        Future<List<CloudVmInstanceStatus>> second = submit(2L, secondInstances);
+        Future<List<CloudVmInstanceStatus>> third = submit(3L, thirdInstances);
+        awaitWaitingStacks(2);
+        firstCheckReleased.countDown();
+
+        assertStatuses(firstInstances, first.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertStatuses(secondInstances, second.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertStatuses(thirdInstances, third.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        ArgumentCaptor<List<CloudInstance>> checkedInstances = ArgumentCaptor.forClass(List.class);
+        verify(instanceConnector, times(2)).checkWithoutRetry(any(), checkedInstances.capture());
+        assertEquals(3, checkedInstances.getAllValues().get(1).size());
+    }
+
+    @Test
+    void testStacksOfNotBatchedPlatformAreCheckedSeparately() {
+        when(instanceConnector.checkWithoutRetry(any(), anyList())).then(invocation -> started(invocation.getArgument(1)));
+        List<CloudInstance> instances = instances("i-1");
+
+        List<CloudVmInstanceStatus> statuses = underTest.checkWithoutRetry(cloudCredential, cloudContext(1L, "GCP"), instances);
+
+        assertStatuses(instances, statuses);
+        verify(instanceConnector, times(1)).checkWithoutRetry(any(), anyList());
+    }
+
+    @Test
+    void testStacksAreCheckedSeparatelyWhenTheBatchFails() throws Exception {
+        when(instanceConnector.checkWithoutRetry(any(), anyList())).then(invocation -> {
+            List<CloudInstance> instances = invocation.getArgument(1);
+            if (instances.size() > 2) {
+                throw new IllegalStateException("InvalidInstanceID.NotFound");
+            }
+            return blockFirstCheck(instances);
+        });
+        List<CloudInstance> firstInstances = instances("i-1");
+        List<CloudInstance> secondInstances = instances("i-2", "i-3");
+        List<CloudInstance> thirdInstances = instances("i-4");
+
+        Future<List<CloudVmInstanceStatus>> first = submit(1L, firstInstances);
+        assertTrue(firstCheckStarted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        Future<List<CloudVmInstanceStatus>> second = submit(2L, secondInstances);
+        Future<List<CloudVmInstanceStatus>> third = submit(3L, thirdInstances);
+        awaitWaitingStacks(2);
+        firstCheckReleased.countDown();
+
+        assertStatuses(firstInstances, first.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertStatuses(secondInstances, second.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertStatuses(thirdInstances, third.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        verify(instanceConnector, times(4)).checkWithoutRetry(any(), anyList());
+    }
+
+    @Test
+    void testFailureOfStackCheckedAloneIsThrown() {
+        when(instanceConnector.checkWithoutRetry(any(), anyList())).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class, () -> underTest.checkWithoutRetry(cloudCredential, cloudContext(1L, AWS), instances("i-1")));
+        verify(instanceConnector, times(1)).checkWithoutRetry(any(), anyList());
+    }
+
+    private Future<List<CloudVmInstanceStatus>> submit(Long stackId, List<CloudInstance> instances) {
+        return executor.submit(() -> underTest.checkWithoutRetry(cloudCredential, cloudContext(stackId, AWS), instances));
+    }
+
+    private List<CloudVmInstanceStatus> blockFirstCheck(List<CloudInstance> instances) throws InterruptedException {
+        if ("i-1".equals(instances.get(0).getInstanceId())) {
+            firstCheckStarted.countDown();
+            firstCheckReleased.await(WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+        return started(instances);
+    }
+
+    private void awaitWaitingStacks(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_SECONDS);
+        while (underTest.waitingStackCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(count, underTest.waitingStackCount());
+    }
+
+    private void assertStatuses(List<CloudInstance> instances, List<CloudVmInstanceStatus> statuses) {
+        assertEquals(instances.size(), statuses.size());
+        for (int i = 0; i < instances.size(); i++) {
+            assertSame(instances.get(i), statuses.get(i).getCloudInstance());
+            assertEquals(InstanceStatus.STARTED, statuses.get(i).getStatus());
+        }
+    }
+
+    private List<CloudVmInstanceStatus> started(List<CloudInstance> instances) {
+        return instances.stream()
+                .map(instance -> new CloudVmInstanceStatus(instance, InstanceStatus.STARTED))
+                .collect(Collectors.toList());
+    }
+
+    private List<CloudInstance> instances(String... instanceIds) {
+        return Set.of(instanceIds).stream()
+                .sorted()
+                .map(instanceId -> new CloudInstance(instanceId, null, null, "subnet-1", "az1"))
+                .collect(Collectors.toList());
+    }
+
+    private CloudContext cloudContext(Long stackId, String platform) {
+        return CloudContext.Builder.builder()
+                .withId(stackId)
+                .withName("stack" + stackId)
+                .withPlatform(platform)
+                .withVariant(platform)
+                .withLocation(Location.location(Region.region("eu-west-1")))
+                .build();
+    }
+}
@@ -1,27 +1,139 @@
 package com.sequenceiq.cloudbreak.cache.common;
 
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.Cache;
 import org.springframework.cache.caffeine.CaffeineCache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.cache.CacheDefinition;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
 
 public abstract class AbstractCacheDefinition implements CacheDefinition {
 
+    private static final long REFRESH_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    private static final int REFRESH_QUEUE_CAPACITY = 100;
+
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    @Inject
+    private ObjectProvider<MetricService> metricServiceProvider;
+
+    private ExecutorService refreshExecutor;
+
     @Override
     public final Cache cacheConfiguration() {
+        Cache cache = createCache();
+        if (isSyncLoadCountingEnabled()) {
+            SyncLoadCountingCache syncLoadCountingCache = new SyncLoadCountingCache(cache);
+            registerSyncLoadStatistics(syncLoadCountingCache);
+            return syncLoadCountingCache;
+        }
+        return cache;
+    }
+
+    @PreDestroy
+    public void shutdownRefreshExecutor() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    protected abstract String getName();
+
+    protected abstract long getMaxEntries();
+
+    protected abstract long getTimeToLiveSeconds();
+
+    /**
+     * Entries older than this are reloaded while the old value is still served. Zero disables refresh-ahead, so the entries are only
+     * reloaded after they expired.
+     */
+    protected long getRefreshAfterWriteSeconds() {
+        return 0L;
+    }
+
+    /**
+     * Expired entries are served for this long after the ttl while a single caller reloads them. Zero disables serving stale entries.
+     */
+    protected long getStaleWhileRevalidateSeconds() {
+        return 0L;
+    }
+
+    /**
+     * Number of threads which reload the entries of this cache asynchronously.
+     */
+    protected int getRefreshThreads() {
+        return 1;
+    }
+
+    /**
+     * Counts the loads of missing entries and the concurrent callers which got the loaded value instead of loading it. Only the loads of
+     * {@code @Cacheable(sync = true)} methods are counted, so the cached methods should be synchronized.
+     */
+    protected boolean isSyncLoadCountingEnabled() {
+        return false;
+    }
+
+    private Cache createCache() {
+        if (getRefreshAfterWriteSeconds() > 0 || getStaleWhileRevalidateSeconds() > 0) {
+            refreshExecutor = createRefreshExecutor();
+            RefreshAheadCaffeineCache cache = new RefreshAheadCaffeineCache(getName(), getMaxEntries(), getRefreshAfterWriteSeconds(),
+                    getTimeToLiveSeconds(), getStaleWhileRevalidateSeconds(), refreshExecutor);
+            registerStatistics(cache.getNativeCache());
+            return cache;
+        }
         Caffeine<Object, Object> builder = Caffeine.newBuilder()
                 .recordStats()
                 .maximumSize(getMaxEntries())
                 .expireAfterWrite(getTimeToLiveSeconds(), TimeUnit.SECONDS);
-        return new CaffeineCache(getName(), builder.build());
+        CaffeineCache cache = new CaffeineCache(getName(), builder.build());
+        registerStatistics(cache.getNativeCache());
+        return cache;
     }
 
-    protected abstract String getName();
+    private ExecutorService createRefreshExecutor() {
+        return new ThreadPoolExecutor(getRefreshThreads(), getRefreshThreads(), REFRESH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat(getName() + "-refresh-%d").setDaemon(true).build());
+    }
 
-    protected abstract long getMaxEntries();
+    private void registerStatistics(com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+        MetricService metricService = getMetricService();
+        if (metricService != null) {
+            Map<String, String> tags = Map.of("cache", getName());
+            metricService.registerGaugeMetric(MetricType.CACHE_HIT, nativeCache, c -> c.stats().hitCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_MISS, nativeCache, c -> c.stats().missCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_LOAD_SUCCESS, nativeCache, c -> c.stats().loadSuccessCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_LOAD_FAILURE, nativeCache, c -> c.stats().loadFailureCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_LOAD_TIME, nativeCache, c -> c.stats().totalLoadTime() / NANOS_IN_MILLI, tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_EVICTION, nativeCache, c -> c.stats().evictionCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_SIZE, nativeCache, c -> c.estimatedSize(), tags);
+        }
+    }
 
-    protected abstract long getTimeToLiveSeconds();
+    private void registerSyncLoadStatistics(SyncLoadCountingCache cache) {
+        MetricService metricService = getMetricService();
+        if (metricService != null) {
+            Map<String, String> tags = Map.of("cache", getName());
+            metricService.registerGaugeMetric(MetricType.CACHE_SYNC_LOAD, cache, SyncLoadCountingCache::getLoadCount, tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_SYNC_COALESCED, cache, SyncLoadCountingCache::getCoalescedCount, tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_SYNC_COALESCING_RATIO, cache, SyncLoadCountingCache::getCoalescingRatio, tags);
+        }
+    }
+
+    private MetricService getMetricService() {
+        return metricServiceProvider == null ? null : metricServiceProvider.getIfUnique();
+    }
 }
@@ -0,0 +1,208 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+/**
+ * Caffeine backed cache which serves the cached value after it is due for a refresh, while a single caller reloads it.
+ * An entry is refreshed after the refresh interval, it is fresh until the ttl, and it is served stale for the stale-while-revalidate window
+ * after the ttl. Callers of {@link #get(Object, Callable)}, which is used by {@code @Cacheable(sync = true)}, reload the entry asynchronously
+ * on the refresh executor. Other callers cannot pass the loader, so exactly one of them gets a cache miss and reloads the entry
+ * by calling the cached method, while the others get the old value.
+ */
+class RefreshAheadCaffeineCache extends AbstractValueAdaptingCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshAheadCaffeineCache.class);
+
+    private static final long UNCLAIMED = Long.MIN_VALUE;
+
+    private final String name;
+
+    private final Cache<Object, CacheEntry> cache;
+
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    private final long refreshAfterNanos;
+
+    private final long revalidationTimeoutNanos;
+
+    private final Executor refreshExecutor;
+
+    private final Ticker ticker;
+
+    RefreshAheadCaffeineCache(String name, long maxEntries, long refreshAfterSeconds, long timeToLiveSeconds, long staleWhileRevalidateSeconds,
+            Executor refreshExecutor) {
+        this(name, maxEntries, refreshAfterSeconds, timeToLiveSeconds, staleWhileRevalidateSeconds, refreshExecutor, Ticker.systemTicker());
+    }
+
+    RefreshAheadCaffeineCache(String name, long maxEntries, long refreshAfterSeconds, long timeToLiveSeconds, long staleWhileRevalidateSeconds,
+            Executor refreshExecutor, Ticker ticker) {
+        super(true);
+        this.name = name;
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        long refreshAfter = refreshAfterSeconds > 0 ? Math.min(refreshAfterSeconds, timeToLiveSeconds) : timeToLiveSeconds;
+        refreshAfterNanos = TimeUnit.SECONDS.toNanos(refreshAfter);
+        revalidationTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(1L, refreshAfter));
+        cache = Caffeine.newBuilder()
+                .recordStats(() -> statsCounter)
+                .maximumSize(maxEntries)
+                .expireAfterWrite(timeToLiveSeconds + staleWhileRevalidateSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, CacheEntry> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isRefreshDue(entry) && entry.claimRevalidation(ticker.read(), revalidationTimeoutNanos)) {
+            LOGGER.debug("Entry of cache {} is due for a refresh, the current caller revalidates it", name);
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry entry = cache.get(key, k -> new CacheEntry(load(k, valueLoader), ticker.read()));
+        if (isRefreshDue(entry) && entry.claimRevalidation(ticker.read(), revalidationTimeoutNanos)) {
+            refreshAsync(key, entry, valueLoader);
+        }
+        return (T) fromStoreValue(entry.getValue());
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, new CacheEntry(toStoreValue(value), ticker.read()));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        CacheEntry entry = new CacheEntry(toStoreValue(value), ticker.read());
+        CacheEntry existing = cache.asMap().putIfAbsent(key, entry);
+        return existing == null ? null : new SimpleValueWrapper(fromStoreValue(existing.getValue()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return cache.asMap().remove(key) != null;
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = !cache.asMap().isEmpty();
+        cache.invalidateAll();
+        return notEmpty;
+    }
+
+    private boolean isRefreshDue(CacheEntry entry) {
+        return ticker.read() - entry.getWriteTime() >= refreshAfterNanos;
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        try {
+            return toStoreValue(valueLoader.call());
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void refreshAsync(Object key, CacheEntry entry, Callable<?> valueLoader) {
+        try {
+            refreshExecutor.execute(() -> refresh(key, entry, valueLoader));
+        } catch (RejectedExecutionException e) {
+            LOGGER.info("Refresh of an entry of cache {} is rejected, the current value is kept until the next attempt", name);
+            entry.releaseRevalidation();
+        }
+    }
+
+    private void refresh(Object key, CacheEntry entry, Callable<?> valueLoader) {
+        long start = ticker.read();
+        try {
+            CacheEntry refreshed = new CacheEntry(toStoreValue(valueLoader.call()), ticker.read());
+            statsCounter.recordLoadSuccess(ticker.read() - start);
+            if (!cache.asMap().replace(key, entry, refreshed)) {
+                LOGGER.debug("Entry of cache {} was changed during the refresh, the refreshed value is dropped", name);
+            }
+        } catch (Exception e) {
+            statsCounter.recordLoadFailure(ticker.read() - start);
+            LOGGER.warn("Refresh of an entry of cache {} failed, the current value is kept until it expires", name, e);
+            entry.releaseRevalidation();
+        }
+    }
+
+    static class CacheEntry {
+
+        private final Object value;
+
+        private final long writeTime;
+
+        private final AtomicLong revalidationClaimTime = new AtomicLong(UNCLAIMED);
+
+        CacheEntry(Object value, long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        long getWriteTime() {
+            return writeTime;
+        }
+
+        /**
+         * Only one caller may revalidate the entry at a time. A claim which is not followed by a new value within the timeout can be taken over,
+         * so a failed revalidation does not leave the entry without a revalidator.
+         */
+        boolean claimRevalidation(long now, long timeoutNanos) {
+            long claimTime = revalidationClaimTime.get();
+            if (claimTime != UNCLAIMED && now - claimTime < timeoutNanos) {
+                return false;
+            }
+            return revalidationClaimTime.compareAndSet(claimTime, now);
+        }
+
+        void releaseRevalidation() {
+            revalidationClaimTime.set(UNCLAIMED);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Counts how many callers of {@link #get(Object, Callable)}, which is used by {@code @Cacheable(sync = true)}, load a missing entry, and how
+ * many get the value loaded by a concurrent caller instead. The loading itself is coalesced by the wrapped cache, this cache only counts it.
+ */
+class SyncLoadCountingCache implements Cache {
+
+    private final Cache delegate;
+
+    private final Map<Object, Thread> loadingKeys = new ConcurrentHashMap<>();
+
+    private final LongAdder loadCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    SyncLoadCountingCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Thread caller = Thread.currentThread();
+        boolean loadInProgress = loadingKeys.containsKey(key);
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = delegate.get(key, () -> {
+            loaded.set(true);
+            if (Thread.currentThread() != caller) {
+                // asynchronous refresh of an entry, which is served to the callers in the meantime
+                return valueLoader.call();
+            }
+            loadCount.increment();
+            loadingKeys.put(key, caller);
+            try {
+                return valueLoader.call();
+            } finally {
+                loadingKeys.remove(key, caller);
+            }
+        });
+        if (loadInProgress && !loaded.get()) {
+            coalescedCount.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    /**
+     * Number of callers which loaded a missing entry.
+     */
+    long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Number of callers which got the value loaded by a concurrent caller instead of loading it.
+     */
+    long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Ratio of the callers which got the value loaded by a concurrent caller, among the callers which missed the cache.
+     */
+    double getCoalescingRatio() {
+        long coalesced = getCoalescedCount();
+        long missed = coalesced + getLoadCount();
+        return missed == 0 ? 0.0 : (double) coalesced / missed;
+    }
+}
@@ -0,0 +1,313 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Spreads the evictions of the local caches to the other nodes of the service through Postgres LISTEN/NOTIFY on the database of the service.
+ * The caches registered by the caching config publish their evictions, and the listener thread evicts the same entries from the local caches
+ * when another node publishes an eviction. Keys which cannot be sent as text clear the whole cache on the other nodes. After the listener
+ * reconnects, the local caches are cleared, because the evictions published in the meantime are lost.
+ * <p>
+ * Evictions made within a transaction are only sent after the transaction has been committed, all of them on one connection, otherwise
+ * the other nodes could reload and cache the old state before the commit. Evictions of rolled back transactions are not sent.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String SEPARATOR = "|";
+
+    private static final String EVICT = "evict";
+
+    private static final String CLEAR = "clear";
+
+    private static final String STRING_KEY = "s:";
+
+    private static final String LONG_KEY = "l:";
+
+    private static final String INTEGER_KEY = "i:";
+
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final int PAYLOAD_PARTS = 4;
+
+    @Value("${cb.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cb.cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    @Value("${cb.cache.invalidation.poll.timeout.ms:500}")
+    private int pollTimeoutMillis;
+
+    @Value("${cb.cache.invalidation.retry.interval.ms:5000}")
+    private long retryIntervalMillis;
+
+    @Inject
+    private ObjectProvider<DataSource> dataSourceProvider;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Cache> localCaches = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean running;
+
+    private volatile DataSource dataSource;
+
+    private Thread listenerThread;
+
+    /**
+     * Registers the cache for the evictions published by the other nodes, and returns the cache which publishes its own evictions.
+     */
+    public Cache register(Cache cache) {
+        localCaches.put(cache.getName(), cache);
+        return new InvalidationPublishingCache(cache, this);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        dataSource = dataSourceProvider.getIfUnique();
+        if (dataSource == null) {
+            LOGGER.info("No data source is available, cache evictions are not sent to the other nodes");
+        } else if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            LOGGER.warn("Invalid cache invalidation channel name '{}', cache evictions are not sent to the other nodes", channel);
+        } else {
+            running = true;
+            listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+            listenerThread.setDaemon(true);
+            listenerThread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    void publishEvict(String cacheName, Object key) {
+        String encodedKey = encodeKey(key);
+        String payload = encodedKey == null ? null : String.join(SEPARATOR, nodeId, cacheName, EVICT, encodedKey);
+        if (payload == null || payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            publishClear(cacheName);
+        } else {
+            publish(payload);
+        }
+    }
+
+    void publishClear(String cacheName) {
+        publish(String.join(SEPARATOR, nodeId, cacheName, CLEAR));
+    }
+
+    void handleNotification(String payload) {
+        String[] parts = payload.split(Pattern.quote(SEPARATOR), PAYLOAD_PARTS);
+        if (parts.length < PAYLOAD_PARTS - 1 || nodeId.equals(parts[0])) {
+            return;
+        }
+        Cache cache = localCaches.get(parts[1]);
+        if (cache != null) {
+            Object key = EVICT.equals(parts[2]) && parts.length == PAYLOAD_PARTS ? decodeKey(parts[3]) : null;
+            if (key == null) {
+                LOGGER.debug("Clearing cache {} on the request of another node", parts[1]);
+                cache.clear();
+            } else {
+                LOGGER.debug("Evicting an entry of cache {} on the request of another node", parts[1]);
+                cache.evict(key);
+            }
+        }
+    }
+
+    private void publish(String payload) {
+        if (!running) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getPendingInvalidationsOfTransaction().add(payload);
+        } else {
+            send(Set.of(payload));
+        }
+    }
+
+    private PendingInvalidations getPendingInvalidationsOfTransaction() {
+        PendingInvalidations pendingInvalidations = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        if (pendingInvalidations == null) {
+            pendingInvalidations = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, pendingInvalidations);
+            TransactionSynchronizationManager.registerSynchronization(pendingInvalidations);
+        }
+        return pendingInvalidations;
+    }
+
+    private void send(Collection<String> payloads) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Failed to send cache eviction to the other nodes, they keep the evicted entries until the entries expire", e);
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    LOGGER.warn("The data source is not a Postgres database, cache evictions are not sent to the other nodes");
+                    running = false;
+                    return;
+                }
+                if (reconnect) {
+                    LOGGER.info("Clearing the local caches, because the cache evictions of the other nodes may have been missed");
+                    localCaches.values().forEach(Cache::clear);
+                }
+                listen(connection);
+            } catch (SQLException e) {
+                if (running) {
+                    LOGGER.warn("Listening to the cache evictions of the other nodes failed, retrying in {} ms", retryIntervalMillis, e);
+                    reconnect = true;
+                    sleepBeforeRetry();
+                }
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        connection.setAutoCommit(true);
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+        LOGGER.info("Listening to the cache evictions of the other nodes on channel {}", channel);
+        try {
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        handleNotificationSafely(notification.getParameter());
+                    }
+                }
+            }
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("UNLISTEN " + channel);
+            }
+        }
+    }
+
+    private void handleNotificationSafely(String payload) {
+        try {
+            handleNotification(payload);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to process cache eviction of another node: {}", payload, e);
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(retryIntervalMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private String encodeKey(Object key) {
+        if (key instanceof String) {
+            return STRING_KEY + key;
+        } else if (key instanceof Long) {
+            return LONG_KEY + key;
+        } else if (key instanceof Integer) {
+            return INTEGER_KEY + key;
+        }
+        return null;
+    }
+
+    private Object decodeKey(String encodedKey) {
+        String value = encodedKey.substring(Math.min(STRING_KEY.length(), encodedKey.length()));
+        if (encodedKey.startsWith(STRING_KEY)) {
+            return value;
+        } else if (encodedKey.startsWith(LONG_KEY)) {
+            return Long.valueOf(value);
+        } else if (encodedKey.startsWith(INTEGER_KEY)) {
+            return Integer.valueOf(value);
+        }
+        return null;
+    }
+
+    /**
+     * Collects the evictions of a transaction and sends them after the transaction has been committed.
+     */
+    private class PendingInvalidations implements TransactionSynchronization {
+
+        private final Set<String> payloads = new LinkedHashSet<>();
+
+        void add(String payload) {
+            payloads.add(payload);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CacheInvalidationBus.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CacheInvalidationBus.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (running && !payloads.isEmpty()) {
+                send(payloads);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+        }
+    }
+}
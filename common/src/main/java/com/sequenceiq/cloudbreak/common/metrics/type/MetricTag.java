@@ -11,5 +11,7 @@ public enum MetricTag {
     TENANT,
     REGION,
     URI,
-    CALLER_ID
+    CALLER_ID,
+    RESOURCE_CRN,
+    STATE_CHANGED
 }
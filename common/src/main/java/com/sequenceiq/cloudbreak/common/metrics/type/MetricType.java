@@ -6,12 +6,24 @@ public enum MetricType implements Metric {
     VAULT_WRITE("vault.write"),
     VAULT_WRITE_FAILED("vault.write.failed"),
     VAULT_DELETE("vault.delete"),
+    VAULT_SAVE("vault.save"),
+    VAULT_CACHE_REVALIDATION("vault.cache.revalidation"),
     HEARTBEAT_UPDATE_SUCCESS("heartbeat.update.success"),
     HEARTBEAT_UPDATE_FAILED("heartbeat.update.failed"),
     REST_OPERATION("rest.operation"),
     REST_OPERATION_FAILED("rest.operation.failed"),
     REST_OPERATION_CALLER_ID("rest.operation.caller.id"),
-    DB_TRANSACTION_ID("db.transaction");
+    DB_TRANSACTION_ID("db.transaction"),
+    CACHE_HIT("cache.hit"),
+    CACHE_MISS("cache.miss"),
+    CACHE_LOAD_SUCCESS("cache.load.success"),
+    CACHE_LOAD_FAILURE("cache.load.failure"),
+    CACHE_LOAD_TIME("cache.load.time"),
+    CACHE_EVICTION("cache.eviction"),
+    CACHE_SIZE("cache.size"),
+    CACHE_SYNC_LOAD("cache.sync.load"),
+    CACHE_SYNC_COALESCED("cache.sync.coalesced"),
+    CACHE_SYNC_COALESCING_RATIO("cache.sync.coalescing.ratio");
 
     private final String metricName;
 
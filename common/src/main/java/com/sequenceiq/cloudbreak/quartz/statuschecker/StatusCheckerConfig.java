@@ -21,10 +21,23 @@ public class StatusCheckerConfig {
     @Value("${statuschecker.enabled:true}")
     private boolean autoSyncEnabled;
 
+    @Value("${statuschecker.adaptive.enabled:true}")
+    private boolean adaptiveIntervalEnabled;
+
+    @Value("${statuschecker.adaptive.maxintervalsec:1800}")
+    private int maxAdaptiveIntervalInSeconds;
+
+    @Value("${statuschecker.adaptive.jitterpercent:10}")
+    private int jitterPercent;
+
     @PostConstruct
     void logEnablement() {
         if (autoSyncEnabled) {
             LOGGER.info("Auto sync is enabled. Short sync period is {} sec. Long sync period is {} sec.", intervalInSeconds, longIntervalInSeconds);
+            if (adaptiveIntervalEnabled) {
+                LOGGER.info("Adaptive sync is enabled. Sync period of unchanged resources grows up to {} sec with {}% jitter.",
+                        maxAdaptiveIntervalInSeconds, jitterPercent);
+            }
         } else {
             LOGGER.info("Auto sync is disabled.");
         }
@@ -41,4 +54,16 @@ public class StatusCheckerConfig {
     public int getLongIntervalInSeconds() {
         return longIntervalInSeconds;
     }
+
+    public boolean isAdaptiveIntervalEnabled() {
+        return adaptiveIntervalEnabled;
+    }
+
+    public int getMaxAdaptiveIntervalInSeconds() {
+        return maxAdaptiveIntervalInSeconds;
+    }
+
+    public int getJitterPercent() {
+        return jitterPercent;
+    }
 }
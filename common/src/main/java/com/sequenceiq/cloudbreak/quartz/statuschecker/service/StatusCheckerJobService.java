@@ -7,6 +7,7 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 
 import javax.inject.Inject;
@@ -14,12 +15,14 @@ import javax.inject.Inject;
 import org.quartz.JobBuilder;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.SimpleScheduleBuilder;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
@@ -37,6 +40,12 @@ public class StatusCheckerJobService {
 
     public static final String LONG_SYNC_JOB_TYPE = "longSyncJobType";
 
+    private static final String ADAPTIVE_INTERVAL = "adaptiveIntervalInSeconds";
+
+    private static final String STATE_FINGERPRINT = "stateFingerprint";
+
+    private static final int PERCENT = 100;
+
     private static final String JOB_GROUP = "status-checker-jobs";
 
     private static final String TRIGGER_GROUP = "status-checker-triggers";
@@ -94,6 +103,54 @@ public class StatusCheckerJobService {
         }
     }
 
+    /**
+     * Doubles the sync interval of the job, up to the configured maximum, while the state of the resource is the same as at the previous
+     * check, and resets it to the short interval when the state changes. A null state, e.g. while a flow is running on the resource, also
+     * resets the interval, so the resource is checked soon after the flow has finished. The first fire time of the new interval is jittered,
+     * so the jobs of the resources which became stable at the same time do not fire together.
+     *
+     * @return whether the state differs from the state observed by the previous check
+     */
+    public boolean rescheduleAdaptively(JobExecutionContext context, String stateFingerprint) {
+        Trigger currentTrigger = context.getTrigger();
+        JobDataMap triggerDataMap = currentTrigger.getJobDataMap();
+        boolean stateChanged = !Objects.equals(triggerDataMap.getString(STATE_FINGERPRINT), stateFingerprint);
+        if (!statusCheckerConfig.isAdaptiveIntervalEnabled()) {
+            return stateChanged;
+        }
+        int shortInterval = statusCheckerConfig.getIntervalInSeconds();
+        int currentInterval = triggerDataMap.containsKey(ADAPTIVE_INTERVAL) ? Integer.parseInt(triggerDataMap.getString(ADAPTIVE_INTERVAL)) : shortInterval;
+        int nextInterval = stateChanged || stateFingerprint == null
+                ? shortInterval
+                : Math.max(shortInterval, Math.min(currentInterval * 2, statusCheckerConfig.getMaxAdaptiveIntervalInSeconds()));
+        if (stateChanged || nextInterval != currentInterval) {
+            reschedule(currentTrigger, stateFingerprint, nextInterval);
+        }
+        return stateChanged;
+    }
+
+    /**
+     * Resets the adaptive sync interval of the job of the resource to the short interval, e.g. when a flow has finished on the resource, as
+     * the flow may have finished between two checks of a job that was backed off to a long interval.
+     */
+    public void resetAdaptiveInterval(String id) {
+        if (!statusCheckerConfig.isAdaptiveIntervalEnabled()) {
+            return;
+        }
+        try {
+            Trigger currentTrigger = scheduler.getTrigger(TriggerKey.triggerKey(id, TRIGGER_GROUP));
+            if (currentTrigger != null && currentTrigger.getJobDataMap().containsKey(ADAPTIVE_INTERVAL)) {
+                JobDataMap triggerDataMap = currentTrigger.getJobDataMap();
+                int shortInterval = statusCheckerConfig.getIntervalInSeconds();
+                if (Integer.parseInt(triggerDataMap.getString(ADAPTIVE_INTERVAL)) > shortInterval) {
+                    reschedule(currentTrigger, triggerDataMap.getString(STATE_FINGERPRINT), shortInterval);
+                }
+            }
+        } catch (SchedulerException e) {
+            LOGGER.error("Error during resetting the interval of quartz job: {}", id, e);
+        }
+    }
+
     public void unschedule(String id) {
         try {
             JobKey jobKey = JobKey.jobKey(id, JOB_GROUP);
@@ -169,6 +226,36 @@ public class StatusCheckerJobService {
                 .build();
     }
 
+    private void reschedule(Trigger currentTrigger, String stateFingerprint, int intervalInSeconds) {
+        JobDataMap triggerDataMap = new JobDataMap();
+        triggerDataMap.put(ADAPTIVE_INTERVAL, String.valueOf(intervalInSeconds));
+        if (stateFingerprint != null) {
+            triggerDataMap.put(STATE_FINGERPRINT, stateFingerprint);
+        }
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .forJob(currentTrigger.getJobKey())
+                .withIdentity(currentTrigger.getKey())
+                .withDescription(currentTrigger.getDescription())
+                .usingJobData(triggerDataMap)
+                .startAt(delayedStart(jitter(intervalInSeconds)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInSeconds(intervalInSeconds)
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+        try {
+            scheduler.rescheduleJob(currentTrigger.getKey(), trigger);
+            LOGGER.debug("Status checker job with key: '{}' rescheduled with {} sec interval", currentTrigger.getJobKey(), intervalInSeconds);
+        } catch (SchedulerException e) {
+            LOGGER.error("Error during rescheduling quartz job with key: '{}'", currentTrigger.getJobKey(), e);
+        }
+    }
+
+    private int jitter(int intervalInSeconds) {
+        int maxJitter = intervalInSeconds * statusCheckerConfig.getJitterPercent() / PERCENT;
+        return intervalInSeconds - maxJitter + RANDOM.nextInt(2 * maxJitter + 1);
+    }
+
     private Date delayedStart(int delayInSeconds) {
         return Date.from(ZonedDateTime.now().toInstant().plus(Duration.ofSeconds(delayInSeconds)));
     }
@@ -0,0 +1,140 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RefreshAheadCaffeineCacheTest {
+
+    private static final long REFRESH_AFTER_SECONDS = 10L;
+
+    private static final long TTL_SECONDS = 20L;
+
+    private static final long STALE_SECONDS = 30L;
+
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+
+    private final Executor refreshExecutor = refreshTasks::add;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private long nanos;
+
+    private RefreshAheadCaffeineCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new RefreshAheadCaffeineCache("testCache", 10L, REFRESH_AFTER_SECONDS, TTL_SECONDS, STALE_SECONDS, refreshExecutor, () -> nanos);
+    }
+
+    @Test
+    void testFreshEntryIsNotReloaded() {
+        assertEquals("value-1", underTest.get("key", this::load));
+        advanceSeconds(REFRESH_AFTER_SECONDS - 1);
+
+        assertEquals("value-1", underTest.get("key", this::load));
+        assertEquals(1, loads.get());
+        assertEquals(0, refreshTasks.size());
+    }
+
+    @Test
+    void testEntryDueForRefreshIsReloadedAsynchronouslyOnce() {
+        underTest.get("key", this::load);
+        advanceSeconds(REFRESH_AFTER_SECONDS);
+
+        assertEquals("value-1", underTest.get("key", this::load));
+        assertEquals("value-1", underTest.get("key", this::load));
+        assertEquals(1, refreshTasks.size());
+
+        refreshTasks.get(0).run();
+
+        assertEquals("value-2", underTest.get("key", this::load));
+        assertEquals(2, underTest.getNativeCache().stats().loadSuccessCount());
+    }
+
+    @Test
+    void testStaleEntryIsServedWithinTheStaleWindow() {
+        underTest.get("key", this::load);
+        advanceSeconds(TTL_SECONDS + STALE_SECONDS - 1);
+
+        assertEquals("value-1", underTest.get("key", this::load));
+        assertEquals(1, refreshTasks.size());
+    }
+
+    @Test
+    void testEntryExpiresAfterTheStaleWindow() {
+        underTest.get("key", this::load);
+        advanceSeconds(TTL_SECONDS + STALE_SECONDS);
+
+        assertEquals("value-2", underTest.get("key", this::load));
+        assertEquals(0, refreshTasks.size());
+    }
+
+    @Test
+    void testEvictedEntryIsNotOverwrittenByAnInFlightRefresh() {
+        underTest.get("key", this::load);
+        advanceSeconds(REFRESH_AFTER_SECONDS);
+        underTest.get("key", this::load);
+
+        underTest.evict("key");
+        refreshTasks.get(0).run();
+
+        assertNull(underTest.get("key"));
+    }
+
+    @Test
+    void testOnlyOneLookupRevalidatesTheEntry() {
+        underTest.put("key", "cached");
+        advanceSeconds(TTL_SECONDS);
+
+        assertNull(underTest.get("key"));
+        assertEquals("cached", underTest.get("key").get());
+
+        underTest.put("key", "revalidated");
+        assertEquals("revalidated", underTest.get("key").get());
+    }
+
+    @Test
+    void testFailedRevalidationCanBeTakenOverAfterTheTimeout() {
+        underTest.put("key", "cached");
+        advanceSeconds(TTL_SECONDS);
+        assertNull(underTest.get("key"));
+
+        advanceSeconds(REFRESH_AFTER_SECONDS);
+
+        assertNull(underTest.get("key"));
+        assertNotNull(underTest.get("key"));
+    }
+
+    @Test
+    void testFailedRefreshKeepsTheValue() {
+        underTest.get("key", this::load);
+        advanceSeconds(REFRESH_AFTER_SECONDS);
+        underTest.get("key", () -> {
+            throw new IllegalStateException("source is down");
+        });
+
+        refreshTasks.get(0).run();
+
+        assertEquals("value-1", underTest.get("key", this::load));
+        assertEquals(1, underTest.getNativeCache().stats().loadFailureCount());
+        assertEquals(2, refreshTasks.size());
+    }
+
+    private String load() {
+        return "value-" + loads.incrementAndGet();
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
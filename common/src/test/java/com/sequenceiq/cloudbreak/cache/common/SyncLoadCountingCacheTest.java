@@ -0,0 +1,85 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class SyncLoadCountingCacheTest {
+
+    private static final long WAIT_SECONDS = 5L;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final SyncLoadCountingCache underTest = new SyncLoadCountingCache(new CaffeineCache("testCache", Caffeine.newBuilder().build()));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallerIsCountedAsCoalesced() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CompletableFuture<String> loadedValue = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> underTest.get("key", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            return loadedValue.get();
+        }));
+        loading.await(WAIT_SECONDS, TimeUnit.SECONDS);
+
+        CountDownLatch followerStarted = new CountDownLatch(1);
+        Future<String> follower = executor.submit(() -> {
+            followerStarted.countDown();
+            return underTest.get("key", () -> "value-" + loads.incrementAndGet());
+        });
+        followerStarted.await(WAIT_SECONDS, TimeUnit.SECONDS);
+        Thread.sleep(100L);
+        assertFalse(follower.isDone());
+        loadedValue.complete("value");
+
+        assertEquals("value", leader.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("value", follower.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1L, underTest.getLoadCount());
+        assertEquals(1L, underTest.getCoalescedCount());
+        assertEquals(0.5, underTest.getCoalescingRatio());
+    }
+
+    @Test
+    void testFailedLoadIsNotKeptAndIsRetriedByTheNextCaller() {
+        assertThrows(ValueRetrievalException.class, () -> underTest.get("key", () -> {
+            throw new IllegalStateException("load failed");
+        }));
+
+        assertEquals("value", underTest.get("key", () -> "value"));
+        assertEquals(2L, underTest.getLoadCount());
+        assertEquals(0L, underTest.getCoalescedCount());
+    }
+
+    @Test
+    void testCachedValueIsNotCounted() {
+        underTest.put("key", "value");
+
+        assertEquals("value", underTest.get("key").get());
+        assertEquals("value", underTest.get("key", () -> "other"));
+        assertEquals(0L, underTest.getLoadCount());
+        assertEquals(0.0, underTest.getCoalescingRatio());
+    }
+}
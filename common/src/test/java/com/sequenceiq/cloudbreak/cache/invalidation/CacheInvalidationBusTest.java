@@ -0,0 +1,173 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    private static final String CACHE_NAME = "testCache";
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private final CacheInvalidationBus underTest = new CacheInvalidationBus();
+
+    private final ConcurrentMapCache localCache = new ConcurrentMapCache(CACHE_NAME);
+
+    private Cache publishingCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "channel", "cache_invalidation");
+        ReflectionTestUtils.setField(underTest, "dataSource", dataSource);
+        ReflectionTestUtils.setField(underTest, "running", true);
+        publishingCache = underTest.register(localCache);
+    }
+
+    @Test
+    void testEvictionIsPublishedWithTheKey() throws SQLException {
+        mockNotify();
+        localCache.put("key", "value");
+
+        publishingCache.evict("key");
+
+        assertNull(localCache.get("key"));
+        assertTrue(capturePayload().endsWith("|testCache|evict|s:key"));
+    }
+
+    @Test
+    void testEvictionOfNonTextKeyIsPublishedAsClear() throws SQLException {
+        mockNotify();
+
+        publishingCache.evict(List.of("a", "b"));
+
+        assertTrue(capturePayload().endsWith("|testCache|clear"));
+    }
+
+    @Test
+    void testEvictionWithinTransactionIsPublishedAfterCommit() throws SQLException {
+        mockNotify();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publishingCache.evict("key");
+
+            verify(dataSource, never()).getConnection();
+            completeTransaction(true);
+            assertTrue(capturePayload().endsWith("|testCache|evict|s:key"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testEvictionWithinRolledBackTransactionIsNotPublished() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publishingCache.evict("key");
+
+            completeTransaction(false);
+            verify(dataSource, never()).getConnection();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testOwnEvictionIsIgnored() throws SQLException {
+        mockNotify();
+        publishingCache.evict("key");
+        localCache.put("key", "value");
+
+        underTest.handleNotification(capturePayload());
+
+        assertNotNull(localCache.get("key"));
+    }
+
+    @Test
+    void testEvictionOfOtherNodeEvictsTheEntry() {
+        localCache.put("key", "value");
+        localCache.put(1L, "one");
+        localCache.put("other", "value");
+
+        underTest.handleNotification(OTHER_NODE + "|testCache|evict|s:key");
+        underTest.handleNotification(OTHER_NODE + "|testCache|evict|l:1");
+
+        assertNull(localCache.get("key"));
+        assertNull(localCache.get(1L));
+        assertEquals("value", localCache.get("other").get());
+    }
+
+    @Test
+    void testClearOfOtherNodeClearsTheCache() {
+        localCache.put("key", "value");
+
+        underTest.handleNotification(OTHER_NODE + "|testCache|clear");
+
+        assertNull(localCache.get("key"));
+    }
+
+    @Test
+    void testNotificationOfUnknownCacheIsIgnored() {
+        localCache.put("key", "value");
+
+        underTest.handleNotification(OTHER_NODE + "|unknownCache|clear");
+
+        assertNotNull(localCache.get("key"));
+    }
+
+    private void completeTransaction(boolean committed) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private void mockNotify() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    private String capturePayload() throws SQLException {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(statement).setString(eq(1), eq("cache_invalidation"));
+        verify(statement).setString(eq(2), payload.capture());
+        return payload.getValue();
+    }
+}
@@ -0,0 +1,209 @@
+package com.sequenceiq.cloudbreak.quartz.statuschecker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+
+@ExtendWith(MockitoExtension.class)
+class StatusCheckerJobServiceTest {
+
+    private static final JobKey JOB_KEY = JobKey.jobKey("1", "status-checker-jobs");
+
+    private static final TriggerKey TRIGGER_KEY = TriggerKey.triggerKey("1", "status-checker-triggers");
+
+    private static final int INTERVAL = 180;
+
+    private static final int MAX_INTERVAL = 1800;
+
+    private static final int JITTER_PERCENT = 10;
+
+    private static final long MILLIS_IN_SECOND = 1000L;
+
+    @InjectMocks
+    private StatusCheckerJobService underTest;
+
+    @Mock
+    private StatusCheckerConfig statusCheckerConfig;
+
+    @Mock
+    private Scheduler scheduler;
+
+    @Mock
+    private JobExecutionContext context;
+
+    @Test
+    void testIntervalIsDoubledWhileStateIsUnchanged() throws SchedulerException {
+        enableAdaptiveInterval();
+        given(context.getTrigger()).willReturn(trigger(INTERVAL, "state"));
+
+        boolean stateChanged = underTest.rescheduleAdaptively(context, "state");
+
+        assertFalse(stateChanged);
+        Trigger trigger = captureRescheduledTrigger();
+        assertEquals(2 * INTERVAL * MILLIS_IN_SECOND, ((SimpleTrigger) trigger).getRepeatInterval());
+        assertEquals(String.valueOf(2 * INTERVAL), trigger.getJobDataMap().getString("adaptiveIntervalInSeconds"));
+        assertEquals("state", trigger.getJobDataMap().getString("stateFingerprint"));
+        assertEquals(JOB_KEY, trigger.getJobKey());
+    }
+
+    @Test
+    void testIntervalIsCappedAtMaximum() throws SchedulerException {
+        enableAdaptiveInterval();
+        given(context.getTrigger()).willReturn(trigger(1200, "state"));
+
+        underTest.rescheduleAdaptively(context, "state");
+
+        assertEquals(MAX_INTERVAL * MILLIS_IN_SECOND, ((SimpleTrigger) captureRescheduledTrigger()).getRepeatInterval());
+    }
+
+    @Test
+    void testJobAtMaximumIntervalIsNotRescheduled() throws SchedulerException {
+        given(statusCheckerConfig.isAdaptiveIntervalEnabled()).willReturn(true);
+        given(statusCheckerConfig.getIntervalInSeconds()).willReturn(INTERVAL);
+        given(statusCheckerConfig.getMaxAdaptiveIntervalInSeconds()).willReturn(MAX_INTERVAL);
+        given(context.getTrigger()).willReturn(trigger(MAX_INTERVAL, "state"));
+
+        boolean stateChanged = underTest.rescheduleAdaptively(context, "state");
+
+        assertFalse(stateChanged);
+        verify(scheduler, never()).rescheduleJob(any(), any());
+    }
+
+    @Test
+    void testIntervalIsResetWhenStateChanges() throws SchedulerException {
+        enableAdaptiveInterval();
+        given(context.getTrigger()).willReturn(trigger(720, "state"));
+
+        boolean stateChanged = underTest.rescheduleAdaptively(context, "otherState");
+
+        assertTrue(stateChanged);
+        Trigger trigger = captureRescheduledTrigger();
+        assertEquals(INTERVAL * MILLIS_IN_SECOND, ((SimpleTrigger) trigger).getRepeatInterval());
+        assertEquals("otherState", trigger.getJobDataMap().getString("stateFingerprint"));
+    }
+
+    @Test
+    void testIntervalIsResetWhileFlowIsRunning() throws SchedulerException {
+        enableAdaptiveInterval();
+        given(context.getTrigger()).willReturn(trigger(720, "state"));
+
+        underTest.rescheduleAdaptively(context, null);
+
+        Trigger trigger = captureRescheduledTrigger();
+        assertEquals(INTERVAL * MILLIS_IN_SECOND, ((SimpleTrigger) trigger).getRepeatInterval());
+        assertNull(trigger.getJobDataMap().getString("stateFingerprint"));
+    }
+
+    @Test
+    void testFirstFireTimeOfNewIntervalIsJittered() throws SchedulerException {
+        enableAdaptiveInterval();
+        given(context.getTrigger()).willReturn(trigger(INTERVAL, "state"));
+        long before = System.currentTimeMillis();
+
+        underTest.rescheduleAdaptively(context, "state");
+
+        long after = System.currentTimeMillis();
+        long nextInterval = 2 * INTERVAL * MILLIS_IN_SECOND;
+        long maxJitter = nextInterval * JITTER_PERCENT / 100;
+        long startTime = captureRescheduledTrigger().getStartTime().getTime();
+        assertTrue(startTime >= before + nextInterval - maxJitter, "Start time is earlier than the jittered interval");
+        assertTrue(startTime <= after + nextInterval + maxJitter, "Start time is later than the jittered interval");
+    }
+
+    @Test
+    void testStateChangeIsReportedWhenAdaptiveIntervalIsDisabled() throws SchedulerException {
+        given(context.getTrigger()).willReturn(trigger(null, "state"));
+
+        boolean stateChanged = underTest.rescheduleAdaptively(context, "otherState");
+
+        assertTrue(stateChanged);
+        verify(scheduler, never()).rescheduleJob(any(), any());
+    }
+
+    @Test
+    void testResetAdaptiveIntervalOfBackedOffJob() throws SchedulerException {
+        given(statusCheckerConfig.isAdaptiveIntervalEnabled()).willReturn(true);
+        given(statusCheckerConfig.getIntervalInSeconds()).willReturn(INTERVAL);
+        given(statusCheckerConfig.getJitterPercent()).willReturn(JITTER_PERCENT);
+        given(scheduler.getTrigger(TRIGGER_KEY)).willReturn(trigger(1440, "state"));
+
+        underTest.resetAdaptiveInterval("1");
+
+        Trigger trigger = captureRescheduledTrigger();
+        assertEquals(INTERVAL * MILLIS_IN_SECOND, ((SimpleTrigger) trigger).getRepeatInterval());
+        assertEquals("state", trigger.getJobDataMap().getString("stateFingerprint"));
+    }
+
+    @Test
+    void testResetAdaptiveIntervalKeepsJobAtShortInterval() throws SchedulerException {
+        given(statusCheckerConfig.isAdaptiveIntervalEnabled()).willReturn(true);
+        given(statusCheckerConfig.getIntervalInSeconds()).willReturn(INTERVAL);
+        given(scheduler.getTrigger(TRIGGER_KEY)).willReturn(trigger(INTERVAL, "state"));
+
+        underTest.resetAdaptiveInterval("1");
+
+        verify(scheduler, never()).rescheduleJob(any(), any());
+    }
+
+    @Test
+    void testResetAdaptiveIntervalIgnoresJobWithoutAdaptiveInterval() throws SchedulerException {
+        given(statusCheckerConfig.isAdaptiveIntervalEnabled()).willReturn(true);
+        given(scheduler.getTrigger(TRIGGER_KEY)).willReturn(trigger(null, null));
+
+        underTest.resetAdaptiveInterval("1");
+
+        verify(scheduler, never()).rescheduleJob(any(), any());
+    }
+
+    private void enableAdaptiveInterval() {
+        given(statusCheckerConfig.isAdaptiveIntervalEnabled()).willReturn(true);
+        given(statusCheckerConfig.getIntervalInSeconds()).willReturn(INTERVAL);
+        given(statusCheckerConfig.getMaxAdaptiveIntervalInSeconds()).willReturn(MAX_INTERVAL);
+        given(statusCheckerConfig.getJitterPercent()).willReturn(JITTER_PERCENT);
+    }
+
+    private Trigger trigger(Integer interval, String stateFingerprint) {
+        JobDataMap triggerDataMap = new JobDataMap();
+        if (interval != null) {
+            triggerDataMap.put("adaptiveIntervalInSeconds", String.valueOf(interval));
+        }
+        if (stateFingerprint != null) {
+            triggerDataMap.put("stateFingerprint", stateFingerprint);
+        }
+        return TriggerBuilder.newTrigger()
+                .forJob(JOB_KEY)
+                .withIdentity(TRIGGER_KEY)
+                .usingJobData(triggerDataMap)
+                .build();
+    }
+
+    private Trigger captureRescheduledTrigger() throws SchedulerException {
+        ArgumentCaptor<Trigger> triggerCaptor = ArgumentCaptor.forClass(Trigger.class);
+        verify(scheduler).rescheduleJob(eq(TRIGGER_KEY), triggerCaptor.capture());
+        return triggerCaptor.getValue();
+    }
+}
@@ -12,6 +12,7 @@ import javax.inject.Inject;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.cloudbreak.core.flow2.diagnostics.config.DiagnosticsCollectionFlowConfig;
+import com.sequenceiq.cloudbreak.service.flowlog.FlowLogUtil;
 import com.sequenceiq.cloudbreak.telemetry.converter.FlowPayloadToDiagnosticDetailsConverter;
 import com.sequenceiq.common.api.diagnostics.DiagnosticsCollection;
 import com.sequenceiq.common.api.diagnostics.DiagnosticsCollectionStatus;
@@ -37,7 +38,7 @@ public class FlowLogsToListDiagnosticsCollectionResponseConverter {
                         DiagnosticsCollection collection = new DiagnosticsCollection();
                         collection.setFlowId(flowLog.getFlowId());
                         collection.setCreated(flowLog.getCreated());
-                        collection.setProperties(flowPayloadToDiagnosticDetailsConverter.convert(flowLog.getPayload()));
+                        collection.setProperties(flowPayloadToDiagnosticDetailsConverter.convert(FlowLogUtil.decodePayload(flowLog)));
                         collection.setStatus(calculateStatus(flowLog));
                         collection.setCurrentFlowStatus(flowLog.getCurrentState());
                         collection.setProgressPercentage(calculateProgressPercentage(flowLog));
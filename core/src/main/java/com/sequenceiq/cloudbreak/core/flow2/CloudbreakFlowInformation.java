@@ -42,6 +42,7 @@ import com.sequenceiq.cloudbreak.core.flow2.stack.termination.StackTerminationFl
 import com.sequenceiq.cloudbreak.core.flow2.stack.upscale.StackUpscaleConfig;
 import com.sequenceiq.cloudbreak.domain.stack.Stack;
 import com.sequenceiq.cloudbreak.domain.stack.StackStatus;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobService;
 import com.sequenceiq.cloudbreak.service.stack.StackService;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
@@ -75,6 +76,9 @@ public class CloudbreakFlowInformation implements ApplicationFlowInformation {
     @Inject
     private StackService stackService;
 
+    @Inject
+    private StatusCheckerJobService jobService;
+
     @Override
     public List<Class<? extends FlowConfiguration<?>>> getRestartableFlows() {
         return RESTARTABLE_FLOWS;
@@ -98,4 +102,9 @@ public class CloudbreakFlowInformation implements ApplicationFlowInformation {
             stackService.save(stack);
         }
     }
+
+    @Override
+    public void handleFlowFinalized(Long resourceId) {
+        jobService.resetAdaptiveInterval(String.valueOf(resourceId));
+    }
 }
@@ -50,6 +50,7 @@ import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobSe
 import com.sequenceiq.cloudbreak.service.cluster.ClusterApiConnectors;
 import com.sequenceiq.cloudbreak.service.cluster.ClusterService;
 import com.sequenceiq.cloudbreak.service.cluster.flow.ClusterOperationService;
+import com.sequenceiq.cloudbreak.service.metrics.CloudbreakMetricService;
 import com.sequenceiq.cloudbreak.service.stack.InstanceMetaDataService;
 import com.sequenceiq.cloudbreak.service.stack.RuntimeVersionService;
 import com.sequenceiq.cloudbreak.service.stack.StackInstanceStatusChecker;
@@ -113,6 +114,9 @@ public class StackStatusCheckerJob extends StatusCheckerJob {
     @Inject
     private CmTemplateProcessorFactory cmTemplateProcessorFactory;
 
+    @Inject
+    private CloudbreakMetricService metricService;
+
     public StackStatusCheckerJob(Tracer tracer) {
         super(tracer, "Stack Status Checker Job");
     }
@@ -126,6 +130,9 @@ public class StackStatusCheckerJob extends StatusCheckerJob {
     protected void executeTracedJob(JobExecutionContext context) throws JobExecutionException {
         if (flowLogService.isOtherFlowRunning(getStackId())) {
             LOGGER.debug("StackStatusCheckerJob cannot run, because flow is running for stack: {}", getStackId());
+            if (!isLongSyncJob(context)) {
+                jobService.rescheduleAdaptively(context, null);
+            }
             return;
         }
         try {
@@ -142,8 +149,10 @@ public class StackStatusCheckerJob extends StatusCheckerJob {
                 } else if (null == stackStatus || ignoredStates().contains(stackStatus)) {
                     LOGGER.debug("Stack sync is skipped, stack state is {}", stackStatus);
                 } else if (syncableStates().contains(stackStatus)) {
+                    long syncStart = System.currentTimeMillis();
                     ThreadBasedUserCrnProvider.doAs(DATAHUB_INTERNAL_ACTOR_CRN, () -> doSync(stack));
                     switchToShortSyncIfNecessary(context);
+                    adaptSyncInterval(stack, context, syncStart);
                 } else {
                     LOGGER.warn("Unhandled stack status, {}", stackStatus);
                 }
@@ -163,6 +172,20 @@ public class StackStatusCheckerJob extends StatusCheckerJob {
         }
     }
 
+    private void adaptSyncInterval(Stack stack, JobExecutionContext context, long syncStart) {
+        boolean stateChanged = !isLongSyncJob(context) && jobService.rescheduleAdaptively(context, getStateFingerprint(stack.getId()));
+        metricService.recordStackSyncTime(stack, syncStart, stateChanged);
+    }
+
+    private String getStateFingerprint(Long stackId) {
+        String instanceStates = instanceMetaDataService.findNotTerminatedAndNotZombieForStack(stackId).stream()
+                .map(instanceMetaData -> instanceMetaData.getPrivateId() + ":" + instanceMetaData.getInstanceStatus())
+                .sorted()
+                .collect(Collectors.joining(","));
+        String state = stackService.getCurrentStatusByStackId(stackId).getDetailedStackStatus() + ";" + instanceStates;
+        return Integer.toHexString(state.hashCode());
+    }
+
     private boolean shouldSwitchToLongSyncJob(Status stackStatus, JobExecutionContext context) {
         return !isLongSyncJob(context) && longSyncableStates().contains(stackStatus);
     }
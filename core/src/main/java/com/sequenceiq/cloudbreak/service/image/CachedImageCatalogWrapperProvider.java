@@ -2,19 +2,21 @@ package com.sequenceiq.cloudbreak.service.image;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Response.Status.Family;
 
 import org.apache.commons.lang3.StringUtils;
@@ -24,19 +26,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sequenceiq.cloudbreak.client.RestClientFactory;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV3;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
-import com.sequenceiq.cloudbreak.cloud.model.catalog.Images;
 import com.sequenceiq.cloudbreak.core.CloudbreakImageCatalogException;
+import com.sequenceiq.cloudbreak.service.image.ImageCatalogStreamParser.ParsedImageCatalog;
 import com.sequenceiq.cloudbreak.service.image.catalog.ImageCatalogServiceProxy;
 import com.sequenceiq.cloudbreak.service.image.catalog.model.ImageCatalogMetaData;
 import com.sequenceiq.cloudbreak.service.image.catalog.model.ImageCatalogWrapper;
-import com.sequenceiq.cloudbreak.util.FileReaderUtils;
 
 @Component
 public class CachedImageCatalogWrapperProvider {
@@ -48,6 +49,9 @@ public class CachedImageCatalogWrapperProvider {
     @Value("#{'${cb.enabled.linux.types}'.split(',')}")
     private List<String> enabledLinuxTypes;
 
+    @Value("#{'${cb.image.catalog.providers:}'.split(',')}")
+    private List<String> enabledProviders;
+
     @Inject
     private ObjectMapper objectMapper;
 
@@ -57,31 +61,24 @@ public class CachedImageCatalogWrapperProvider {
     @Inject
     private RestClientFactory restClientFactory;
 
-    @Cacheable(cacheNames = "imageCatalogCache", key = "#catalogUrl")
+    private final Map<String, ImageCatalogWrapper> revalidatedCatalogs = new ConcurrentReferenceHashMap<>();
+
+    @Cacheable(cacheNames = "imageCatalogCache", key = "#catalogUrl", sync = true)
     public ImageCatalogWrapper getImageCatalogWrapper(String catalogUrl) throws CloudbreakImageCatalogException {
         try {
             if (Objects.nonNull(catalogUrl)) {
                 long started = System.currentTimeMillis();
-                String content;
+                ImageCatalogWrapper imageCatalogWrapper;
                 if (catalogUrl.startsWith("http")) {
-                    Client client = restClientFactory.getOrCreateDefault();
-                    WebTarget target = client.target(catalogUrl);
-                    Response response = target.request().get();
-                    content = readResponse(target, response);
+                    imageCatalogWrapper = readCatalogFromUrl(catalogUrl);
                 } else {
-                    content = readCatalogFromFile(catalogUrl);
+                    try (InputStream content = readCatalogFromFile(catalogUrl)) {
+                        imageCatalogWrapper = createImageCatalogWrapper(catalogUrl, parse(content), null, null);
+                    }
                 }
-                CloudbreakImageCatalogV3 catalog = objectMapper.readValue(content, CloudbreakImageCatalogV3.class);
-                if (Objects.nonNull(catalog)) {
-                    imageCatalogServiceProxy.validate(catalog);
-                    cleanAndValidateMaps(catalog);
-                    catalog = filterImagesByOsType(catalog);
-                    ImageCatalogMetaData metaData = imageCatalogServiceProxy.getImageCatalogMetaData(catalog);
-                    long timeOfParse = System.currentTimeMillis() - started;
-                    LOGGER.debug("ImageCatalog has been get and parsed from '{}' and took '{}' ms.", catalogUrl, timeOfParse);
-                    return new ImageCatalogWrapper(catalog, metaData);
-                }
-                throw new CloudbreakImageCatalogException(String.format("Failed to read the content of '%s' as an image catalog.", catalogUrl));
+                long timeOfParse = System.currentTimeMillis() - started;
+                LOGGER.debug("ImageCatalog has been get and parsed from '{}' and took '{}' ms.", catalogUrl, timeOfParse);
+                return imageCatalogWrapper;
             }
             throw new CloudbreakImageCatalogException("Unable to fetch image catalog. The catalogUrl is null.");
         } catch (CloudbreakImageCatalogException e) {
@@ -95,53 +92,72 @@ public class CachedImageCatalogWrapperProvider {
         }
     }
 
-    private CloudbreakImageCatalogV3 filterImagesByOsType(CloudbreakImageCatalogV3 catalog) {
-        LOGGER.debug("Filtering images by OS type {}", getEnabledLinuxTypes());
-        if (CollectionUtils.isEmpty(getEnabledLinuxTypes())) {
-            return catalog;
+    /**
+     * Downloads the catalog with a conditional GET when the catalog was downloaded before with an ETag or Last-Modified header,
+     * so an unchanged catalog is not downloaded and parsed again.
+     */
+    private ImageCatalogWrapper readCatalogFromUrl(String catalogUrl) throws CloudbreakImageCatalogException, IOException {
+        Client client = restClientFactory.getOrCreateDefault();
+        WebTarget target = client.target(catalogUrl);
+        ImageCatalogWrapper previous = revalidatedCatalogs.get(catalogUrl);
+        Invocation.Builder request = target.request();
+        if (previous != null && previous.getEntityTag() != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, previous.getEntityTag());
         }
-
-        Images catalogImages = catalog.getImages();
-
-        List<Image> filteredBaseImages = filterImages(catalogImages.getBaseImages(), enabledOsPredicate());
-        List<Image> filteredCdhImages = filterImages(catalogImages.getCdhImages(), enabledOsPredicate());
-        List<Image> filteredFreeipaImages = filterImages(catalogImages.getFreeIpaImages(), enabledOsPredicate());
-
-        Images images = new Images(filteredBaseImages, filteredCdhImages, filteredFreeipaImages, catalogImages.getSuppertedVersions());
-        return new CloudbreakImageCatalogV3(images, catalog.getVersions());
-    }
-
-    private List<Image> filterImages(List<Image> imageList, Predicate<Image> predicate) {
-        Map<Boolean, List<Image>> partitionedImages = Optional.ofNullable(imageList).orElse(Collections.emptyList()).stream()
-                .collect(Collectors.partitioningBy(predicate));
-        if (hasFiltered(partitionedImages)) {
-            LOGGER.debug("Used filter linuxTypes: | {} | Images filtered: {}",
-                    getEnabledLinuxTypes(),
-                    partitionedImages.get(false).stream().map(Image::shortOsDescriptionFormat).collect(Collectors.joining(", ")));
+        if (previous != null && previous.getLastModified() != null) {
+            request = request.header(HttpHeaders.IF_MODIFIED_SINCE, previous.getLastModified());
+        }
+        Response response = request.get();
+        if (previous != null && response.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+            response.close();
+            LOGGER.debug("Image catalog '{}' has not been modified, the previously parsed catalog is reused.", catalogUrl);
+            return previous;
+        }
+        try (InputStream content = readResponse(target, response)) {
+            ImageCatalogWrapper imageCatalogWrapper = createImageCatalogWrapper(catalogUrl, parse(content),
+                    response.getHeaderString(HttpHeaders.ETAG), response.getHeaderString(HttpHeaders.LAST_MODIFIED));
+            if (imageCatalogWrapper.getEntityTag() != null || imageCatalogWrapper.getLastModified() != null) {
+                revalidatedCatalogs.put(catalogUrl, imageCatalogWrapper);
+            } else {
+                revalidatedCatalogs.remove(catalogUrl);
+            }
+            return imageCatalogWrapper;
         }
-        return partitionedImages.get(true);
     }
 
-    private boolean hasFiltered(Map<Boolean, List<Image>> partitioned) {
-        return !partitioned.get(false).isEmpty();
+    private ParsedImageCatalog parse(InputStream content) throws IOException {
+        return new ImageCatalogStreamParser(objectMapper, getEnabledLinuxTypes(), getEnabledProviders()).parse(content);
     }
 
-    private Predicate<Image> enabledOsPredicate() {
-        return img -> getEnabledLinuxTypes().stream().anyMatch(img.getOs()::equalsIgnoreCase);
+    private ImageCatalogWrapper createImageCatalogWrapper(String catalogUrl, ParsedImageCatalog parsedImageCatalog, String entityTag, String lastModified)
+            throws CloudbreakImageCatalogException {
+        if (Objects.isNull(parsedImageCatalog)) {
+            throw new CloudbreakImageCatalogException(String.format("Failed to read the content of '%s' as an image catalog.", catalogUrl));
+        }
+        CloudbreakImageCatalogV3 validationCatalog = parsedImageCatalog.getValidationCatalog();
+        imageCatalogServiceProxy.validate(validationCatalog);
+        cleanAndValidateMaps(validationCatalog);
+        CloudbreakImageCatalogV3 catalog = parsedImageCatalog.getCatalog();
+        catalog.getImages().getIndex();
+        ImageCatalogMetaData metaData = imageCatalogServiceProxy.getImageCatalogMetaData(catalog);
+        return new ImageCatalogWrapper(catalog, metaData, entityTag, lastModified);
     }
 
     private List<String> getEnabledLinuxTypes() {
         return enabledLinuxTypes.stream().filter(StringUtils::isNoneBlank).collect(Collectors.toList());
     }
 
-    private String readResponse(WebTarget target, Response response) throws CloudbreakImageCatalogException {
-        CloudbreakImageCatalogV3 catalog;
+    private List<String> getEnabledProviders() {
+        return enabledProviders == null ? List.of() : enabledProviders;
+    }
+
+    private InputStream readResponse(WebTarget target, Response response) throws CloudbreakImageCatalogException {
         if (!response.getStatusInfo().getFamily().equals(Family.SUCCESSFUL)) {
             throw new CloudbreakImageCatalogException(String.format("Failed to get image catalog from '%s' due to: '%s'",
                     target.getUri().toString(), response.getStatusInfo().getReasonPhrase()));
         }
         try {
-            return response.readEntity(String.class);
+            return response.readEntity(InputStream.class);
         } catch (ProcessingException e) {
             throw new CloudbreakImageCatalogException(String.format("Failed to process image catalog from '%s' due to: '%s'",
                     target.getUri().toString(), e.getMessage()));
@@ -152,9 +168,9 @@ public class CachedImageCatalogWrapperProvider {
     public void evictImageCatalogCache(String catalogUrl) {
     }
 
-    private String readCatalogFromFile(String catalogUrl) throws IOException {
+    private InputStream readCatalogFromFile(String catalogUrl) throws IOException {
         File customCatalogFile = new File(etcConfigDir, catalogUrl);
-        return FileReaderUtils.readFileFromPath(customCatalogFile.toPath());
+        return Files.newInputStream(customCatalogFile.toPath());
     }
 
     private void cleanAndValidateMaps(CloudbreakImageCatalogV3 catalog) throws CloudbreakImageCatalogException {
@@ -527,16 +527,7 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
     }
 
     private Optional<? extends Image> getImage(String imageId, Images images) {
-        Optional<? extends Image> image;
-        if (!images.getFreeIpaImages().isEmpty()) {
-            image = findFirstWithImageId(imageId, images.getFreeIpaImages());
-        } else {
-            image = findFirstWithImageId(imageId, images.getBaseImages());
-            if (image.isEmpty()) {
-                image = findFirstWithImageId(imageId, images.getCdhImages());
-            }
-        }
-        return image;
+        return images.getIndex().findImage(imageId);
     }
 
     public StatedImages getImages(ImageFilter imageFilter) throws CloudbreakImageCatalogException {
@@ -591,12 +582,6 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
         return baseImageEnabled;
     }
 
-    private Optional<? extends Image> findFirstWithImageId(String imageId, Collection<? extends Image> images) {
-        return images.stream()
-                .filter(img -> img.getUuid().equals(imageId))
-                .findFirst();
-    }
-
     private static Predicate<Image> isPlatformMatching(Collection<String> platforms, Collection<String> vMImageUUIDs) {
         return img -> vMImageUUIDs.contains(img.getUuid())
                 && img.getImageSetsByProvider().keySet().stream().anyMatch(p -> platforms.stream().anyMatch(platform -> platform.equalsIgnoreCase(p)));
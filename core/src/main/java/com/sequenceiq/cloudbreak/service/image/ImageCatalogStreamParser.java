@@ -0,0 +1,222 @@
+package com.sequenceiq.cloudbreak.service.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV3;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Images;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Versions;
+
+/**
+ * Parses an image catalog from a stream image by image, and drops the images of the disabled operating systems and the image sets of the
+ * disabled providers while parsing, so neither the raw catalog nor the dropped images are kept in memory. The validation of the catalog
+ * needs every image, so a dropped image is replaced by a stub in the validation catalog, which keeps only the fields used by the
+ * validation.
+ */
+class ImageCatalogStreamParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageCatalogStreamParser.class);
+
+    private static final String IMAGES = "images";
+
+    private static final String VERSIONS = "versions";
+
+    private static final String BASE_IMAGES = "base-images";
+
+    private static final String CDH_IMAGES = "cdh-images";
+
+    private static final String FREEIPA_IMAGES = "freeipa-images";
+
+    private static final String SUPPORTED_CB_VERSIONS = "supported-cb-versions";
+
+    private final ObjectMapper objectMapper;
+
+    private final Set<String> enabledOsTypes;
+
+    private final Set<String> enabledProviders;
+
+    ImageCatalogStreamParser(ObjectMapper objectMapper, Collection<String> enabledOsTypes, Collection<String> enabledProviders) {
+        this.objectMapper = objectMapper;
+        this.enabledOsTypes = toLowerCase(enabledOsTypes);
+        this.enabledProviders = toLowerCase(enabledProviders);
+    }
+
+    /**
+     * Returns null if the content is the JSON null literal.
+     */
+    ParsedImageCatalog parse(InputStream content) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            JsonToken firstToken = parser.nextToken();
+            if (firstToken == JsonToken.VALUE_NULL) {
+                return null;
+            } else if (firstToken != JsonToken.START_OBJECT) {
+                throw JsonMappingException.from(parser, "Image catalog should be a JSON object");
+            }
+            ImageLists imageLists = null;
+            Versions versions = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (IMAGES.equals(fieldName)) {
+                    imageLists = parser.currentToken() == JsonToken.VALUE_NULL ? new ImageLists() : parseImages(parser);
+                } else if (VERSIONS.equals(fieldName)) {
+                    versions = objectMapper.readValue(parser, Versions.class);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (imageLists == null) {
+                throw JsonMappingException.from(parser, "Missing required creator property 'images' (index 0)");
+            }
+            return imageLists.toParsedImageCatalog(versions);
+        }
+    }
+
+    private ImageLists parseImages(JsonParser parser) throws IOException {
+        ImageLists imageLists = new ImageLists();
+        imageLists.present = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (BASE_IMAGES.equals(fieldName)) {
+                imageLists.baseImages = parseImageList(parser);
+            } else if (CDH_IMAGES.equals(fieldName)) {
+                imageLists.cdhImages = parseImageList(parser);
+            } else if (FREEIPA_IMAGES.equals(fieldName)) {
+                imageLists.freeIpaImages = parseImageList(parser);
+            } else if (SUPPORTED_CB_VERSIONS.equals(fieldName)) {
+                imageLists.supportedVersions = objectMapper.readValue(parser, new TypeReference<Set<String>>() { });
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return imageLists;
+    }
+
+    private ImageList parseImageList(JsonParser parser) throws IOException {
+        ImageList imageList = new ImageList();
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return imageList;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            Image image = objectMapper.readValue(parser, Image.class);
+            if (image == null || isEnabled(image)) {
+                removeDisabledProviders(image);
+                imageList.kept.add(image);
+                imageList.all.add(image);
+            } else {
+                imageList.all.add(stub(image));
+                imageList.dropped.add(image.shortOsDescriptionFormat());
+            }
+        }
+        return imageList;
+    }
+
+    private boolean isEnabled(Image image) {
+        return enabledOsTypes.isEmpty() || (image.getOs() != null && enabledOsTypes.contains(image.getOs().toLowerCase(Locale.ROOT)));
+    }
+
+    private void removeDisabledProviders(Image image) {
+        if (image != null && !enabledProviders.isEmpty() && image.getImageSetsByProvider() != null) {
+            image.getImageSetsByProvider().keySet().removeIf(provider -> !enabledProviders.contains(provider.toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    private Image stub(Image image) {
+        Map<String, Map<String, String>> imageSetsByProvider = new LinkedHashMap<>();
+        if (image.getImageSetsByProvider() != null) {
+            image.getImageSetsByProvider().forEach((provider, imageSet) -> imageSetsByProvider.put(provider, imageSet == null ? null : Map.of()));
+        }
+        return new Image(image.getDate(), image.getCreated(), image.getPublished(), image.getDescription(), image.getOs(), image.getUuid(),
+                image.getVersion(), null, imageSetsByProvider, null, image.getOsType(), null, null, null, image.getCmBuildNumber(),
+                image.isAdvertised(), null, null);
+    }
+
+    private Set<String> toLowerCase(Collection<String> values) {
+        return values == null ? Set.of() : values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    static class ParsedImageCatalog {
+
+        private final CloudbreakImageCatalogV3 catalog;
+
+        private final CloudbreakImageCatalogV3 validationCatalog;
+
+        ParsedImageCatalog(CloudbreakImageCatalogV3 catalog, CloudbreakImageCatalogV3 validationCatalog) {
+            this.catalog = catalog;
+            this.validationCatalog = validationCatalog;
+        }
+
+        /**
+         * The catalog without the dropped images.
+         */
+        CloudbreakImageCatalogV3 getCatalog() {
+            return catalog;
+        }
+
+        /**
+         * The catalog with every image, where the dropped images are stubs.
+         */
+        CloudbreakImageCatalogV3 getValidationCatalog() {
+            return validationCatalog;
+        }
+    }
+
+    private static class ImageList {
+
+        private final List<Image> kept = new ArrayList<>();
+
+        private final List<Image> all = new ArrayList<>();
+
+        private final List<String> dropped = new ArrayList<>();
+    }
+
+    private class ImageLists {
+
+        private boolean present;
+
+        private ImageList baseImages = new ImageList();
+
+        private ImageList cdhImages = new ImageList();
+
+        private ImageList freeIpaImages = new ImageList();
+
+        private Set<String> supportedVersions = Collections.emptySet();
+
+        private ParsedImageCatalog toParsedImageCatalog(Versions versions) {
+            if (!present) {
+                return new ParsedImageCatalog(new CloudbreakImageCatalogV3(null, versions), new CloudbreakImageCatalogV3(null, versions));
+            }
+            List<String> dropped = new ArrayList<>(baseImages.dropped);
+            dropped.addAll(cdhImages.dropped);
+            dropped.addAll(freeIpaImages.dropped);
+            if (!dropped.isEmpty()) {
+                LOGGER.debug("Used filter linuxTypes: | {} | Images filtered: {}", enabledOsTypes, String.join(", ", dropped));
+            }
+            Images keptImages = new Images(baseImages.kept, cdhImages.kept, freeIpaImages.kept, supportedVersions);
+            Images allImages = new Images(baseImages.all, cdhImages.all, freeIpaImages.all, supportedVersions);
+            return new ParsedImageCatalog(new CloudbreakImageCatalogV3(keptImages, versions), new CloudbreakImageCatalogV3(allImages, versions));
+        }
+    }
+}
@@ -8,11 +8,21 @@ public class ImageCatalogWrapper {
 
     private ImageCatalogMetaData imageCatalogMetaData;
 
+    private String entityTag;
+
+    private String lastModified;
+
     public ImageCatalogWrapper(CloudbreakImageCatalogV3 imageCatalog, ImageCatalogMetaData imageCatalogMetaData) {
         this.imageCatalog = imageCatalog;
         this.imageCatalogMetaData = imageCatalogMetaData;
     }
 
+    public ImageCatalogWrapper(CloudbreakImageCatalogV3 imageCatalog, ImageCatalogMetaData imageCatalogMetaData, String entityTag, String lastModified) {
+        this(imageCatalog, imageCatalogMetaData);
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+    }
+
     public CloudbreakImageCatalogV3 getImageCatalog() {
         return imageCatalog;
     }
@@ -21,11 +31,21 @@ public class ImageCatalogWrapper {
         return imageCatalogMetaData;
     }
 
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
     @Override
     public String toString() {
         return "ImageCatalogWrapper{" +
                 "imageCatalog=" + imageCatalog +
                 ", imageCatalogMetaData=" + imageCatalogMetaData +
+                ", entityTag=" + entityTag +
+                ", lastModified=" + lastModified +
                 '}';
     }
 }
@@ -84,4 +84,14 @@ public class CloudbreakMetricService extends AbstractMetricService {
         LOGGER.debug("Image copy duration report: {} ms", millispassed);
         recordTimer(millispassed, MetricType.STACK_IMAGE_COPY, tags);
     }
+
+    public void recordStackSyncTime(Stack stack, long startMillis, boolean stateChanged) {
+        String[] tags = {MetricTag.RESOURCE_CRN.name(), Optional.ofNullable(stack.getResourceCrn()).orElse("NA"),
+                MetricTag.CLOUD_PROVIDER.name(), Optional.ofNullable(stack.cloudPlatform()).orElse("NA"),
+                MetricTag.STATE_CHANGED.name(), String.valueOf(stateChanged)};
+
+        long millispassed = System.currentTimeMillis() - startMillis;
+        LOGGER.debug("Stack sync duration report: {} ms", millispassed);
+        recordTimer(millispassed, MetricType.STACK_SYNC, tags);
+    }
 }
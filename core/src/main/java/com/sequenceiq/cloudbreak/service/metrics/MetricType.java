@@ -30,6 +30,8 @@ public enum MetricType implements Metric {
 
     STACK_PREPARATION("stack.preparation.duration"),
 
+    STACK_SYNC("stack.sync.duration"),
+
     EXTERNAL_DATABASE_CREATION_SUCCESSFUL("externaldatabase.creation.successful"),
     EXTERNAL_DATABASE_CREATION_FAILED("externaldatabase.creation.failed"),
     EXTERNAL_DATABASE_TERMINATION_SUCCESSFUL("externaldatabase.termination.successful"),
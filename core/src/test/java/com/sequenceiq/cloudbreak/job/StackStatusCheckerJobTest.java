@@ -57,6 +57,7 @@ import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobSe
 import com.sequenceiq.cloudbreak.service.cluster.ClusterApiConnectors;
 import com.sequenceiq.cloudbreak.service.cluster.ClusterService;
 import com.sequenceiq.cloudbreak.service.cluster.flow.ClusterOperationService;
+import com.sequenceiq.cloudbreak.service.metrics.CloudbreakMetricService;
 import com.sequenceiq.cloudbreak.service.stack.InstanceMetaDataService;
 import com.sequenceiq.cloudbreak.service.stack.RuntimeVersionService;
 import com.sequenceiq.cloudbreak.service.stack.StackInstanceStatusChecker;
@@ -149,6 +150,9 @@ public class StackStatusCheckerJobTest {
     @Mock
     private CmTemplateProcessor cmTemplateProcessor;
 
+    @Mock
+    private CloudbreakMetricService metricService;
+
     @Before
     public void init() {
         Tracer tracer = Mockito.mock(Tracer.class);
@@ -188,6 +192,7 @@ public class StackStatusCheckerJobTest {
         underTest.executeTracedJob(jobExecutionContext);
 
         verify(stackService, times(0)).getByIdWithListsInTransaction(anyLong());
+        verify(jobService).rescheduleAdaptively(jobExecutionContext, null);
     }
 
     @Test
@@ -292,6 +297,28 @@ public class StackStatusCheckerJobTest {
         verify(clusterService, times(1)).updateClusterStatusByStackId(stack.getId(), expected);
     }
 
+    @Test
+    public void testSyncIntervalIsAdaptedToStateOfStack() throws JobExecutionException {
+        setupForCMNotAccessible();
+        when(stackService.getCurrentStatusByStackId(anyLong())).thenReturn(stack.getStackStatus());
+        when(jobService.rescheduleAdaptively(eq(jobExecutionContext), anyString())).thenReturn(true);
+        underTest.executeTracedJob(jobExecutionContext);
+
+        verify(jobService).rescheduleAdaptively(eq(jobExecutionContext), anyString());
+        verify(metricService).recordStackSyncTime(eq(stack), anyLong(), eq(true));
+    }
+
+    @Test
+    public void testSyncIntervalIsNotAdaptedForLongSyncJob() throws JobExecutionException {
+        setupForCMNotAccessible();
+        when(jobExecutionContext.getMergedJobDataMap())
+                .thenReturn(new JobDataMap(Map.of(StatusCheckerJobService.SYNC_JOB_TYPE, StatusCheckerJobService.LONG_SYNC_JOB_TYPE)));
+        underTest.executeTracedJob(jobExecutionContext);
+
+        verify(jobService, times(0)).rescheduleAdaptively(any(), any());
+        verify(metricService).recordStackSyncTime(eq(stack), anyLong(), eq(false));
+    }
+
     @Test
     public void testHandledAllStatesSeparately() {
         Set<Status> unshedulableStates = Status.getUnschedulableStatuses();
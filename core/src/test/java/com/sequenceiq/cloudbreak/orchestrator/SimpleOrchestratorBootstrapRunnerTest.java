@@ -2,11 +2,19 @@ package com.sequenceiq.cloudbreak.orchestrator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 import org.slf4j.MDC;
 
+import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorFailedException;
 import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorTimeoutException;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteria;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteriaModel;
@@ -16,6 +24,8 @@ public class SimpleOrchestratorBootstrapRunnerTest {
 
     private static final String EXCEPTION_MESSAGE = "exceptionTest";
 
+    private static final long ASYNC_TIMEOUT_SECONDS = 10L;
+
     @Test
     public void bootstrapSuccessWithoutException() throws Exception {
         MDC.put("test", "test");
@@ -42,6 +52,76 @@ public class SimpleOrchestratorBootstrapRunnerTest {
         assertNull(result);
     }
 
+    @Test
+    public void bootstrapAsyncSuccessAfterRetries() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Boolean result = new OrchestratorBootstrapRunner(new MockBootstrapRunner(3),
+                    new MockExitCriteria(),
+                    new MockExitCriteriaModel(),
+                    MDC.getCopyOfContextMap(), 5, 1, 5)
+                    .callAsync(scheduler)
+                    .get(ASYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(true, result);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void bootstrapAsyncTimeout() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompletableFuture<Boolean> result = new OrchestratorBootstrapRunner(new MockBootstrapRunner(-1),
+                    new MockExitCriteria(),
+                    new MockExitCriteriaModel(),
+                    MDC.getCopyOfContextMap(), 2, 1, 2)
+                    .withBackoff(OrchestratorBootstrapBackoff.exponentialWithJitter(1, 4))
+                    .callAsync(scheduler);
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(ASYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof CloudbreakOrchestratorTimeoutException);
+            assertTrue(exception.getCause().getMessage().contains(EXCEPTION_MESSAGE));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void exponentialBackoffWithJitterStaysWithinBounds() {
+        OrchestratorBootstrapBackoff backoff = OrchestratorBootstrapBackoff.exponentialWithJitter(100, 1000);
+        for (int i = 0; i < 100; i++) {
+            long firstDelay = backoff.nextDelay(1);
+            assertTrue(firstDelay >= 50 && firstDelay <= 150);
+            long cappedDelay = backoff.nextDelay(10);
+            assertTrue(cappedDelay >= 500 && cappedDelay <= 1500);
+        }
+    }
+
+    @Test
+    public void fixedBackoffKeepsTheNumberOfAttempts() {
+        assertEquals(30, OrchestratorBootstrapBackoff.fixed(5000).attemptsFor(29 * 5000L));
+    }
+
+    @Test
+    public void exponentialBackoffGetsMoreAttemptsForTheSameTotalWait() {
+        OrchestratorBootstrapBackoff backoff = OrchestratorBootstrapBackoff.exponentialWithJitter(1000, 5000);
+        // 1000 + 2000 + 4000 = 7000 ms in the first 3 delays, then (145000 - 7000) / 5000 = 27.6 capped delays
+        assertEquals(32, backoff.attemptsFor(29 * 5000L));
+    }
+
+    @Test
+    public void backoffKeepsTheConfiguredErrorThreshold() {
+        MockBootstrapRunner bootstrap = new MockBootstrapRunner(-1);
+        OrchestratorBootstrapRunner runner = new OrchestratorBootstrapRunner(bootstrap,
+                new MockExitCriteria(),
+                new MockExitCriteriaModel(),
+                MDC.getCopyOfContextMap(), 10, 10, 2)
+                .withBackoff(OrchestratorBootstrapBackoff.exponentialWithJitter(1, 2));
+        CloudbreakOrchestratorFailedException exception = assertThrows(CloudbreakOrchestratorFailedException.class, runner::call);
+        assertTrue(exception.getMessage().contains(EXCEPTION_MESSAGE));
+        assertEquals(2, bootstrap.count);
+    }
+
     private static class MockBootstrapRunner implements OrchestratorBootstrap {
 
         private int count;
@@ -2,9 +2,14 @@ package com.sequenceiq.cloudbreak.service.image;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
@@ -15,6 +20,7 @@ import java.util.stream.Collectors;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.assertj.core.util.Lists;
@@ -35,6 +41,7 @@ import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakVersion;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
 import com.sequenceiq.cloudbreak.core.CloudbreakImageCatalogException;
 import com.sequenceiq.cloudbreak.service.image.catalog.ImageCatalogServiceProxy;
+import com.sequenceiq.cloudbreak.service.image.catalog.model.ImageCatalogWrapper;
 
 @ExtendWith(MockitoExtension.class)
 public class CachedImageCatalogWrapperProviderTest {
@@ -222,7 +229,7 @@ public class CachedImageCatalogWrapperProviderTest {
         when(builderMock.get()).thenReturn(responseMock);
         when(responseMock.getStatusInfo()).thenReturn(statusTypeMock);
         when(statusTypeMock.getFamily()).thenReturn(Response.Status.Family.SUCCESSFUL);
-        when(responseMock.readEntity(String.class)).thenReturn(Files.readString(Paths.get(path, CB_IMAGE_CATALOG_V2_JSON)));
+        when(responseMock.readEntity(InputStream.class)).thenReturn(Files.newInputStream(Paths.get(path, CB_IMAGE_CATALOG_V2_JSON)));
 
         ReflectionTestUtils.setField(underTest, "etcConfigDir", path);
         ReflectionTestUtils.setField(underTest, "enabledLinuxTypes", Collections.emptyList());
@@ -236,6 +243,35 @@ public class CachedImageCatalogWrapperProviderTest {
 
     }
 
+    @Test
+    public void testHttpImageCatalogNotModifiedIsReused() throws CloudbreakImageCatalogException, IOException {
+        String path = getPath(CB_IMAGE_CATALOG_VALID_JSON);
+        String catalogUrl = "http";
+        Invocation.Builder conditionalBuilderMock = mock(Invocation.Builder.class);
+        Response notModifiedResponseMock = mock(Response.class);
+
+        when(restClientFactory.getOrCreateDefault()).thenReturn(clientMock);
+        when(clientMock.target(catalogUrl)).thenReturn(webTargetMock);
+        when(webTargetMock.request()).thenReturn(builderMock);
+        when(builderMock.get()).thenReturn(responseMock);
+        when(responseMock.getStatusInfo()).thenReturn(statusTypeMock);
+        when(statusTypeMock.getFamily()).thenReturn(Response.Status.Family.SUCCESSFUL);
+        when(responseMock.readEntity(InputStream.class)).thenReturn(Files.newInputStream(Paths.get(path, CB_IMAGE_CATALOG_V2_JSON)));
+        when(responseMock.getHeaderString(HttpHeaders.ETAG)).thenReturn("\"etag\"");
+        when(builderMock.header(HttpHeaders.IF_NONE_MATCH, "\"etag\"")).thenReturn(conditionalBuilderMock);
+        when(conditionalBuilderMock.get()).thenReturn(notModifiedResponseMock);
+        when(notModifiedResponseMock.getStatus()).thenReturn(Response.Status.NOT_MODIFIED.getStatusCode());
+
+        ReflectionTestUtils.setField(underTest, "etcConfigDir", path);
+        ReflectionTestUtils.setField(underTest, "enabledLinuxTypes", Collections.emptyList());
+
+        ImageCatalogWrapper downloaded = underTest.getImageCatalogWrapper(catalogUrl);
+        ImageCatalogWrapper revalidated = underTest.getImageCatalogWrapper(catalogUrl);
+
+        assertSame(downloaded, revalidated);
+        assertEquals("\"etag\"", revalidated.getEntityTag());
+    }
+
     @Test
     public void testHttpImageCatalogNotValidJson() {
         String path = getPath(CB_IMAGE_CATALOG_VALID_JSON);
@@ -247,7 +283,7 @@ public class CachedImageCatalogWrapperProviderTest {
         when(builderMock.get()).thenReturn(responseMock);
         when(responseMock.getStatusInfo()).thenReturn(statusTypeMock);
         when(statusTypeMock.getFamily()).thenReturn(Response.Status.Family.SUCCESSFUL);
-        when(responseMock.readEntity(String.class)).thenReturn("image catalog");
+        when(responseMock.readEntity(InputStream.class)).thenReturn(new ByteArrayInputStream("image catalog".getBytes(StandardCharsets.UTF_8)));
 
         ReflectionTestUtils.setField(underTest, "etcConfigDir", path);
         ReflectionTestUtils.setField(underTest, "enabledLinuxTypes", Collections.emptyList());
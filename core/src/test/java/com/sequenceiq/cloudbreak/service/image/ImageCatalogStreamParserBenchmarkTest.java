@@ -0,0 +1,102 @@
+package com.sequenceiq.cloudbreak.service.image;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV3;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
+import com.sequenceiq.cloudbreak.service.image.ImageCatalogStreamParser.ParsedImageCatalog;
+
+@EnabledIfSystemProperty(named = "imageCatalogBenchmark", matches = "true")
+class ImageCatalogStreamParserBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageCatalogStreamParserBenchmarkTest.class);
+
+    private static final String CENTOS7 = "centos7";
+
+    private static final String AWS = "aws";
+
+    private static final long BENCHMARK_CATALOG_BYTES = 50L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Compares the bytes allocated by reading a synthetic 50 MB catalog into a string and binding all of it, which is how the catalog
+     * was read before, with the bytes allocated by the stream parser. It is not a unit test, run it with
+     * -DimageCatalogBenchmark=true.
+     */
+    @Test
+    void benchmarkMemoryFootprintOfSyntheticCatalog(@TempDir Path tempDir) throws IOException {
+        Path catalogFile = writeSyntheticCatalog(tempDir.resolve("synthetic-image-catalog.json"));
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        String content = Files.readString(catalogFile);
+        CloudbreakImageCatalogV3 catalog = objectMapper.readValue(content, CloudbreakImageCatalogV3.class);
+        List<Image> databindImages = catalog.getImages().getBaseImages().stream()
+                .filter(image -> CENTOS7.equals(image.getOs()))
+                .collect(Collectors.toList());
+        long databindAllocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        start = threadMXBean.getThreadAllocatedBytes(threadId);
+        ParsedImageCatalog parsedImageCatalog;
+        try (InputStream stream = Files.newInputStream(catalogFile)) {
+            parsedImageCatalog = new ImageCatalogStreamParser(objectMapper, List.of(CENTOS7), List.of(AWS)).parse(stream);
+        }
+        long streamAllocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        LOGGER.info("Synthetic catalog of {} bytes: databind allocated {} bytes, stream parser allocated {} bytes",
+                Files.size(catalogFile), databindAllocated, streamAllocated);
+        assertEquals(uuids(databindImages), uuids(parsedImageCatalog.getCatalog().getImages().getBaseImages()));
+        assertTrue(streamAllocated < databindAllocated);
+    }
+
+    private Path writeSyntheticCatalog(Path catalogFile) throws IOException {
+        List<String> oses = List.of(CENTOS7, "redhat7", "redhat8", "sles12");
+        List<String> providers = List.of(AWS, "azure", "gcp", "yarn");
+        try (Writer writer = Files.newBufferedWriter(catalogFile, StandardCharsets.UTF_8)) {
+            writer.write("{\"images\":{\"base-images\":[");
+            for (int i = 0; Files.size(catalogFile) < BENCHMARK_CATALOG_BYTES; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(String.format("{\"date\":\"2021-01-01\",\"description\":\"Synthetic image %d\",\"os\":\"%s\",\"os_type\":\"redhat7\","
+                        + "\"uuid\":\"%s\",\"images\":{", i, oses.get(i % oses.size()), UUID.randomUUID()));
+                for (int p = 0; p < providers.size(); p++) {
+                    writer.write(String.format("%s\"%s\":{", p == 0 ? "" : ",", providers.get(p)));
+                    for (int region = 0; region < 20; region++) {
+                        writer.write(String.format("%s\"region-%d\":\"image-%d-%d\"", region == 0 ? "" : ",", region, i, region));
+                    }
+                    writer.write("}");
+                }
+                writer.write("}}");
+                if (i % 1000 == 0) {
+                    writer.flush();
+                }
+            }
+            writer.write("]},\"versions\":{\"cloudbreak\":[]}}");
+        }
+        return catalogFile;
+    }
+
+    private List<String> uuids(List<Image> images) {
+        return images.stream().map(Image::getUuid).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,120 @@
+package com.sequenceiq.cloudbreak.service.image;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV3;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
+import com.sequenceiq.cloudbreak.service.image.ImageCatalogStreamParser.ParsedImageCatalog;
+
+class ImageCatalogStreamParserTest {
+
+    private static final String CB_IMAGE_CATALOG_RC_JSON = "cb-rc-image-catalog.json";
+
+    private static final String FREEIPA_IMAGE_CATALOG_V3_JSON = "freeipa-image-catalog-v3.json";
+
+    private static final String CENTOS7 = "centos7";
+
+    private static final String AWS = "aws";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testWithoutFiltersTheCatalogIsTheSameAsTheDatabindCatalog() throws IOException {
+        CloudbreakImageCatalogV3 expected = readValue(CB_IMAGE_CATALOG_RC_JSON);
+
+        ParsedImageCatalog actual = parse(CB_IMAGE_CATALOG_RC_JSON, List.of(), List.of());
+
+        assertEquals(uuids(expected.getImages().getBaseImages()), uuids(actual.getCatalog().getImages().getBaseImages()));
+        assertEquals(uuids(expected.getImages().getBaseImages()), uuids(actual.getValidationCatalog().getImages().getBaseImages()));
+        assertEquals(expected.getVersions().getCloudbreakVersions().size(), actual.getCatalog().getVersions().getCloudbreakVersions().size());
+    }
+
+    @Test
+    void testImagesOfDisabledOsAreStubbedInTheValidationCatalog() throws IOException {
+        CloudbreakImageCatalogV3 expected = readValue(CB_IMAGE_CATALOG_RC_JSON);
+
+        ParsedImageCatalog actual = parse(CB_IMAGE_CATALOG_RC_JSON, List.of(CENTOS7), List.of());
+
+        List<Image> expectedCentosImages = expected.getImages().getBaseImages().stream()
+                .filter(image -> CENTOS7.equals(image.getOs()))
+                .collect(Collectors.toList());
+        assertEquals(uuids(expectedCentosImages), uuids(actual.getCatalog().getImages().getBaseImages()));
+        List<Image> validationImages = actual.getValidationCatalog().getImages().getBaseImages();
+        assertEquals(uuids(expected.getImages().getBaseImages()), uuids(validationImages));
+        for (int i = 0; i < validationImages.size(); i++) {
+            Image original = expected.getImages().getBaseImages().get(i);
+            Image validationImage = validationImages.get(i);
+            assertEquals(original.getImageSetsByProvider().keySet(), validationImage.getImageSetsByProvider().keySet());
+            if (!CENTOS7.equals(original.getOs())) {
+                assertTrue(validationImage.getImageSetsByProvider().values().stream().allMatch(imageSet -> imageSet == null || imageSet.isEmpty()));
+            }
+        }
+    }
+
+    @Test
+    void testImageSetsOfDisabledProvidersAreDropped() throws IOException {
+        ParsedImageCatalog actual = parse(CB_IMAGE_CATALOG_RC_JSON, List.of(), List.of(AWS.toUpperCase()));
+
+        List<Image> images = actual.getCatalog().getImages().getBaseImages();
+        assertTrue(images.stream().anyMatch(image -> image.getImageSetsByProvider().containsKey(AWS)));
+        assertTrue(images.stream().allMatch(image -> Set.of(AWS).containsAll(image.getImageSetsByProvider().keySet())));
+    }
+
+    @Test
+    void testFreeIpaImagesAreFiltered() throws IOException {
+        ParsedImageCatalog actual = parse(FREEIPA_IMAGE_CATALOG_V3_JSON, List.of("redhat7"), List.of());
+
+        assertEquals(1, actual.getCatalog().getImages().getFreeIpaImages().size());
+        assertEquals("81851893-8340-411d-afb7-e1b55107fb10", actual.getCatalog().getImages().getFreeIpaImages().get(0).getUuid());
+        assertEquals(readValue(FREEIPA_IMAGE_CATALOG_V3_JSON).getImages().getFreeIpaImages().size(),
+                actual.getValidationCatalog().getImages().getFreeIpaImages().size());
+    }
+
+    @Test
+    void testNullCatalog() throws IOException {
+        assertNull(new ImageCatalogStreamParser(objectMapper, List.of(), List.of()).parse(toStream("null")));
+    }
+
+    @Test
+    void testMissingImages() {
+        JsonMappingException exception = assertThrows(JsonMappingException.class,
+                () -> new ImageCatalogStreamParser(objectMapper, List.of(), List.of()).parse(toStream("{\"versions\": null}")));
+
+        assertTrue(exception.getMessage().startsWith("Missing required creator property 'images' (index 0)"));
+    }
+
+    private ParsedImageCatalog parse(String catalogName, List<String> enabledOsTypes, List<String> enabledProviders) throws IOException {
+        try (InputStream stream = getClass().getResourceAsStream(catalogName)) {
+            return new ImageCatalogStreamParser(objectMapper, enabledOsTypes, enabledProviders).parse(stream);
+        }
+    }
+
+    private CloudbreakImageCatalogV3 readValue(String catalogName) throws IOException {
+        try (InputStream stream = getClass().getResourceAsStream(catalogName)) {
+            return objectMapper.readValue(stream, CloudbreakImageCatalogV3.class);
+        }
+    }
+
+    private InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> uuids(List<Image> images) {
+        return images.stream().map(Image::getUuid).collect(Collectors.toList());
+    }
+}
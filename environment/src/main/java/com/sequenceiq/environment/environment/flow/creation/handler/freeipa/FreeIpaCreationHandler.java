@@ -15,6 +15,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -29,7 +31,6 @@ import com.sequenceiq.cloudbreak.cloud.aws.common.AwsConstants;
 import com.sequenceiq.cloudbreak.cloud.init.CloudPlatformConnectors;
 import com.sequenceiq.cloudbreak.cloud.model.Platform;
 import com.sequenceiq.cloudbreak.common.mappable.CloudPlatform;
-import com.sequenceiq.cloudbreak.polling.ExtendedPollingResult;
 import com.sequenceiq.cloudbreak.polling.PollingService;
 import com.sequenceiq.cloudbreak.util.CidrUtil;
 import com.sequenceiq.common.api.backup.request.BackupRequest;
@@ -151,43 +152,61 @@ public class FreeIpaCreationHandler extends EventSenderAwareHandler<EnvironmentD
         EnvironmentDto environmentDto = environmentDtoEvent.getData();
         Optional<Environment> environmentOptional = environmentService.findEnvironmentById(environmentDto.getId());
         try {
+            CompletableFuture<Void> freeIpaCreation = CompletableFuture.completedFuture(null);
             if (environmentOptional.isPresent()) {
                 Environment environment = environmentOptional.get();
                 if (Objects.nonNull(environment.getParentEnvironment())) {
                     attachParentFreeIpa(environmentDto);
                 } else if (environment.isCreateFreeIpa() && supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform())) {
-                    createFreeIpa(environmentDtoEvent, environmentDto);
+                    freeIpaCreation = createFreeIpa(environmentDto);
                 } else {
                     boolean supported = supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform());
                     LOGGER.info("Freeipa won't create: parent: {}, create freeipa: {}, {} provider is supproted: {}", environment.getParentEnvironment(),
                             environment.isCreateFreeIpa(), environment.getCloudPlatform(), supported);
                 }
             }
-            eventSender().sendEvent(getNextStepObject(environmentDto), environmentDtoEvent.getHeaders());
+            freeIpaCreation.whenComplete((ignored, throwable) -> {
+                if (throwable == null) {
+                    eventSender().sendEvent(getNextStepObject(environmentDto), environmentDtoEvent.getHeaders());
+                } else {
+                    sendFailureEvent(environmentDtoEvent, environmentDto, unwrap(throwable));
+                }
+            });
         } catch (Exception ex) {
-            LOGGER.error(String.format("Error occurred during creating FreeIpa for environment %s.", environmentDto), ex);
-            EnvCreationFailureEvent failureEvent = new EnvCreationFailureEvent(environmentDto.getId(),
-                    environmentDto.getName(), ex, environmentDto.getResourceCrn());
-            eventBus.notify(failureEvent.selector(), new Event<>(environmentDtoEvent.getHeaders(), failureEvent));
+            sendFailureEvent(environmentDtoEvent, environmentDto, ex);
         }
     }
 
-    private void createFreeIpa(Event<EnvironmentDto> environmentDtoEvent, EnvironmentDto environmentDto) throws Exception {
+    private void sendFailureEvent(Event<EnvironmentDto> environmentDtoEvent, EnvironmentDto environmentDto, Exception ex) {
+        LOGGER.error(String.format("Error occurred during creating FreeIpa for environment %s.", environmentDto), ex);
+        EnvCreationFailureEvent failureEvent = new EnvCreationFailureEvent(environmentDto.getId(),
+                environmentDto.getName(), ex, environmentDto.getResourceCrn());
+        eventBus.notify(failureEvent.selector(), new Event<>(environmentDtoEvent.getHeaders(), failureEvent));
+    }
+
+    private Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
+    private CompletableFuture<Void> createFreeIpa(EnvironmentDto environmentDto) throws Exception {
         Optional<DescribeFreeIpaResponse> freeIpa = freeIpaService.describe(environmentDto.getResourceCrn());
         if (freeIpa.isEmpty()) {
             LOGGER.info("FreeIpa for environmentCrn '{}' was not found, creating a new one.", environmentDto.getResourceCrn());
             CreateFreeIpaRequest createFreeIpaRequest = createFreeIpaRequest(environmentDto);
             freeIpaService.create(createFreeIpaRequest);
-            awaitFreeIpaCreation(environmentDtoEvent, environmentDto);
-            AddDnsZoneForSubnetIdsRequest addDnsZoneForSubnetIdsRequest = addDnsZoneForSubnetIdsRequest(environmentDto);
-            if (shouldSendSubnetIdsToFreeIpa(addDnsZoneForSubnetIdsRequest)) {
-                dnsV1Endpoint.addDnsZoneForSubnetIds(addDnsZoneForSubnetIdsRequest);
-            }
+            return awaitFreeIpaCreation(environmentDto).thenRun(() -> {
+                AddDnsZoneForSubnetIdsRequest addDnsZoneForSubnetIdsRequest = addDnsZoneForSubnetIdsRequest(environmentDto);
+                if (shouldSendSubnetIdsToFreeIpa(addDnsZoneForSubnetIdsRequest)) {
+                    dnsV1Endpoint.addDnsZoneForSubnetIds(addDnsZoneForSubnetIdsRequest);
+                }
+            });
         } else {
             LOGGER.info("FreeIpa for environmentCrn '{}' already exists. Using this one.", environmentDto.getResourceCrn());
             if (CREATE_IN_PROGRESS == freeIpa.get().getStatus()) {
-                awaitFreeIpaCreation(environmentDtoEvent, environmentDto);
+                return awaitFreeIpaCreation(environmentDto);
             }
+            return CompletableFuture.completedFuture(null);
         }
     }
 
@@ -395,23 +414,26 @@ public class FreeIpaCreationHandler extends EventSenderAwareHandler<EnvironmentD
         return securityRuleRequest;
     }
 
-    private void awaitFreeIpaCreation(Event<EnvironmentDto> environmentDtoEvent, EnvironmentDto environment) {
-        ExtendedPollingResult pollWithTimeout = freeIpaPollingService.pollWithTimeout(
+    /**
+     * Polls the FreeIPA creation without blocking the event bus thread, the returned future completes when the FreeIPA is available.
+     */
+    private CompletableFuture<Void> awaitFreeIpaCreation(EnvironmentDto environment) {
+        return freeIpaPollingService.pollWithTimeoutAsync(
                 new FreeIpaCreationRetrievalTask(freeIpaService),
                 new FreeIpaPollerObject(environment.getId(), environment.getResourceCrn()),
                 FreeIpaCreationRetrievalTask.FREEIPA_RETRYING_INTERVAL,
                 FreeIpaCreationRetrievalTask.FREEIPA_RETRYING_COUNT,
-                FreeIpaCreationRetrievalTask.FREEIPA_FAILURE_COUNT);
-        if (pollWithTimeout.isSuccess()) {
-            eventSender().sendEvent(getNextStepObject(environment), environmentDtoEvent.getHeaders());
-        } else {
-            LOGGER.info("FreeIPA creation polling has stopped due to the unsuccessful state/result: {}", pollWithTimeout.getPollingResult());
-            Optional.ofNullable(pollWithTimeout.getException()).ifPresentOrElse(e -> {
-                throw new FreeIpaOperationFailedException(e.getMessage());
-            }, () -> {
-                throw new FreeIpaOperationFailedException("Polling result was: " + pollWithTimeout.getPollingResult());
-            });
-        }
+                FreeIpaCreationRetrievalTask.FREEIPA_FAILURE_COUNT)
+                .thenAccept(pollWithTimeout -> {
+                    if (!pollWithTimeout.isSuccess()) {
+                        LOGGER.info("FreeIPA creation polling has stopped due to the unsuccessful state/result: {}", pollWithTimeout.getPollingResult());
+                        Optional.ofNullable(pollWithTimeout.getException()).ifPresentOrElse(e -> {
+                            throw new FreeIpaOperationFailedException(e.getMessage());
+                        }, () -> {
+                            throw new FreeIpaOperationFailedException("Polling result was: " + pollWithTimeout.getPollingResult());
+                        });
+                    }
+                });
     }
 
     private EnvCreationEvent getNextStepObject(EnvironmentDto environmentDto) {
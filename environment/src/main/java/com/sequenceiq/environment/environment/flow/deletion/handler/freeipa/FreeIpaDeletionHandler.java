@@ -7,6 +7,8 @@ import static com.sequenceiq.environment.environment.flow.deletion.event.EnvDele
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.ws.rs.NotFoundException;
 
@@ -14,7 +16,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.polling.ExtendedPollingResult;
 import com.sequenceiq.cloudbreak.polling.PollingService;
 import com.sequenceiq.environment.environment.domain.Environment;
 import com.sequenceiq.environment.environment.dto.EnvironmentDeletionDto;
@@ -65,25 +66,41 @@ public class FreeIpaDeletionHandler extends EventSenderAwareHandler<EnvironmentD
         EnvironmentDto environmentDto = environmentDeletionDto.getEnvironmentDto();
         Environment environment = environmentService.findEnvironmentById(environmentDto.getId()).orElse(null);
         try {
+            CompletableFuture<Void> freeIpaRemoval = CompletableFuture.completedFuture(null);
             if (shouldRemoveFreeIpa(environment)) {
                 if (Objects.nonNull(environment.getParentEnvironment())) {
                     detachChildEnvironmentFromFreeIpa(environment);
                 } else {
-                    deleteFreeIpa(environment, environmentDeletionDto.isForceDelete());
+                    freeIpaRemoval = deleteFreeIpa(environment, environmentDeletionDto.isForceDelete());
                 }
             }
-            eventSender().sendEvent(getNextStepObject(environmentDeletionDto), environmentDtoEvent.getHeaders());
+            freeIpaRemoval.whenComplete((ignored, throwable) -> {
+                if (throwable == null) {
+                    eventSender().sendEvent(getNextStepObject(environmentDeletionDto), environmentDtoEvent.getHeaders());
+                } else {
+                    sendFailedEvent(environmentDtoEvent, environmentDto, unwrap(throwable));
+                }
+            });
         } catch (Exception e) {
-            EnvDeleteFailedEvent failedEvent = EnvDeleteFailedEvent.builder()
-                    .withEnvironmentID(environmentDto.getId())
-                    .withException(e)
-                    .withResourceCrn(environmentDto.getResourceCrn())
-                    .withResourceName(environmentDto.getName())
-                    .build();
-            eventSender().sendEvent(failedEvent, environmentDtoEvent.getHeaders());
+            sendFailedEvent(environmentDtoEvent, environmentDto, e);
         }
     }
 
+    private void sendFailedEvent(Event<EnvironmentDeletionDto> environmentDtoEvent, EnvironmentDto environmentDto, Exception e) {
+        EnvDeleteFailedEvent failedEvent = EnvDeleteFailedEvent.builder()
+                .withEnvironmentID(environmentDto.getId())
+                .withException(e)
+                .withResourceCrn(environmentDto.getResourceCrn())
+                .withResourceName(environmentDto.getName())
+                .build();
+        eventSender().sendEvent(failedEvent, environmentDtoEvent.getHeaders());
+    }
+
+    private Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
     private boolean shouldRemoveFreeIpa(Environment environment) {
         return Objects.nonNull(environment)
                 && freeIpaExistsForEnvironment(environment);
@@ -139,20 +156,25 @@ public class FreeIpaDeletionHandler extends EventSenderAwareHandler<EnvironmentD
         return Objects.equals(sibling.getNetwork().getNetworkCidr(), environment.getNetwork().getNetworkCidr());
     }
 
-    private void deleteFreeIpa(Environment environment, boolean forced) {
+    /**
+     * Polls the FreeIPA deletion without blocking the event bus thread, the returned future completes when the FreeIPA is deleted.
+     */
+    private CompletableFuture<Void> deleteFreeIpa(Environment environment, boolean forced) {
         freeIpaService.delete(environment.getResourceCrn(), forced);
-        ExtendedPollingResult result = freeIpaPollingService.pollWithTimeout(
+        return freeIpaPollingService.pollWithTimeoutAsync(
                 new FreeIpaDeletionRetrievalTask(freeIpaService),
                 new FreeIpaPollerObject(environment.getId(), environment.getResourceCrn()),
                 FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_INTERVAL,
                 FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_COUNT,
-                FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT);
-        if (!result.isSuccess()) {
-            String message = "Failed to delete FreeIpa! (" + result.getPollingResult().name() + ") "
-                    + getIfNotNull(result.getException(), Throwable::getMessage);
-            LOGGER.info(message);
-            throw new FreeIpaOperationFailedException(message);
-        }
+                FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT)
+                .thenAccept(result -> {
+                    if (!result.isSuccess()) {
+                        String message = "Failed to delete FreeIpa! (" + result.getPollingResult().name() + ") "
+                                + getIfNotNull(result.getException(), Throwable::getMessage);
+                        LOGGER.info(message);
+                        throw new FreeIpaOperationFailedException(message);
+                    }
+                });
     }
 
     @Override
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -218,13 +219,13 @@ public class FreeIpaCreationHandlerTest {
         when(environmentService.findEnvironmentById(environmentDto.getId())).thenReturn(Optional.of(environment));
         when(supportedPlatforms.supportedPlatformForFreeIpa(environmentDto.getCloudPlatform())).thenReturn(true);
         when(connectors.getDefault(any())).thenReturn(mock(CloudConnector.class));
-        when(freeIpaPollingService.pollWithTimeout(
+        when(freeIpaPollingService.pollWithTimeoutAsync(
                 any(FreeIpaCreationRetrievalTask.class),
                 any(FreeIpaPollerObject.class),
                 anyLong(),
                 anyInt(),
                 anyInt()))
-                .thenReturn(result);
+                .thenReturn(CompletableFuture.completedFuture(result));
 
         victim.accept(new Event<>(environmentDto));
 
@@ -234,7 +235,7 @@ public class FreeIpaCreationHandlerTest {
         verify(environmentService, times(1)).findEnvironmentById(environmentDto.getId());
         verify(supportedPlatforms, times(1)).supportedPlatformForFreeIpa(anyString());
         verify(supportedPlatforms, times(1)).supportedPlatformForFreeIpa(environmentDto.getCloudPlatform());
-        verify(freeIpaPollingService, times(1)).pollWithTimeout(
+        verify(freeIpaPollingService, times(1)).pollWithTimeoutAsync(
                 any(FreeIpaCreationRetrievalTask.class),
                 any(FreeIpaPollerObject.class),
                 anyLong(),
@@ -242,6 +243,35 @@ public class FreeIpaCreationHandlerTest {
                 anyInt());
     }
 
+    @Test
+    public void testNextStepIsSentOnceAfterFreeIpaCreationPollingFinished() {
+        EnvironmentDto environmentDto = someEnvironmentWithFreeIpaCreation();
+        Environment environment = new Environment();
+        environment.setCreateFreeIpa(true);
+        CompletableFuture<ExtendedPollingResult> pollingFuture = new CompletableFuture<>();
+
+        when(environmentService.findEnvironmentById(ENVIRONMENT_ID)).thenReturn(Optional.of(environment));
+        when(supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform())).thenReturn(true);
+        when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(Optional.empty());
+        when(connectors.getDefault(any())).thenReturn(mock(CloudConnector.class));
+        when(freeIpaPollingService.pollWithTimeoutAsync(
+                any(FreeIpaCreationRetrievalTask.class),
+                any(FreeIpaPollerObject.class),
+                anyLong(),
+                anyInt(),
+                anyInt()))
+                .thenReturn(pollingFuture);
+
+        victim.accept(new Event<>(environmentDto));
+
+        verify(eventSender, never()).sendEvent(any(BaseNamedFlowEvent.class), any(Headers.class));
+
+        pollingFuture.complete(new ExtendedPollingResult.ExtendedPollingResultBuilder().success().build());
+
+        verify(eventSender, times(1)).sendEvent(any(BaseNamedFlowEvent.class), any(Headers.class));
+        verify(eventBus, never()).notify(anyString(), any(Event.class));
+    }
+
     @Test
     public void testSpotParameters() {
         EnvironmentDto environmentDto = someEnvironmentWithFreeIpaCreation();
@@ -264,13 +294,13 @@ public class FreeIpaCreationHandlerTest {
         when(supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform())).thenReturn(true);
         when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(Optional.empty());
         when(connectors.getDefault(any())).thenReturn(mock(CloudConnector.class));
-        when(freeIpaPollingService.pollWithTimeout(
+        when(freeIpaPollingService.pollWithTimeoutAsync(
                 any(FreeIpaCreationRetrievalTask.class),
                 any(FreeIpaPollerObject.class),
                 anyLong(),
                 anyInt(),
                 anyInt()))
-                .thenReturn(extendedPollingResult);
+                .thenReturn(CompletableFuture.completedFuture(extendedPollingResult));
 
         victim.accept(new Event<>(environmentDto));
 
@@ -303,13 +333,13 @@ public class FreeIpaCreationHandlerTest {
         when(supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform())).thenReturn(true);
         when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(Optional.empty());
         when(connectors.getDefault(any())).thenReturn(mock(CloudConnector.class));
-        when(freeIpaPollingService.pollWithTimeout(
+        when(freeIpaPollingService.pollWithTimeoutAsync(
                 any(FreeIpaCreationRetrievalTask.class),
                 any(FreeIpaPollerObject.class),
                 anyLong(),
                 anyInt(),
                 anyInt()))
-                .thenReturn(extendedPollingResult);
+                .thenReturn(CompletableFuture.completedFuture(extendedPollingResult));
 
         victim.accept(new Event<>(environmentDto));
 
@@ -336,13 +366,13 @@ public class FreeIpaCreationHandlerTest {
         when(supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform())).thenReturn(true);
         when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(Optional.empty());
         when(connectors.getDefault(any())).thenReturn(mock(CloudConnector.class));
-        when(freeIpaPollingService.pollWithTimeout(
+        when(freeIpaPollingService.pollWithTimeoutAsync(
                 any(FreeIpaCreationRetrievalTask.class),
                 any(FreeIpaPollerObject.class),
                 anyLong(),
                 anyInt(),
                 anyInt()))
-                .thenReturn(extendedPollingResult);
+                .thenReturn(CompletableFuture.completedFuture(extendedPollingResult));
 
         victim.accept(new Event<>(environmentDto));
 
@@ -368,13 +398,13 @@ public class FreeIpaCreationHandlerTest {
         when(supportedPlatforms.supportedPlatformForFreeIpa(environment.getCloudPlatform())).thenReturn(true);
         when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(Optional.empty());
         when(connectors.getDefault(any())).thenReturn(mock(CloudConnector.class));
-        when(freeIpaPollingService.pollWithTimeout(
+        when(freeIpaPollingService.pollWithTimeoutAsync(
                 any(FreeIpaCreationRetrievalTask.class),
                 any(FreeIpaPollerObject.class),
                 anyLong(),
                 anyInt(),
                 anyInt()))
-                .thenReturn(extendedPollingResult);
+                .thenReturn(CompletableFuture.completedFuture(extendedPollingResult));
 
         victim.accept(new Event<>(environmentDto));
 
@@ -3,7 +3,10 @@ package com.sequenceiq.environment.environment.flow.deletion.handler.freeipa;
 
 import static java.util.Optional.of;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -12,6 +15,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,8 +31,11 @@ import com.sequenceiq.environment.environment.domain.Environment;
 import com.sequenceiq.environment.environment.dto.EnvironmentDeletionDto;
 import com.sequenceiq.environment.environment.dto.EnvironmentDto;
 import com.sequenceiq.environment.environment.flow.creation.handler.freeipa.FreeIpaPollerObject;
+import com.sequenceiq.environment.environment.flow.deletion.event.EnvDeleteEvent;
+import com.sequenceiq.environment.environment.flow.deletion.event.EnvDeleteFailedEvent;
 import com.sequenceiq.environment.environment.service.EnvironmentService;
 import com.sequenceiq.environment.environment.service.freeipa.FreeIpaService;
+import com.sequenceiq.environment.exception.FreeIpaOperationFailedException;
 import com.sequenceiq.environment.network.dao.domain.YarnNetwork;
 import com.sequenceiq.flow.reactor.api.event.BaseNamedFlowEvent;
 import com.sequenceiq.flow.reactor.api.event.EventSender;
@@ -136,19 +143,50 @@ class FreeIpaDeletionHandlerTest {
 
         when(environmentService.findEnvironmentById(CHILD_ENVIRONMENT_ID)).thenReturn(of(anEnvironmentWithoutParent(Boolean.TRUE)));
         when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(of(new DescribeFreeIpaResponse()));
-        when(freeIpaPollingService.pollWithTimeout(any(),
+        when(freeIpaPollingService.pollWithTimeoutAsync(any(),
                 any(),
-                Mockito.eq(FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_INTERVAL),
+                Mockito.eq((long) FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_INTERVAL),
                 Mockito.eq(FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_COUNT),
-                Mockito.eq(1))).thenReturn(extendedPollingResult);
+                Mockito.eq(FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT))).thenReturn(CompletableFuture.completedFuture(extendedPollingResult));
 
         victim.accept(new Event<>(environmentDeletionDto));
 
         verify(freeIpaService).delete(ENVIRONMENT_CRN, true);
-        verify(eventSender).sendEvent(any(BaseNamedFlowEvent.class), any(Event.Headers.class));
+        verify(eventSender).sendEvent(any(EnvDeleteEvent.class), any(Event.Headers.class));
         verifyNoMoreInteractions(freeIpaService);
     }
 
+    @Test
+    public void shouldSendFailedEventWhenFreeIpaDeletionPollingFails() {
+        EnvironmentDto environmentDto = new EnvironmentDto();
+        environmentDto.setId(CHILD_ENVIRONMENT_ID);
+        EnvironmentDeletionDto environmentDeletionDto = EnvironmentDeletionDto
+                .builder()
+                .withEnvironmentDto(environmentDto)
+                .withForceDelete(false)
+                .withId(CHILD_ENVIRONMENT_ID)
+                .build();
+        ExtendedPollingResult extendedPollingResult = new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                .timeout()
+                .build();
+        CompletableFuture<ExtendedPollingResult> pollingFuture = new CompletableFuture<>();
+
+        when(environmentService.findEnvironmentById(CHILD_ENVIRONMENT_ID)).thenReturn(of(anEnvironmentWithoutParent(Boolean.TRUE)));
+        when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(of(new DescribeFreeIpaResponse()));
+        when(freeIpaPollingService.pollWithTimeoutAsync(any(), any(), anyLong(), anyInt(), anyInt())).thenReturn(pollingFuture);
+
+        victim.accept(new Event<>(environmentDeletionDto));
+
+        verify(freeIpaService).delete(ENVIRONMENT_CRN, false);
+        verify(eventSender, never()).sendEvent(any(BaseNamedFlowEvent.class), any(Event.Headers.class));
+
+        pollingFuture.complete(extendedPollingResult);
+
+        ArgumentCaptor<EnvDeleteFailedEvent> failedEventCaptor = ArgumentCaptor.forClass(EnvDeleteFailedEvent.class);
+        verify(eventSender).sendEvent(failedEventCaptor.capture(), any(Event.Headers.class));
+        assertTrue(failedEventCaptor.getValue().getException() instanceof FreeIpaOperationFailedException);
+    }
+
     @Test
     public void shouldNotCallFreeIpaServiceIfFreeIpaCreationIsDisabled() {
         EnvironmentDto environmentDto = new EnvironmentDto();
@@ -16,6 +16,8 @@ public class Node implements Comparable<Node> {
     @Column(nullable = false)
     private long lastUpdated;
 
+    private Long leaseExpires;
+
     @Version
     private Long version;
 
@@ -42,6 +44,14 @@ public class Node implements Comparable<Node> {
         this.lastUpdated = lastUpdated;
     }
 
+    public Long getLeaseExpires() {
+        return leaseExpires;
+    }
+
+    public void setLeaseExpires(Long leaseExpires) {
+        this.leaseExpires = leaseExpires;
+    }
+
     public Long getVersion() {
         return version;
     }
@@ -79,6 +89,7 @@ public class Node implements Comparable<Node> {
         StringBuilder sb = new StringBuilder("Node{");
         sb.append("uuid='").append(uuid).append('\'');
         sb.append(", lastUpdated=").append(lastUpdated);
+        sb.append(", leaseExpires=").append(leaseExpires);
         sb.append('}');
         return sb.toString();
     }
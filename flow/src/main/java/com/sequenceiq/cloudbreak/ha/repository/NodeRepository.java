@@ -1,9 +1,14 @@
 package com.sequenceiq.cloudbreak.ha.repository;
 
+import java.util.List;
+
 import javax.transaction.Transactional;
 import javax.transaction.Transactional.TxType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sequenceiq.cloudbreak.ha.domain.Node;
 import com.sequenceiq.cloudbreak.workspace.repository.EntityType;
@@ -11,4 +16,17 @@ import com.sequenceiq.cloudbreak.workspace.repository.EntityType;
 @EntityType(entityClass = Node.class)
 @Transactional(TxType.REQUIRED)
 public interface NodeRepository extends JpaRepository<Node, String> {
+
+    @Modifying
+    @Query("UPDATE Node n SET n.lastUpdated = :lastUpdated, n.leaseExpires = :leaseExpires, n.version = n.version + 1 "
+            + "WHERE n.uuid = :uuid AND (n.leaseExpires IS NULL OR n.leaseExpires <> :revoked)")
+    int renewLease(@Param("uuid") String uuid, @Param("lastUpdated") long lastUpdated, @Param("leaseExpires") long leaseExpires,
+            @Param("revoked") long revoked);
+
+    @Modifying
+    @Query("UPDATE Node n SET n.leaseExpires = :revoked, n.version = n.version + 1 WHERE n.uuid = :uuid AND n.leaseExpires = :leaseExpires")
+    int revokeLease(@Param("uuid") String uuid, @Param("leaseExpires") long leaseExpires, @Param("revoked") long revoked);
+
+    @Query("SELECT n FROM Node n WHERE n.uuid <> :uuid AND n.leaseExpires > :revoked AND n.leaseExpires < :now")
+    List<Node> findAllWithExpiredLease(@Param("uuid") String uuid, @Param("now") long now, @Param("revoked") long revoked);
 }
@@ -1,9 +1,11 @@
 package com.sequenceiq.cloudbreak.ha.service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,22 +18,64 @@ public class EvenFlowDistributor implements FlowDistributor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EvenFlowDistributor.class);
 
+    /**
+     * Always assigns the next flow to the node with the least running flows. Nodes with the same load are picked in the given order,
+     * so without running flows the result is a round robin distribution.
+     */
     @Override
-    public Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes) {
+    public Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes, Map<String, Long> runningFlowCountByNodeId) {
         Map<Node, List<String>> result = new HashMap<>();
         int nodeCount = nodes.size();
         int flowCount = flows.size();
-        double flowPerNode = (double) flowCount / nodeCount;
-        LOGGER.debug("Number of flows to distribute: {}, across: {} nodes, f/n: {}", flowCount, nodeCount, flowPerNode);
-        int i = 0;
+        if (nodeCount == 0) {
+            LOGGER.warn("There is no node to distribute {} flows to", flowCount);
+            return result;
+        }
+        LOGGER.debug("Number of flows to distribute: {}, across: {} nodes, running flows: {}", flowCount, nodeCount, runningFlowCountByNodeId);
+        PriorityQueue<NodeLoad> nodeLoads = new PriorityQueue<>(nodeCount,
+                Comparator.comparingLong(NodeLoad::getFlowCount).thenComparingInt(NodeLoad::getOrder));
+        for (int i = 0; i < nodeCount; i++) {
+            Node node = nodes.get(i);
+            nodeLoads.add(new NodeLoad(node, i, runningFlowCountByNodeId.getOrDefault(node.getUuid(), 0L)));
+        }
         for (String flow : flows) {
-            if (nodeCount == i) {
-                i = 0;
-            }
-            result.computeIfAbsent(nodes.get(i), k -> new ArrayList<>()).add(flow);
-            i++;
+            NodeLoad leastLoaded = nodeLoads.poll();
+            result.computeIfAbsent(leastLoaded.getNode(), k -> new ArrayList<>()).add(flow);
+            leastLoaded.increment();
+            nodeLoads.add(leastLoaded);
         }
         LOGGER.debug("Result of flow distribution: {}", result);
         return result;
     }
+
+    private static class NodeLoad {
+
+        private final Node node;
+
+        private final int order;
+
+        private long flowCount;
+
+        NodeLoad(Node node, int order, long flowCount) {
+            this.node = node;
+            this.order = order;
+            this.flowCount = flowCount;
+        }
+
+        Node getNode() {
+            return node;
+        }
+
+        int getOrder() {
+            return order;
+        }
+
+        long getFlowCount() {
+            return flowCount;
+        }
+
+        void increment() {
+            flowCount++;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.ha.service;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -7,5 +8,9 @@ import com.sequenceiq.cloudbreak.ha.domain.Node;
 
 public interface FlowDistributor {
 
-    Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes);
+    default Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes) {
+        return distribute(flows, nodes, Collections.emptyMap());
+    }
+
+    Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes, Map<String, Long> runningFlowCountByNodeId);
 }
@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.ha.service;
 
+import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Inject;
@@ -12,6 +13,11 @@ import com.sequenceiq.cloudbreak.ha.repository.NodeRepository;
 @Service
 public class NodeService {
 
+    /**
+     * Lease expiry value of a node whose flows have been taken over by another node.
+     */
+    public static final long LEASE_REVOKED = 0L;
+
     @Inject
     private NodeRepository repository;
 
@@ -31,4 +37,23 @@ public class NodeService {
         repository.deleteAll(nodes);
     }
 
+    /**
+     * Extends the lease of the node with a single conditional update. Returns false if the node does not exist
+     * or its lease has been revoked by another node.
+     */
+    public boolean renewLease(String nodeId, long now, long leaseExpires) {
+        return repository.renewLease(nodeId, now, leaseExpires, LEASE_REVOKED) > 0;
+    }
+
+    /**
+     * Revokes the lease of the node only if it was not renewed since it has been read, so only one node can take over its flows.
+     */
+    public boolean revokeLease(String nodeId, long leaseExpires) {
+        return repository.revokeLease(nodeId, leaseExpires, LEASE_REVOKED) > 0;
+    }
+
+    public List<Node> findAllWithExpiredLease(String nodeId, long now) {
+        return repository.findAllWithExpiredLease(nodeId, now, LEASE_REVOKED);
+    }
+
 }
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import com.cedarsoftware.util.io.JsonReader;
 import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.flow.core.codec.FlowPayloadCodecs;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
@@ -94,11 +95,19 @@ public class FlowLogUtil {
             return null;
         } else {
             try {
-                return (Payload) JsonReader.jsonToJava(flowLog.getPayload());
+                return (Payload) JsonReader.jsonToJava(decodePayload(flowLog));
             } catch (Exception exception) {
                 LOGGER.warn("Couldn't deserialize payload from flow log {}", flowLog);
                 return null;
             }
         }
     }
+
+    public static String decodePayload(FlowLog flowLog) {
+        return FlowPayloadCodecs.decode(flowLog.getPayloadCodec(), flowLog.getPayload());
+    }
+
+    public static String decodeVariables(FlowLog flowLog) {
+        return FlowPayloadCodecs.decode(flowLog.getPayloadCodec(), flowLog.getVariables());
+    }
 }
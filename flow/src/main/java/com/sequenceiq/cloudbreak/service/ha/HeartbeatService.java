@@ -34,8 +34,7 @@ import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.Flow2Handler;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowRegister;
-import com.sequenceiq.flow.domain.FlowLog;
-import com.sequenceiq.flow.domain.StateStatus;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
 import com.sequenceiq.flow.ha.NodeConfig;
 
 @Service
@@ -137,8 +136,7 @@ public class HeartbeatService {
             }
 
             String nodeId = nodeConfig.getId();
-            Set<String> allMyFlows = flowLogService.findAllByCloudbreakNodeId(nodeId).stream()
-                    .map(FlowLog::getFlowId).collect(Collectors.toSet());
+            Set<String> allMyFlows = flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(nodeId);
             LOGGER.info("All my flows: {}", allMyFlows);
             Set<String> newFlows = allMyFlows.stream().filter(f -> runningFlows.get(f) == null).collect(Collectors.toSet());
             LOGGER.info("Restarted flows: {}", newFlows);
@@ -164,31 +162,29 @@ public class HeartbeatService {
         List<Node> activeNodes = nodes.stream().filter(c -> !failedNodes.contains(c)).collect(Collectors.toList());
         LOGGER.info("Active CB nodes: ({})[{}], failed CB nodes: ({})[{}]", activeNodes.size(), activeNodes, failedNodes.size(), failedNodes);
 
-        List<FlowLog> failedFlowLogs = failedNodes.stream()
-                .map(node -> flowLogService.findAllByCloudbreakNodeId(node.getUuid()))
-                .flatMap(Set::stream)
-                .collect(Collectors.toList());
-
-        if (!failedFlowLogs.isEmpty()) {
-            LOGGER.info("The following flows will be distributed across the active nodes: {}", getFlowIds(failedFlowLogs));
-            List<FlowLog> invalidFlows = getInvalidFlows(failedFlowLogs);
-            Collection<FlowLog> updatedFlowLogs = new ArrayList<>(invalidFlows.size());
-            invalidFlows.forEach(fl -> {
-                fl.setFinalized(true);
-                fl.setStateStatus(StateStatus.SUCCESSFUL);
+        Set<String> failedNodeIds = failedNodes.stream().map(Node::getUuid).collect(Collectors.toSet());
+        Set<FlowLogIdWithTypeAndResourceId> failedFlows = flowLogService.findAllPendingByCloudbreakNodeIds(failedNodeIds);
+
+        if (!failedFlows.isEmpty()) {
+            LOGGER.info("The following flows will be distributed across the active nodes: {}", getFlowIds(failedFlows));
+            Set<String> invalidFlowIds = getInvalidFlowIds(failedFlows);
+            LOGGER.info("The following flows have been filtered out from distribution: {}", invalidFlowIds);
+            List<String> flowIdsToDistribute = failedFlows.stream()
+                    .map(FlowLogIdWithTypeAndResourceId::getFlowId)
+                    .filter(flowId -> !invalidFlowIds.contains(flowId))
+                    .distinct()
+                    .collect(Collectors.toList());
+            Map<Node, List<String>> flowDistribution = flowDistributor.distribute(flowIdsToDistribute, activeNodes,
+                    flowLogService.countPendingFlowsByCloudbreakNodeId());
+            transactionService.required(() -> {
+                if (!invalidFlowIds.isEmpty()) {
+                    flowLogService.finalizePendingFlowLogs(invalidFlowIds, failedNodeIds);
+                }
+                for (Entry<Node, List<String>> entry : flowDistribution.entrySet()) {
+                    flowLogService.reassignPendingFlowLogs(entry.getValue(), failedNodeIds, entry.getKey().getUuid());
+                }
+                return null;
             });
-            updatedFlowLogs.addAll(invalidFlows);
-            failedFlowLogs.removeAll(invalidFlows);
-            LOGGER.info("The following flows have been filtered out from distribution: {}", getFlowIds(invalidFlows));
-            Map<Node, List<String>> flowDistribution = flowDistributor.distribute(getFlowIds(failedFlowLogs), activeNodes);
-            for (Entry<Node, List<String>> entry : flowDistribution.entrySet()) {
-                entry.getValue().forEach(flowId ->
-                        failedFlowLogs.stream().filter(flowLog -> flowLog.getFlowId().equalsIgnoreCase(flowId)).forEach(flowLog -> {
-                            flowLog.setCloudbreakNodeId(entry.getKey().getUuid());
-                            updatedFlowLogs.add(flowLog);
-                        }));
-            }
-            transactionService.required(() -> flowLogService.saveAll(updatedFlowLogs));
         }
         return failedNodes;
     }
@@ -200,7 +196,7 @@ public class HeartbeatService {
         if (failedNodes != null && !failedNodes.isEmpty()) {
             LOGGER.info("Cleanup node candidates: {}", failedNodes);
             List<Node> cleanupNodes = failedNodes.stream()
-                    .filter(node -> flowLogService.findAllByCloudbreakNodeId(node.getUuid()).isEmpty())
+                    .filter(node -> flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(node.getUuid()).isEmpty())
                     .collect(Collectors.toList());
             LOGGER.info("Cleanup nodes from the DB: {}", cleanupNodes);
             transactionService.required(() -> {
@@ -241,22 +237,32 @@ public class HeartbeatService {
     }
 
     /**
-     * Returns all the FlowLogs that have a termination flow running on any of the nodes for the same stack.
+     * Returns the ids of the flows that are not termination flows, but a termination flow is running on any of the nodes for the same stack.
      * This is required as we don't want to distribute flows that will be terminated anyways.
      */
-    private List<FlowLog> getInvalidFlows(Collection<FlowLog> flowLogs) {
-        Set<Long> resourceIds = flowLogs.stream().map(FlowLog::getResourceId).collect(Collectors.toSet());
+    /**
+     * Non-termination flows of the resources under deletion, which must not be restarted on another node.
+     */
+    Set<String> getInvalidFlowIds(Collection<FlowLogIdWithTypeAndResourceId> flows) {
+        Set<Long> resourceIds = flows.stream().map(FlowLogIdWithTypeAndResourceId::getResourceId).collect(Collectors.toSet());
         if (!resourceIds.isEmpty()) {
             Set<Long> deletingResourceIds = haApplication.getDeletingResources(resourceIds);
             if (!deletingResourceIds.isEmpty()) {
-                return flowLogs.stream()
-                        .filter(fl -> deletingResourceIds.contains(fl.getResourceId()))
-                        .filter(fl -> applicationFlowInformation.getTerminationFlow().stream()
-                                .noneMatch(fl::isFlowType))
-                        .collect(Collectors.toList());
+                return flows.stream()
+                        .filter(flow -> deletingResourceIds.contains(flow.getResourceId()))
+                        .filter(flow -> applicationFlowInformation.getTerminationFlow().stream()
+                                .noneMatch(terminationFlow -> isFlowType(flow, terminationFlow)))
+                        .map(FlowLogIdWithTypeAndResourceId::getFlowId)
+                        .collect(Collectors.toSet());
             }
         }
-        return Collections.emptyList();
+        return Collections.emptySet();
+    }
+
+    private boolean isFlowType(FlowLogIdWithTypeAndResourceId flow, Class<?> flowTypeClass) {
+        return flow.getFlowType() != null
+                && flow.getFlowType().isOnClassPath()
+                && flowTypeClass.equals(flow.getFlowType().getClassValue());
     }
 
     private void cancelRunningFlow(Long resourceId) {
@@ -269,8 +275,8 @@ public class HeartbeatService {
         haApplication.cleanupInMemoryStore(resourceId);
     }
 
-    private List<String> getFlowIds(Collection<FlowLog> flowLogCollection) {
-        return flowLogCollection.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
+    private List<String> getFlowIds(Collection<FlowLogIdWithTypeAndResourceId> flows) {
+        return flows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).distinct().collect(Collectors.toList());
     }
 
 }
@@ -0,0 +1,199 @@
+package com.sequenceiq.cloudbreak.service.ha;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.cleanup.InMemoryCleanup;
+import com.sequenceiq.flow.core.Flow2Handler;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.core.FlowMetricType;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+/**
+ * Short lived node leases next to the heartbeat. A node renews its lease with a single conditional update, and as soon as the lease
+ * of another node expires, a surviving node revokes it, claims the pending flows of that node and restarts them, except the non-termination
+ * flows of the resources under deletion, which are finalized the same way as by the heartbeat based distribution. The lease is renewed on
+ * its own thread, so a slow scheduled task (e.g. the heartbeat) on the shared scheduler pool cannot delay the renewal beyond the lease.
+ */
+@Service
+public class NodeLeaseService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeLeaseService.class);
+
+    @Value("${cb.ha.lease.enabled:false}")
+    private boolean leaseEnabled;
+
+    @Value("${cb.ha.lease.duration:3000}")
+    private long leaseDuration;
+
+    @Value("${cb.ha.lease.renewal.rate:500}")
+    private long leaseRenewalRate;
+
+    @Inject
+    private NodeConfig nodeConfig;
+
+    @Inject
+    private NodeService nodeService;
+
+    @Inject
+    private FlowLogService flowLogService;
+
+    @Inject
+    private Flow2Handler flow2Handler;
+
+    @Inject
+    private FlowRegister runningFlows;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private MetricService metricService;
+
+    @Inject
+    private TransactionService transactionService;
+
+    @Inject
+    private InMemoryCleanup inMemoryCleanup;
+
+    @Inject
+    private HeartbeatService heartbeatService;
+
+    private volatile boolean leaseAcquired;
+
+    private ScheduledExecutorService leaseRenewalScheduler;
+
+    @PostConstruct
+    public void init() {
+        if (shouldRun()) {
+            leaseRenewalScheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("node-lease-renewal-%d").setDaemon(true).build());
+            leaseRenewalScheduler.scheduleWithFixedDelay(this::renewLease, 0L, leaseRenewalRate, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (leaseRenewalScheduler != null) {
+            leaseRenewalScheduler.shutdownNow();
+        }
+    }
+
+    public void renewLease() {
+        if (shouldRun()) {
+            String nodeId = nodeConfig.getId();
+            long now = clock.getCurrentTimeMillis();
+            try {
+                if (nodeService.renewLease(nodeId, now, now + leaseDuration)) {
+                    leaseAcquired = true;
+                } else {
+                    acquireLease(nodeId, now);
+                }
+            } catch (RuntimeException e) {
+                // the exception must not escape, otherwise the scheduled executor silently stops renewing the lease
+                LOGGER.warn("Failed to renew the lease of node {}", nodeId, e);
+                metricService.incrementMetricCounter(FlowMetricType.NODE_LEASE_RENEWAL_FAILED);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cb.ha.lease.takeover.initial.delay:5000}", fixedDelayString = "${cb.ha.lease.takeover.rate:1000}")
+    public void takeoverExpiredLeases() {
+        if (shouldRun() && leaseAcquired) {
+            String nodeId = nodeConfig.getId();
+            List<Node> expiredNodes = nodeService.findAllWithExpiredLease(nodeId, clock.getCurrentTimeMillis());
+            for (Node expiredNode : expiredNodes) {
+                try {
+                    takeover(nodeId, expiredNode);
+                } catch (TransactionExecutionException | RuntimeException e) {
+                    LOGGER.warn("Failed to take over the flows of node {}, somebody might have already done it. Message: {}",
+                            expiredNode.getUuid(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void acquireLease(String nodeId, long now) {
+        Node self = nodeService.findById(nodeId).orElse(new Node(nodeId));
+        if (leaseAcquired) {
+            LOGGER.warn("The lease of node {} has been lost ({}), cancelling every running flow as they might have been taken over", nodeId, self);
+            metricService.incrementMetricCounter(FlowMetricType.NODE_LEASE_LOST);
+            inMemoryCleanup.cancelEveryFlowWithoutDbUpdate();
+        }
+        self.setLastUpdated(now);
+        self.setLeaseExpires(now + leaseDuration);
+        nodeService.save(self);
+        leaseAcquired = true;
+        LOGGER.info("Node {} has acquired its lease until {}", nodeId, self.getLeaseExpires());
+    }
+
+    private void takeover(String nodeId, Node expiredNode) throws TransactionExecutionException {
+        String expiredNodeId = expiredNode.getUuid();
+        Set<String> claimedFlowIds = transactionService.required(() -> {
+            if (!nodeService.revokeLease(expiredNodeId, expiredNode.getLeaseExpires())) {
+                LOGGER.debug("The lease of node {} has been renewed or revoked meanwhile", expiredNodeId);
+                return Set.<String>of();
+            }
+            Set<FlowLogIdWithTypeAndResourceId> flows = flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(expiredNodeId));
+            Set<String> invalidFlowIds = heartbeatService.getInvalidFlowIds(flows);
+            if (!invalidFlowIds.isEmpty()) {
+                LOGGER.info("The following flows of node {} have been finalized instead of taking them over: {}", expiredNodeId, invalidFlowIds);
+                flowLogService.finalizePendingFlowLogs(invalidFlowIds, Set.of(expiredNodeId));
+            }
+            Set<String> flowIds = flows.stream()
+                    .map(FlowLogIdWithTypeAndResourceId::getFlowId)
+                    .filter(flowId -> !invalidFlowIds.contains(flowId))
+                    .collect(Collectors.toSet());
+            if (!flowIds.isEmpty()) {
+                flowLogService.reassignPendingFlowLogs(flowIds, Set.of(expiredNodeId), nodeId);
+            }
+            return flowIds;
+        });
+        if (!claimedFlowIds.isEmpty()) {
+            LOGGER.info("Node {} took over the following flows of node {} with expired lease: {}", nodeId, expiredNodeId, claimedFlowIds);
+            restartFlows(claimedFlowIds);
+            Duration latency = Duration.ofMillis(Math.max(0L, clock.getCurrentTimeMillis() - expiredNode.getLeaseExpires()));
+            metricService.recordTimerMetric(FlowMetricType.FLOW_TAKEOVER_LATENCY, latency);
+            metricService.submit(FlowMetricType.FLOW_TAKEOVER_COUNT, claimedFlowIds.size());
+        }
+    }
+
+    private void restartFlows(Set<String> flowIds) {
+        Set<String> notRunningFlowIds = flowIds.stream().filter(flowId -> runningFlows.get(flowId) == null).collect(Collectors.toSet());
+        for (String flowId : notRunningFlowIds) {
+            try {
+                flow2Handler.restartFlow(flowId);
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Failed to restart flow: %s", flowId), e);
+            }
+        }
+    }
+
+    private boolean shouldRun() {
+        return leaseEnabled && nodeConfig.isNodeIdSpecified();
+    }
+}
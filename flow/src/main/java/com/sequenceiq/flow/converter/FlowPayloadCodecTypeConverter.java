@@ -0,0 +1,12 @@
+package com.sequenceiq.flow.converter;
+
+import com.sequenceiq.cloudbreak.converter.DefaultEnumConverter;
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
+
+public class FlowPayloadCodecTypeConverter extends DefaultEnumConverter<FlowPayloadCodecType> {
+
+    @Override
+    public FlowPayloadCodecType getDefault() {
+        return FlowPayloadCodecType.JSON_IO;
+    }
+}
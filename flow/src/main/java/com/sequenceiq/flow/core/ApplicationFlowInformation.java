@@ -16,4 +16,8 @@ public interface ApplicationFlowInformation  {
     default void handleFlowFail(FlowLog flowLog) {
 
     }
+
+    default void handleFlowFinalized(Long resourceId) {
+
+    }
 }
@@ -54,6 +54,7 @@ import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitter;
 
 import io.opentracing.Scope;
 import io.opentracing.Span;
@@ -109,6 +110,9 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
     @Inject
     private FlowChainLogService flowChainLogService;
 
+    @Inject
+    private FlowLogGroupCommitter flowLogGroupCommitter;
+
     @Override
     public void accept(Event<? extends Payload> event) {
         String key = (String) event.getKey();
@@ -194,6 +198,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         String flowId = flowParameters.getFlowId();
         LOGGER.debug("flow finalizing arrived: id: {}", flowId);
         flowLogService.close(resourceId, flowId, false);
+        applicationFlowInformation.handleFlowFinalized(resourceId);
         Flow flow = runningFlows.remove(flowId);
         Optional<FlowFinalizerCallback> finalizerCallback = createFinalizerCallback(flow);
         flowStatCache.remove(flowId, flowChainId == null && !flow.isFlowFailed());
@@ -385,7 +390,10 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                 LOGGER.error("Can't update flow status: {}", flowId);
                 throw e;
             }
-            if (!flowCancelled.booleanValue()) {
+            if (flowCancelled.booleanValue()) {
+                LOGGER.info("Flow {} was handled by another node, current node ID is {}, abandoning.", flow.getFlowId(), nodeConfig.getId());
+                inMemoryCleanup.cancelFlowWithoutDbUpdate(flow.getFlowId());
+            } else {
                 LOGGER.debug("Send event: key: {}, flowid: {}, usercrn: {}, payload: {}", key, flowId, flowParameters.getFlowTriggerUserCrn(), payload);
                 flow.sendEvent(key, flowParameters.getFlowTriggerUserCrn(), payload, flowParameters.getSpanContext(), flowParameters.getFlowOperationType());
             }
@@ -396,7 +404,9 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
 
     private void updateFlowLogStatusInTransaction(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Flow flow,
             MutableBoolean flowCancelled) throws TransactionExecutionException {
-        transactionService.required(() -> {
+        // the write can be retried by the group committer, so it only decides whether the flow is cancelled, the caller cancels it after the commit
+        flowLogGroupCommitter.commit(() -> {
+            flowCancelled.setFalse();
             Optional<FlowLog> lastFlowLog = flowLogService.getLastFlowLog(flow.getFlowId());
             if (lastFlowLog.isPresent()) {
                 String nodeId = nodeConfig.getId();
@@ -404,9 +414,6 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                 if (flowLog.getFinalized() || flowLog.getCloudbreakNodeId() == null || flowLog.getCloudbreakNodeId().equals(nodeId)) {
                     updateFlowLogStatus(key, payload, flowChainId, flow, flowLog, flowParameters);
                 } else {
-                    LOGGER.info("Flow {} was handled by another node {}, current node ID is {}, abandoning.",
-                            flow.getFlowId(), flowLog.getCloudbreakNodeId(), nodeId);
-                    inMemoryCleanup.cancelFlowWithoutDbUpdate(flow.getFlowId());
                     flowCancelled.setTrue();
                 }
             } else {
@@ -493,7 +500,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                         .findFirst();
                 try {
                     String flowChainType = flowChainLogService.getFlowChainType(flowLog.getFlowChainId());
-                    Payload payload = (Payload) JsonReader.jsonToJava(flowLog.getPayload());
+                    Payload payload = (Payload) JsonReader.jsonToJava(FlowLogUtil.decodePayload(flowLog));
                     Flow flow = flowConfig.get().createFlow(flowLog.getFlowId(), flowLog.getFlowChainId(), payload.getResourceId(), flowChainType);
                     runningFlows.put(flow, flowLog.getFlowChainId());
                     flowStatCache.put(flow.getFlowId(), flowLog.getFlowChainId(), payload.getResourceId(),
@@ -501,7 +508,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                     if (flowLog.getFlowChainId() != null) {
                         flowChainHandler.restoreFlowChain(flowLog.getFlowChainId());
                     }
-                    Map<Object, Object> variables = (Map<Object, Object>) JsonReader.jsonToJava(flowLog.getVariables());
+                    Map<Object, Object> variables = (Map<Object, Object>) JsonReader.jsonToJava(FlowLogUtil.decodeVariables(flowLog));
                     flow.initialize(flowLog.getCurrentState(), variables);
                     RestartAction restartAction = flowConfig.get().getRestartAction(flowLog.getNextEvent());
                     if (restartAction != null) {
@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.core;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,6 +11,7 @@ import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.flow.core.chain.config.FlowTriggerEventQueue;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
 
 public interface FlowLogService {
@@ -56,6 +58,16 @@ public interface FlowLogService {
 
     Set<FlowLog> findAllByCloudbreakNodeId(String cloudbreakNodeId);
 
+    Set<String> findAllPendingFlowIdsByCloudbreakNodeId(String cloudbreakNodeId);
+
+    Set<FlowLogIdWithTypeAndResourceId> findAllPendingByCloudbreakNodeIds(Collection<String> cloudbreakNodeIds);
+
+    Map<String, Long> countPendingFlowsByCloudbreakNodeId();
+
+    int reassignPendingFlowLogs(Collection<String> flowIds, Collection<String> sourceNodeIds, String targetNodeId);
+
+    int finalizePendingFlowLogs(Collection<String> flowIds, Collection<String> sourceNodeIds);
+
     List<FlowLog> findAllForLastFlowIdByResourceIdOrderByCreatedDesc(Long id);
 
     List<FlowLog> findAllByResourceIdOrderByCreatedDesc(Long id);
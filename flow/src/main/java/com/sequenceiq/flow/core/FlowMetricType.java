@@ -4,7 +4,12 @@ import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
 
 public enum FlowMetricType implements Metric {
     FLOW_STEP("flowstep"),
-    ACTIVE_FLOWS("activeflow");
+    ACTIVE_FLOWS("activeflow"),
+    FLOWLOG_GROUP_COMMIT_SIZE("flowlog.groupcommit.size"),
+    NODE_LEASE_RENEWAL_FAILED("node.lease.renewal.failed"),
+    NODE_LEASE_LOST("node.lease.lost"),
+    FLOW_TAKEOVER_LATENCY("flow.takeover.latency"),
+    FLOW_TAKEOVER_COUNT("flow.takeover.count");
 
     private final String metricName;
 
@@ -0,0 +1,69 @@
+package com.sequenceiq.flow.core.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
+
+/**
+ * Deflates the json-io representation and stores it base64 encoded, so it still fits into the existing TEXT columns. The json-io output
+ * repeats the fully qualified class names of every nested object, which makes it compress very well.
+ */
+public class DeflateJsonIoFlowPayloadCodec implements FlowPayloadCodec {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    @Override
+    public FlowPayloadCodecType getType() {
+        return FlowPayloadCodecType.DEFLATE_JSON_IO;
+    }
+
+    @Override
+    public String encode(String serialized) {
+        if (serialized == null) {
+            return null;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new DeflaterOutputStream(compressed, deflater, BUFFER_SIZE)) {
+            out.write(serialized.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot deflate flow payload", e);
+        } finally {
+            deflater.end();
+        }
+        return Base64.getEncoder().encodeToString(compressed.toByteArray());
+    }
+
+    @Override
+    public String decode(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(Base64.getDecoder().decode(encoded));
+            ByteArrayOutputStream decompressed = new ByteArrayOutputStream(encoded.length() * 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Deflated flow payload is truncated");
+                }
+                decompressed.write(buffer, 0, length);
+            }
+            return decompressed.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Cannot inflate flow payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
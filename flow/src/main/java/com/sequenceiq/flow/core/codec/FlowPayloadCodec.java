@@ -0,0 +1,16 @@
+package com.sequenceiq.flow.core.codec;
+
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
+
+/**
+ * Encodes the serialized payload and variables of a flow log before they are persisted. The type of the codec is stored next to the
+ * payload type in the flow log, so the matching codec can be selected when the flow is restarted.
+ */
+public interface FlowPayloadCodec {
+
+    FlowPayloadCodecType getType();
+
+    String encode(String serialized);
+
+    String decode(String encoded);
+}
@@ -0,0 +1,31 @@
+package com.sequenceiq.flow.core.codec;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
+
+public final class FlowPayloadCodecs {
+
+    private static final Map<FlowPayloadCodecType, FlowPayloadCodec> CODECS = new EnumMap<>(FlowPayloadCodecType.class);
+
+    static {
+        Stream.of(new JsonIoFlowPayloadCodec(), new DeflateJsonIoFlowPayloadCodec())
+                .forEach(codec -> CODECS.put(codec.getType(), codec));
+    }
+
+    private FlowPayloadCodecs() {
+    }
+
+    /**
+     * Flow logs written before the codec column existed have no codec type, those are plain json-io.
+     */
+    public static FlowPayloadCodec get(FlowPayloadCodecType type) {
+        return CODECS.get(type == null ? FlowPayloadCodecType.JSON_IO : type);
+    }
+
+    public static String decode(FlowPayloadCodecType type, String encoded) {
+        return get(type).decode(encoded);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sequenceiq.flow.core.codec;
+
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
+
+public class JsonIoFlowPayloadCodec implements FlowPayloadCodec {
+
+    @Override
+    public FlowPayloadCodecType getType() {
+        return FlowPayloadCodecType.JSON_IO;
+    }
+
+    @Override
+    public String encode(String serialized) {
+        return serialized;
+    }
+
+    @Override
+    public String decode(String encoded) {
+        return encoded;
+    }
+}
@@ -13,6 +13,7 @@ import javax.persistence.Version;
 
 import com.sequenceiq.flow.api.model.operation.OperationType;
 import com.sequenceiq.flow.converter.ClassValueConverter;
+import com.sequenceiq.flow.converter.FlowPayloadCodecTypeConverter;
 import com.sequenceiq.flow.converter.OperationTypeConverter;
 import com.sequenceiq.flow.converter.StateStatusConverter;
 
@@ -42,6 +43,9 @@ public class FlowLog {
     @Convert(converter = ClassValueConverter.class)
     private ClassValue payloadType;
 
+    @Convert(converter = FlowPayloadCodecTypeConverter.class)
+    private FlowPayloadCodecType payloadCodec;
+
     @Column(length = Integer.MAX_VALUE, columnDefinition = "TEXT")
     private String variables;
 
@@ -172,6 +176,14 @@ public class FlowLog {
         this.payloadType = payloadType;
     }
 
+    public FlowPayloadCodecType getPayloadCodec() {
+        return payloadCodec;
+    }
+
+    public void setPayloadCodec(FlowPayloadCodecType payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
+
     public ClassValue getFlowType() {
         return flowType;
     }
@@ -0,0 +1,11 @@
+package com.sequenceiq.flow.domain;
+
+public interface FlowLogIdWithTypeAndResourceId {
+
+    String getFlowId();
+
+    ClassValue getFlowType();
+
+    Long getResourceId();
+
+}
@@ -0,0 +1,6 @@
+package com.sequenceiq.flow.domain;
+
+public enum FlowPayloadCodecType {
+    JSON_IO,
+    DEFLATE_JSON_IO
+}
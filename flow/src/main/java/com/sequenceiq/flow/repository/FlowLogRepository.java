@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -15,6 +16,7 @@ import org.springframework.data.repository.query.Param;
 
 import com.sequenceiq.flow.domain.ClassValue;
 import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
 import com.sequenceiq.flow.domain.StateStatus;
 
@@ -37,6 +39,29 @@ public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
     @Query("SELECT fl FROM FlowLog fl WHERE fl.cloudbreakNodeId = :cloudbreakNodeId AND fl.stateStatus = 'PENDING'")
     Set<FlowLog> findAllByCloudbreakNodeId(@Param("cloudbreakNodeId") String cloudbreakNodeId);
 
+    @Query("SELECT DISTINCT fl.flowId FROM FlowLog fl WHERE fl.cloudbreakNodeId = :cloudbreakNodeId AND fl.stateStatus = 'PENDING'")
+    Set<String> findAllPendingFlowIdsByCloudbreakNodeId(@Param("cloudbreakNodeId") String cloudbreakNodeId);
+
+    @Query("SELECT DISTINCT fl.flowId as flowId, fl.flowType as flowType, fl.resourceId as resourceId FROM FlowLog fl "
+            + "WHERE fl.cloudbreakNodeId IN (:cloudbreakNodeIds) AND fl.stateStatus = 'PENDING'")
+    Set<FlowLogIdWithTypeAndResourceId> findAllPendingByCloudbreakNodeIds(@Param("cloudbreakNodeIds") Collection<String> cloudbreakNodeIds);
+
+    @Query("SELECT fl.cloudbreakNodeId, COUNT(DISTINCT fl.flowId) FROM FlowLog fl "
+            + "WHERE fl.cloudbreakNodeId IS NOT NULL AND fl.stateStatus = 'PENDING' GROUP BY fl.cloudbreakNodeId")
+    List<Object[]> countPendingFlowsByCloudbreakNodeId();
+
+    @Modifying
+    @Query("UPDATE FlowLog fl SET fl.cloudbreakNodeId = :targetNodeId, fl.version = fl.version + 1 "
+            + "WHERE fl.flowId IN (:flowIds) AND fl.cloudbreakNodeId IN (:sourceNodeIds) AND fl.stateStatus = 'PENDING'")
+    int reassignPendingFlowLogs(@Param("flowIds") Collection<String> flowIds, @Param("sourceNodeIds") Collection<String> sourceNodeIds,
+            @Param("targetNodeId") String targetNodeId);
+
+    @Modifying
+    @Query("UPDATE FlowLog fl SET fl.finalized = true, fl.stateStatus = :stateStatus, fl.version = fl.version + 1 "
+            + "WHERE fl.flowId IN (:flowIds) AND fl.cloudbreakNodeId IN (:sourceNodeIds) AND fl.stateStatus = 'PENDING'")
+    int finalizePendingFlowLogs(@Param("flowIds") Collection<String> flowIds, @Param("sourceNodeIds") Collection<String> sourceNodeIds,
+            @Param("stateStatus") StateStatus stateStatus);
+
     @Query("SELECT fl FROM FlowLog fl WHERE fl.cloudbreakNodeId IS NULL AND fl.stateStatus = 'PENDING'")
     Set<FlowLog> findAllUnassigned();
 
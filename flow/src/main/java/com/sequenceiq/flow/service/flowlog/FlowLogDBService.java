@@ -1,6 +1,7 @@
 package com.sequenceiq.flow.service.flowlog;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -16,11 +17,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 import com.cedarsoftware.util.io.JsonWriter;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.sequenceiq.cloudbreak.auth.crn.Crn;
 import com.sequenceiq.cloudbreak.common.event.Payload;
 import com.sequenceiq.cloudbreak.common.exception.NotFoundException;
@@ -36,11 +39,15 @@ import com.sequenceiq.flow.core.FlowParameters;
 import com.sequenceiq.flow.core.FlowState;
 import com.sequenceiq.flow.core.ResourceIdProvider;
 import com.sequenceiq.flow.core.chain.config.FlowTriggerEventQueue;
+import com.sequenceiq.flow.core.codec.FlowPayloadCodec;
+import com.sequenceiq.flow.core.codec.FlowPayloadCodecs;
 import com.sequenceiq.flow.core.config.AbstractFlowConfiguration;
 import com.sequenceiq.flow.domain.ClassValue;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.flow.repository.FlowLogRepository;
@@ -51,6 +58,8 @@ public class FlowLogDBService implements FlowLogService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogDBService.class);
 
+    private static final int IN_CLAUSE_PARTITION_SIZE = 1000;
+
     @Inject
     private NodeConfig nodeConfig;
 
@@ -73,13 +82,18 @@ public class FlowLogDBService implements FlowLogService {
     @Inject
     private ResourceIdProvider resourceIdProvider;
 
+    @Value("${flow.payload.codec:JSON_IO}")
+    private FlowPayloadCodecType payloadCodecType;
+
     @Override
     public FlowLog save(FlowParameters flowParameters, String flowChanId, String key, Payload payload, Map<Object, Object> variables, Class<?> flowType,
             FlowState currentState) {
-        String payloadAsString = getSerializedString(payload);
-        String variablesJson = getSerializedString(variables);
+        FlowPayloadCodec codec = FlowPayloadCodecs.get(payloadCodecType);
+        String payloadAsString = codec.encode(getSerializedString(payload));
+        String variablesJson = codec.encode(getSerializedString(variables));
         FlowLog flowLog = new FlowLog(payload.getResourceId(), flowParameters.getFlowId(), flowChanId, flowParameters.getFlowTriggerUserCrn(), key,
                 payloadAsString, ClassValue.of(payload.getClass()), variablesJson, ClassValue.of(flowType), currentState.toString());
+        flowLog.setPayloadCodec(codec.getType());
         flowLog.setOperationType(StringUtils.isNotBlank(flowParameters.getFlowOperationType())
                 ? OperationType.valueOf(flowParameters.getFlowOperationType())
                 : OperationType.UNKNOWN);
@@ -219,12 +233,14 @@ public class FlowLogDBService implements FlowLogService {
     }
 
     public void updateLastFlowLogPayload(FlowLog lastFlowLog, Payload payload, Map<Object, Object> variables) {
-        String payloadJson = JsonWriter.objectToJson(payload, writeOptions);
-        String variablesJson = JsonWriter.objectToJson(variables, writeOptions);
+        FlowPayloadCodec codec = FlowPayloadCodecs.get(payloadCodecType);
+        String payloadJson = codec.encode(JsonWriter.objectToJson(payload, writeOptions));
+        String variablesJson = codec.encode(JsonWriter.objectToJson(variables, writeOptions));
         Optional.ofNullable(lastFlowLog)
                 .ifPresent(flowLog -> {
                     flowLog.setPayload(payloadJson);
                     flowLog.setVariables(variablesJson);
+                    flowLog.setPayloadCodec(codec.getType());
                     flowLogRepository.save(flowLog);
                 });
     }
@@ -264,6 +280,45 @@ public class FlowLogDBService implements FlowLogService {
         return flowLogRepository.findAllByCloudbreakNodeId(cloudbreakNodeId);
     }
 
+    @Override
+    public Set<String> findAllPendingFlowIdsByCloudbreakNodeId(String cloudbreakNodeId) {
+        return flowLogRepository.findAllPendingFlowIdsByCloudbreakNodeId(cloudbreakNodeId);
+    }
+
+    @Override
+    public Set<FlowLogIdWithTypeAndResourceId> findAllPendingByCloudbreakNodeIds(Collection<String> cloudbreakNodeIds) {
+        if (cloudbreakNodeIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return flowLogRepository.findAllPendingByCloudbreakNodeIds(cloudbreakNodeIds);
+    }
+
+    @Override
+    public Map<String, Long> countPendingFlowsByCloudbreakNodeId() {
+        return flowLogRepository.countPendingFlowsByCloudbreakNodeId().stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+    }
+
+    @Override
+    public int reassignPendingFlowLogs(Collection<String> flowIds, Collection<String> sourceNodeIds, String targetNodeId) {
+        int updated = 0;
+        for (List<String> partition : Lists.partition(new ArrayList<>(flowIds), IN_CLAUSE_PARTITION_SIZE)) {
+            updated += flowLogRepository.reassignPendingFlowLogs(partition, sourceNodeIds, targetNodeId);
+        }
+        LOGGER.debug("{} flow logs of {} flows have been reassigned to node {}", updated, flowIds.size(), targetNodeId);
+        return updated;
+    }
+
+    @Override
+    public int finalizePendingFlowLogs(Collection<String> flowIds, Collection<String> sourceNodeIds) {
+        int updated = 0;
+        for (List<String> partition : Lists.partition(new ArrayList<>(flowIds), IN_CLAUSE_PARTITION_SIZE)) {
+            updated += flowLogRepository.finalizePendingFlowLogs(partition, sourceNodeIds, StateStatus.SUCCESSFUL);
+        }
+        LOGGER.debug("{} flow logs of {} flows have been finalized", updated, flowIds.size());
+        return updated;
+    }
+
     @Override
     public List<FlowLog> findAllForLastFlowIdByResourceIdOrderByCreatedDesc(Long id) {
         return flowLogRepository.findFirstByResourceIdOrderByCreatedDesc(id)
@@ -0,0 +1,196 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.flow.core.FlowMetricType;
+
+import reactor.core.support.NamedDaemonThreadFactory;
+
+/**
+ * Coalesces the flow log writes of concurrently running flows into a single transaction. The caller is blocked until the transaction
+ * that contains its write is committed, so a flow transition is durable before the next event of the flow is sent. If the group
+ * transaction fails, the writes of the group are retried one by one, so a single failing flow does not fail the others. A write can therefore
+ * run more than once, so it must only change the database and must not have in-memory side effects, those belong after the commit.
+ */
+@Component
+public class FlowLogGroupCommitter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogGroupCommitter.class);
+
+    @Value("${flow.flowlog.groupcommit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${flow.flowlog.groupcommit.window.ms:10}")
+    private long windowMs;
+
+    @Value("${flow.flowlog.groupcommit.batch.size:100}")
+    private int maxBatchSize;
+
+    @Value("${flow.flowlog.groupcommit.timeout.ms:60000}")
+    private long commitTimeoutMs;
+
+    @Inject
+    private TransactionService transactionService;
+
+    @Inject
+    private MetricService metricService;
+
+    private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>();
+
+    private ExecutorService committer;
+
+    private volatile boolean stopped;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            LOGGER.info("Flow log group commit is enabled with {} ms window and {} max batch size", windowMs, maxBatchSize);
+            committer = Executors.newSingleThreadExecutor(new NamedDaemonThreadFactory("flowLogGroupCommitter"));
+            committer.submit(this::commitLoop);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (committer != null) {
+            committer.shutdownNow();
+        }
+    }
+
+    public void commit(Runnable write) throws TransactionExecutionException {
+        if (committer == null || committer.isShutdown()) {
+            transactionService.required(write);
+        } else {
+            PendingWrite pendingWrite = new PendingWrite(write, MDCBuilder.getMdcContextMap());
+            pendingWrites.add(pendingWrite);
+            if (stopped && pendingWrites.remove(pendingWrite)) {
+                // the committer has already drained the queue, nobody else would commit this write
+                transactionService.required(write);
+            } else {
+                pendingWrite.await(commitTimeoutMs);
+            }
+        }
+    }
+
+    private void commitLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<PendingWrite> group = collectGroup();
+                commitGroup(group);
+            } catch (InterruptedException e) {
+                LOGGER.info("Flow log group committer is interrupted, stopping.");
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected error in flow log group committer", e);
+            }
+        }
+        failRemaining();
+    }
+
+    private List<PendingWrite> collectGroup() throws InterruptedException {
+        List<PendingWrite> group = new ArrayList<>();
+        group.add(pendingWrites.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+        while (group.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingWrite next = remaining > 0 ? pendingWrites.poll(remaining, TimeUnit.NANOSECONDS) : pendingWrites.poll();
+            if (next == null) {
+                break;
+            }
+            group.add(next);
+        }
+        return group;
+    }
+
+    private void commitGroup(List<PendingWrite> group) {
+        metricService.submit(FlowMetricType.FLOWLOG_GROUP_COMMIT_SIZE, group.size());
+        try {
+            transactionService.required(() -> group.forEach(PendingWrite::run));
+            group.forEach(PendingWrite::complete);
+        } catch (TransactionExecutionException e) {
+            LOGGER.warn("Flow log group commit of {} writes failed, committing them one by one", group.size(), e);
+            group.forEach(this::commitAlone);
+        } finally {
+            MDCBuilder.cleanupMdc();
+        }
+    }
+
+    private void commitAlone(PendingWrite pendingWrite) {
+        try {
+            transactionService.required(pendingWrite::run);
+            pendingWrite.complete();
+        } catch (TransactionExecutionException e) {
+            pendingWrite.fail(e);
+        }
+    }
+
+    private void failRemaining() {
+        stopped = true;
+        List<PendingWrite> remaining = new ArrayList<>();
+        pendingWrites.drainTo(remaining);
+        remaining.forEach(this::commitAlone);
+    }
+
+    private static class PendingWrite {
+
+        private final Runnable write;
+
+        private final Map<String, String> mdcContext;
+
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        PendingWrite(Runnable write, Map<String, String> mdcContext) {
+            this.write = write;
+            this.mdcContext = mdcContext;
+        }
+
+        void run() {
+            MDCBuilder.buildMdcContextFromMap(mdcContext);
+            write.run();
+        }
+
+        void complete() {
+            committed.complete(null);
+        }
+
+        void fail(TransactionExecutionException e) {
+            committed.completeExceptionally(e);
+        }
+
+        void await(long timeoutMs) throws TransactionExecutionException {
+            try {
+                committed.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw (TransactionExecutionException) e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransactionExecutionException("Interrupted while waiting for flow log group commit", new IllegalStateException(e));
+            } catch (TimeoutException e) {
+                throw new TransactionExecutionException("Flow log group commit did not finish in time", new IllegalStateException(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- // CB-14121 add lease expiry column to node
+-- Migration SQL that makes the change goes here.
+
+ALTER TABLE IF EXISTS node ADD COLUMN IF NOT EXISTS leaseexpires int8;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+ALTER TABLE IF EXISTS node DROP COLUMN IF EXISTS leaseexpires;
@@ -1,16 +1,17 @@
 package com.sequenceiq.cloudbreak.service;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
@@ -54,7 +56,6 @@ import com.sequenceiq.cloudbreak.ha.service.FlowDistributor;
 import com.sequenceiq.cloudbreak.ha.service.NodeService;
 import com.sequenceiq.cloudbreak.service.ha.HaApplication;
 import com.sequenceiq.cloudbreak.service.ha.HeartbeatService;
-import com.sequenceiq.flow.api.model.operation.OperationType;
 import com.sequenceiq.flow.cleanup.InMemoryCleanup;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.Flow2Handler;
@@ -63,8 +64,7 @@ import com.sequenceiq.flow.core.FlowRegister;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
 import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
 import com.sequenceiq.flow.domain.ClassValue;
-import com.sequenceiq.flow.domain.FlowLog;
-import com.sequenceiq.flow.domain.StateStatus;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
 import com.sequenceiq.flow.ha.NodeConfig;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -118,7 +118,7 @@ public class HeartbeatServiceTest {
     private ArgumentCaptor<String> stringCaptor;
 
     @Captor
-    private ArgumentCaptor<List<FlowLog>> flowLogListCaptor;
+    private ArgumentCaptor<List<String>> listCaptor;
 
     @Before
     public void init() throws TransactionExecutionException {
@@ -148,35 +148,23 @@ public class HeartbeatServiceTest {
 
         // all flows that need to be re-distributed
 
-        List<FlowLog> node1FlowLogs = getFlowLogs(2, 5000);
-        List<String> suspendedFlows = node1FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(new HashSet<>(node1FlowLogs));
-
-        Set<FlowLog> node2FlowLogs = new HashSet<>(getFlowLogs(3, 3000));
-        suspendedFlows.addAll(node2FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList()));
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_2_ID)).thenReturn(node2FlowLogs);
+        Set<FlowLogIdWithTypeAndResourceId> failedFlows = new HashSet<>(getFlows(2, 5000));
+        failedFlows.addAll(getFlows(3, 3000));
+        List<String> suspendedFlows = failedFlows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toList());
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID, NODE_2_ID))).thenReturn(failedFlows);
 
         Map<Node, List<String>> distribution = new HashMap<>();
-        distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
-                addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
-                        suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        distribution.put(clusterNodes.get(0), suspendedFlows);
+        when(flowDistributor.distribute(eq(suspendedFlows), eq(clusterNodes.subList(0, 1)), anyMap())).thenReturn(distribution);
 
-        Set<FlowLog> myNewFlowLogs = new HashSet<>();
-        myNewFlowLogs.addAll(node1FlowLogs);
-        myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(new HashSet<>(suspendedFlows));
 
         when(runningFlows.get(any())).thenReturn(null);
 
         heartbeatService.scheduledFlowDistribution();
 
-        verify(flowLogService).saveAll(flowLogListCaptor.capture());
-        List<FlowLog> updatedFlows = flowLogListCaptor.getValue();
-        assertEquals(myNewFlowLogs.size(), updatedFlows.size());
-        for (FlowLog updatedFlow : updatedFlows) {
-            assertEquals(MY_ID, updatedFlow.getCloudbreakNodeId());
-        }
+        verify(flowLogService).reassignPendingFlowLogs(suspendedFlows, Set.of(NODE_1_ID, NODE_2_ID), MY_ID);
+        verify(flowLogService, never()).finalizePendingFlowLogs(anyCollection(), anyCollection());
 
         verify(flow2Handler, times(5)).restartFlow(stringCaptor.capture());
         List<String> allFlowIds = stringCaptor.getAllValues();
@@ -187,7 +175,7 @@ public class HeartbeatServiceTest {
     }
 
     @Test
-    public void testOneNodeTakesAllFlowsWithCleanup() {
+    public void testOneNodeTakesAllFlowsWithCleanup() throws TransactionExecutionException {
         List<Node> clusterNodes = getClusterNodes();
         clusterNodes.get(0).setLastUpdated(200_000L); // myself
         // set all nodes to failed except myself
@@ -200,35 +188,25 @@ public class HeartbeatServiceTest {
 
         // all flows that need to be re-distributed
 
-        List<FlowLog> node1FlowLogs = getFlowLogs(2, 5000);
-        List<String> suspendedFlows = node1FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(new HashSet<>(node1FlowLogs)).thenReturn(Collections.emptySet());
-
-        Set<FlowLog> node2FlowLogs = new HashSet<>(getFlowLogs(3, 3000));
-        suspendedFlows.addAll(node2FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList()));
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_2_ID)).thenReturn(node2FlowLogs).thenReturn(Collections.emptySet());
+        Set<FlowLogIdWithTypeAndResourceId> failedFlows = new HashSet<>(getFlows(2, 5000));
+        failedFlows.addAll(getFlows(3, 3000));
+        List<String> suspendedFlows = failedFlows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toList());
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID, NODE_2_ID))).thenReturn(failedFlows);
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(NODE_1_ID)).thenReturn(Collections.emptySet());
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(NODE_2_ID)).thenReturn(Collections.emptySet());
 
         Map<Node, List<String>> distribution = new HashMap<>();
-        distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
-                addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
-                        suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        distribution.put(clusterNodes.get(0), suspendedFlows);
+        when(flowDistributor.distribute(anyList(), anyList(), anyMap())).thenReturn(distribution);
 
-        Set<FlowLog> myNewFlowLogs = new HashSet<>();
-        myNewFlowLogs.addAll(node1FlowLogs);
-        myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(new HashSet<>(suspendedFlows));
 
         when(runningFlows.get(any())).thenReturn(null);
 
         heartbeatService.scheduledFlowDistribution();
 
-        verify(flowLogService).saveAll(flowLogListCaptor.capture());
-        List<FlowLog> updatedFlows = flowLogListCaptor.getValue();
-        assertEquals(myNewFlowLogs.size(), updatedFlows.size());
-        for (FlowLog updatedFlow : updatedFlows) {
-            assertEquals(MY_ID, updatedFlow.getCloudbreakNodeId());
-        }
+        verify(flowLogService).reassignPendingFlowLogs(suspendedFlows, Set.of(NODE_1_ID, NODE_2_ID), MY_ID);
+        verify(nodeService).deleteAll(clusterNodes.subList(1, 3));
 
         verify(flow2Handler, times(5)).restartFlow(stringCaptor.capture());
         List<String> allFlowIds = stringCaptor.getAllValues();
@@ -252,53 +230,35 @@ public class HeartbeatServiceTest {
 
         // all flows that need to be re-distributed
 
-        List<FlowLog> node1FlowLogs = getFlowLogs(2, 5000);
-        List<String> suspendedFlows = node1FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(new HashSet<>(node1FlowLogs));
+        List<FlowLogIdWithTypeAndResourceId> failedFlows = getFlows(5, 5000);
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID, NODE_2_ID))).thenReturn(new HashSet<>(failedFlows));
 
-        Set<FlowLog> node2FlowLogs = new HashSet<>(getFlowLogs(3, 3000));
-        suspendedFlows.addAll(node2FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList()));
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_2_ID)).thenReturn(node2FlowLogs);
+        when(haApplication.getDeletingResources(anySet())).thenReturn(Set.of(failedFlows.get(0).getResourceId(), failedFlows.get(2).getResourceId()));
+        doReturn(Collections.singletonList(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
+        Set<String> invalidFlowIds = Set.of(failedFlows.get(0).getFlowId(), failedFlows.get(2).getFlowId());
+        List<String> validFlowIds = failedFlows.stream()
+                .map(FlowLogIdWithTypeAndResourceId::getFlowId)
+                .filter(flowId -> !invalidFlowIds.contains(flowId))
+                .collect(Collectors.toList());
 
         Map<Node, List<String>> distribution = new HashMap<>();
-        distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
-                addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
-                        suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        distribution.put(clusterNodes.get(0), validFlowIds);
+        when(flowDistributor.distribute(listCaptor.capture(), anyList(), anyMap())).thenReturn(distribution);
 
-        Set<FlowLog> myNewFlowLogs = new HashSet<>();
-        myNewFlowLogs.addAll(node1FlowLogs);
-        myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(new HashSet<>(validFlowIds));
 
         when(runningFlows.get(any())).thenReturn(null);
 
-        List<Long> stackIds = myNewFlowLogs.stream().map(FlowLog::getResourceId).distinct().collect(Collectors.toList());
-        when(haApplication.getDeletingResources(anySet())).thenReturn(Set.of(stackIds.get(0), stackIds.get(2)));
-        doReturn(Collections.singletonList(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
-        List<FlowLog> invalidFlowLogs = myNewFlowLogs.stream()
-                .filter(fl -> fl.getResourceId().equals(stackIds.get(0)) || fl.getResourceId().equals(stackIds.get(2))).collect(Collectors.toList());
-
         heartbeatService.scheduledFlowDistribution();
 
-        verify(flowLogService).saveAll(flowLogListCaptor.capture());
-        List<FlowLog> updatedFlows = flowLogListCaptor.getValue();
-        assertEquals(myNewFlowLogs.size(), updatedFlows.size());
-        for (FlowLog updatedFlow : updatedFlows) {
-            if (invalidFlowLogs.contains(updatedFlow)) {
-                assertEquals(StateStatus.SUCCESSFUL, updatedFlow.getStateStatus());
-                assertNull(updatedFlow.getCloudbreakNodeId());
-            } else {
-                assertEquals(MY_ID, updatedFlow.getCloudbreakNodeId());
-            }
-        }
+        assertEquals(new HashSet<>(validFlowIds), new HashSet<>(listCaptor.getValue()));
+        verify(flowLogService).finalizePendingFlowLogs(invalidFlowIds, Set.of(NODE_1_ID, NODE_2_ID));
+        verify(flowLogService).reassignPendingFlowLogs(validFlowIds, Set.of(NODE_1_ID, NODE_2_ID), MY_ID);
 
-        verify(flow2Handler, times(5)).restartFlow(stringCaptor.capture());
+        verify(flow2Handler, times(3)).restartFlow(stringCaptor.capture());
         List<String> allFlowIds = stringCaptor.getAllValues();
-        assertEquals(5L, allFlowIds.size());
-        for (String flowId : suspendedFlows) {
-            assertTrue(allFlowIds.contains(flowId));
-        }
+        assertEquals(3L, allFlowIds.size());
+        assertTrue(allFlowIds.containsAll(validFlowIds));
     }
 
     @Test
@@ -315,48 +275,51 @@ public class HeartbeatServiceTest {
 
         // all flows that need to be re-distributed
 
-        List<FlowLog> node1FlowLogs = getFlowLogs(2, 5000);
-        node1FlowLogs.forEach(fl -> fl.setFlowType(ClassValue.of(HelloWorldFlowConfig.class)));
-        List<String> suspendedFlows = node1FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(new HashSet<>(node1FlowLogs));
+        List<FlowLogIdWithTypeAndResourceId> failedFlows = getFlows(5, 5000, HelloWorldFlowConfig.class);
+        List<String> suspendedFlows = failedFlows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toList());
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID, NODE_2_ID))).thenReturn(new HashSet<>(failedFlows));
 
-        Set<FlowLog> node2FlowLogs = new HashSet<>(getFlowLogs(3, 3000));
-        node2FlowLogs.forEach(fl -> fl.setFlowType(ClassValue.of(HelloWorldFlowConfig.class)));
-        suspendedFlows.addAll(node2FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList()));
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_2_ID)).thenReturn(node2FlowLogs);
+        when(haApplication.getDeletingResources(anySet())).thenReturn(Set.of(failedFlows.get(0).getResourceId(), failedFlows.get(2).getResourceId()));
+        doReturn(Collections.singletonList(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
 
         Map<Node, List<String>> distribution = new HashMap<>();
-        distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
-                addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
-                        suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        distribution.put(clusterNodes.get(0), suspendedFlows);
+        when(flowDistributor.distribute(listCaptor.capture(), anyList(), anyMap())).thenReturn(distribution);
 
-        Set<FlowLog> myNewFlowLogs = new HashSet<>();
-        myNewFlowLogs.addAll(node1FlowLogs);
-        myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(new HashSet<>(suspendedFlows));
 
         when(runningFlows.get(any())).thenReturn(null);
 
-        List<Long> stackIds = myNewFlowLogs.stream().map(FlowLog::getResourceId).distinct().collect(Collectors.toList());
-        when(haApplication.getDeletingResources(anySet())).thenReturn(Set.of(stackIds.get(0), stackIds.get(2)));
-        doReturn(Collections.singletonList(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
-
         heartbeatService.scheduledFlowDistribution();
 
-        verify(flowLogService).saveAll(flowLogListCaptor.capture());
-        List<FlowLog> updatedFlows = flowLogListCaptor.getValue();
-        assertEquals(myNewFlowLogs.size(), updatedFlows.size());
-        for (FlowLog updatedFlow : updatedFlows) {
-            assertEquals(MY_ID, updatedFlow.getCloudbreakNodeId());
-        }
+        assertEquals(new HashSet<>(suspendedFlows), new HashSet<>(listCaptor.getValue()));
+        verify(flowLogService, never()).finalizePendingFlowLogs(anyCollection(), anyCollection());
+        verify(flowLogService).reassignPendingFlowLogs(suspendedFlows, Set.of(NODE_1_ID, NODE_2_ID), MY_ID);
 
         verify(flow2Handler, times(5)).restartFlow(stringCaptor.capture());
         List<String> allFlowIds = stringCaptor.getAllValues();
         assertEquals(5L, allFlowIds.size());
-        for (String flowId : suspendedFlows) {
-            assertTrue(allFlowIds.contains(flowId));
-        }
+        assertTrue(allFlowIds.containsAll(suspendedFlows));
+    }
+
+    @Test
+    public void testDistributionWeightsNodesByRunningFlows() {
+        List<Node> clusterNodes = getClusterNodes();
+        clusterNodes.get(0).setLastUpdated(200_000L); // myself
+        clusterNodes.get(1).setLastUpdated(50_000L); // failed node
+        clusterNodes.get(2).setLastUpdated(200_000L); // active node
+
+        when(nodeService.findAll()).thenReturn(clusterNodes);
+        when(clock.getCurrentTimeMillis()).thenReturn(200_000L);
+
+        List<FlowLogIdWithTypeAndResourceId> failedFlows = getFlows(3, 5000);
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID))).thenReturn(new HashSet<>(failedFlows));
+        Map<String, Long> runningFlowCounts = Map.of(MY_ID, 10L, NODE_2_ID, 2L);
+        when(flowLogService.countPendingFlowsByCloudbreakNodeId()).thenReturn(runningFlowCounts);
+
+        heartbeatService.scheduledFlowDistribution();
+
+        verify(flowDistributor).distribute(anyList(), eq(List.of(clusterNodes.get(0), clusterNodes.get(2))), eq(runningFlowCounts));
     }
 
     @Test
@@ -371,34 +334,31 @@ public class HeartbeatServiceTest {
 
         // all flows that need to be re-distributed
 
-        List<FlowLog> node1FlowLogs = getFlowLogs(3, 5000);
-        List<String> suspendedFlows = node1FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(new HashSet<>(node1FlowLogs));
+        List<FlowLogIdWithTypeAndResourceId> failedFlows = getFlows(3, 5000);
+        List<String> suspendedFlows = failedFlows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toList());
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID))).thenReturn(new HashSet<>(failedFlows));
 
         Map<Node, List<String>> distribution = new HashMap<>();
         distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(2)));
         distribution.computeIfAbsent(clusterNodes.get(2), v -> new ArrayList<>()).
                 addAll(Collections.singletonList(suspendedFlows.get(1)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyList(), anyList(), anyMap())).thenReturn(distribution);
 
-        Set<FlowLog> myNewFlowLogs = new HashSet<>();
-        myNewFlowLogs.addAll(node1FlowLogs.stream().filter(fl -> fl.getFlowId().equalsIgnoreCase(suspendedFlows.get(0))).collect(Collectors.toList()));
-        myNewFlowLogs.addAll(node1FlowLogs.stream().filter(fl -> fl.getFlowId().equalsIgnoreCase(suspendedFlows.get(2))).collect(Collectors.toList()));
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        Set<String> myNewFlows = Set.of(suspendedFlows.get(0), suspendedFlows.get(2));
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlows);
 
         when(runningFlows.get(any())).thenReturn(null);
 
-        when(flowLogService.saveAll(anyCollection())).thenThrow(new OptimisticLockingFailureException("Someone already distributed the flows.."));
+        when(flowLogService.reassignPendingFlowLogs(anyCollection(), anyCollection(), anyString()))
+                .thenThrow(new OptimisticLockingFailureException("Someone already distributed the flows.."));
 
         heartbeatService.scheduledFlowDistribution();
 
         verify(flow2Handler, times(2)).restartFlow(stringCaptor.capture());
         List<String> allFlowIds = stringCaptor.getAllValues();
         assertEquals(2L, allFlowIds.size());
-        for (FlowLog flowLog : myNewFlowLogs) {
-            assertTrue(allFlowIds.contains(flowLog.getFlowId()));
-        }
+        assertTrue(allFlowIds.containsAll(myNewFlows));
     }
 
     @Test
@@ -413,32 +373,31 @@ public class HeartbeatServiceTest {
 
         // all flows that need to be re-distributed
 
-        List<FlowLog> node1FlowLogs = getFlowLogs(3, 5000);
-        List<String> suspendedFlows = node1FlowLogs.stream().map(FlowLog::getFlowId).distinct().collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(new HashSet<>(node1FlowLogs));
+        List<FlowLogIdWithTypeAndResourceId> failedFlows = getFlows(3, 5000);
+        List<String> suspendedFlows = failedFlows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toList());
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID))).thenReturn(new HashSet<>(failedFlows));
 
         Map<Node, List<String>> distribution = new HashMap<>();
         distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(2)));
         distribution.computeIfAbsent(clusterNodes.get(2), v -> new ArrayList<>()).
                 addAll(Collections.singletonList(suspendedFlows.get(1)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyList(), anyList(), anyMap())).thenReturn(distribution);
 
-        List<FlowLog> myNewFlowLogs = node1FlowLogs.stream().filter(fl -> fl.getFlowId().equalsIgnoreCase(suspendedFlows.get(0))).collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(new HashSet<>(myNewFlowLogs));
+        Set<String> myNewFlows = Set.of(suspendedFlows.get(0));
+        when(flowLogService.findAllPendingFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlows);
 
         when(runningFlows.get(any())).thenReturn(null);
 
-        when(flowLogService.saveAll(anyCollection())).thenThrow(new OptimisticLockingFailureException("Someone already distributed the flows.."));
+        when(flowLogService.reassignPendingFlowLogs(anyCollection(), anyCollection(), anyString()))
+                .thenThrow(new OptimisticLockingFailureException("Someone already distributed the flows.."));
 
         heartbeatService.scheduledFlowDistribution();
 
         verify(flow2Handler, times(1)).restartFlow(stringCaptor.capture());
         List<String> allFlowIds = stringCaptor.getAllValues();
         assertEquals(1L, allFlowIds.size());
-        for (FlowLog flowLog : myNewFlowLogs) {
-            assertTrue(allFlowIds.contains(flowLog.getFlowId()));
-        }
+        assertTrue(allFlowIds.containsAll(myNewFlows));
     }
 
     @Test
@@ -465,12 +424,12 @@ public class HeartbeatServiceTest {
             }
         }
 
-        Set<FlowLog> flowLogs = new HashSet<>(getFlowLogs(2, 5000));
+        Set<FlowLogIdWithTypeAndResourceId> flows = new HashSet<>(getFlows(2, 5000));
 
         ReflectionTestUtils.setField(heartbeatService, "retryService", new TestRetry());
 
         // Mock InMemoryStateStore for check method execution success
-        Set<Long> myStackIds = flowLogs.stream().map(FlowLog::getResourceId).collect(Collectors.toSet());
+        Set<Long> myStackIds = flows.stream().map(FlowLogIdWithTypeAndResourceId::getResourceId).collect(Collectors.toSet());
         for (Long myStackId : myStackIds) {
             InMemoryStateStore.putStack(myStackId, PollGroup.POLLABLE);
         }
@@ -482,7 +441,7 @@ public class HeartbeatServiceTest {
             assertEquals(PollGroup.POLLABLE, InMemoryStateStore.getStack(myStackId));
         }
         // There was no action on InMemoryStateStore
-        verify(flowLogService, times(0)).findAllByCloudbreakNodeId(anyString());
+        verify(flowLogService, times(0)).findAllPendingFlowIdsByCloudbreakNodeId(anyString());
     }
 
     @Test
@@ -527,18 +486,17 @@ public class HeartbeatServiceTest {
         return nodes;
     }
 
-    private List<FlowLog> getFlowLogs(int flowCount, int from) {
-        List<FlowLog> flows = new ArrayList<>();
+    private List<FlowLogIdWithTypeAndResourceId> getFlows(int flowCount, int from) {
+        return getFlows(flowCount, from, FlowConfiguration.class);
+    }
+
+    private List<FlowLogIdWithTypeAndResourceId> getFlows(int flowCount, int from, Class<?> flowType) {
+        List<FlowLogIdWithTypeAndResourceId> flows = new ArrayList<>();
         Random random = new SecureRandom();
         int flowId = random.nextInt(5000) + from;
         long stackId = random.nextInt(5000) + from;
         for (int i = 0; i < flowCount; i++) {
-            for (int j = 0; j < random.nextInt(99) + 1; j++) {
-                FlowLog flowLog = new FlowLog(stackId + i, "" + flowId + i, "RUNNING",
-                        false, StateStatus.PENDING, OperationType.UNKNOWN);
-                flowLog.setFlowType(ClassValue.of(FlowConfiguration.class));
-                flows.add(flowLog);
-            }
+            flows.add(new TestFlow("" + flowId + i, ClassValue.of(flowType), stackId + i));
         }
         return flows;
     }
@@ -551,36 +509,65 @@ public class HeartbeatServiceTest {
         when(nodeService.findAll()).thenReturn(clusterNodes);
         when(clock.getCurrentTimeMillis()).thenReturn(BASE_DATE_TIME.plusMinutes(clusterNodes.size()).toEpochSecond(ZoneOffset.UTC));
 
-        Set<FlowLog> failedFLowLogs1 = new HashSet<>(getFlowLogs(2, 5000));
-        Set<FlowLog> failedFlowLogs2 = new HashSet<>(getFlowLogs(2, 5000));
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(failedFLowLogs1);
-        when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(failedFlowLogs2);
+        List<FlowLogIdWithTypeAndResourceId> failedFlows1 = getFlows(2, 5000);
+        List<FlowLogIdWithTypeAndResourceId> failedFlows2 = getFlows(2, 20000);
+        Set<FlowLogIdWithTypeAndResourceId> failedFlows = new HashSet<>(failedFlows1);
+        failedFlows.addAll(failedFlows2);
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(MY_ID, NODE_1_ID))).thenReturn(failedFlows);
 
-        Map<Node, List<String>> flowDistribution = createFlowDistribution(failedFLowLogs1, failedFlowLogs2);
-        when(flowDistributor.distribute(anyList(), eq(clusterNodes.subList(2, clusterNodes.size())))).thenReturn(flowDistribution);
+        Map<Node, List<String>> flowDistribution = createFlowDistribution(failedFlows2);
+        when(flowDistributor.distribute(anyList(), eq(clusterNodes.subList(2, clusterNodes.size())), anyMap())).thenReturn(flowDistribution);
 
-        Set<Long> deletedResources = failedFLowLogs1.stream()
-                .map(FlowLog::getResourceId)
+        Set<Long> deletedResources = failedFlows1.stream()
+                .map(FlowLogIdWithTypeAndResourceId::getResourceId)
                 .collect(Collectors.toSet());
         when(haApplication.getDeletingResources(anySet())).thenReturn(deletedResources);
         doReturn(Collections.singletonList(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
 
         List<Node> nodes = heartbeatService.distributeFlows();
 
-        ArgumentCaptor<Collection<FlowLog>> updatedLogsCaptor = ArgumentCaptor.forClass(Collection.class);
-        verify(flowLogService, times(1)).saveAll(updatedLogsCaptor.capture());
-        Collection<FlowLog> updatedFlowLogs = updatedLogsCaptor.getValue();
-        assertTrue(updatedFlowLogs.stream()
-                .map(FlowLog::getStateStatus)
-                .allMatch(StateStatus.SUCCESSFUL::equals));
+        Set<String> invalidFlowIds = failedFlows1.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toSet());
+        verify(flowLogService, times(1)).finalizePendingFlowLogs(invalidFlowIds, Set.of(MY_ID, NODE_1_ID));
+        Entry<Node, List<String>> assignment = flowDistribution.entrySet().iterator().next();
+        verify(flowLogService, times(1)).reassignPendingFlowLogs(assignment.getValue(), Set.of(MY_ID, NODE_1_ID), assignment.getKey().getUuid());
 
         assertEquals(clusterNodes.subList(0, 2), nodes);
     }
 
-    private Map<Node, List<String>> createFlowDistribution(Set<FlowLog> failedFLowLogs1, Set<FlowLog> failedFlowLogs2) {
+    private Map<Node, List<String>> createFlowDistribution(Collection<FlowLogIdWithTypeAndResourceId> flows) {
         Map<Node, List<String>> distribution = new HashMap<>();
 
-        distribution.put(new Node(UUID.randomUUID().toString()), failedFLowLogs1.stream().map(FlowLog::getFlowId).collect(Collectors.toList()));
+        distribution.put(new Node(UUID.randomUUID().toString()), flows.stream().map(FlowLogIdWithTypeAndResourceId::getFlowId).collect(Collectors.toList()));
         return distribution;
     }
+
+    private static class TestFlow implements FlowLogIdWithTypeAndResourceId {
+
+        private final String flowId;
+
+        private final ClassValue flowType;
+
+        private final Long resourceId;
+
+        TestFlow(String flowId, ClassValue flowType, Long resourceId) {
+            this.flowId = flowId;
+            this.flowType = flowType;
+            this.resourceId = resourceId;
+        }
+
+        @Override
+        public String getFlowId() {
+            return flowId;
+        }
+
+        @Override
+        public ClassValue getFlowType() {
+            return flowType;
+        }
+
+        @Override
+        public Long getResourceId() {
+            return resourceId;
+        }
+    }
 }
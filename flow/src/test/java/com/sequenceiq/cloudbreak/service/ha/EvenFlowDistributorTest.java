@@ -1,6 +1,8 @@
 package com.sequenceiq.cloudbreak.service.ha;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
@@ -85,6 +87,24 @@ public class EvenFlowDistributorTest {
         assertEquals(11L, result.get(node).size());
     }
 
+    @Test
+    public void testFlowDistributionWeightedByRunningFlows() {
+        List<Node> nodes = getClusterNodes();
+        List<String> flowLogs = getFlowIds(10);
+        Map<String, Long> runningFlows = Map.of(MY_ID, 6L, NODE_1_ID, 2L, NODE_2_ID, 4L);
+        Map<Node, List<String>> result = flowDistributor.distribute(flowLogs, nodes, runningFlows);
+        assertNull(result.get(nodes.get(0)));
+        assertEquals(4L, result.get(nodes.get(1)).size());
+        assertEquals(1L, result.get(nodes.get(2)).size());
+        assertEquals(5L, result.get(nodes.get(3)).size());
+    }
+
+    @Test
+    public void testFlowDistributionWithoutNodes() {
+        Map<Node, List<String>> result = flowDistributor.distribute(getFlowIds(3), Collections.emptyList());
+        assertTrue(result.isEmpty());
+    }
+
     private List<Node> getClusterNodes() {
         List<Node> nodes = new ArrayList<>();
         nodes.add(new Node(MY_ID));
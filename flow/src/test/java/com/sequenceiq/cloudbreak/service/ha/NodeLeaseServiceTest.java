@@ -0,0 +1,225 @@
+package com.sequenceiq.cloudbreak.service.ha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.cleanup.InMemoryCleanup;
+import com.sequenceiq.flow.core.Flow2Handler;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.core.FlowMetricType;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndResourceId;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+@ExtendWith(MockitoExtension.class)
+class NodeLeaseServiceTest {
+
+    private static final String MY_ID = "E80C7BD9-61CD-442E-AFDA-C3B30FEDE88F";
+
+    private static final String NODE_1_ID = "5575B7AD-45CB-487D-BE14-E33C913F9394";
+
+    private static final long NOW = 100_000L;
+
+    private static final long LEASE_DURATION = 3000L;
+
+    @InjectMocks
+    private NodeLeaseService underTest;
+
+    @Mock
+    private NodeConfig nodeConfig;
+
+    @Mock
+    private NodeService nodeService;
+
+    @Mock
+    private FlowLogService flowLogService;
+
+    @Mock
+    private Flow2Handler flow2Handler;
+
+    @Mock
+    private FlowRegister runningFlows;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private MetricService metricService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private InMemoryCleanup inMemoryCleanup;
+
+    @Mock
+    private HeartbeatService heartbeatService;
+
+    @BeforeEach
+    void setUp() throws TransactionService.TransactionExecutionException {
+        ReflectionTestUtils.setField(underTest, "leaseEnabled", true);
+        ReflectionTestUtils.setField(underTest, "leaseDuration", LEASE_DURATION);
+        lenient().when(nodeConfig.isNodeIdSpecified()).thenReturn(true);
+        lenient().when(nodeConfig.getId()).thenReturn(MY_ID);
+        lenient().when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        lenient().when(transactionService.required(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void testRenewLeaseWithConditionalUpdate() {
+        when(nodeService.renewLease(MY_ID, NOW, NOW + LEASE_DURATION)).thenReturn(true);
+
+        underTest.renewLease();
+
+        verify(nodeService, never()).save(any());
+        verify(inMemoryCleanup, never()).cancelEveryFlowWithoutDbUpdate();
+    }
+
+    @Test
+    void testRenewLeaseRegistersMissingNode() {
+        when(nodeService.renewLease(MY_ID, NOW, NOW + LEASE_DURATION)).thenReturn(false);
+        when(nodeService.findById(MY_ID)).thenReturn(Optional.empty());
+
+        underTest.renewLease();
+
+        ArgumentCaptor<Node> nodeCaptor = ArgumentCaptor.forClass(Node.class);
+        verify(nodeService).save(nodeCaptor.capture());
+        assertEquals(MY_ID, nodeCaptor.getValue().getUuid());
+        assertEquals(NOW, nodeCaptor.getValue().getLastUpdated());
+        assertEquals(NOW + LEASE_DURATION, nodeCaptor.getValue().getLeaseExpires());
+        verify(inMemoryCleanup, never()).cancelEveryFlowWithoutDbUpdate();
+    }
+
+    @Test
+    void testRenewLeaseCancelsFlowsWhenLeaseIsLost() {
+        when(nodeService.renewLease(MY_ID, NOW, NOW + LEASE_DURATION)).thenReturn(false, false);
+        Node self = new Node(MY_ID);
+        self.setLeaseExpires(NodeService.LEASE_REVOKED);
+        when(nodeService.findById(MY_ID)).thenReturn(Optional.empty(), Optional.of(self));
+
+        underTest.renewLease();
+        underTest.renewLease();
+
+        verify(inMemoryCleanup).cancelEveryFlowWithoutDbUpdate();
+        verify(metricService).incrementMetricCounter(FlowMetricType.NODE_LEASE_LOST);
+        assertEquals(NOW + LEASE_DURATION, self.getLeaseExpires());
+    }
+
+    @Test
+    void testTakeoverIsSkippedWithoutOwnLease() {
+        underTest.takeoverExpiredLeases();
+
+        verify(nodeService, never()).findAllWithExpiredLease(anyString(), anyLong());
+    }
+
+    @Test
+    void testTakeoverClaimsAndRestartsFlowsOfExpiredNode() {
+        acquireOwnLease();
+        Node expiredNode = expiredNode(NOW - 400L);
+        when(nodeService.findAllWithExpiredLease(MY_ID, NOW)).thenReturn(List.of(expiredNode));
+        when(nodeService.revokeLease(NODE_1_ID, NOW - 400L)).thenReturn(true);
+        Set<FlowLogIdWithTypeAndResourceId> flows = Set.of(flow("flow1"), flow("flow2"));
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID))).thenReturn(flows);
+        when(heartbeatService.getInvalidFlowIds(flows)).thenReturn(Set.of());
+
+        underTest.takeoverExpiredLeases();
+
+        verify(flowLogService).reassignPendingFlowLogs(Set.of("flow1", "flow2"), Set.of(NODE_1_ID), MY_ID);
+        verify(flowLogService, never()).finalizePendingFlowLogs(any(), any());
+        verify(flow2Handler).restartFlow("flow1");
+        verify(flow2Handler).restartFlow("flow2");
+        verify(metricService).recordTimerMetric(FlowMetricType.FLOW_TAKEOVER_LATENCY, Duration.ofMillis(400L));
+        verify(metricService).submit(FlowMetricType.FLOW_TAKEOVER_COUNT, 2);
+    }
+
+    @Test
+    void testTakeoverFinalizesInvalidFlowsOfExpiredNode() {
+        acquireOwnLease();
+        Node expiredNode = expiredNode(NOW - 400L);
+        when(nodeService.findAllWithExpiredLease(MY_ID, NOW)).thenReturn(List.of(expiredNode));
+        when(nodeService.revokeLease(NODE_1_ID, NOW - 400L)).thenReturn(true);
+        Set<FlowLogIdWithTypeAndResourceId> flows = Set.of(flow("flow1"), flow("flow2"));
+        when(flowLogService.findAllPendingByCloudbreakNodeIds(Set.of(NODE_1_ID))).thenReturn(flows);
+        when(heartbeatService.getInvalidFlowIds(flows)).thenReturn(Set.of("flow1"));
+
+        underTest.takeoverExpiredLeases();
+
+        verify(flowLogService).finalizePendingFlowLogs(Set.of("flow1"), Set.of(NODE_1_ID));
+        verify(flowLogService).reassignPendingFlowLogs(Set.of("flow2"), Set.of(NODE_1_ID), MY_ID);
+        verify(flow2Handler, never()).restartFlow("flow1");
+        verify(flow2Handler).restartFlow("flow2");
+        verify(metricService).submit(FlowMetricType.FLOW_TAKEOVER_COUNT, 1);
+    }
+
+    @Test
+    void testTakeoverAfterRenewingExistingLease() {
+        when(nodeService.renewLease(MY_ID, NOW, NOW + LEASE_DURATION)).thenReturn(true);
+        underTest.renewLease();
+        when(nodeService.findAllWithExpiredLease(MY_ID, NOW)).thenReturn(List.of());
+
+        underTest.takeoverExpiredLeases();
+
+        verify(nodeService).findAllWithExpiredLease(MY_ID, NOW);
+        verify(nodeService, never()).save(any());
+    }
+
+    @Test
+    void testTakeoverWhenLeaseWasRenewedMeanwhile() {
+        acquireOwnLease();
+        Node expiredNode = expiredNode(NOW - 400L);
+        when(nodeService.findAllWithExpiredLease(MY_ID, NOW)).thenReturn(List.of(expiredNode));
+        when(nodeService.revokeLease(NODE_1_ID, NOW - 400L)).thenReturn(false);
+
+        underTest.takeoverExpiredLeases();
+
+        verify(flowLogService, never()).reassignPendingFlowLogs(any(), any(), anyString());
+        verify(flow2Handler, never()).restartFlow(anyString());
+        verify(metricService, never()).recordTimerMetric(eq(FlowMetricType.FLOW_TAKEOVER_LATENCY), any(Duration.class));
+    }
+
+    private void acquireOwnLease() {
+        when(nodeService.renewLease(MY_ID, NOW, NOW + LEASE_DURATION)).thenReturn(false);
+        when(nodeService.findById(MY_ID)).thenReturn(Optional.empty());
+        underTest.renewLease();
+    }
+
+    private FlowLogIdWithTypeAndResourceId flow(String flowId) {
+        FlowLogIdWithTypeAndResourceId flow = mock(FlowLogIdWithTypeAndResourceId.class);
+        when(flow.getFlowId()).thenReturn(flowId);
+        return flow;
+    }
+
+    private Node expiredNode(long leaseExpires) {
+        Node node = new Node(NODE_1_ID);
+        node.setLeaseExpires(leaseExpires);
+        return node;
+    }
+}
@@ -36,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.util.ReflectionUtils;
@@ -488,6 +489,31 @@ public class FlowComponentTest {
         assertFalse(payloadType.isOnClassPath());
     }
 
+    @Test
+    public void shouldRejectStaleFlowLogSaveAfterPendingFlowLogsWereReassigned() {
+        long resourceId = RESOURCE_ID_SEC.incrementAndGet();
+        String flowId = "reassigned-flow-id-" + resourceId;
+        FlowLog flowLog = new FlowLog(
+                resourceId,
+                flowId,
+                null,
+                "userCrn",
+                "NEXT_EVENT",
+                "payload",
+                ClassValue.ofUnknown("nope.NopePayload"),
+                "variables",
+                ClassValue.ofUnknown("nope.NopeFlowType"),
+                "CURRENT_STATE");
+        flowLog.setCloudbreakNodeId("source-node");
+        FlowLog staleFlowLog = flowLogRepository.save(flowLog);
+
+        int reassigned = flowLogRepository.reassignPendingFlowLogs(List.of(flowId), List.of("source-node"), "target-node");
+
+        assertEquals(1, reassigned);
+        staleFlowLog.setNextEvent("STALE_NEXT_EVENT");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> flowLogRepository.save(staleFlowLog));
+    }
+
     private void assertRunningInFlow(FlowAcceptResult acceptResult) {
         assertNotNull(acceptResult);
         assertEquals(ResultType.RUNNING_IN_FLOW, acceptResult.getResultType());
@@ -66,6 +66,7 @@ import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitter;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.opentracing.Scope;
@@ -151,6 +152,9 @@ public class Flow2HandlerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private FlowLogGroupCommitter flowLogGroupCommitter;
+
     @Mock
     private ApplicationFlowInformation applicationFlowInformation;
 
@@ -199,6 +203,10 @@ public class Flow2HandlerTest {
             ((Runnable) invocation.getArgument(0)).run();
             return null;
         }).when(transactionService).required(any(Runnable.class));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(flowLogGroupCommitter).commit(any(Runnable.class));
         when(tracer.buildSpan(anyString())).thenReturn(spanBuilder);
         when(spanBuilder.addReference(anyString(), any())).thenReturn(spanBuilder);
         when(spanBuilder.ignoreActiveSpan()).thenReturn(spanBuilder);
@@ -370,6 +378,32 @@ public class Flow2HandlerTest {
         verify(inMemoryCleanup, times(1)).cancelFlowWithoutDbUpdate(FLOW_ID);
     }
 
+    @Test
+    public void testRetriedFlowLogWriteDecidesCancellationAfterCommit() throws TransactionExecutionException {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(flowLogGroupCommitter).commit(any(Runnable.class));
+        FlowLog otherNodeFlowLog = new FlowLog();
+        otherNodeFlowLog.setNextEvent("KEY");
+        otherNodeFlowLog.setCloudbreakNodeId("OtherNode");
+        FlowLog currentNodeFlowLog = new FlowLog();
+        currentNodeFlowLog.setNextEvent("KEY");
+        currentNodeFlowLog.setCloudbreakNodeId("CurrentNode");
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(nodeConfig.getId()).willReturn("CurrentNode");
+        given(runningFlows.get(anyString())).willReturn(flow);
+        given(flow.getCurrentState()).willReturn(flowState);
+        given(flow.getFlowId()).willReturn(FLOW_ID);
+        given(flowLogService.getLastFlowLog(FLOW_ID)).willReturn(Optional.of(otherNodeFlowLog), Optional.of(currentNodeFlowLog));
+
+        dummyEvent.setKey("KEY");
+        underTest.accept(dummyEvent);
+        verify(flow, times(1)).sendEvent(eq("KEY"), isNull(), any(), any(), any());
+        verify(inMemoryCleanup, never()).cancelFlowWithoutDbUpdate(anyString());
+    }
+
     @Test
     public void testExistingFlowRepeatedState() {
         BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
@@ -412,6 +446,7 @@ public class Flow2HandlerTest {
         verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
         verify(flowChains, never()).removeFlowChain(anyString(), anyBoolean());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class), any(), any());
+        verify(applicationFlowInformation, times(1)).handleFlowFinalized(anyLong());
     }
 
     @Test
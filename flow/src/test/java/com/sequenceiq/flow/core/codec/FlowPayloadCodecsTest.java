@@ -0,0 +1,51 @@
+package com.sequenceiq.flow.core.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.flow.core.TestPayload;
+import com.sequenceiq.flow.domain.FlowPayloadCodecType;
+
+class FlowPayloadCodecsTest {
+
+    @Test
+    void testLegacyRowsAreDecodedAsJsonIo() {
+        String json = JsonWriter.objectToJson(new TestPayload(1L));
+
+        assertEquals(FlowPayloadCodecType.JSON_IO, FlowPayloadCodecs.get(null).getType());
+        assertEquals(json, FlowPayloadCodecs.decode(null, json));
+    }
+
+    @Test
+    void testDeflateRoundTrip() {
+        Map<Object, Object> variables = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            variables.put("key" + i, new TestPayload((long) i));
+        }
+        String json = JsonWriter.objectToJson(variables);
+        FlowPayloadCodec codec = FlowPayloadCodecs.get(FlowPayloadCodecType.DEFLATE_JSON_IO);
+
+        String encoded = codec.encode(json);
+
+        assertTrue(encoded.length() < json.length());
+        String decoded = FlowPayloadCodecs.decode(FlowPayloadCodecType.DEFLATE_JSON_IO, encoded);
+        assertEquals(json, decoded);
+        assertEquals(variables.size(), ((Map<?, ?>) JsonReader.jsonToJava(decoded)).size());
+    }
+
+    @Test
+    void testDeflateKeepsNull() {
+        FlowPayloadCodec codec = FlowPayloadCodecs.get(FlowPayloadCodecType.DEFLATE_JSON_IO);
+
+        assertNull(codec.encode(null));
+        assertNull(codec.decode(null));
+    }
+}
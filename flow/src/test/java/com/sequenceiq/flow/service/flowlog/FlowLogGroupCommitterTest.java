@@ -0,0 +1,132 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.core.FlowMetricType;
+
+@ExtendWith(MockitoExtension.class)
+class FlowLogGroupCommitterTest {
+
+    @InjectMocks
+    private FlowLogGroupCommitter underTest;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private MetricService metricService;
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testCommitInOwnTransactionWhenDisabled() throws TransactionExecutionException {
+        Runnable write = () -> { };
+
+        underTest.init();
+        underTest.commit(write);
+
+        verify(transactionService).required(write);
+    }
+
+    @Test
+    void testCommitWaitsForGroupTransaction() throws TransactionExecutionException {
+        runTransactionCallbacks();
+        enable();
+        AtomicInteger writes = new AtomicInteger();
+
+        underTest.commit(writes::incrementAndGet);
+
+        assertEquals(1, writes.get());
+        verify(metricService, atLeastOnce()).submit(eq(FlowMetricType.FLOWLOG_GROUP_COMMIT_SIZE), anyDouble());
+    }
+
+    @Test
+    void testFailingWriteIsRetriedAloneAndReported() throws TransactionExecutionException {
+        runTransactionCallbacks();
+        enable();
+
+        TransactionExecutionException exception = assertThrows(TransactionExecutionException.class, () -> underTest.commit(() -> {
+            throw new IllegalStateException("write failed");
+        }));
+
+        assertEquals("write failed", exception.getCause().getMessage());
+        verify(transactionService, times(2)).required(any(Runnable.class));
+    }
+
+    @Test
+    void testWriteEnqueuedAfterCommitterStoppedIsCommittedInline() throws TransactionExecutionException {
+        runTransactionCallbacks();
+        ReflectionTestUtils.setField(underTest, "committer", Executors.newSingleThreadExecutor());
+        ReflectionTestUtils.setField(underTest, "stopped", true);
+        AtomicInteger writes = new AtomicInteger();
+
+        underTest.commit(writes::incrementAndGet);
+
+        assertEquals(1, writes.get());
+        verify(transactionService).required(any(Runnable.class));
+    }
+
+    @Test
+    void testCommitTimesOutWhenGroupTransactionDoesNotFinish() throws TransactionExecutionException {
+        CountDownLatch groupCommitReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            groupCommitReleased.await();
+            return null;
+        }).when(transactionService).required(any(Runnable.class));
+        enable();
+        ReflectionTestUtils.setField(underTest, "commitTimeoutMs", 50L);
+
+        try {
+            TransactionExecutionException exception = assertThrows(TransactionExecutionException.class, () -> underTest.commit(() -> { }));
+
+            assertEquals("Flow log group commit did not finish in time", exception.getMessage());
+        } finally {
+            groupCommitReleased.countDown();
+        }
+    }
+
+    private void enable() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "windowMs", 1L);
+        ReflectionTestUtils.setField(underTest, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(underTest, "commitTimeoutMs", 10000L);
+        underTest.init();
+    }
+
+    private void runTransactionCallbacks() throws TransactionExecutionException {
+        doAnswer(invocation -> {
+            try {
+                ((Runnable) invocation.getArgument(0)).run();
+            } catch (RuntimeException e) {
+                throw new TransactionExecutionException("Transaction failed", e);
+            }
+            return null;
+        }).when(transactionService).required(any(Runnable.class));
+    }
+}
@@ -23,12 +23,20 @@ public class UsersyncConfig {
 
     public static final String USERSYNC_TASK_EXECUTOR = "USERSYNC_TASK_EXECUTOR";
 
+    public static final String FREEIPA_BATCH_CALL_EXECUTOR = "FREEIPA_BATCH_CALL_EXECUTOR";
+
     @Value("${freeipa.usersync.threadpool.core.size}")
     private int usersyncCorePoolSize;
 
     @Value("${freeipa.usersync.threadpool.capacity.size}")
     private int usersyncQueueCapacity;
 
+    @Value("${freeipa.batch.pipeline.threadpool.core.size:20}")
+    private int batchCallCorePoolSize;
+
+    @Value("${freeipa.batch.pipeline.threadpool.capacity.size:1000}")
+    private int batchCallQueueCapacity;
+
     @Inject
     private Tracer tracer;
 
@@ -47,4 +55,17 @@ public class UsersyncConfig {
         executor.initialize();
         return ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), USERSYNC_TASK_EXECUTOR, "freeipa_async");
     }
+
+    @Bean(name = FREEIPA_BATCH_CALL_EXECUTOR)
+    public ExecutorService freeIpaBatchCallExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchCallCorePoolSize);
+        executor.setQueueCapacity(batchCallQueueCapacity);
+        executor.setThreadNamePrefix("freeipaBatchCallExecutor-");
+        executor.setTaskDecorator(
+                new CompositeTaskDecorator(
+                        List.of(new TracingAndMdcCopyingTaskDecorator(tracer), new ActorCrnTaskDecorator())));
+        executor.initialize();
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), FREEIPA_BATCH_CALL_EXECUTOR, "freeipa_async");
+    }
 }
@@ -4,7 +4,9 @@ import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
 
 public enum MetricType implements Metric {
     FREEIPA_CREATION_FINISHED("freeipa.creation.finished"),
-    FREEIPA_CREATION_FAILED("freeipa.creation.failed");
+    FREEIPA_CREATION_FAILED("freeipa.creation.failed"),
+    FREEIPA_BATCH_CALL("freeipa.batch.call"),
+    FREEIPA_BATCH_PHASE("freeipa.batch.phase");
 
     private final String metricName;
 
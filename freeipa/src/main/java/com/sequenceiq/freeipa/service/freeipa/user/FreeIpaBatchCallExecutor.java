@@ -0,0 +1,227 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.freeipa.client.FreeIpaClient;
+import com.sequenceiq.freeipa.client.FreeIpaClientException;
+import com.sequenceiq.freeipa.client.FreeIpaErrorCodes;
+import com.sequenceiq.freeipa.configuration.UsersyncConfig;
+import com.sequenceiq.freeipa.metrics.FreeIpaMetricService;
+import com.sequenceiq.freeipa.metrics.MetricType;
+
+/**
+ * Executes the operations of a user sync phase as FreeIPA batch calls. Several batch calls of the same phase can be in flight against the
+ * FreeIPA server at the same time, and the partition size of the batch calls can adapt to the latency and the failures of the previous calls.
+ */
+@Component
+public class FreeIpaBatchCallExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FreeIpaBatchCallExecutor.class);
+
+    private static final String OPERATION_TAG = "operation";
+
+    private static final String OUTCOME_TAG = "outcome";
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    @Value("${freeipa.batch.pipeline.parallel-streams:1}")
+    private int parallelStreams;
+
+    @Value("${freeipa.batch.pipeline.adaptive-partition-size.enabled:false}")
+    private boolean adaptivePartitionSizeEnabled;
+
+    @Value("${freeipa.batch.pipeline.adaptive-partition-size.min:5}")
+    private int minPartitionSize;
+
+    @Value("${freeipa.batch.pipeline.adaptive-partition-size.target-latency-ms:10000}")
+    private long targetLatencyMillis;
+
+    @Inject
+    @Qualifier(UsersyncConfig.FREEIPA_BATCH_CALL_EXECUTOR)
+    private ExecutorService batchCallExecutor;
+
+    @Inject
+    private FreeIpaMetricService metricService;
+
+    @Inject
+    private Clock clock;
+
+    private final Map<String, AdaptivePartitionSize> partitionSizes = new ConcurrentHashMap<>();
+
+    /**
+     * Executes every operation of a phase and returns only when all of its batch calls have finished, so a following phase that depends on
+     * this one is not started too early. The failures of the batch calls are reported to the warnings the same way as in
+     * {@link FreeIpaClient#callBatch(BiConsumer, List, Integer, Set)}.
+     */
+    public void callBatch(FreeIpaClient freeIpaClient, String operationName, List<Object> operations, Integer partitionSize,
+            BiConsumer<String, String> warnings, Set<FreeIpaErrorCodes> acceptableErrorCodes) throws FreeIpaClientException {
+        if (operations.isEmpty()) {
+            return;
+        }
+        AdaptivePartitionSize adaptivePartitionSize = getPartitionSize(freeIpaClient, operationName, partitionSize);
+        long start = clock.getCurrentTimeMillis();
+        if (parallelStreams > 1) {
+            callInParallel(freeIpaClient, operationName, operations, adaptivePartitionSize, synchronizedWarnings(warnings), acceptableErrorCodes);
+        } else {
+            callSequentially(freeIpaClient, operationName, operations, adaptivePartitionSize, warnings, acceptableErrorCodes);
+        }
+        long duration = clock.getCurrentTimeMillis() - start;
+        metricService.recordTimerMetric(MetricType.FREEIPA_BATCH_PHASE, Duration.ofMillis(duration), OPERATION_TAG, operationName);
+        LOGGER.debug("Executed {} {} operations in {} ms, throughput: {} operations/s", operations.size(), operationName, duration,
+                operations.size() * MILLIS_PER_SECOND / Math.max(duration, 1L));
+    }
+
+    private void callSequentially(FreeIpaClient freeIpaClient, String operationName, List<Object> operations, AdaptivePartitionSize partitionSize,
+            BiConsumer<String, String> warnings, Set<FreeIpaErrorCodes> acceptableErrorCodes) throws FreeIpaClientException {
+        int offset = 0;
+        while (offset < operations.size()) {
+            List<Object> partition = nextPartition(operations, offset, partitionSize);
+            offset += partition.size();
+            invokePartition(freeIpaClient, operationName, partition, partitionSize, warnings, acceptableErrorCodes);
+        }
+    }
+
+    private void callInParallel(FreeIpaClient freeIpaClient, String operationName, List<Object> operations, AdaptivePartitionSize partitionSize,
+            BiConsumer<String, String> warnings, Set<FreeIpaErrorCodes> acceptableErrorCodes) throws FreeIpaClientException {
+        Deque<Future<Void>> inFlight = new ArrayDeque<>();
+        try {
+            int offset = 0;
+            while (offset < operations.size()) {
+                if (inFlight.size() >= parallelStreams) {
+                    waitFor(inFlight.poll());
+                }
+                List<Object> partition = nextPartition(operations, offset, partitionSize);
+                offset += partition.size();
+                inFlight.add(batchCallExecutor.submit(() -> {
+                    invokePartition(freeIpaClient, operationName, partition, partitionSize, warnings, acceptableErrorCodes);
+                    return null;
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                waitFor(inFlight.poll());
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Object> nextPartition(List<Object> operations, int offset, AdaptivePartitionSize partitionSize) {
+        return operations.subList(offset, Math.min(operations.size(), offset + partitionSize.current()));
+    }
+
+    private void invokePartition(FreeIpaClient freeIpaClient, String operationName, List<Object> partition, AdaptivePartitionSize partitionSize,
+            BiConsumer<String, String> warnings, Set<FreeIpaErrorCodes> acceptableErrorCodes) throws FreeIpaClientException {
+        AtomicBoolean failed = new AtomicBoolean();
+        BiConsumer<String, String> partitionWarnings = (key, value) -> {
+            failed.set(true);
+            warnings.accept(key, value);
+        };
+        long start = clock.getCurrentTimeMillis();
+        try {
+            freeIpaClient.callBatch(partitionWarnings, partition, partition.size(), acceptableErrorCodes);
+        } catch (FreeIpaClientException | RuntimeException e) {
+            failed.set(true);
+            throw e;
+        } finally {
+            long latency = clock.getCurrentTimeMillis() - start;
+            partitionSize.onBatchCallFinished(latency, failed.get());
+            metricService.recordTimerMetric(MetricType.FREEIPA_BATCH_CALL, Duration.ofMillis(latency),
+                    OPERATION_TAG, operationName, OUTCOME_TAG, failed.get() ? "failure" : "success");
+        }
+    }
+
+    private void waitFor(Future<Void> future) throws FreeIpaClientException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FreeIpaClientException("Interrupted while waiting for FreeIPA batch call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FreeIpaClientException) {
+                throw (FreeIpaClientException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new FreeIpaClientException("FreeIPA batch call failed", cause);
+        }
+    }
+
+    private BiConsumer<String, String> synchronizedWarnings(BiConsumer<String, String> warnings) {
+        return (key, value) -> {
+            synchronized (warnings) {
+                warnings.accept(key, value);
+            }
+        };
+    }
+
+    private AdaptivePartitionSize getPartitionSize(FreeIpaClient freeIpaClient, String operationName, Integer partitionSize) {
+        if (!adaptivePartitionSizeEnabled) {
+            return new AdaptivePartitionSize(partitionSize, partitionSize, targetLatencyMillis);
+        }
+        String key = freeIpaClient.getHostname() + '/' + operationName;
+        return partitionSizes.compute(key, (k, current) -> current != null && current.getMaxSize() == partitionSize
+                ? current
+                : new AdaptivePartitionSize(partitionSize, Math.min(minPartitionSize, partitionSize), targetLatencyMillis));
+    }
+
+    /**
+     * Partition size of the batch calls of an operation against a FreeIPA server. The size is halved after a failed or a slow batch call, and
+     * it grows back in small steps to the configured size while the batch calls are fast and successful.
+     */
+    static class AdaptivePartitionSize {
+
+        private static final int GROWTH_DIVISOR = 10;
+
+        private final int maxSize;
+
+        private final int minSize;
+
+        private final long targetLatencyMillis;
+
+        private int currentSize;
+
+        AdaptivePartitionSize(int maxSize, int minSize, long targetLatencyMillis) {
+            this.maxSize = maxSize;
+            this.minSize = Math.max(1, minSize);
+            this.targetLatencyMillis = targetLatencyMillis;
+            currentSize = maxSize;
+        }
+
+        synchronized int current() {
+            return currentSize;
+        }
+
+        synchronized void onBatchCallFinished(long latencyMillis, boolean failed) {
+            if (failed || latencyMillis > targetLatencyMillis) {
+                currentSize = Math.max(minSize, currentSize / 2);
+            } else {
+                currentSize = Math.min(maxSize, currentSize + Math.max(1, maxSize / GROWTH_DIVISOR));
+            }
+        }
+
+        int getMaxSize() {
+            return maxSize;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.freeipa.entity.UserSyncStatus;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersStateSnapshot;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UserSyncOptions;
+
+/**
+ * Decides which users of an environment have to be compared to FreeIPA in a full user sync, based on the users state snapshot stored after
+ * the last successful full sync. Environments whose UMS event generation ids have not changed are not synced at all by the user sync poller,
+ * so this only narrows down the syncs which do run. Every user is compared to FreeIPA at least once per full reconciliation interval.
+ */
+@Component
+public class IncrementalUserSyncService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalUserSyncService.class);
+
+    @Value("${freeipa.usersync.incremental.enabled:false}")
+    private boolean enabled;
+
+    @Value("${freeipa.usersync.incremental.full-reconciliation-interval:PT24H}")
+    private Duration fullReconciliationInterval;
+
+    @Inject
+    private Clock clock;
+
+    /**
+     * @return the users which have changed in UMS since the last successful full sync, or empty if every user has to be synchronized
+     */
+    public Optional<Set<String>> getChangedUsers(UserSyncStatus userSyncStatus, UmsUsersState umsUsersState, UserSyncOptions options) {
+        Optional<Set<String>> changedUsers = getUsableSnapshot(userSyncStatus, options).map(snapshot -> snapshot.changedUsers(umsUsersState));
+        changedUsers.ifPresent(users -> LOGGER.info("Incremental sync of {} changed users for environment {}", users.size(),
+                userSyncStatus.getStack().getEnvironmentCrn()));
+        return changedUsers;
+    }
+
+    public void updateSnapshot(UserSyncStatus userSyncStatus, UmsUsersState umsUsersState, boolean incremental) {
+        if (enabled) {
+            long reconciledAt = incremental ? getSnapshot(userSyncStatus).map(UmsUsersStateSnapshot::getReconciledAt).orElse(0L)
+                    : clock.getCurrentTimeMillis();
+            userSyncStatus.setUmsUsersStateSnapshot(new Json(UmsUsersStateSnapshot.fromUmsUsersState(umsUsersState, reconciledAt)));
+        } else {
+            userSyncStatus.setUmsUsersStateSnapshot(null);
+        }
+    }
+
+    private Optional<UmsUsersStateSnapshot> getUsableSnapshot(UserSyncStatus userSyncStatus, UserSyncOptions options) {
+        if (!enabled || !options.isFullSync() || !options.isCredentialsUpdateOptimizationEnabled()) {
+            return Optional.empty();
+        }
+        long reconciliationDeadline = clock.getCurrentTimeMillis() - fullReconciliationInterval.toMillis();
+        return getSnapshot(userSyncStatus).filter(snapshot -> snapshot.getReconciledAt() > reconciliationDeadline);
+    }
+
+    private Optional<UmsUsersStateSnapshot> getSnapshot(UserSyncStatus userSyncStatus) {
+        Json snapshot = userSyncStatus.getUmsUsersStateSnapshot();
+        if (snapshot == null || snapshot.getValue() == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(snapshot.get(UmsUsersStateSnapshot.class));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read the users state snapshot of environment {}, falling back to full sync",
+                    userSyncStatus.getStack().getEnvironmentCrn(), e);
+            return Optional.empty();
+        }
+    }
+}
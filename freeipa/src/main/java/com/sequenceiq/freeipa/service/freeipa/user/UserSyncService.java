@@ -158,6 +158,12 @@ public class UserSyncService {
     @Inject
     private BatchPartitionSizeProperties batchPartitionSizeProperties;
 
+    @Inject
+    private IncrementalUserSyncService incrementalUserSyncService;
+
+    @Inject
+    private FreeIpaBatchCallExecutor freeIpaBatchCallExecutor;
+
     public Operation synchronizeUsers(String accountId, String actorCrn, Set<String> environmentCrnFilter,
             Set<String> userCrnFilter, Set<String> machineUserCrnFilter, WorkloadCredentialsUpdateType workloadCredentialsUpdateType) {
         UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(userCrnFilter, machineUserCrnFilter, Optional.empty());
@@ -342,10 +348,14 @@ public class UserSyncService {
     private Future<SyncStatusDetail> asyncSynchronizeStack(Stack stack, UmsUsersState umsUsersState, UmsEventGenerationIds umsEventGenerationIds,
             UserSyncOptions options, String operationId, String accountId) {
         return asyncTaskExecutor.submit(() -> {
-            SyncStatusDetail statusDetail = internalSynchronizeStack(stack, umsUsersState, options);
+            Optional<Set<String>> changedUsers = options.isFullSync()
+                    ? incrementalUserSyncService.getChangedUsers(userSyncStatusService.getOrCreateForStack(stack), umsUsersState, options)
+                    : Optional.empty();
+            SyncStatusDetail statusDetail = internalSynchronizeStack(stack, umsUsersState, changedUsers, options);
             if (options.isFullSync() && statusDetail.getStatus() == SynchronizationStatus.COMPLETED) {
                 UserSyncStatus userSyncStatus = userSyncStatusService.getOrCreateForStack(stack);
                 userSyncStatus.setUmsEventGenerationIds(new Json(umsEventGenerationIds));
+                incrementalUserSyncService.updateSnapshot(userSyncStatus, umsUsersState, changedUsers.isPresent());
                 userSyncStatus.setLastSuccessfulFullSync(operationService.getOperationForAccountIdAndOperationId(accountId, operationId));
                 userSyncStatusService.save(userSyncStatus);
             }
@@ -358,16 +368,22 @@ public class UserSyncService {
         return asyncTaskExecutor.submit(() -> internalSynchronizeStackForDeleteUser(stack, deletedWorkloadUser, false));
     }
 
-    private SyncStatusDetail internalSynchronizeStack(Stack stack, UmsUsersState umsUsersState, UserSyncOptions options) {
+    /**
+     * @param changedUsers if present, only these users are compared to FreeIPA instead of every user of the environment
+     */
+    private SyncStatusDetail internalSynchronizeStack(Stack stack, UmsUsersState umsUsersState, Optional<Set<String>> changedUsers,
+            UserSyncOptions options) {
         MDCBuilder.buildMdcContext(stack);
         String environmentCrn = stack.getEnvironmentCrn();
         Multimap<String, String> warnings = ArrayListMultimap.create();
         try {
             FreeIpaClient freeIpaClient = freeIpaClientFactory.getFreeIpaClientForStack(stack);
-            UsersStateDifference usersStateDifferenceBeforeSync = compareUmsAndFreeIpa(umsUsersState, options, freeIpaClient);
-            applyDifference(umsUsersState, environmentCrn, warnings, usersStateDifferenceBeforeSync, options, freeIpaClient);
+            UmsUsersState umsUsersStateToSync = changedUsers.map(umsUsersState::restrictToUsers).orElse(umsUsersState);
+            boolean fullIpaState = options.isFullSync() && changedUsers.isEmpty();
+            UsersStateDifference usersStateDifferenceBeforeSync = compareUmsAndFreeIpa(umsUsersStateToSync, fullIpaState, freeIpaClient, options);
+            applyDifference(umsUsersStateToSync, environmentCrn, warnings, usersStateDifferenceBeforeSync, options, freeIpaClient);
 
-            retrySyncIfBatchCallHasWarnings(stack, umsUsersState, warnings, options, freeIpaClient, usersStateDifferenceBeforeSync);
+            retrySyncIfBatchCallHasWarnings(stack, umsUsersStateToSync, fullIpaState, warnings, options, freeIpaClient, usersStateDifferenceBeforeSync);
 
             // TODO For now we only sync cloud ids during full sync. We should eventually allow more granular syncs (actor level and group level sync).
             if (options.isFullSync() && entitlementService.cloudIdentityMappingEnabled(stack.getAccountId())) {
@@ -383,11 +399,11 @@ public class UserSyncService {
         }
     }
 
-    private void retrySyncIfBatchCallHasWarnings(Stack stack, UmsUsersState umsUsersState, Multimap<String, String> warnings,
+    private void retrySyncIfBatchCallHasWarnings(Stack stack, UmsUsersState umsUsersState, boolean fullIpaState, Multimap<String, String> warnings,
             UserSyncOptions options, FreeIpaClient freeIpaClient, UsersStateDifference usersStateDifferenceBeforeSync)
             throws FreeIpaClientException {
         if (options.isFullSync() && !warnings.isEmpty() && options.isFmsToFreeIpaBatchCallEnabled()) {
-            UsersStateDifference usersStateDifferenceAfterSync = compareUmsAndFreeIpa(umsUsersState, options, freeIpaClient);
+            UsersStateDifference usersStateDifferenceAfterSync = compareUmsAndFreeIpa(umsUsersState, fullIpaState, freeIpaClient, options);
             if (usersStateDifferenceChanged(usersStateDifferenceBeforeSync, usersStateDifferenceAfterSync)) {
                 Multimap<String, String> retryWarnings = ArrayListMultimap.create();
                 try {
@@ -411,11 +427,11 @@ public class UserSyncService {
                 beforeSync.getUsersWithCredentialsToUpdate().size() != afterSync.getUsersWithCredentialsToUpdate().size();
     }
 
-    private UsersStateDifference compareUmsAndFreeIpa(UmsUsersState umsUsersState, UserSyncOptions options,
-            FreeIpaClient freeIpaClient) throws FreeIpaClientException {
-        LogEvent logEvent = options.isFullSync() ? LogEvent.RETRIEVE_FULL_IPA_STATE : LogEvent.RETRIEVE_PARTIAL_IPA_STATE;
+    private UsersStateDifference compareUmsAndFreeIpa(UmsUsersState umsUsersState, boolean fullIpaState, FreeIpaClient freeIpaClient,
+            UserSyncOptions options) throws FreeIpaClientException {
+        LogEvent logEvent = fullIpaState ? LogEvent.RETRIEVE_FULL_IPA_STATE : LogEvent.RETRIEVE_PARTIAL_IPA_STATE;
         LOGGER.debug("Starting {} ...", logEvent);
-        UsersState ipaUsersState = getIpaUserState(freeIpaClient, umsUsersState, options.isFullSync());
+        UsersState ipaUsersState = getIpaUserState(freeIpaClient, umsUsersState, fullIpaState);
         LOGGER.debug("Finished {}, found {} users and {} groups.", logEvent,
                 ipaUsersState.getUsers().size(), ipaUsersState.getGroups().size());
 
@@ -653,7 +669,7 @@ public class UserSyncService {
             List<Object> batchCallOperations = operations.stream().map(operation -> operation.getOperationParamsForBatchCall()).collect(Collectors.toList());
             String operationName = operations.stream().map(op -> op.getOperationName()).findFirst().orElse("unknown");
             Integer partitionSize = batchPartitionSizeProperties.getByOperation(operationName);
-            freeipaClient.callBatch(warnings, batchCallOperations, partitionSize, acceptableErrorCodes);
+            freeIpaBatchCallExecutor.callBatch(freeipaClient, operationName, batchCallOperations, partitionSize, warnings, acceptableErrorCodes);
         } else {
             for (T operation : operations) {
                 try {
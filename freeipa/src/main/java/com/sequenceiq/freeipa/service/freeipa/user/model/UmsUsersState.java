@@ -72,6 +72,44 @@ public class UmsUsersState {
         return servicePrincipalCloudIdentities;
     }
 
+    /**
+     * Creates a state which contains only the given users with their group memberships and credentials, but keeps every group, so it can be
+     * compared to a FreeIPA state that was retrieved for the same users.
+     */
+    public UmsUsersState restrictToUsers(Set<String> usernames) {
+        UsersState.Builder usersStateBuilder = UsersState.newBuilder();
+        usersState.getGroups().forEach(usersStateBuilder::addGroup);
+        usersState.getUsers().stream()
+                .filter(user -> usernames.contains(user.getName()))
+                .forEach(usersStateBuilder::addUser);
+        usersState.getGroupMembership().forEach((group, user) -> {
+            if (usernames.contains(user)) {
+                usersStateBuilder.addMemberToGroup(group, user);
+            }
+        });
+        usersState.getUserMetadataMap().forEach((user, userMetadata) -> {
+            if (usernames.contains(user)) {
+                usersStateBuilder.addUserMetadata(user, userMetadata);
+            }
+        });
+        Builder builder = newBuilder()
+                .setUsersState(usersStateBuilder.build())
+                .addAllRequestedWorkloadUsernames(usernames)
+                .setWorkloadAdministrationGroups(workloadAdministrationGroups)
+                .addServicePrincipalCloudIdentities(servicePrincipalCloudIdentities);
+        usersWorkloadCredentialMap.forEach((user, credential) -> {
+            if (usernames.contains(user)) {
+                builder.addWorkloadCredentials(user, credential);
+            }
+        });
+        userToCloudIdentityMap.forEach((user, cloudIdentities) -> {
+            if (usernames.contains(user)) {
+                builder.addUserCloudIdentities(user, cloudIdentities);
+            }
+        });
+        return builder.build();
+    }
+
     public static Builder newBuilder() {
         return new Builder();
     }
@@ -0,0 +1,83 @@
+package com.sequenceiq.freeipa.service.freeipa.user.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hashing;
+
+/**
+ * Fingerprints of the users of the last successfully synchronized UMS state of an environment. Comparing the current UMS state to the
+ * snapshot tells which users have to be synchronized again, without retrieving the state of every user from FreeIPA.
+ */
+public class UmsUsersStateSnapshot {
+
+    private static final String SEPARATOR = "\u0000";
+
+    private Map<String, String> userFingerprints = ImmutableMap.of();
+
+    private long reconciledAt;
+
+    public Map<String, String> getUserFingerprints() {
+        return userFingerprints;
+    }
+
+    public void setUserFingerprints(Map<String, String> userFingerprints) {
+        this.userFingerprints = ImmutableMap.copyOf(userFingerprints);
+    }
+
+    /**
+     * @return the time of the last synchronization which compared the state of every user in FreeIPA, in UTC milliseconds
+     */
+    public long getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(long reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    public static UmsUsersStateSnapshot fromUmsUsersState(UmsUsersState umsUsersState, long reconciledAt) {
+        UmsUsersStateSnapshot snapshot = new UmsUsersStateSnapshot();
+        snapshot.setUserFingerprints(calculateUserFingerprints(umsUsersState));
+        snapshot.setReconciledAt(reconciledAt);
+        return snapshot;
+    }
+
+    /**
+     * @return the users that were added, removed or changed in the UMS state since the snapshot was taken
+     */
+    public Set<String> changedUsers(UmsUsersState umsUsersState) {
+        Map<String, String> currentFingerprints = calculateUserFingerprints(umsUsersState);
+        Set<String> changedUsers = currentFingerprints.entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), userFingerprints.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(HashSet::new));
+        userFingerprints.keySet().stream()
+                .filter(user -> !currentFingerprints.containsKey(user))
+                .forEach(changedUsers::add);
+        return changedUsers;
+    }
+
+    private static Map<String, String> calculateUserFingerprints(UmsUsersState umsUsersState) {
+        UsersState usersState = umsUsersState.getUsersState();
+        SetMultimap<String, String> groupsOfUsers = MultimapBuilder.hashKeys().treeSetValues().build();
+        Multimaps.invertFrom(usersState.getGroupMembership(), groupsOfUsers);
+        return usersState.getUsers().stream().collect(ImmutableMap.toImmutableMap(FmsUser::getName, user -> {
+            WorkloadCredential credential = umsUsersState.getUsersWorkloadCredentialMap().get(user.getName());
+            UserMetadata userMetadata = usersState.getUserMetadataMap().get(user.getName());
+            String userState = String.join(SEPARATOR, user.getName(), String.valueOf(user.getFirstName()), String.valueOf(user.getLastName()),
+                    String.valueOf(user.getState()), String.join(",", groupsOfUsers.get(user.getName())),
+                    credential == null ? "" : String.valueOf(credential.getVersion()),
+                    userMetadata == null ? "" : userMetadata.getCrn());
+            return Hashing.murmur3_128().hashString(userState, StandardCharsets.UTF_8).toString();
+        }));
+    }
+}
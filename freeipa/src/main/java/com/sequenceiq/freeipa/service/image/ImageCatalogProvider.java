@@ -53,7 +53,7 @@ public class ImageCatalogProvider {
     @Inject
     private ObjectMapper objectMapper;
 
-    @Cacheable(cacheNames = "imageCatalogCache", key = "#catalogUrl")
+    @Cacheable(cacheNames = "imageCatalogCache", key = "#catalogUrl", sync = true)
     public ImageCatalog getImageCatalog(String catalogUrl)  {
         try {
             if (Objects.nonNull(catalogUrl)) {
@@ -0,0 +1,11 @@
+-- // CB-14122 store the fingerprints of the last synchronized UMS users state for incremental user sync
+-- Migration SQL that makes the change goes here.
+
+ALTER TABLE usersyncstatus
+    ADD COLUMN IF NOT EXISTS umsusersstatesnapshot TEXT;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+ALTER TABLE usersyncstatus
+    DROP COLUMN IF EXISTS umsusersstatesnapshot;
@@ -0,0 +1,173 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.freeipa.client.FreeIpaClient;
+import com.sequenceiq.freeipa.client.FreeIpaClientException;
+import com.sequenceiq.freeipa.metrics.FreeIpaMetricService;
+
+@ExtendWith(MockitoExtension.class)
+class FreeIpaBatchCallExecutorTest {
+
+    private static final String OPERATION = "user_add";
+
+    private static final int PARALLEL_STREAMS = 3;
+
+    @InjectMocks
+    private FreeIpaBatchCallExecutor underTest;
+
+    @Mock
+    private FreeIpaClient freeIpaClient;
+
+    @Mock
+    private FreeIpaMetricService metricService;
+
+    @Mock
+    private Clock clock;
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(PARALLEL_STREAMS);
+        ReflectionTestUtils.setField(underTest, "batchCallExecutor", executorService);
+        ReflectionTestUtils.setField(underTest, "parallelStreams", 1);
+        ReflectionTestUtils.setField(underTest, "minPartitionSize", 5);
+        ReflectionTestUtils.setField(underTest, "targetLatencyMillis", 10000L);
+        lenient().when(clock.getCurrentTimeMillis()).thenReturn(0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testSequentialCallPartitionsOperations() throws FreeIpaClientException {
+        List<Integer> partitionSizes = recordPartitionSizes();
+
+        underTest.callBatch(freeIpaClient, OPERATION, operations(250), 100, ArrayListMultimap.create()::put, Set.of());
+
+        assertEquals(List.of(100, 100, 50), partitionSizes);
+    }
+
+    @Test
+    void testEmptyOperationsAreNotCalled() throws FreeIpaClientException {
+        underTest.callBatch(freeIpaClient, OPERATION, List.of(), 100, ArrayListMultimap.create()::put, Set.of());
+
+        verify(freeIpaClient, never()).callBatch(any(), anyList(), anyInt(), any());
+    }
+
+    @Test
+    void testParallelCallKeepsLimitedNumberOfBatchCallsInFlight() throws FreeIpaClientException {
+        ReflectionTestUtils.setField(underTest, "parallelStreams", PARALLEL_STREAMS);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Object> calledOperations = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20L);
+            calledOperations.addAll(invocation.getArgument(1));
+            BiConsumer<String, String> warnings = invocation.getArgument(0);
+            warnings.accept("batch call failed: ", "warning");
+            inFlight.decrementAndGet();
+            return null;
+        }).when(freeIpaClient).callBatch(any(), anyList(), anyInt(), any());
+        Multimap<String, String> warnings = ArrayListMultimap.create();
+
+        underTest.callBatch(freeIpaClient, OPERATION, operations(100), 10, warnings::put, Set.of());
+
+        assertEquals(100, calledOperations.size());
+        assertEquals(Set.copyOf(operations(100)), Set.copyOf(calledOperations));
+        assertEquals(10, warnings.size());
+        assertTrue(maxInFlight.get() <= PARALLEL_STREAMS);
+    }
+
+    @Test
+    void testParallelCallPropagatesUnusableClientException() throws FreeIpaClientException {
+        ReflectionTestUtils.setField(underTest, "parallelStreams", PARALLEL_STREAMS);
+        doThrow(new FreeIpaClientException("client unusable")).when(freeIpaClient).callBatch(any(), anyList(), anyInt(), any());
+
+        FreeIpaClientException exception = assertThrows(FreeIpaClientException.class,
+                () -> underTest.callBatch(freeIpaClient, OPERATION, operations(100), 10, ArrayListMultimap.create()::put, Set.of()));
+
+        assertEquals("client unusable", exception.getMessage());
+    }
+
+    @Test
+    void testAdaptivePartitionSizeShrinksAfterFailureAndGrowsBack() throws FreeIpaClientException {
+        ReflectionTestUtils.setField(underTest, "adaptivePartitionSizeEnabled", true);
+        List<Integer> partitionSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Object> partition = invocation.getArgument(1);
+            if (partitionSizes.isEmpty()) {
+                BiConsumer<String, String> warnings = invocation.getArgument(0);
+                warnings.accept("batch call failed: ", "timeout");
+            }
+            partitionSizes.add(partition.size());
+            return null;
+        }).when(freeIpaClient).callBatch(any(), anyList(), anyInt(), any());
+
+        underTest.callBatch(freeIpaClient, OPERATION, operations(100), 40, ArrayListMultimap.create()::put, Set.of());
+
+        assertEquals(List.of(40, 20, 24, 16), partitionSizes);
+    }
+
+    @Test
+    void testAdaptivePartitionSizeShrinksAfterSlowBatchCall() throws FreeIpaClientException {
+        ReflectionTestUtils.setField(underTest, "adaptivePartitionSizeEnabled", true);
+        lenient().when(clock.getCurrentTimeMillis()).thenReturn(0L, 0L, 20000L);
+        List<Integer> partitionSizes = recordPartitionSizes();
+
+        underTest.callBatch(freeIpaClient, OPERATION, operations(60), 40, ArrayListMultimap.create()::put, Set.of());
+
+        assertEquals(List.of(40, 20), partitionSizes);
+    }
+
+    private List<Integer> recordPartitionSizes() throws FreeIpaClientException {
+        List<Integer> partitionSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Object> partition = invocation.getArgument(1);
+            partitionSizes.add(partition.size());
+            return null;
+        }).when(freeIpaClient).callBatch(any(), anyList(), anyInt(), any());
+        return partitionSizes;
+    }
+
+    private List<Object> operations(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "operation" + i).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,130 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.freeipa.api.v1.freeipa.user.model.WorkloadCredentialsUpdateType;
+import com.sequenceiq.freeipa.entity.UserSyncStatus;
+import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
+import com.sequenceiq.freeipa.service.freeipa.user.model.FmsUser;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UserSyncOptions;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UsersState;
+
+@ExtendWith(MockitoExtension.class)
+class IncrementalUserSyncServiceTest {
+
+    private static final long NOW = 1_000_000_000L;
+
+    private static final UserSyncOptions FULL_SYNC = new UserSyncOptions(true, false, WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED);
+
+    @InjectMocks
+    private IncrementalUserSyncService underTest;
+
+    @Mock
+    private Clock clock;
+
+    private UserSyncStatus userSyncStatus;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "fullReconciliationInterval", Duration.ofHours(24L));
+        lenient().when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        userSyncStatus = UserSyncTestUtils.createUserSyncStatus(UserSyncTestUtils.createStack());
+    }
+
+    @Test
+    void testChangedUsers() {
+        underTest.updateSnapshot(userSyncStatus, umsUsersState("group1"), false);
+        UmsUsersState changedState = UmsUsersState.newBuilder()
+                .setUsersState(UsersState.newBuilder()
+                        .addGroup(new FmsGroup().withName("group1"))
+                        .addGroup(new FmsGroup().withName("group2"))
+                        .addUser(user("user1"))
+                        .addUser(user("user3"))
+                        .addMemberToGroup("group1", "user1")
+                        .addMemberToGroup("group2", "user1")
+                        .build())
+                .build();
+
+        Optional<Set<String>> changedUsers = underTest.getChangedUsers(userSyncStatus, changedState, FULL_SYNC);
+
+        assertEquals(Optional.of(Set.of("user1", "user2", "user3")), changedUsers);
+    }
+
+    @Test
+    void testNoChangedUsersWhenStateIsTheSame() {
+        underTest.updateSnapshot(userSyncStatus, umsUsersState("group1"), false);
+
+        assertEquals(Optional.of(Set.of()), underTest.getChangedUsers(userSyncStatus, umsUsersState("group1"), FULL_SYNC));
+    }
+
+    @Test
+    void testFullSyncIsRequiredAfterReconciliationInterval() {
+        underTest.updateSnapshot(userSyncStatus, umsUsersState("group1"), false);
+        lenient().when(clock.getCurrentTimeMillis()).thenReturn(NOW + Duration.ofHours(25L).toMillis());
+
+        assertTrue(underTest.getChangedUsers(userSyncStatus, umsUsersState("group1"), FULL_SYNC).isEmpty());
+    }
+
+    @Test
+    void testFullSyncIsRequiredWhenCredentialsAreForcedToUpdate() {
+        underTest.updateSnapshot(userSyncStatus, umsUsersState("group1"), false);
+        UserSyncOptions forceUpdate = new UserSyncOptions(true, false, WorkloadCredentialsUpdateType.FORCE_UPDATE);
+
+        assertTrue(underTest.getChangedUsers(userSyncStatus, umsUsersState("group1"), forceUpdate).isEmpty());
+    }
+
+    @Test
+    void testSnapshotIsClearedWhenDisabled() {
+        underTest.updateSnapshot(userSyncStatus, umsUsersState("group1"), false);
+        ReflectionTestUtils.setField(underTest, "enabled", false);
+
+        underTest.updateSnapshot(userSyncStatus, umsUsersState("group1"), false);
+
+        assertNull(userSyncStatus.getUmsUsersStateSnapshot());
+        assertTrue(underTest.getChangedUsers(userSyncStatus, umsUsersState("group1"), FULL_SYNC).isEmpty());
+    }
+
+    @Test
+    void testRestrictToUsers() {
+        UmsUsersState restricted = umsUsersState("group1").restrictToUsers(Set.of("user2"));
+
+        assertEquals(Set.of("user2"), restricted.getRequestedWorkloadUsernames());
+        assertEquals(1, restricted.getUsersState().getUsers().size());
+        assertEquals(Set.of(new FmsGroup().withName("group1")), restricted.getUsersState().getGroups());
+        assertEquals(Set.of("user2"), Set.copyOf(restricted.getUsersState().getGroupMembership().get("group1")));
+    }
+
+    private UmsUsersState umsUsersState(String group) {
+        return UmsUsersState.newBuilder()
+                .setUsersState(UsersState.newBuilder()
+                        .addGroup(new FmsGroup().withName(group))
+                        .addUser(user("user1"))
+                        .addUser(user("user2"))
+                        .addMemberToGroup(group, "user1")
+                        .addMemberToGroup(group, "user2")
+                        .build())
+                .build();
+    }
+
+    private FmsUser user(String name) {
+        return new FmsUser().withName(name).withFirstName("first").withLastName("last").withState(FmsUser.State.ENABLED);
+    }
+}
@@ -90,6 +90,9 @@ class UserSyncServiceTest {
     @Mock
     BatchPartitionSizeProperties batchPartitionSizeProperties;
 
+    @Mock
+    FreeIpaBatchCallExecutor freeIpaBatchCallExecutor;
+
     @InjectMocks
     UserSyncService underTest;
 
@@ -125,7 +128,7 @@ class UserSyncServiceTest {
         Multimap<String, String> groupMapping = setupGroupMapping(5, underTest.maxSubjectsPerRequest * 2);
 
         Multimap<String, String> warnings = ArrayListMultimap.create();
-        doNothing().when(freeIpaClient).callBatch(any(), any(), any(), any());
+        doNothing().when(freeIpaBatchCallExecutor).callBatch(any(), any(), any(), any(), any(), any());
 
         underTest.addUsersToGroups(true, freeIpaClient, groupMapping, warnings::put);
 
@@ -137,7 +140,7 @@ class UserSyncServiceTest {
         Multimap<String, String> groupMapping = setupGroupMapping(5, underTest.maxSubjectsPerRequest * 2);
 
         Multimap<String, String> warnings = ArrayListMultimap.create();
-        doNothing().when(freeIpaClient).callBatch(any(), any(), any(), any());
+        doNothing().when(freeIpaBatchCallExecutor).callBatch(any(), any(), any(), any(), any(), any());
 
         underTest.removeUsersFromGroups(true, freeIpaClient, groupMapping, warnings::put);
 
@@ -149,7 +152,7 @@ class UserSyncServiceTest {
         Multimap<String, String> groupMapping = setupGroupMapping(1, 1);
 
         Multimap<String, String> warnings = ArrayListMultimap.create();
-        doNothing().when(freeIpaClient).callBatch(any(), any(), any(), any());
+        doNothing().when(freeIpaBatchCallExecutor).callBatch(any(), any(), any(), any(), any(), any());
 
         underTest.removeUsersFromGroups(true, freeIpaClient, groupMapping, warnings::put);
 
@@ -198,7 +201,7 @@ class UserSyncServiceTest {
         String userToEnable2 = "userToEnable2";
         Multimap<String, String> warnings = ArrayListMultimap.create();
 
-        doNothing().when(freeIpaClient).callBatch(any(), any(), any(), any());
+        doNothing().when(freeIpaBatchCallExecutor).callBatch(any(), any(), any(), any(), any(), any());
 
         UsersStateDifference usersStateDifference = new UsersStateDifference(
                 ImmutableSet.of(groupToAdd1, groupToAdd2),
@@ -221,7 +224,7 @@ class UserSyncServiceTest {
         underTest.applyStateDifferenceToIpa(ENV_CRN, freeIpaClient, usersStateDifference, warnings::put, true);
 
         // 9 times instead of 8 because non-posix groups are added in a separate batch
-        verify(freeIpaClient, times(9)).callBatch(any(), any(), any(), any());
+        verify(freeIpaBatchCallExecutor, times(9)).callBatch(eq(freeIpaClient), any(), any(), any(), any(), any());
 
         verifyNoMoreInteractions(freeIpaClient);
     }
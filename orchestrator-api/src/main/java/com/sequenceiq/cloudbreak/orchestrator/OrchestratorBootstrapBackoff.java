@@ -0,0 +1,66 @@
+package com.sequenceiq.cloudbreak.orchestrator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calculates the delay before the next attempt of an {@link OrchestratorBootstrapRunner}.
+ */
+@FunctionalInterface
+public interface OrchestratorBootstrapBackoff {
+
+    /**
+     * @param failedAttempts the number of attempts that have been made so far, starting from 1
+     * @return the delay in milliseconds before the next attempt
+     */
+    long nextDelay(int failedAttempts);
+
+    /**
+     * @param failedAttempts the number of attempts that have been made so far, starting from 1
+     * @return the average delay in milliseconds before the next attempt, without any random jitter
+     */
+    default long averageDelay(int failedAttempts) {
+        return nextDelay(failedAttempts);
+    }
+
+    /**
+     * @param totalWait the total wait in milliseconds between the attempts
+     * @return the number of attempts needed for the average delays between them to add up to at least the total wait
+     */
+    default int attemptsFor(long totalWait) {
+        int attempts = 1;
+        long wait = 0L;
+        while (wait < totalWait) {
+            wait += Math.max(1L, averageDelay(attempts));
+            attempts++;
+        }
+        return attempts;
+    }
+
+    static OrchestratorBootstrapBackoff fixed(long delay) {
+        return failedAttempts -> delay;
+    }
+
+    /**
+     * Doubles the delay after every attempt starting from initialDelay until it reaches maxDelay. The delay is jittered uniformly
+     * between the half and the one and a half of the calculated value, so the attempts of the concurrent runners are spread out,
+     * but the average delay does not change.
+     */
+    static OrchestratorBootstrapBackoff exponentialWithJitter(long initialDelay, long maxDelay) {
+        return new OrchestratorBootstrapBackoff() {
+            @Override
+            public long nextDelay(int failedAttempts) {
+                long delay = averageDelay(failedAttempts);
+                return delay / 2 + ThreadLocalRandom.current().nextLong(delay + 1);
+            }
+
+            @Override
+            public long averageDelay(int failedAttempts) {
+                long delay = initialDelay;
+                for (int i = 1; i < failedAttempts && delay < maxDelay; i++) {
+                    delay *= 2;
+                }
+                return Math.min(delay, maxDelay);
+            }
+        };
+    }
+}
@@ -2,6 +2,9 @@ package com.sequenceiq.cloudbreak.orchestrator;
 
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,12 +45,16 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
 
     private final ExitCriteriaModel exitCriteriaModel;
 
-    private final int maxRetryCount;
+    private int maxRetryCount;
 
     private final int sleepTime;
 
     private final int maxRetryOnError;
 
+    private final String type;
+
+    private OrchestratorBootstrapBackoff backoff;
+
     public OrchestratorBootstrapRunner(OrchestratorBootstrap orchestratorBootstrap, ExitCriteria exitCriteria,
             ExitCriteriaModel exitCriteriaModel, Map<String, String> mdcReplica) {
         this(orchestratorBootstrap, exitCriteria, exitCriteriaModel, mdcReplica, MAX_RETRY_COUNT, SLEEP_TIME, MAX_RETRY_ON_ERROR);
@@ -63,6 +70,23 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
         this.maxRetryCount = maxRetryCount;
         this.sleepTime = sleepTime;
         this.maxRetryOnError = maxRetryOnError;
+        type = orchestratorBootstrap.getClass().getSimpleName().replace("Bootstrap", "");
+        backoff = OrchestratorBootstrapBackoff.fixed(sleepTime);
+    }
+
+    /**
+     * Overrides the fixed sleep time between the attempts. The retry threshold is recalculated, so that the total wait between the attempts
+     * is not shorter than it was with the fixed sleep time, e.g. a backoff starting with shorter delays gets more attempts. The error threshold
+     * is kept as configured, as it limits the number of failing attempts, not the wait.
+     */
+    public OrchestratorBootstrapRunner withBackoff(OrchestratorBootstrapBackoff backoff) {
+        this.backoff = backoff;
+        maxRetryCount = backoff.attemptsFor(fixedTotalWait(maxRetryCount));
+        return this;
+    }
+
+    private long fixedTotalWait(int attempts) {
+        return (long) Math.max(0, attempts - 1) * sleepTime;
     }
 
     @Override
@@ -74,59 +98,87 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
         return doCall();
     }
 
-    private Boolean doCall() throws CloudbreakOrchestratorCancelledException, CloudbreakOrchestratorFailedException, CloudbreakOrchestratorTimeoutException {
-        Boolean success = null;
-        int retryCount = 1;
-        int errorCount = 1;
-        Exception actualException = null;
-        String type = orchestratorBootstrap.getClass().getSimpleName().replace("Bootstrap", "");
-        long initialStartTime = System.currentTimeMillis();
-        while (success == null && belowAttemptThreshold(retryCount, errorCount)) {
-            if (isExitNeeded()) {
-                LOGGER.debug(exitCriteria.exitMessage());
-                throw new CloudbreakOrchestratorCancelledException(exitCriteria.exitMessage());
+    /**
+     * Event driven variant of {@link #call()}: every attempt is scheduled on the given scheduler after the backoff delay,
+     * so no thread is blocked between the attempts. The returned future completes exceptionally with the same exceptions
+     * {@link #call()} would throw.
+     */
+    public CompletableFuture<Boolean> callAsync(ScheduledExecutorService scheduler) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Attempts attempts = new Attempts();
+        scheduler.execute(() -> attemptAsync(scheduler, attempts, result));
+        return result;
+    }
+
+    private void attemptAsync(ScheduledExecutorService scheduler, Attempts attempts, CompletableFuture<Boolean> result) {
+        if (mdcMap != null) {
+            MDC.setContextMap(mdcMap);
+        }
+        try {
+            if (attempts.isContinued()) {
+                attempt(attempts);
             }
-            long startTime = System.currentTimeMillis();
-            try {
-                LOGGER.debug("Calling orchestrator bootstrap: {}, additional info: {}", type, orchestratorBootstrap);
-                orchestratorBootstrap.call();
-                success = Boolean.TRUE;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.debug("Orchestrator component {} successfully started! {}, "
-                        + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
-            } catch (CloudbreakOrchestratorTerminateException te) {
-                actualException = te;
-                success = Boolean.FALSE;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.info("Failed to execute orchestrator component {}! {}, "
-                        + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
-            } catch (CloudbreakOrchestratorInProgressException ex) {
-                actualException = ex;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.debug("Orchestrator component {} start in progress, retrying [{}/{}] {}, Reason: {}, additional info: {}",
-                        type, retryCount, maxRetryCount, elapsedTimeLog, actualException, orchestratorBootstrap);
-                retryCount++;
-                if (retryCount <= maxRetryCount) {
-                    trySleeping();
-                } else {
-                    success = Boolean.FALSE;
-                }
-            } catch (Exception ex) {
-                actualException = ex;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.debug("Orchestrator component {} failed to start, retrying [{}/{}], error count [{}/{}]. {}, Reason: {}, additional info: {}",
-                        type, retryCount, maxRetryCount, errorCount, maxRetryOnError, elapsedTimeLog, actualException, orchestratorBootstrap, actualException);
-                retryCount++;
-                errorCount++;
-                if (belowAttemptThreshold(retryCount, errorCount)) {
-                    trySleeping();
-                } else {
-                    success = Boolean.FALSE;
-                }
+            if (attempts.isContinued()) {
+                scheduler.schedule(() -> attemptAsync(scheduler, attempts, result), backoff.nextDelay(attempts.retryCount - 1), TimeUnit.MILLISECONDS);
+            } else {
+                result.complete(checkResult(attempts.success, attempts.retryCount, attempts.actualException));
             }
+        } catch (Exception e) {
+            result.completeExceptionally(e);
         }
+    }
 
-        return checkResult(success, retryCount, actualException);
+    private Boolean doCall() throws CloudbreakOrchestratorCancelledException, CloudbreakOrchestratorFailedException, CloudbreakOrchestratorTimeoutException {
+        Attempts attempts = new Attempts();
+        while (attempts.isContinued()) {
+            attempt(attempts);
+            if (attempts.isContinued()) {
+                trySleeping(backoff.nextDelay(attempts.retryCount - 1));
+            }
+        }
+
+        return checkResult(attempts.success, attempts.retryCount, attempts.actualException);
+    }
+
+    private void attempt(Attempts attempts) throws CloudbreakOrchestratorCancelledException {
+        if (isExitNeeded()) {
+            LOGGER.debug(exitCriteria.exitMessage());
+            throw new CloudbreakOrchestratorCancelledException(exitCriteria.exitMessage());
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            LOGGER.debug("Calling orchestrator bootstrap: {}, additional info: {}", type, orchestratorBootstrap);
+            orchestratorBootstrap.call();
+            attempts.success = Boolean.TRUE;
+            String elapsedTimeLog = createElapseTimeLog(attempts.initialStartTime, startTime);
+            LOGGER.debug("Orchestrator component {} successfully started! {}, "
+                    + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
+        } catch (CloudbreakOrchestratorTerminateException te) {
+            attempts.actualException = te;
+            attempts.success = Boolean.FALSE;
+            String elapsedTimeLog = createElapseTimeLog(attempts.initialStartTime, startTime);
+            LOGGER.info("Failed to execute orchestrator component {}! {}, "
+                    + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
+        } catch (CloudbreakOrchestratorInProgressException ex) {
+            attempts.actualException = ex;
+            String elapsedTimeLog = createElapseTimeLog(attempts.initialStartTime, startTime);
+            LOGGER.debug("Orchestrator component {} start in progress, retrying [{}/{}] {}, Reason: {}, additional info: {}",
+                    type, attempts.retryCount, maxRetryCount, elapsedTimeLog, ex, orchestratorBootstrap);
+            attempts.retryCount++;
+            if (attempts.retryCount > maxRetryCount) {
+                attempts.success = Boolean.FALSE;
+            }
+        } catch (Exception ex) {
+            attempts.actualException = ex;
+            String elapsedTimeLog = createElapseTimeLog(attempts.initialStartTime, startTime);
+            LOGGER.debug("Orchestrator component {} failed to start, retrying [{}/{}], error count [{}/{}]. {}, Reason: {}, additional info: {}",
+                    type, attempts.retryCount, maxRetryCount, attempts.errorCount, maxRetryOnError, elapsedTimeLog, ex, orchestratorBootstrap, ex);
+            attempts.retryCount++;
+            attempts.errorCount++;
+            if (!belowAttemptThreshold(attempts.retryCount, attempts.errorCount)) {
+                attempts.success = Boolean.FALSE;
+            }
+        }
     }
 
     private String createElapseTimeLog(long initialStartTime, long startTime) {
@@ -172,7 +224,7 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
         return retryCount <= maxRetryCount && errorCount <= maxRetryOnError;
     }
 
-    private void trySleeping() {
+    private void trySleeping(long sleepTime) {
         if (!Thread.interrupted()) {
             try {
                 Thread.sleep(sleepTime);
@@ -193,4 +245,21 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
         LOGGER.debug("isExitNeeded: {}", exitNeeded);
         return exitNeeded;
     }
+
+    private class Attempts {
+
+        private final long initialStartTime = System.currentTimeMillis();
+
+        private Boolean success;
+
+        private int retryCount = 1;
+
+        private int errorCount = 1;
+
+        private Exception actualException;
+
+        boolean isContinued() {
+            return success == null && belowAttemptThreshold(retryCount, errorCount);
+        }
+    }
 }
@@ -0,0 +1,213 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+
+/**
+ * Keeps one rest client per gateway, so the connection pool and the TLS sessions of the client are reused by the consecutive salt operations
+ * instead of doing a new TLS handshake for every {@link SaltConnector}. A client is replaced when its lifetime is over or when the certificates of
+ * the gateway have changed. A replaced client is closed only after every connector that is still using it has been closed.
+ */
+@Component
+public class SaltClientCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltClientCache.class);
+
+    private static final String REASON_TAG = "reason";
+
+    @Value("${cb.salt.client.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cb.salt.client.cache.ttl.ms:600000}")
+    private long timeToLive;
+
+    @Inject
+    private MetricService metricService;
+
+    @Inject
+    private Clock clock;
+
+    private final Map<String, CachedClient> clients = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a lease of the cached client of the gateway. The lease has to be released when the client is not used anymore.
+     */
+    public Lease acquire(GatewayConfig gatewayConfig, boolean debug) {
+        String address = gatewayConfig.getGatewayUrl();
+        String fingerprint = fingerprint(gatewayConfig, debug);
+        Lease lease = null;
+        while (lease == null) {
+            CachedClient cachedClient = clients.compute(address, (key, current) -> getOrCreate(gatewayConfig, debug, fingerprint, current));
+            lease = cachedClient.acquire();
+        }
+        return lease;
+    }
+
+    @Scheduled(fixedDelayString = "${cb.salt.client.cache.eviction.rate.ms:60000}")
+    public void evictExpired() {
+        long now = clock.getCurrentTimeMillis();
+        clients.forEach((address, cachedClient) -> {
+            if (cachedClient.isExpired(now) && clients.remove(address, cachedClient)) {
+                evict(address, cachedClient, "expired");
+            }
+        });
+        submitPoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach((address, cachedClient) -> cachedClient.retire());
+        clients.clear();
+    }
+
+    private CachedClient getOrCreate(GatewayConfig gatewayConfig, boolean debug, String fingerprint, CachedClient current) {
+        long now = clock.getCurrentTimeMillis();
+        if (current != null) {
+            if (current.isRetired()) {
+                LOGGER.debug("Salt client of {} has been retired meanwhile, creating a new one.", gatewayConfig.getGatewayUrl());
+            } else if (!fingerprint.equals(current.getFingerprint())) {
+                evict(gatewayConfig.getGatewayUrl(), current, "certificate");
+            } else if (current.isExpired(now)) {
+                evict(gatewayConfig.getGatewayUrl(), current, "expired");
+            } else {
+                metricService.incrementMetricCounter(SaltMetricType.SALT_CLIENT_REUSED);
+                return current;
+            }
+        }
+        LOGGER.debug("Creating new salt client for {}", gatewayConfig.getGatewayUrl());
+        CachedClient created = new CachedClient(SaltConnector.createRestClient(gatewayConfig, debug), fingerprint, now + timeToLive);
+        metricService.incrementMetricCounter(SaltMetricType.SALT_CLIENT_HANDSHAKE);
+        metricService.submit(SaltMetricType.SALT_CLIENT_POOL_SIZE, current == null ? clients.size() + 1 : clients.size());
+        return created;
+    }
+
+    private void evict(String address, CachedClient cachedClient, String reason) {
+        LOGGER.debug("Evicting salt client of {}, reason: {}", address, reason);
+        cachedClient.retire();
+        metricService.incrementMetricCounter(SaltMetricType.SALT_CLIENT_EVICTED, REASON_TAG, reason);
+    }
+
+    private void submitPoolSize() {
+        metricService.submit(SaltMetricType.SALT_CLIENT_POOL_SIZE, clients.size());
+    }
+
+    private String fingerprint(GatewayConfig gatewayConfig, boolean debug) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : Arrays.asList(gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(),
+                    String.valueOf(debug))) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Reference to a cached client which keeps the client open until it is released.
+     */
+    public static class Lease {
+
+        private final CachedClient cachedClient;
+
+        private Lease(CachedClient cachedClient) {
+            this.cachedClient = cachedClient;
+        }
+
+        public Client getClient() {
+            return cachedClient.getClient();
+        }
+
+        public void release() {
+            cachedClient.release();
+        }
+    }
+
+    private static class CachedClient {
+
+        private final Client client;
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private int users;
+
+        private boolean retired;
+
+        private boolean closed;
+
+        CachedClient(Client client, String fingerprint, long expiresAt) {
+            this.client = client;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized Lease acquire() {
+            if (retired) {
+                return null;
+            }
+            users++;
+            return new Lease(this);
+        }
+
+        synchronized void release() {
+            users--;
+            closeIfUnused();
+        }
+
+        synchronized void retire() {
+            retired = true;
+            closeIfUnused();
+        }
+
+        synchronized boolean isRetired() {
+            return retired;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        Client getClient() {
+            return client;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        private void closeIfUnused() {
+            if (retired && users <= 0 && !closed) {
+                closed = true;
+                client.close();
+            }
+        }
+    }
+}
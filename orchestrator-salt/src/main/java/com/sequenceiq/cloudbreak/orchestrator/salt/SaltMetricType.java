@@ -0,0 +1,21 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt;
+
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+
+public enum SaltMetricType implements Metric {
+    SALT_CLIENT_POOL_SIZE("salt.client.pool.size"),
+    SALT_CLIENT_HANDSHAKE("salt.client.handshake"),
+    SALT_CLIENT_REUSED("salt.client.reused"),
+    SALT_CLIENT_EVICTED("salt.client.evicted");
+
+    private final String metricName;
+
+    SaltMetricType(String metricName) {
+        this.metricName = metricName;
+    }
+
+    @Override
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -394,12 +395,16 @@ public class SaltOrchestrator implements HostOrchestrator {
         }
     }
 
+    /**
+     * The custom pillars are independent of each other, so they are saved concurrently on the shared scheduler of the salt runners.
+     * A failure is propagated as an {@link ExecutionException}.
+     */
     private void saveCustomPillars(SaltConfig saltConfig, ExitCriteriaModel exitModel, Set<String> gatewayTargetIpAddresses, SaltConnector sc) throws Exception {
-        for (Entry<String, SaltPillarProperties> propertiesEntry : saltConfig.getServicePillarConfig().entrySet()) {
-            OrchestratorBootstrap pillarSave = PillarSave.createCustomPillar(sc, gatewayTargetIpAddresses, propertiesEntry.getValue());
-            Callable<Boolean> saltPillarRunner = saltRunner.runner(pillarSave, exitCriteria, exitModel);
-            saltPillarRunner.call();
-        }
+        CompletableFuture<?>[] pillarSaves = saltConfig.getServicePillarConfig().values().stream()
+                .map(pillarProperties -> PillarSave.createCustomPillar(sc, gatewayTargetIpAddresses, pillarProperties))
+                .map(pillarSave -> saltRunner.runAsync(pillarSave, exitCriteria, exitModel))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(pillarSaves).get();
     }
 
     @Override
@@ -29,10 +29,22 @@ public class SaltService {
     @Inject
     private Tracer tracer;
 
+    @Inject
+    private SaltClientCache saltClientCache;
+
     @Value("${rest.debug}")
     private boolean restDebug;
 
     public SaltConnector createSaltConnector(GatewayConfig gatewayConfig) {
+        if (saltClientCache.isEnabled()) {
+            SaltClientCache.Lease lease = saltClientCache.acquire(gatewayConfig, restDebug);
+            try {
+                return new SaltConnector(gatewayConfig, saltErrorResolver, lease.getClient(), lease::release, tracer);
+            } catch (RuntimeException e) {
+                lease.release();
+                throw e;
+            }
+        }
         return new SaltConnector(gatewayConfig, saltErrorResolver, restDebug, tracer);
     }
 
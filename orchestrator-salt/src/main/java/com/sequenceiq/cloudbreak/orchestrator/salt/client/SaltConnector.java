@@ -14,6 +14,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.client.Client;
@@ -87,23 +88,39 @@ public class SaltConnector implements Closeable {
 
     private final String hostname;
 
+    private final Runnable clientRelease;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     public SaltConnector(GatewayConfig gatewayConfig, SaltErrorResolver saltErrorResolver, boolean debug, Tracer tracer) {
+        this(gatewayConfig, saltErrorResolver, createRestClient(gatewayConfig, debug), null, tracer);
+    }
+
+    /**
+     * Creates a connector on top of a rest client that is shared with other connectors. Closing the connector does not close the client,
+     * it calls the clientRelease callback instead, so the owner of the client can decide when the connection pool can be closed.
+     */
+    public SaltConnector(GatewayConfig gatewayConfig, SaltErrorResolver saltErrorResolver, Client restClient, Runnable clientRelease, Tracer tracer) {
         this.hostname = gatewayConfig.getHostname();
+        this.restClient = restClient;
+        this.clientRelease = clientRelease;
         ClientTracingFeature tracingFeature = new ClientTracingFeature.Builder(tracer)
                 .withTraceSerialization(false)
                 .withDecorators(List.of(new TracingClientSpanDecorator())).build();
+        String saltBootPasswd = Optional.ofNullable(gatewayConfig.getSaltBootPassword()).orElse(SALT_BOOT_PASSWORD);
+        saltTarget = restClient.target(gatewayConfig.getGatewayUrl())
+                .register(HttpAuthenticationFeature.basic(SALT_BOOT_USER, saltBootPasswd))
+                .register(new DisableProxyAuthFeature())
+                .register(new SetProxyTimeoutFeature(PROXY_TIMEOUT))
+                .register(tracingFeature);
+        saltPassword = Optional.ofNullable(gatewayConfig.getSaltPassword()).orElse(SALT_PASSWORD);
+        signatureKey = gatewayConfig.getSignatureKey();
+        this.saltErrorResolver = saltErrorResolver;
+    }
+
+    public static Client createRestClient(GatewayConfig gatewayConfig, boolean debug) {
         try {
-            restClient = RestClientUtil.createClient(
-                    gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(), debug);
-            String saltBootPasswd = Optional.ofNullable(gatewayConfig.getSaltBootPassword()).orElse(SALT_BOOT_PASSWORD);
-            saltTarget = restClient.target(gatewayConfig.getGatewayUrl())
-                    .register(HttpAuthenticationFeature.basic(SALT_BOOT_USER, saltBootPasswd))
-                    .register(new DisableProxyAuthFeature())
-                    .register(new SetProxyTimeoutFeature(PROXY_TIMEOUT))
-                    .register(tracingFeature);
-            saltPassword = Optional.ofNullable(gatewayConfig.getSaltPassword()).orElse(SALT_PASSWORD);
-            signatureKey = gatewayConfig.getSignatureKey();
-            this.saltErrorResolver = saltErrorResolver;
+            return RestClientUtil.createClient(gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(), debug);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create rest client with 2-way-ssl config", e);
         }
@@ -340,8 +357,12 @@ public class SaltConnector implements Closeable {
 
     @Override
     public void close() {
-        if (restClient != null) {
-            restClient.close();
+        if (closed.compareAndSet(false, true)) {
+            if (clientRelease != null) {
+                clientRelease.run();
+            } else if (restClient != null) {
+                restClient.close();
+            }
         }
     }
 
@@ -357,6 +378,10 @@ public class SaltConnector implements Closeable {
         return hostname;
     }
 
+    public String getGatewayUrl() {
+        return saltTarget.getUri().toString();
+    }
+
     private String toJson(Object target) {
         try {
             return MAPPER.writeValueAsString(target);
@@ -1,12 +1,20 @@
 package com.sequenceiq.cloudbreak.orchestrator.salt.runner;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.orchestrator.OrchestratorBootstrap;
+import com.sequenceiq.cloudbreak.orchestrator.OrchestratorBootstrapBackoff;
 import com.sequenceiq.cloudbreak.orchestrator.OrchestratorBootstrapRunner;
 import com.sequenceiq.cloudbreak.orchestrator.host.OrchestratorStateRetryParams;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteria;
@@ -23,10 +31,30 @@ public class SaltRunner {
     @Value("${cb.max.salt.new.service.retry}")
     private int maxRetry;
 
+    @Value("${cb.salt.runner.backoff.exponential:false}")
+    private boolean exponentialBackoff;
+
+    @Value("${cb.salt.runner.backoff.initial.ms:1000}")
+    private long initialBackoff;
+
+    @Value("${cb.salt.runner.async.pool.size:10}")
+    private int asyncPoolSize;
+
+    private ScheduledExecutorService asyncScheduler;
+
+    @PostConstruct
+    public void init() {
+        asyncScheduler = Executors.newScheduledThreadPool(asyncPoolSize, new ThreadFactoryBuilder().setNameFormat("salt-runner-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncScheduler.shutdownNow();
+    }
+
     public Callable<Boolean> runner(OrchestratorBootstrap bootstrap, ExitCriteria exitCriteria, ExitCriteriaModel exitCriteriaModel, int maxRetry,
             boolean usingErrorCount) {
-        return new OrchestratorBootstrapRunner(bootstrap, exitCriteria, exitCriteriaModel, MDC.getCopyOfContextMap(), maxRetry, SLEEP_TIME,
-                usingErrorCount ? maxRetryOnError : maxRetry);
+        return bootstrapRunner(bootstrap, exitCriteria, exitCriteriaModel, maxRetry, usingErrorCount ? maxRetryOnError : maxRetry);
     }
 
     public Callable<Boolean> runner(OrchestratorBootstrap bootstrap, ExitCriteria exitCriteria, ExitCriteriaModel exitCriteriaModel) {
@@ -35,8 +63,7 @@ public class SaltRunner {
 
     public Callable<Boolean> runner(OrchestratorBootstrap bootstrap, ExitCriteria exitCriteria, ExitCriteriaModel exitCriteriaModel, int maxRetry,
             int maxRetryOnError) {
-        return new OrchestratorBootstrapRunner(bootstrap, exitCriteria, exitCriteriaModel, MDC.getCopyOfContextMap(), maxRetry, SLEEP_TIME,
-                maxRetryOnError);
+        return bootstrapRunner(bootstrap, exitCriteria, exitCriteriaModel, maxRetry, maxRetryOnError);
     }
 
     public Callable<Boolean> runnerWithUsingErrorCount(OrchestratorBootstrap bootstrap, ExitCriteria exitCriteria, ExitCriteriaModel exitCriteriaModel) {
@@ -48,4 +75,21 @@ public class SaltRunner {
         return runner(bootstrap, exitCriteria, exitCriteriaModel, orchestratorStateRetryParams.getMaxRetry(),
                 orchestratorStateRetryParams.getMaxRetryOnError());
     }
+
+    /**
+     * Runs the bootstrap on the shared scheduler of the salt runners, so the caller thread is not blocked until the bootstrap finishes.
+     */
+    public CompletableFuture<Boolean> runAsync(OrchestratorBootstrap bootstrap, ExitCriteria exitCriteria, ExitCriteriaModel exitCriteriaModel) {
+        return bootstrapRunner(bootstrap, exitCriteria, exitCriteriaModel, maxRetry, maxRetry).callAsync(asyncScheduler);
+    }
+
+    private OrchestratorBootstrapRunner bootstrapRunner(OrchestratorBootstrap bootstrap, ExitCriteria exitCriteria, ExitCriteriaModel exitCriteriaModel,
+            int maxRetry, int maxRetryOnError) {
+        OrchestratorBootstrapRunner runner = new OrchestratorBootstrapRunner(bootstrap, exitCriteria, exitCriteriaModel, MDC.getCopyOfContextMap(), maxRetry,
+                SLEEP_TIME, maxRetryOnError);
+        if (exponentialBackoff) {
+            runner.withBackoff(OrchestratorBootstrapBackoff.exponentialWithJitter(initialBackoff, SLEEP_TIME));
+        }
+        return runner;
+    }
 }
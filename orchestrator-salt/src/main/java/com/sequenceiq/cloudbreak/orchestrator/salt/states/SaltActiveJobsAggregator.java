@@ -0,0 +1,157 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.states;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorFailedException;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.RunningJobsResponse;
+
+/**
+ * Shares the result of the jobs.active runner call between the job trackers that are polling the same gateway, so the salt-api is asked
+ * at most once per tick regardless of the number of the tracked jobs. A response is only handed out for a jid if it was requested after
+ * the jid had been tracked for the first time, so a job that has just been submitted is never reported as finished based on an older response.
+ * The order of the trackings and the requests is decided by a sequence instead of the clock, because both can happen in the same millisecond.
+ */
+final class SaltActiveJobsAggregator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltActiveJobsAggregator.class);
+
+    private static final long TICK_MILLIS = 3000L;
+
+    private static final long MAX_TRACKING_MILLIS = TimeUnit.HOURS.toMillis(6L);
+
+    private static final Map<String, ActiveJobs> ACTIVE_JOBS_BY_GATEWAY = new ConcurrentHashMap<>();
+
+    private static final Map<String, Tracking> TRACKED_JIDS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static Clock clock = new Clock();
+
+    private SaltActiveJobsAggregator() {
+    }
+
+    static RunningJobsResponse getActiveJobs(SaltConnector sc, String jid) throws CloudbreakOrchestratorFailedException {
+        String gateway = sc.getGatewayUrl();
+        if (gateway == null) {
+            return SaltStates.getRunningJobs(sc);
+        }
+        long now = clock.getCurrentTimeMillis();
+        Tracking tracking = TRACKED_JIDS.computeIfAbsent(trackingKey(gateway, jid), key -> new Tracking(SEQUENCE.incrementAndGet(), now));
+        CompletableFuture<RunningJobsResponse> request = new CompletableFuture<>();
+        ActiveJobs activeJobs = ACTIVE_JOBS_BY_GATEWAY.compute(gateway, (key, current) -> current != null && current.isUsable(tracking, now)
+                ? current : new ActiveJobs(SEQUENCE.incrementAndGet(), now, request));
+        if (activeJobs.getResponse() == request) {
+            requestActiveJobs(sc, gateway, activeJobs);
+            removeAbandoned(now);
+        } else {
+            LOGGER.debug("Using the active salt jobs of {} requested at {} for jid {}", gateway, activeJobs.getRequestedAt(), jid);
+        }
+        return waitFor(activeJobs.getResponse());
+    }
+
+    static void untrack(SaltConnector sc, String jid) {
+        String gateway = sc.getGatewayUrl();
+        if (gateway != null) {
+            TRACKED_JIDS.remove(trackingKey(gateway, jid));
+        }
+    }
+
+    static void setClock(Clock clock) {
+        SaltActiveJobsAggregator.clock = clock;
+    }
+
+    private static void requestActiveJobs(SaltConnector sc, String gateway, ActiveJobs activeJobs) {
+        try {
+            activeJobs.getResponse().complete(SaltStates.getRunningJobs(sc));
+        } catch (CloudbreakOrchestratorFailedException | RuntimeException e) {
+            ACTIVE_JOBS_BY_GATEWAY.remove(gateway, activeJobs);
+            activeJobs.getResponse().completeExceptionally(e);
+        }
+    }
+
+    private static RunningJobsResponse waitFor(CompletableFuture<RunningJobsResponse> response) throws CloudbreakOrchestratorFailedException {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CloudbreakOrchestratorFailedException("Interrupted while waiting for the active salt jobs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CloudbreakOrchestratorFailedException) {
+                throw (CloudbreakOrchestratorFailedException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CloudbreakOrchestratorFailedException(e.getCause());
+        }
+    }
+
+    private static void removeAbandoned(long now) {
+        TRACKED_JIDS.values().removeIf(tracking -> now - tracking.getSince() > MAX_TRACKING_MILLIS);
+        ACTIVE_JOBS_BY_GATEWAY.values().removeIf(activeJobs -> activeJobs.isExpired(now));
+    }
+
+    private static String trackingKey(String gateway, String jid) {
+        return gateway + '/' + jid;
+    }
+
+    private static class Tracking {
+
+        private final long sequence;
+
+        private final long since;
+
+        Tracking(long sequence, long since) {
+            this.sequence = sequence;
+            this.since = since;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        long getSince() {
+            return since;
+        }
+    }
+
+    private static class ActiveJobs {
+
+        private final long sequence;
+
+        private final long requestedAt;
+
+        private final CompletableFuture<RunningJobsResponse> response;
+
+        ActiveJobs(long sequence, long requestedAt, CompletableFuture<RunningJobsResponse> response) {
+            this.sequence = sequence;
+            this.requestedAt = requestedAt;
+            this.response = response;
+        }
+
+        boolean isUsable(Tracking tracking, long now) {
+            return sequence > tracking.getSequence() && !isExpired(now) && !response.isCompletedExceptionally();
+        }
+
+        boolean isExpired(long now) {
+            return now - requestedAt >= TICK_MILLIS;
+        }
+
+        long getRequestedAt() {
+            return requestedAt;
+        }
+
+        CompletableFuture<RunningJobsResponse> getResponse() {
+            return response;
+        }
+    }
+}
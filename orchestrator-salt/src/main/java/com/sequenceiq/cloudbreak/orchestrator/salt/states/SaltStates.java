@@ -182,7 +182,7 @@ public class SaltStates {
     }
 
     public static boolean jobIsRunning(SaltConnector sc, String jid) throws CloudbreakOrchestratorFailedException {
-        RunningJobsResponse runningInfo = getRunningJobs(sc);
+        RunningJobsResponse runningInfo = SaltActiveJobsAggregator.getActiveJobs(sc, jid);
         for (Map<String, Map<String, Object>> results : runningInfo.getResult()) {
             for (Entry<String, Map<String, Object>> stringMapEntry : results.entrySet()) {
                 if (stringMapEntry.getKey().equals(jid)) {
@@ -190,6 +190,7 @@ public class SaltStates {
                 }
             }
         }
+        SaltActiveJobsAggregator.untrack(sc, jid);
         return false;
     }
 
@@ -0,0 +1,106 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.powermock.reflect.Whitebox;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+
+@ExtendWith(MockitoExtension.class)
+class SaltClientCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final long TTL = 60_000L;
+
+    @InjectMocks
+    private SaltClientCache underTest;
+
+    @Mock
+    private MetricService metricService;
+
+    @Mock
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        Whitebox.setInternalState(underTest, "timeToLive", TTL);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testClientIsReusedForTheSameGateway() {
+        SaltClientCache.Lease first = underTest.acquire(gatewayConfig("1.1.1.1", null), false);
+        SaltClientCache.Lease second = underTest.acquire(gatewayConfig("1.1.1.1", null), false);
+
+        assertSame(first.getClient(), second.getClient());
+        verify(metricService, times(1)).incrementMetricCounter(SaltMetricType.SALT_CLIENT_HANDSHAKE);
+        verify(metricService, times(1)).incrementMetricCounter(SaltMetricType.SALT_CLIENT_REUSED);
+    }
+
+    @Test
+    void testGatewaysHaveSeparateClients() {
+        SaltClientCache.Lease first = underTest.acquire(gatewayConfig("1.1.1.1", null), false);
+        SaltClientCache.Lease second = underTest.acquire(gatewayConfig("1.1.1.2", null), false);
+
+        assertNotSame(first.getClient(), second.getClient());
+        verify(metricService, times(2)).incrementMetricCounter(SaltMetricType.SALT_CLIENT_HANDSHAKE);
+    }
+
+    @Test
+    void testCertificateRotationEvictsClientAfterRelease() {
+        SaltClientCache.Lease original = underTest.acquire(gatewayConfig("1.1.1.1", "oldServerCert"), false);
+
+        SaltClientCache.Lease rotated = underTest.acquire(gatewayConfig("1.1.1.1", "newServerCert"), false);
+
+        assertNotSame(original.getClient(), rotated.getClient());
+        verify(metricService).incrementMetricCounter(SaltMetricType.SALT_CLIENT_EVICTED, "reason", "certificate");
+        assertNotNull(original.getClient().target("https://1.1.1.1:9443"));
+        original.release();
+        assertThrows(IllegalStateException.class, () -> original.getClient().target("https://1.1.1.1:9443"));
+        assertNotNull(rotated.getClient().target("https://1.1.1.1:9443"));
+    }
+
+    @Test
+    void testExpiredClientIsEvicted() {
+        SaltClientCache.Lease original = underTest.acquire(gatewayConfig("1.1.1.1", null), false);
+        original.release();
+        Client originalClient = original.getClient();
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW + TTL);
+
+        underTest.evictExpired();
+
+        assertThrows(IllegalStateException.class, () -> originalClient.target("https://1.1.1.1:9443"));
+        verify(metricService).incrementMetricCounter(SaltMetricType.SALT_CLIENT_EVICTED, "reason", "expired");
+        verify(metricService).submit(SaltMetricType.SALT_CLIENT_POOL_SIZE, 0);
+        SaltClientCache.Lease renewed = underTest.acquire(gatewayConfig("1.1.1.1", null), false);
+        assertNotSame(originalClient, renewed.getClient());
+    }
+
+    private GatewayConfig gatewayConfig(String address, String serverCert) {
+        return new GatewayConfig(address, "10.0.0.1", "172.16.252.43", "10-0-0-1.example.com", 9443, "instanceId", serverCert, null, null,
+                "saltpasswd", "saltbootpassword", "signkey", false, true, null, null, null, null);
+    }
+}
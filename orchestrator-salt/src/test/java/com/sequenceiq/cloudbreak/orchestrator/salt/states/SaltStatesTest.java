@@ -31,6 +31,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.IOUtils;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +45,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.sequenceiq.cloudbreak.common.service.Clock;
 import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorFailedException;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltActionType;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
@@ -67,8 +69,14 @@ import com.sequenceiq.cloudbreak.service.RetryService;
 @RunWith(MockitoJUnitRunner.class)
 public class SaltStatesTest {
 
+    private static final long NOW = 1_000_000L;
+
+    private static final long TICK_MILLIS = 3000L;
+
     private SaltConnector saltConnector;
 
+    private Clock clock;
+
     private Target<String> target;
 
     @Captor
@@ -82,6 +90,13 @@ public class SaltStatesTest {
         targets.add("10-0-0-3.example.com");
         target = new HostList(targets);
         saltConnector = mock(SaltConnector.class);
+        clock = mock(Clock.class);
+        SaltActiveJobsAggregator.setClock(clock);
+    }
+
+    @After
+    public void tearDown() {
+        SaltActiveJobsAggregator.setClock(new Clock());
     }
 
     @Test
@@ -275,6 +290,32 @@ public class SaltStatesTest {
         assertFalse(running);
     }
 
+    @Test
+    public void jobIsRunningSharesActiveJobsOfTheSameGateway() throws Exception {
+        mockActiveJobs("https://aggregated-gateway:9443", "1", "2");
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "1"));
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "2"));
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "1"));
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "2"));
+
+        verify(saltConnector, times(2)).run(eq("jobs.active"), any(), eq(RunningJobsResponse.class));
+    }
+
+    @Test
+    public void jobIsRunningRequestsActiveJobsAgainAfterTheTick() throws Exception {
+        mockActiveJobs("https://expiring-gateway:9443", "1", "2");
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW, NOW, NOW, NOW + TICK_MILLIS);
+
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "1"));
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "2"));
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "1"));
+        assertTrue(SaltStates.jobIsRunning(saltConnector, "2"));
+
+        verify(saltConnector, times(3)).run(eq("jobs.active"), any(), eq(RunningJobsResponse.class));
+    }
+
     @Test(expected = CloudbreakOrchestratorFailedException.class)
     public void testJobIsRunningReturnsExceptionOnNullResult() throws CloudbreakOrchestratorFailedException {
         RunningJobsResponse runningJobsResponse = new RunningJobsResponse();
@@ -493,4 +534,14 @@ public class SaltStatesTest {
         assertEquals("Salt run command failed", actionFailedException.getMessage());
     }
 
+    private void mockActiveJobs(String gateway, String... jids) {
+        Map<String, Map<String, Object>> resultMap = new HashMap<>();
+        for (String jid : jids) {
+            resultMap.put(jid, new HashMap<>());
+        }
+        RunningJobsResponse runningJobsResponse = new RunningJobsResponse();
+        runningJobsResponse.setResult(List.of(resultMap));
+        when(saltConnector.getGatewayUrl()).thenReturn(gateway);
+        when(saltConnector.run(eq("jobs.active"), any(), eq(RunningJobsResponse.class))).thenReturn(runningJobsResponse);
+    }
 }
@@ -0,0 +1,236 @@
+package com.sequenceiq.cloudbreak.service.secret.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
+
+/**
+ * Caches secrets read from the secret store encrypted with a data key which is generated at startup and never leaves the process, so the
+ * cached secrets are only decrypted when they are read. An entry is not expired after a fixed time, but its version is checked against the
+ * current version of the secret in the store after the revalidation period, and it is only reloaded when the version changed or the secret
+ * was deleted.
+ */
+@Component
+public class EncryptedSecretCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedSecretCache.class);
+
+    private static final String CACHE_NAME = "encryptedSecretCache";
+
+    private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int DATA_KEY_BITS = 256;
+
+    private static final int IV_BYTES = 12;
+
+    private static final int TAG_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final boolean enabled;
+
+    private final long revalidationMillis;
+
+    private final Cache<String, EncryptedSecret> cache;
+
+    private final SecretKey dataKey;
+
+    @Inject
+    private ObjectProvider<MetricService> metricServiceProvider;
+
+    public EncryptedSecretCache(@Value("${vault.cache.enabled:true}") boolean enabled,
+            @Value("${vault.cache.max.entries:10000}") long maxEntries,
+            @Value("${vault.cache.revalidation.seconds:60}") long revalidationSeconds,
+            @Value("${vault.cache.idle.seconds:3600}") long idleSeconds) {
+        this.enabled = enabled;
+        revalidationMillis = TimeUnit.SECONDS.toMillis(revalidationSeconds);
+        cache = Caffeine.newBuilder()
+                .recordStats()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .build();
+        dataKey = generateDataKey();
+    }
+
+    @PostConstruct
+    public void registerStatistics() {
+        getMetricService().ifPresent(metricService -> {
+            Map<String, String> tags = Map.of("cache", CACHE_NAME);
+            metricService.registerGaugeMetric(MetricType.CACHE_HIT, cache, c -> c.stats().hitCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_MISS, cache, c -> c.stats().missCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_EVICTION, cache, c -> c.stats().evictionCount(), tags);
+            metricService.registerGaugeMetric(MetricType.CACHE_SIZE, cache, Cache::estimatedSize, tags);
+        });
+    }
+
+    /**
+     * Returns the cached value of the secret, if it is still the current version of the secret, otherwise loads it with the loader.
+     *
+     * @param secret                secret reference, the key of the cache
+     * @param loader                reads the value and the version of the secret from the store, returns null if the secret does not exist
+     * @param currentVersionLoader  reads the current version of the secret from the store, returns empty if the secret does not exist
+     */
+    public String get(String secret, Supplier<VersionedSecret> loader, Supplier<Optional<Integer>> currentVersionLoader) {
+        if (!enabled) {
+            return Optional.ofNullable(loader.get()).map(VersionedSecret::getValue).orElse(null);
+        }
+        EncryptedSecret cached = cache.getIfPresent(secret);
+        if (cached != null && isValid(secret, cached, currentVersionLoader)) {
+            return decrypt(secret, cached);
+        }
+        VersionedSecret loaded = loader.get();
+        if (loaded == null || loaded.getValue() == null) {
+            cache.invalidate(secret);
+            return null;
+        }
+        cache.put(secret, encrypt(secret, loaded));
+        return loaded.getValue();
+    }
+
+    public void evict(String secret) {
+        cache.invalidate(secret);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private boolean isValid(String secret, EncryptedSecret cached, Supplier<Optional<Integer>> currentVersionLoader) {
+        long now = System.currentTimeMillis();
+        if (now - cached.getValidatedAt() < revalidationMillis) {
+            return true;
+        }
+        Optional<Integer> currentVersion = currentVersionLoader.get();
+        boolean unchanged = currentVersion.isPresent() && currentVersion.get() == cached.getVersion();
+        getMetricService().ifPresent(metricService -> metricService.incrementMetricCounter(MetricType.VAULT_CACHE_REVALIDATION,
+                "result", unchanged ? "unchanged" : "changed"));
+        if (unchanged) {
+            cached.setValidatedAt(now);
+        } else {
+            LOGGER.debug("Cached version {} of secret is not current anymore, current version: {}", cached.getVersion(), currentVersion);
+            cache.invalidate(secret);
+        }
+        return unchanged;
+    }
+
+    private EncryptedSecret encrypt(String secret, VersionedSecret versionedSecret) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, dataKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(secret.getBytes(UTF_8));
+            byte[] cipherText = cipher.doFinal(versionedSecret.getValue().getBytes(UTF_8));
+            return new EncryptedSecret(versionedSecret.getVersion(), iv, cipherText, System.currentTimeMillis());
+        } catch (GeneralSecurityException e) {
+            throw new SecretOperationException("Cannot encrypt secret for caching", e);
+        }
+    }
+
+    private String decrypt(String secret, EncryptedSecret encryptedSecret) {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, dataKey, new GCMParameterSpec(TAG_BITS, encryptedSecret.getIv()));
+            cipher.updateAAD(secret.getBytes(UTF_8));
+            return new String(cipher.doFinal(encryptedSecret.getCipherText()), UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new SecretOperationException("Cannot decrypt cached secret", e);
+        }
+    }
+
+    private SecretKey generateDataKey() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(DATA_KEY_BITS, random);
+            return keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new SecretOperationException("Cannot generate data key for the secret cache", e);
+        }
+    }
+
+    private Optional<MetricService> getMetricService() {
+        return Optional.ofNullable(metricServiceProvider).map(ObjectProvider::getIfUnique);
+    }
+
+    public static class VersionedSecret {
+
+        private final String value;
+
+        private final int version;
+
+        public VersionedSecret(String value, int version) {
+            this.value = value;
+            this.version = version;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+    }
+
+    private static class EncryptedSecret {
+
+        private final int version;
+
+        private final byte[] iv;
+
+        private final byte[] cipherText;
+
+        private volatile long validatedAt;
+
+        EncryptedSecret(int version, byte[] iv, byte[] cipherText, long validatedAt) {
+            this.version = version;
+            this.iv = iv;
+            this.cipherText = cipherText;
+            this.validatedAt = validatedAt;
+        }
+
+        int getVersion() {
+            return version;
+        }
+
+        byte[] getIv() {
+            return iv;
+        }
+
+        byte[] getCipherText() {
+            return cipherText;
+        }
+
+        long getValidatedAt() {
+            return validatedAt;
+        }
+
+        void setValidatedAt(long validatedAt) {
+            this.validatedAt = validatedAt;
+        }
+    }
+}
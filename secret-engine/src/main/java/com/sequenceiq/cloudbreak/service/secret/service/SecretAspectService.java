@@ -1,18 +1,40 @@
 package com.sequenceiq.cloudbreak.service.secret.service;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
 import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
 import com.sequenceiq.cloudbreak.service.secret.SecretValue;
 import com.sequenceiq.cloudbreak.service.secret.domain.AccountIdAwareResource;
@@ -24,31 +46,45 @@ public class SecretAspectService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SecretAspectService.class);
 
+    private static final long WRITER_KEEP_ALIVE_SECONDS = 60L;
+
+    private final Map<Class<?>, List<SecretField>> secretFieldsByClass = new ConcurrentHashMap<>();
+
     private SecretService secretService;
 
+    private final MetricService metricService;
+
+    private final ExecutorService secretWriterExecutor;
+
     @Inject
-    public SecretAspectService(SecretService secretService) {
+    public SecretAspectService(SecretService secretService, MetricService metricService, @Value("${secret.aspect.write.threads:8}") int writeThreads) {
         this.secretService = secretService;
+        this.metricService = metricService;
+        ThreadPoolExecutor executor = new MDCCleanerThreadPoolExecutor(writeThreads, writeThreads, WRITER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setNameFormat("secret-writer-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        secretWriterExecutor = executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        secretWriterExecutor.shutdown();
     }
 
     public Object proceedSave(ProceedingJoinPoint proceedingJoinPoint) {
         Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
+        List<SecretWrite> secretWrites = new ArrayList<>();
         for (Object entity : entities) {
             try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        field.setAccessible(true);
-                        Secret value = (Secret) field.get(entity);
-                        if (value != null && value.getRaw() != null && value.getSecret() == null) {
-                            String accountId = findAccountId(entity);
-                            String path = String.format("%s/%s/%s/%s-%s", accountId,
-                                    entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
-                                    UUID.randomUUID(), Long.toHexString(System.currentTimeMillis()));
-                            String secret = secretService.put(path, value.getRaw());
-                            LOGGER.debug("Field: '{}' is saved at path: {}", field.getName(), path);
-                            field.set(entity, new SecretProxy(secretService, secret));
-                        }
+                for (SecretField field : getSecretFields(entity.getClass())) {
+                    Secret value = field.get(entity);
+                    if (value != null && value.getSecret() == null && value.getRaw() != null) {
+                        String accountId = findAccountId(entity);
+                        String path = String.format("%s/%s/%s/%s-%s", accountId,
+                                entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
+                                UUID.randomUUID(), Long.toHexString(System.currentTimeMillis()));
+                        secretWrites.add(new SecretWrite(entity, field, path, value.getRaw()));
                     }
                 }
             } catch (IllegalArgumentException e) {
@@ -60,6 +96,7 @@ public class SecretAspectService {
                 throw new SecretOperationException(e.getMessage());
             }
         }
+        writeSecrets(secretWrites);
 
         Object proceed;
         try {
@@ -79,17 +116,13 @@ public class SecretAspectService {
         Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
         for (Object entity : entities) {
             try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        field.setAccessible(true);
-                        Secret path = (Secret) field.get(entity);
-                        if (path != null && path.getSecret() != null) {
-                            secretService.delete(path.getSecret());
-                            LOGGER.debug("Secret deleted at path: {}", path);
-                        } else {
-                            LOGGER.debug("Secret is null for field: {}.{}", field.getDeclaringClass(), field.getName());
-                        }
+                for (SecretField field : getSecretFields(entity.getClass())) {
+                    Secret path = field.get(entity);
+                    if (path != null && path.getSecret() != null) {
+                        secretService.delete(path.getSecret());
+                        LOGGER.debug("Secret deleted at path: {}", path);
+                    } else {
+                        LOGGER.debug("Secret is null for field: {}.{}", entity.getClass(), field.getName());
                     }
                 }
             } catch (IllegalArgumentException e) {
@@ -124,6 +157,65 @@ public class SecretAspectService {
         return arg instanceof Collection ? (Collection<Object>) arg : Collections.singleton(arg);
     }
 
+    private List<SecretField> getSecretFields(Class<?> entityClass) {
+        return secretFieldsByClass.computeIfAbsent(entityClass, clazz -> {
+            List<SecretField> secretFields = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(SecretValue.class)) {
+                    LOGGER.debug("Found SecretValue annotation on {}", field);
+                    secretFields.add(new SecretField(field));
+                }
+            }
+            return List.copyOf(secretFields);
+        });
+    }
+
+    /**
+     * Writes the secrets of one save to the secret store in parallel, the first one on the calling thread, and waits for all of them, so a
+     * failed write does not leave the others running after the save has failed.
+     */
+    private void writeSecrets(List<SecretWrite> secretWrites) {
+        if (secretWrites.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<String, String> mdcContext = MDCBuilder.getMdcContextMap();
+        List<Future<?>> parallelWrites = secretWrites.subList(1, secretWrites.size()).stream()
+                .map(secretWrite -> secretWriterExecutor.submit(() -> {
+                    MDCBuilder.buildMdcContextFromMap(mdcContext);
+                    secretWrite.write();
+                    return null;
+                }))
+                .collect(Collectors.toList());
+        Exception failure = null;
+        try {
+            secretWrites.get(0).write();
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (Future<?> parallelWrite : parallelWrites) {
+            try {
+                parallelWrite.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        long duration = System.currentTimeMillis() - start;
+        metricService.recordTimerMetric(MetricType.VAULT_SAVE, Duration.ofMillis(duration));
+        LOGGER.debug("Saving {} secrets took {} ms", secretWrites.size(), duration);
+        if (failure != null) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not updated!", failure);
+            throw new SecretOperationException(failure.getMessage());
+        }
+    }
+
     private String findAccountId(Object entity) throws IllegalArgumentException {
         if (entity != null) {
             if (entity instanceof AccountIdAwareResource) {
@@ -140,4 +232,73 @@ public class SecretAspectService {
             throw new IllegalArgumentException("The entity is null");
         }
     }
+
+    private static class SecretField {
+
+        private final String name;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        SecretField(Field field) {
+            name = field.getName();
+            field.setAccessible(true);
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new SecretOperationException("Cannot access secret field " + field, e);
+            }
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Secret get(Object entity) {
+            try {
+                return (Secret) (Object) getter.invokeExact(entity);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new SecretOperationException(t);
+            }
+        }
+
+        void set(Object entity, Secret value) {
+            try {
+                setter.invokeExact(entity, (Object) value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new SecretOperationException(t);
+            }
+        }
+    }
+
+    private class SecretWrite {
+
+        private final Object entity;
+
+        private final SecretField field;
+
+        private final String path;
+
+        private final String value;
+
+        SecretWrite(Object entity, SecretField field, String path, String value) {
+            this.entity = entity;
+            this.field = field;
+            this.path = path;
+            this.value = value;
+        }
+
+        void write() throws Exception {
+            String secret = secretService.put(path, value);
+            LOGGER.debug("Field: '{}' is saved at path: {}", field.getName(), path);
+            field.set(entity, new SecretProxy(secretService, secret));
+        }
+    }
 }
@@ -11,12 +11,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 import org.springframework.vault.core.VaultTemplate;
+import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.Versioned;
 
+import com.sequenceiq.cloudbreak.service.secret.cache.EncryptedSecretCache;
+import com.sequenceiq.cloudbreak.service.secret.cache.EncryptedSecretCache.VersionedSecret;
 import com.sequenceiq.cloudbreak.service.secret.conf.VaultConfig;
 import com.sequenceiq.cloudbreak.service.secret.model.SecretResponse;
 
@@ -34,8 +35,11 @@ public class VaultKvV2Engine extends AbstractVaultEngine<VaultKvV2Engine> {
 
     private VaultTemplate template;
 
-    public VaultKvV2Engine(VaultTemplate template) {
+    private EncryptedSecretCache secretCache;
+
+    public VaultKvV2Engine(VaultTemplate template, EncryptedSecretCache secretCache) {
         this.template = template;
+        this.secretCache = secretCache;
     }
 
     @Override
@@ -55,18 +59,16 @@ public class VaultKvV2Engine extends AbstractVaultEngine<VaultKvV2Engine> {
     }
 
     @Override
-    @Cacheable(cacheNames = "vaultCache")
     public String get(@NotNull String secret) {
-        return Optional.ofNullable(convertToVaultSecret(secret)).map(s -> {
-            Versioned<Map<String, Object>> response = template.opsForVersionedKeyValue(s.getEnginePath()).get(s.getPath());
-            return response != null && response.getData() != null ? String.valueOf(response.getData().get("secret")) : null;
-        }).orElse(null);
+        return Optional.ofNullable(convertToVaultSecret(secret))
+                .map(s -> secretCache.get(secret, () -> read(s), () -> readCurrentVersion(s)))
+                .orElse(null);
     }
 
     @Override
-    @CacheEvict(cacheNames = "vaultCache", allEntries = true)
     public void delete(String secret) {
         Optional.ofNullable(convertToVaultSecret(secret)).ifPresent(s -> deleteAllVersionsOfSecret(s.getEnginePath(), s.getPath()));
+        secretCache.evict(secret);
     }
 
     @Override
@@ -86,9 +88,40 @@ public class VaultKvV2Engine extends AbstractVaultEngine<VaultKvV2Engine> {
     }
 
     @Override
-    @CacheEvict(cacheNames = "vaultCache", allEntries = true)
     public void cleanup(String path) {
         deleteAllVersionsOfSecret(enginePath, appPath + path);
+        secretCache.evictAll();
+    }
+
+    private VersionedSecret read(VaultSecret secret) {
+        Versioned<Map<String, Object>> response = template.opsForVersionedKeyValue(secret.getEnginePath()).get(secret.getPath());
+        return response != null && response.getData() != null
+                ? new VersionedSecret(String.valueOf(response.getData().get("secret")), response.getVersion().getVersion())
+                : null;
+    }
+
+    /**
+     * Reads the current version of the secret from its metadata, which is empty if the secret or its current version was deleted.
+     */
+    private Optional<Integer> readCurrentVersion(VaultSecret secret) {
+        VaultResponse response = template.read(secret.getEnginePath() + "/metadata/" + secret.getPath());
+        if (response == null || response.getData() == null || !(response.getData().get("current_version") instanceof Number)) {
+            return Optional.empty();
+        }
+        int currentVersion = ((Number) response.getData().get("current_version")).intValue();
+        Object versions = response.getData().get("versions");
+        if (versions instanceof Map) {
+            Object version = ((Map<?, ?>) versions).get(String.valueOf(currentVersion));
+            if (version instanceof Map && isDeleted((Map<?, ?>) version)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(currentVersion);
+    }
+
+    private boolean isDeleted(Map<?, ?> version) {
+        Object deletionTime = version.get("deletion_time");
+        return Boolean.TRUE.equals(version.get("destroyed")) || (deletionTime instanceof String && !((String) deletionTime).isEmpty());
     }
 
     private void deleteAllVersionsOfSecret(String engingPath, String path) {
@@ -0,0 +1,98 @@
+package com.sequenceiq.cloudbreak.service.secret.cache;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sequenceiq.cloudbreak.service.secret.cache.EncryptedSecretCache.VersionedSecret;
+
+public class EncryptedSecretCacheTest {
+
+    private static final String SECRET = "{\"enginePath\":\"secret\",\"path\":\"cb/foo/bar\"}";
+
+    private static final String VALUE = "super secret";
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final AtomicInteger versionChecks = new AtomicInteger();
+
+    @Test
+    public void testSecretIsLoadedOnceWithinRevalidationPeriod() {
+        EncryptedSecretCache underTest = new EncryptedSecretCache(true, 10L, 60L, 60L);
+
+        underTest.get(SECRET, loader(1), currentVersion(1));
+
+        Assert.assertEquals(VALUE, underTest.get(SECRET, loader(1), currentVersion(1)));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(0, versionChecks.get());
+    }
+
+    @Test
+    public void testSecretIsNotReloadedWhenVersionIsUnchanged() {
+        EncryptedSecretCache underTest = new EncryptedSecretCache(true, 10L, 0L, 60L);
+
+        underTest.get(SECRET, loader(1), currentVersion(1));
+
+        Assert.assertEquals(VALUE, underTest.get(SECRET, loader(1), currentVersion(1)));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(1, versionChecks.get());
+    }
+
+    @Test
+    public void testSecretIsReloadedWhenVersionChanged() {
+        EncryptedSecretCache underTest = new EncryptedSecretCache(true, 10L, 0L, 60L);
+
+        underTest.get(SECRET, loader(1), currentVersion(1));
+
+        Assert.assertEquals(VALUE, underTest.get(SECRET, loader(2), currentVersion(2)));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testSecretIsReloadedWhenItWasDeleted() {
+        EncryptedSecretCache underTest = new EncryptedSecretCache(true, 10L, 0L, 60L);
+
+        underTest.get(SECRET, loader(1), currentVersion(1));
+
+        Assert.assertNull(underTest.get(SECRET, () -> null, Optional::empty));
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testEvictedSecretIsReloaded() {
+        EncryptedSecretCache underTest = new EncryptedSecretCache(true, 10L, 60L, 60L);
+
+        underTest.get(SECRET, loader(1), currentVersion(1));
+        underTest.evict(SECRET);
+
+        Assert.assertEquals(VALUE, underTest.get(SECRET, loader(1), currentVersion(1)));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testSecretIsAlwaysLoadedWhenCacheIsDisabled() {
+        EncryptedSecretCache underTest = new EncryptedSecretCache(false, 10L, 60L, 60L);
+
+        underTest.get(SECRET, loader(1), currentVersion(1));
+
+        Assert.assertEquals(VALUE, underTest.get(SECRET, loader(1), currentVersion(1)));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    private Supplier<VersionedSecret> loader(int version) {
+        return () -> {
+            loads.incrementAndGet();
+            return new VersionedSecret(VALUE, version);
+        };
+    }
+
+    private Supplier<Optional<Integer>> currentVersion(int version) {
+        return () -> {
+            versionChecks.incrementAndGet();
+            return Optional.of(version);
+        };
+    }
+}
@@ -1,27 +1,37 @@
 package com.sequenceiq.cloudbreak.service.secret.service;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Set;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.reflect.SourceLocation;
 import org.aspectj.runtime.internal.AroundClosure;
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
 import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
 import com.sequenceiq.cloudbreak.service.secret.SecretValue;
 import com.sequenceiq.cloudbreak.service.secret.domain.AccountIdAwareResource;
 import com.sequenceiq.cloudbreak.service.secret.domain.Secret;
+import com.sequenceiq.cloudbreak.service.secret.domain.SecretProxy;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SecretAspectServiceTest {
@@ -32,9 +42,21 @@ public class SecretAspectServiceTest {
     @Mock
     private SecretService secretService;
 
-    @InjectMocks
+    @Mock
+    private MetricService metricService;
+
     private SecretAspectService underTest;
 
+    @Before
+    public void setUp() {
+        underTest = new SecretAspectService(secretService, metricService, 2);
+    }
+
+    @After
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
     @Test
     public void testVaultPutWhenAccountIdDefinedThenMustWriteTheRightPath() throws Exception {
         VaultTest vaultTest = new VaultTest("justice-league", "super");
@@ -51,6 +73,32 @@ public class SecretAspectServiceTest {
         Assert.assertEquals(valueCaptor.getValue(), "super");
     }
 
+    @Test
+    public void testVaultPutWhenEntityHasMoreSecretsThenAllOfThemMustBeWritten() throws Exception {
+        VaultMultiSecretTest vaultTest = new VaultMultiSecretTest("justice-league", "super", "flight");
+        VaultTestProceedingJoinPoint proceedingJoinPoint = new VaultTestProceedingJoinPoint(vaultTest);
+
+        when(secretService.put(anyString(), eq("super"))).thenReturn("powerSecret");
+        when(secretService.put(anyString(), eq("flight"))).thenReturn("abilitySecret");
+
+        underTest.proceedSave(proceedingJoinPoint);
+
+        Assert.assertEquals(Set.of("powerSecret", "abilitySecret"), Set.of(vaultTest.getPower().getSecret(), vaultTest.getAbility().getSecret()));
+        Assert.assertTrue(vaultTest.getPower() instanceof SecretProxy);
+        Assert.assertTrue(vaultTest.getAbility() instanceof SecretProxy);
+        verify(metricService).recordTimerMetric(eq(MetricType.VAULT_SAVE), any());
+    }
+
+    @Test
+    public void testVaultPutWhenSecretIsAlreadyStoredThenShouldNotWriteIt() throws Exception {
+        VaultTest vaultTest = new VaultTest("justice-league", new Secret("super", "justice-league/vaulttest/power/123"));
+        VaultTestProceedingJoinPoint proceedingJoinPoint = new VaultTestProceedingJoinPoint(vaultTest);
+
+        underTest.proceedSave(proceedingJoinPoint);
+
+        verify(secretService, never()).put(anyString(), anyString());
+    }
+
     @Test
     public void testVaultPutWhenAccountIdNotImplementedThenShouldThrowIllegalArgumentException() throws Exception {
         VaultWrongTest vaultTest = new VaultWrongTest("super");
@@ -186,6 +234,36 @@ public class SecretAspectServiceTest {
         }
     }
 
+    private static class VaultMultiSecretTest implements AccountIdAwareResource {
+
+        private String accountId;
+
+        @SecretValue
+        private Secret power;
+
+        @SecretValue
+        private Secret ability;
+
+        VaultMultiSecretTest(String accountId, String power, String ability) {
+            this.accountId = accountId;
+            this.power = new Secret(power);
+            this.ability = new Secret(ability);
+        }
+
+        public Secret getPower() {
+            return power;
+        }
+
+        public Secret getAbility() {
+            return ability;
+        }
+
+        @Override
+        public String getAccountId() {
+            return accountId;
+        }
+    }
+
     private static class VaultWrongTest {
 
         @SecretValue
@@ -1,6 +1,8 @@
 package com.sequenceiq.cloudbreak.service.secret.vault;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
@@ -10,14 +12,16 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.vault.core.VaultTemplate;
 import org.springframework.vault.core.VaultVersionedKeyValueOperations;
+import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.Versioned;
+import org.springframework.vault.support.Versioned.Version;
 
 import com.google.gson.Gson;
+import com.sequenceiq.cloudbreak.service.secret.cache.EncryptedSecretCache;
 import com.sequenceiq.cloudbreak.service.secret.model.SecretResponse;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -28,7 +32,6 @@ public class VaultKvV2EngineTest {
     private final VaultSecret secret = new VaultSecret("cb", "com.sequenceiq.secret.vault.VaultKvV1Engine",
             "cb/foo/bar/6f18609d-8d24-4a39-a283-154c1e8ab46a-f186");
 
-    @InjectMocks
     private VaultKvV2Engine underTest;
 
     @Mock
@@ -42,6 +45,7 @@ public class VaultKvV2EngineTest {
 
     @Before
     public void setup() {
+        underTest = new VaultKvV2Engine(template, new EncryptedSecretCache(true, 10L, 60L, 60L));
         when(template.opsForVersionedKeyValue(anyString())).thenReturn(vaultVersionedKeyValueOperations);
     }
 
@@ -91,6 +95,7 @@ public class VaultKvV2EngineTest {
     @Test
     public void testGetButEmpty() {
         when(vaultResponse.getData()).thenReturn(Collections.emptyMap());
+        when(vaultResponse.getVersion()).thenReturn(Version.from(1));
         when(vaultVersionedKeyValueOperations.get(anyString())).thenReturn(vaultResponse);
 
         Assert.assertEquals("null", underTest.get(gson.toJson(secret)));
@@ -99,11 +104,40 @@ public class VaultKvV2EngineTest {
     @Test
     public void testGetOk() {
         when(vaultResponse.getData()).thenReturn(Collections.singletonMap("secret", "secret/path"));
+        when(vaultResponse.getVersion()).thenReturn(Version.from(1));
         when(vaultVersionedKeyValueOperations.get(anyString())).thenReturn(vaultResponse);
 
         Assert.assertEquals("secret/path", underTest.get(gson.toJson(secret)));
     }
 
+    @Test
+    public void testGetIsServedFromCache() {
+        when(vaultResponse.getData()).thenReturn(Collections.singletonMap("secret", "secret/path"));
+        when(vaultResponse.getVersion()).thenReturn(Version.from(1));
+        when(vaultVersionedKeyValueOperations.get(anyString())).thenReturn(vaultResponse);
+
+        underTest.get(gson.toJson(secret));
+
+        Assert.assertEquals("secret/path", underTest.get(gson.toJson(secret)));
+        verify(vaultVersionedKeyValueOperations, times(1)).get(anyString());
+    }
+
+    @Test
+    public void testGetIsReloadedWhenCurrentVersionChanged() {
+        underTest = new VaultKvV2Engine(template, new EncryptedSecretCache(true, 10L, 0L, 60L));
+        when(vaultResponse.getData()).thenReturn(Collections.singletonMap("secret", "secret/path"));
+        when(vaultResponse.getVersion()).thenReturn(Version.from(1));
+        when(vaultVersionedKeyValueOperations.get(anyString())).thenReturn(vaultResponse);
+        VaultResponse metadata = new VaultResponse();
+        metadata.setData(Map.of("current_version", 2, "versions", Map.of("2", Map.of("deletion_time", "", "destroyed", false))));
+        when(template.read(secret.getEnginePath() + "/metadata/" + secret.getPath())).thenReturn(metadata);
+
+        underTest.get(gson.toJson(secret));
+
+        Assert.assertEquals("secret/path", underTest.get(gson.toJson(secret)));
+        verify(vaultVersionedKeyValueOperations, times(2)).get(anyString());
+    }
+
     @Test
     public void testConvertToExternalNotSecret() {
         Assert.assertNull(underTest.convertToExternal("secret"));